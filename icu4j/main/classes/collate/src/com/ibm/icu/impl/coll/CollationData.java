@@ -13,6 +13,9 @@
 
 package com.ibm.icu.impl.coll;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.ibm.icu.impl.Normalizer2Impl;
 import com.ibm.icu.impl.Trie2_32;
 import com.ibm.icu.lang.UScript;
@@ -525,6 +528,27 @@ private static String scriptCodeString(int script) {
      */
     char[] fastLatinTableHeader;
 
+    /**
+     * Returns the fast table for common text in the given non-Latin script,
+     * building it on first use.
+     * Returns null if there is no such table for the script.
+     */
+    public CollationFastScript getFastScript(int script) {
+        synchronized(this) {
+            if(fastScripts == null) {
+                fastScripts = new HashMap<Integer, CollationFastScript>();
+            } else if(fastScripts.containsKey(script)) {
+                return fastScripts.get(script);
+            }
+            CollationFastScript fastScript = CollationFastScript.build(this, script);
+            fastScripts.put(script, fastScript);
+            return fastScript;
+        }
+    }
+
+    /** Cache for getFastScript(), including null values for unsupported scripts. */
+    private Map<Integer, CollationFastScript> fastScripts;
+
     /**
      * Data for scripts and reordering groups.
      * Uses include building a reordering permutation table and
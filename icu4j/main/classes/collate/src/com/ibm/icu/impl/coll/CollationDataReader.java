@@ -497,7 +497,8 @@ public boolean isDataVersionAcceptable(byte version[]) {
         }
     }
     private static final IsAcceptable IS_ACCEPTABLE = new IsAcceptable();
-    private static final int DATA_FORMAT = 0x55436f6c;  // "UCol"
+    static final int DATA_FORMAT = 0x55436f6c;  // "UCol"
+    static final int FORMAT_VERSION = 0x05000000;  // 5.0.0.0, written by CollationDataWriter
 
     private CollationDataReader() {}  // no constructor
 }
@@ -0,0 +1,203 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+/*
+*******************************************************************************
+* CollationDataWriter.java, ported from collationdatawriter.h/.cpp
+*
+* C++ version created on: 2013aug06
+* created by: Markus W. Scherer
+*/
+
+package com.ibm.icu.impl.coll;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.ibm.icu.impl.ICUBinary;
+import com.ibm.icu.impl.USerializedSet;
+import com.ibm.icu.text.UnicodeSet;
+
+/**
+ * Collation binary data writer.
+ * Writes tailorings in the format that CollationDataReader reads.
+ * Only tailorings are supported, not the root collation data.
+ */
+final class CollationDataWriter /* all static */ {
+    /**
+     * Serializes the tailoring data and the settings.
+     * The settings may differ from the tailoring's default settings,
+     * for example when they were modified via the Collator API.
+     *
+     * @return the binary data, including the ICU data header
+     */
+    static byte[] writeTailoring(CollationTailoring t, CollationSettings settings)
+            throws IOException {
+        CollationData data = t.data;
+        CollationData baseData = data.base;
+        boolean hasMappings = baseData != null;
+
+        int fastLatinVersion;
+        if(data.fastLatinTable != null) {
+            fastLatinVersion = CollationFastLatin.VERSION << 16;
+        } else {
+            fastLatinVersion = 0;
+        }
+        char[] fastLatinHeader = null;
+        char[] fastLatinTable = null;
+        UnicodeSet unsafeBackwardSet = null;
+        int jamoCE32sStart = -1;
+        if(hasMappings) {
+            unsafeBackwardSet = new UnicodeSet(data.unsafeBackwardSet).
+                    removeAll(baseData.unsafeBackwardSet);
+            if(data.fastLatinTable != baseData.fastLatinTable && data.fastLatinTable != null) {
+                fastLatinHeader = data.fastLatinTableHeader;
+                fastLatinTable = data.fastLatinTable;
+            }
+            if(data.jamoCE32s != baseData.jamoCE32s) {
+                jamoCE32sStart = findJamoCE32sStart(data);
+            }
+        }
+
+        int[] reorderCodes = settings.reorderCodes;
+        if(settings.hasReordering() &&
+                CollationSettings.reorderTableHasSplitBytes(settings.reorderTable)) {
+            // Rebuild the full list of reorder ranges.
+            // The list in the settings is truncated for efficiency.
+            UVector32 ranges = new UVector32();
+            data.makeReorderRanges(reorderCodes, ranges);
+            // Write the codes, then the ranges.
+            int[] codesAndRanges = new int[reorderCodes.length + ranges.size()];
+            System.arraycopy(reorderCodes, 0, codesAndRanges, 0, reorderCodes.length);
+            System.arraycopy(ranges.getBuffer(), 0, codesAndRanges, reorderCodes.length,
+                    ranges.size());
+            reorderCodes = codesAndRanges;
+        }
+
+        // We always write all of the indexes.
+        // The reader treats empty data items like missing ones.
+        int indexesLength = CollationDataReader.IX_TOTAL_SIZE + 1;
+        int[] indexes = new int[indexesLength];
+        indexes[CollationDataReader.IX_INDEXES_LENGTH] = indexesLength;
+        assert((settings.options & ~0xffff) == 0);
+        indexes[CollationDataReader.IX_OPTIONS] =
+                (int)data.numericPrimary | fastLatinVersion | settings.options;
+        indexes[CollationDataReader.IX_JAMO_CE32S_START] = jamoCE32sStart;
+
+        // Byte offsets of data items all start from the start of the indexes.
+        int totalSize = indexesLength * 4;
+
+        indexes[CollationDataReader.IX_REORDER_CODES_OFFSET] = totalSize;
+        totalSize += reorderCodes.length * 4;
+
+        indexes[CollationDataReader.IX_REORDER_TABLE_OFFSET] = totalSize;
+        if(settings.reorderTable != null) {
+            totalSize += 256;
+        }
+
+        indexes[CollationDataReader.IX_TRIE_OFFSET] = totalSize;
+        if(hasMappings) {
+            totalSize += data.trie.getSerializedLength();
+        }
+
+        indexes[CollationDataReader.IX_RESERVED8_OFFSET] = totalSize;
+        indexes[CollationDataReader.IX_CES_OFFSET] = totalSize;
+        if(hasMappings && data.ces != null) {
+            totalSize += data.ces.length * 8;
+        }
+
+        indexes[CollationDataReader.IX_RESERVED10_OFFSET] = totalSize;
+        indexes[CollationDataReader.IX_CE32S_OFFSET] = totalSize;
+        if(hasMappings) {
+            totalSize += data.ce32s.length * 4;
+        }
+
+        // No root elements in a tailoring.
+        indexes[CollationDataReader.IX_ROOT_ELEMENTS_OFFSET] = totalSize;
+
+        indexes[CollationDataReader.IX_CONTEXTS_OFFSET] = totalSize;
+        if(hasMappings) {
+            totalSize += data.contexts.length() * 2;
+        }
+
+        char[] unsafeData = null;
+        indexes[CollationDataReader.IX_UNSAFE_BWD_OFFSET] = totalSize;
+        if(hasMappings && !unsafeBackwardSet.isEmpty()) {
+            unsafeData = USerializedSet.serialize(unsafeBackwardSet);
+            totalSize += unsafeData.length * 2;
+        }
+
+        indexes[CollationDataReader.IX_FAST_LATIN_TABLE_OFFSET] = totalSize;
+        if(fastLatinTable != null) {
+            totalSize += (fastLatinHeader.length + fastLatinTable.length) * 2;
+        }
+
+        // No script data and no compressible bytes in a tailoring.
+        indexes[CollationDataReader.IX_SCRIPTS_OFFSET] = totalSize;
+        indexes[CollationDataReader.IX_COMPRESSIBLE_BYTES_OFFSET] = totalSize;
+        indexes[CollationDataReader.IX_RESERVED18_OFFSET] = totalSize;
+        indexes[CollationDataReader.IX_TOTAL_SIZE] = totalSize;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + totalSize);
+        DataOutputStream dos = new DataOutputStream(bytes);
+        int headerSize = ICUBinary.writeHeader(CollationDataReader.DATA_FORMAT,
+                CollationDataReader.FORMAT_VERSION, t.version, dos);
+        for(int i = 0; i < indexesLength; ++i) {
+            dos.writeInt(indexes[i]);
+        }
+        for(int code : reorderCodes) {
+            dos.writeInt(code);
+        }
+        if(settings.reorderTable != null) {
+            dos.write(settings.reorderTable);
+        }
+        if(hasMappings) {
+            data.trie.serialize(dos);
+            if(data.ces != null) {
+                for(long ce : data.ces) {
+                    dos.writeLong(ce);
+                }
+            }
+            for(int ce32 : data.ce32s) {
+                dos.writeInt(ce32);
+            }
+            dos.writeChars(data.contexts);
+            if(unsafeData != null) {
+                writeChars(unsafeData, dos);
+            }
+            if(fastLatinTable != null) {
+                writeChars(fastLatinHeader, dos);
+                writeChars(fastLatinTable, dos);
+            }
+        }
+        dos.flush();
+        assert(dos.size() == headerSize + totalSize);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the index of the tailoring's Jamo CE32s in its ce32s[].
+     * The builder appends them there. (C++ data.jamoCE32s points into data.ce32s.)
+     */
+    private static int findJamoCE32sStart(CollationData data) {
+        int[] ce32s = data.ce32s;
+        int[] jamoCE32s = data.jamoCE32s;
+        int limit = ce32s.length - CollationData.JAMO_CE32S_LENGTH;
+        outerLoop:
+        for(int start = 0; start <= limit; ++start) {
+            for(int i = 0; i < CollationData.JAMO_CE32S_LENGTH; ++i) {
+                if(ce32s[start + i] != jamoCE32s[i]) { continue outerLoop; }
+            }
+            return start;
+        }
+        throw new IllegalStateException("tailored Jamo CE32s not found in the ce32s");
+    }
+
+    private static void writeChars(char[] chars, DataOutputStream dos) throws IOException {
+        for(char c : chars) {
+            dos.writeChar(c);
+        }
+    }
+
+    private CollationDataWriter() {}  // no constructor
+}
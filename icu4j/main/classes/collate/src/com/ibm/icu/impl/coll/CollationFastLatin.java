@@ -30,7 +30,7 @@ public final class CollationFastLatin /* all static */ {
     public static final int LATIN_MAX = 0x17f;
     public static final int LATIN_LIMIT = LATIN_MAX + 1;
 
-    static final int LATIN_MAX_UTF8_LEAD = 0xc5;  // UTF-8 lead byte of LATIN_MAX
+    public static final int LATIN_MAX_UTF8_LEAD = 0xc5;  // UTF-8 lead byte of LATIN_MAX
 
     static final int PUNCT_START = 0x2000;
     static final int PUNCT_LIMIT = 0x2040;
@@ -181,8 +181,18 @@ public final class CollationFastLatin /* all static */ {
     public static final int BAIL_OUT_RESULT = -2;
 
     static int getCharIndex(char c) {
-        if(c <= LATIN_MAX) {
+        return getCharIndex(0x80, c);
+    }
+
+    /**
+     * Returns the table index for c in a table where the 256 characters
+     * starting at blockStart take the places of U+0080..U+017F.
+     */
+    static int getCharIndex(int blockStart, char c) {
+        if(c <= 0x7f) {
             return c;
+        } else if(blockStart <= c && c < (blockStart + 0x100)) {
+            return c - (blockStart - 0x80);
         } else if(PUNCT_START <= c && c < PUNCT_LIMIT) {
             return c - (PUNCT_START - LATIN_LIMIT);
         } else {
@@ -201,7 +211,15 @@ static int getCharIndex(char c) {
      */
     public static int getOptions(CollationData data, CollationSettings settings,
             char[] primaries) {
-        char[] header = data.fastLatinTableHeader;
+        return getOptions(data, data.fastLatinTableHeader, data.fastLatinTable, UScript.LATIN,
+                settings, primaries);
+    }
+
+    /**
+     * Same as getOptions() but for a table built for the given script.
+     */
+    static int getOptions(CollationData data, char[] header, char[] table, int script,
+            CollationSettings settings, char[] primaries) {
         if(header == null) { return -1; }
         assert((header[0] >> 8) == VERSION);
         if(primaries.length != LATIN_LIMIT) {
@@ -239,7 +257,7 @@ public static int getOptions(CollationData data, CollationSettings settings,
                     digitStart = start;
                 } else if(start != 0) {
                     if(start < prevStart) {
-                        // The permutation affects the groups up to Latin.
+                        // The permutation affects the groups up to the script.
                         return -1;
                     }
                     // In the future, there might be a special group between digits & Latin.
@@ -249,20 +267,20 @@ public static int getOptions(CollationData data, CollationSettings settings,
                     prevStart = start;
                 }
             }
-            long latinStart = data.getFirstPrimaryForGroup(UScript.LATIN);
-            latinStart = settings.reorder(latinStart);
-            if(latinStart < prevStart) {
+            long scriptStart = data.getFirstPrimaryForGroup(script);
+            scriptStart = settings.reorder(scriptStart);
+            if(scriptStart < prevStart) {
                 return -1;
             }
             if(afterDigitStart == 0) {
-                afterDigitStart = latinStart;
+                afterDigitStart = scriptStart;
             }
             if(!(beforeDigitStart < digitStart && digitStart < afterDigitStart)) {
                 digitsAreReordered = true;
             }
         }
 
-        char[] table = data.fastLatinTable;  // skip the header
+        // The table does not include the header.
         for(int c = 0; c < LATIN_LIMIT; ++c) {
             int p = table[c];
             if(p >= MIN_SHORT) {
@@ -279,18 +297,36 @@ public static int getOptions(CollationData data, CollationSettings settings,
             for(int c = 0x30; c <= 0x39; ++c) { primaries[c] = 0; }
         }
 
+        int options = settings.options;
+        if(digitsAreReordered) {
+            // The compare functions bail out for digits in numeric mode.
+            // Reordered digits must not use their table mini CEs either.
+            options |= CollationSettings.NUMERIC;
+        }
         // Shift the miniVarTop above other options.
-        return (miniVarTop << 16) | settings.options;
+        return (miniVarTop << 16) | options;
     }
 
     public static int compareUTF16(char[] table, char[] primaries, int options,
             CharSequence left, CharSequence right, int startIndex) {
+        return compareUTF16(table, primaries, options, 0x80, left, right, startIndex);
+    }
+
+    /**
+     * Same as compareUTF16() but for a table where the 256 characters starting at blockStart
+     * take the places of U+0080..U+017F.
+     * blockStart is 0x80 for the Latin table, see CollationFastScript for other tables.
+     */
+    public static int compareUTF16(char[] table, char[] primaries, int options, int blockStart,
+            CharSequence left, CharSequence right, int startIndex) {
         // This is a modified copy of CollationCompare.compareUpToQuaternary(),
         // optimized for common Latin text.
         // Keep them in sync!
 
         int variableTop = options >> 16;  // see getOptions()
         options &= 0xffff;  // needed for CollationSettings.getStrength() to work
+        // Maps block characters to table indexes 0080..017F; 0 for the Latin table.
+        int blockDelta = blockStart - 0x80;
 
         // Check for supported characters, fetch mini CEs, and compare primaries.
         int leftIndex = startIndex, rightIndex = startIndex;
@@ -308,17 +344,16 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     break;
                 }
                 int c = left.charAt(leftIndex++);
-                if(c <= LATIN_MAX) {
+                if(c <= 0x7f || ((c -= blockDelta) >= 0x80 && c <= LATIN_MAX)) {
+                    // c is now the table index.
                     leftPair = primaries[c];
                     if(leftPair != 0) { break; }
                     if(c <= 0x39 && c >= 0x30 && (options & CollationSettings.NUMERIC) != 0) {
                         return BAIL_OUT_RESULT;
                     }
                     leftPair = table[c];
-                } else if(PUNCT_START <= c && c < PUNCT_LIMIT) {
-                    leftPair = table[c - PUNCT_START + LATIN_LIMIT];
                 } else {
-                    leftPair = lookup(table, c);
+                    leftPair = lookup(table, blockDelta, c + blockDelta);
                 }
                 if(leftPair >= MIN_SHORT) {
                     leftPair &= SHORT_PRIMARY_MASK;
@@ -327,7 +362,7 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     leftPair &= LONG_PRIMARY_MASK;
                     break;
                 } else {
-                    long pairAndInc = nextPair(table, c, leftPair, left, leftIndex);
+                    long pairAndInc = nextPair(table, blockDelta, leftPair, left, leftIndex);
                     if(pairAndInc < 0) {
                         ++leftIndex;
                         pairAndInc = ~pairAndInc;
@@ -344,17 +379,16 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     break;
                 }
                 int c = right.charAt(rightIndex++);
-                if(c <= LATIN_MAX) {
+                if(c <= 0x7f || ((c -= blockDelta) >= 0x80 && c <= LATIN_MAX)) {
+                    // c is now the table index.
                     rightPair = primaries[c];
                     if(rightPair != 0) { break; }
                     if(c <= 0x39 && c >= 0x30 && (options & CollationSettings.NUMERIC) != 0) {
                         return BAIL_OUT_RESULT;
                     }
                     rightPair = table[c];
-                } else if(PUNCT_START <= c && c < PUNCT_LIMIT) {
-                    rightPair = table[c - PUNCT_START + LATIN_LIMIT];
                 } else {
-                    rightPair = lookup(table, c);
+                    rightPair = lookup(table, blockDelta, c + blockDelta);
                 }
                 if(rightPair >= MIN_SHORT) {
                     rightPair &= SHORT_PRIMARY_MASK;
@@ -363,7 +397,7 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     rightPair &= LONG_PRIMARY_MASK;
                     break;
                 } else {
-                    long pairAndInc = nextPair(table, c, rightPair, right, rightIndex);
+                    long pairAndInc = nextPair(table, blockDelta, rightPair, right, rightIndex);
                     if(pairAndInc < 0) {
                         ++rightIndex;
                         pairAndInc = ~pairAndInc;
@@ -405,13 +439,7 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                         break;
                     }
                     int c = left.charAt(leftIndex++);
-                    if(c <= LATIN_MAX) {
-                        leftPair = table[c];
-                    } else if(PUNCT_START <= c && c < PUNCT_LIMIT) {
-                        leftPair = table[c - PUNCT_START + LATIN_LIMIT];
-                    } else {
-                        leftPair = lookup(table, c);
-                    }
+                    leftPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                     if(leftPair >= MIN_SHORT) {
                         leftPair = getSecondariesFromOneShortCE(leftPair);
                         break;
@@ -419,7 +447,7 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                         leftPair = COMMON_SEC_PLUS_OFFSET;
                         break;
                     } else {
-                        long pairAndInc = nextPair(table, c, leftPair, left, leftIndex);
+                        long pairAndInc = nextPair(table, blockDelta, leftPair, left, leftIndex);
                         if(pairAndInc < 0) {
                             ++leftIndex;
                             pairAndInc = ~pairAndInc;
@@ -434,13 +462,7 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                         break;
                     }
                     int c = right.charAt(rightIndex++);
-                    if(c <= LATIN_MAX) {
-                        rightPair = table[c];
-                    } else if(PUNCT_START <= c && c < PUNCT_LIMIT) {
-                        rightPair = table[c - PUNCT_START + LATIN_LIMIT];
-                    } else {
-                        rightPair = lookup(table, c);
-                    }
+                    rightPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                     if(rightPair >= MIN_SHORT) {
                         rightPair = getSecondariesFromOneShortCE(rightPair);
                         break;
@@ -448,7 +470,7 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                         rightPair = COMMON_SEC_PLUS_OFFSET;
                         break;
                     } else {
-                        long pairAndInc = nextPair(table, c, rightPair, right, rightIndex);
+                        long pairAndInc = nextPair(table, blockDelta, rightPair, right, rightIndex);
                         if(pairAndInc < 0) {
                             ++rightIndex;
                             pairAndInc = ~pairAndInc;
@@ -489,9 +511,9 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                         break;
                     }
                     int c = left.charAt(leftIndex++);
-                    leftPair = (c <= LATIN_MAX) ? table[c] : lookup(table, c);
+                    leftPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                     if(leftPair < MIN_LONG) {
-                        long pairAndInc = nextPair(table, c, leftPair, left, leftIndex);
+                        long pairAndInc = nextPair(table, blockDelta, leftPair, left, leftIndex);
                         if(pairAndInc < 0) {
                             ++leftIndex;
                             pairAndInc = ~pairAndInc;
@@ -507,9 +529,9 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                         break;
                     }
                     int c = right.charAt(rightIndex++);
-                    rightPair = (c <= LATIN_MAX) ? table[c] : lookup(table, c);
+                    rightPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                     if(rightPair < MIN_LONG) {
-                        long pairAndInc = nextPair(table, c, rightPair, right, rightIndex);
+                        long pairAndInc = nextPair(table, blockDelta, rightPair, right, rightIndex);
                         if(pairAndInc < 0) {
                             ++rightIndex;
                             pairAndInc = ~pairAndInc;
@@ -552,9 +574,9 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     break;
                 }
                 int c = left.charAt(leftIndex++);
-                leftPair = (c <= LATIN_MAX) ? table[c] : lookup(table, c);
+                leftPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                 if(leftPair < MIN_LONG) {
-                    long pairAndInc = nextPair(table, c, leftPair, left, leftIndex);
+                    long pairAndInc = nextPair(table, blockDelta, leftPair, left, leftIndex);
                     if(pairAndInc < 0) {
                         ++leftIndex;
                         pairAndInc = ~pairAndInc;
@@ -570,9 +592,9 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     break;
                 }
                 int c = right.charAt(rightIndex++);
-                rightPair = (c <= LATIN_MAX) ? table[c] : lookup(table, c);
+                rightPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                 if(rightPair < MIN_LONG) {
-                    long pairAndInc = nextPair(table, c, rightPair, right, rightIndex);
+                    long pairAndInc = nextPair(table, blockDelta, rightPair, right, rightIndex);
                     if(pairAndInc < 0) {
                         ++rightIndex;
                         pairAndInc = ~pairAndInc;
@@ -618,9 +640,9 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     break;
                 }
                 int c = left.charAt(leftIndex++);
-                leftPair = (c <= LATIN_MAX) ? table[c] : lookup(table, c);
+                leftPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                 if(leftPair < MIN_LONG) {
-                    long pairAndInc = nextPair(table, c, leftPair, left, leftIndex);
+                    long pairAndInc = nextPair(table, blockDelta, leftPair, left, leftIndex);
                     if(pairAndInc < 0) {
                         ++leftIndex;
                         pairAndInc = ~pairAndInc;
@@ -636,9 +658,9 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
                     break;
                 }
                 int c = right.charAt(rightIndex++);
-                rightPair = (c <= LATIN_MAX) ? table[c] : lookup(table, c);
+                rightPair = (c <= 0x7f) ? table[c] : lookup(table, blockDelta, c);
                 if(rightPair < MIN_LONG) {
-                    long pairAndInc = nextPair(table, c, rightPair, right, rightIndex);
+                    long pairAndInc = nextPair(table, blockDelta, rightPair, right, rightIndex);
                     if(pairAndInc < 0) {
                         ++rightIndex;
                         pairAndInc = ~pairAndInc;
@@ -665,9 +687,415 @@ public static int compareUTF16(char[] table, char[] primaries, int options,
         return Collation.EQUAL;
     }
 
-    private static int lookup(char[] table, int c) {
-        assert(c > LATIN_MAX);
-        if(PUNCT_START <= c && c < PUNCT_LIMIT) {
+    /**
+     * Same as compareUTF16() but for UTF-8 text in byte array ranges.
+     * Returns BAIL_OUT_RESULT for ill-formed or unsupported sequences.
+     */
+    public static int compareUTF8(char[] table, char[] primaries, int options,
+            byte[] left, int leftStart, int leftLimit,
+            byte[] right, int rightStart, int rightLimit) {
+        // Keep compareUTF16() and compareUTF8() in sync very closely!
+
+        int variableTop = options >> 16;  // see getOptions()
+        options &= 0xffff;  // needed for CollationSettings.getStrength() to work
+
+        // Check for supported characters, fetch mini CEs, and compare primaries.
+        int leftIndex = leftStart, rightIndex = rightStart;
+        /**
+         * Single mini CE or a pair.
+         * The current mini CE is in the lower 16 bits, the next one is in the upper 16 bits.
+         * If there is only one, then it is in the lower bits, and the upper bits are 0.
+         */
+        int leftPair = 0, rightPair = 0;
+        // Note: There is no need to assemble the code point.
+        // We only need to look up the table entry for the character.
+        for(;;) {
+            // We fetch CEs until we get a non-ignorable primary or reach the end.
+            while(leftPair == 0) {
+                if(leftIndex == leftLimit) {
+                    leftPair = EOS;
+                    break;
+                }
+                int c = left[leftIndex++] & 0xff;
+                int t;
+                if(c <= 0x7f) {
+                    leftPair = primaries[c];
+                    if(leftPair != 0) { break; }
+                    if(c <= 0x39 && c >= 0x30 && (options & CollationSettings.NUMERIC) != 0) {
+                        return BAIL_OUT_RESULT;
+                    }
+                    leftPair = table[c];
+                } else if(c <= LATIN_MAX_UTF8_LEAD && 0xc2 <= c && leftIndex != leftLimit &&
+                        0x80 <= (t = left[leftIndex] & 0xff) && t <= 0xbf) {
+                    ++leftIndex;
+                    c = ((c - 0xc2) << 6) + t;
+                    leftPair = primaries[c];
+                    if(leftPair != 0) { break; }
+                    leftPair = table[c];
+                } else {
+                    leftPair = lookupUTF8(table, c, left, leftIndex, leftLimit);
+                    if(leftPair != BAIL_OUT) { leftIndex += 2; }
+                }
+                if(leftPair >= MIN_SHORT) {
+                    leftPair &= SHORT_PRIMARY_MASK;
+                    break;
+                } else if(leftPair > variableTop) {
+                    leftPair &= LONG_PRIMARY_MASK;
+                    break;
+                } else {
+                    long pairAndInc = nextPairUTF8(table, leftPair, left, leftIndex, leftLimit);
+                    leftIndex += (int)(pairAndInc >>> 32);
+                    leftPair = (int)pairAndInc;
+                    if(leftPair == BAIL_OUT) { return BAIL_OUT_RESULT; }
+                    leftPair = getPrimaries(variableTop, leftPair);
+                }
+            }
+
+            while(rightPair == 0) {
+                if(rightIndex == rightLimit) {
+                    rightPair = EOS;
+                    break;
+                }
+                int c = right[rightIndex++] & 0xff;
+                int t;
+                if(c <= 0x7f) {
+                    rightPair = primaries[c];
+                    if(rightPair != 0) { break; }
+                    if(c <= 0x39 && c >= 0x30 && (options & CollationSettings.NUMERIC) != 0) {
+                        return BAIL_OUT_RESULT;
+                    }
+                    rightPair = table[c];
+                } else if(c <= LATIN_MAX_UTF8_LEAD && 0xc2 <= c && rightIndex != rightLimit &&
+                        0x80 <= (t = right[rightIndex] & 0xff) && t <= 0xbf) {
+                    ++rightIndex;
+                    c = ((c - 0xc2) << 6) + t;
+                    rightPair = primaries[c];
+                    if(rightPair != 0) { break; }
+                    rightPair = table[c];
+                } else {
+                    rightPair = lookupUTF8(table, c, right, rightIndex, rightLimit);
+                    if(rightPair != BAIL_OUT) { rightIndex += 2; }
+                }
+                if(rightPair >= MIN_SHORT) {
+                    rightPair &= SHORT_PRIMARY_MASK;
+                    break;
+                } else if(rightPair > variableTop) {
+                    rightPair &= LONG_PRIMARY_MASK;
+                    break;
+                } else {
+                    long pairAndInc = nextPairUTF8(table, rightPair, right, rightIndex, rightLimit);
+                    rightIndex += (int)(pairAndInc >>> 32);
+                    rightPair = (int)pairAndInc;
+                    if(rightPair == BAIL_OUT) { return BAIL_OUT_RESULT; }
+                    rightPair = getPrimaries(variableTop, rightPair);
+                }
+            }
+
+            if(leftPair == rightPair) {
+                if(leftPair == EOS) { break; }
+                leftPair = rightPair = 0;
+                continue;
+            }
+            int leftPrimary = leftPair & 0xffff;
+            int rightPrimary = rightPair & 0xffff;
+            if(leftPrimary != rightPrimary) {
+                // Return the primary difference.
+                return (leftPrimary < rightPrimary) ? Collation.LESS : Collation.GREATER;
+            }
+            if(leftPair == EOS) { break; }
+            leftPair >>>= 16;
+            rightPair >>>= 16;
+        }
+        // In the following, we need to re-fetch each character because we did not buffer the CEs,
+        // but we know that the string is well-formed and
+        // only contains supported characters and mappings.
+
+        // We might skip the secondary level but continue with the case level
+        // which is turned on separately.
+        if(CollationSettings.getStrength(options) >= Collator.SECONDARY) {
+            leftIndex = leftStart;
+            rightIndex = rightStart;
+            leftPair = rightPair = 0;
+            for(;;) {
+                while(leftPair == 0) {
+                    if(leftIndex == leftLimit) {
+                        leftPair = EOS;
+                        break;
+                    }
+                    int c = left[leftIndex++] & 0xff;
+                    if(c <= 0x7f) {
+                        leftPair = table[c];
+                    } else {
+                        leftPair = lookupUTF8Unsafe(table, c, left, leftIndex);
+                        leftIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                    }
+                    if(leftPair >= MIN_SHORT) {
+                        leftPair = getSecondariesFromOneShortCE(leftPair);
+                        break;
+                    } else if(leftPair > variableTop) {
+                        leftPair = COMMON_SEC_PLUS_OFFSET;
+                        break;
+                    } else {
+                        long pairAndInc = nextPairUTF8(table, leftPair, left, leftIndex, leftLimit);
+                        leftIndex += (int)(pairAndInc >>> 32);
+                        leftPair = getSecondaries(variableTop, (int)pairAndInc);
+                    }
+                }
+
+                while(rightPair == 0) {
+                    if(rightIndex == rightLimit) {
+                        rightPair = EOS;
+                        break;
+                    }
+                    int c = right[rightIndex++] & 0xff;
+                    if(c <= 0x7f) {
+                        rightPair = table[c];
+                    } else {
+                        rightPair = lookupUTF8Unsafe(table, c, right, rightIndex);
+                        rightIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                    }
+                    if(rightPair >= MIN_SHORT) {
+                        rightPair = getSecondariesFromOneShortCE(rightPair);
+                        break;
+                    } else if(rightPair > variableTop) {
+                        rightPair = COMMON_SEC_PLUS_OFFSET;
+                        break;
+                    } else {
+                        long pairAndInc = nextPairUTF8(table, rightPair, right, rightIndex, rightLimit);
+                        rightIndex += (int)(pairAndInc >>> 32);
+                        rightPair = getSecondaries(variableTop, (int)pairAndInc);
+                    }
+                }
+
+                if(leftPair == rightPair) {
+                    if(leftPair == EOS) { break; }
+                    leftPair = rightPair = 0;
+                    continue;
+                }
+                int leftSecondary = leftPair & 0xffff;
+                int rightSecondary = rightPair & 0xffff;
+                if(leftSecondary != rightSecondary) {
+                    if((options & CollationSettings.BACKWARD_SECONDARY) != 0) {
+                        // Full support for backwards secondary requires backwards contraction matching
+                        // and moving backwards between merge separators.
+                        return BAIL_OUT_RESULT;
+                    }
+                    return (leftSecondary < rightSecondary) ? Collation.LESS : Collation.GREATER;
+                }
+                if(leftPair == EOS) { break; }
+                leftPair >>>= 16;
+                rightPair >>>= 16;
+            }
+        }
+
+        if((options & CollationSettings.CASE_LEVEL) != 0) {
+            boolean strengthIsPrimary = CollationSettings.getStrength(options) == Collator.PRIMARY;
+            leftIndex = leftStart;
+            rightIndex = rightStart;
+            leftPair = rightPair = 0;
+            for(;;) {
+                while(leftPair == 0) {
+                    if(leftIndex == leftLimit) {
+                        leftPair = EOS;
+                        break;
+                    }
+                    int c = left[leftIndex++] & 0xff;
+                    if(c <= 0x7f) {
+                        leftPair = table[c];
+                    } else {
+                        leftPair = lookupUTF8Unsafe(table, c, left, leftIndex);
+                        leftIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                    }
+                    if(leftPair < MIN_LONG) {
+                        long pairAndInc = nextPairUTF8(table, leftPair, left, leftIndex, leftLimit);
+                        leftIndex += (int)(pairAndInc >>> 32);
+                        leftPair = (int)pairAndInc;
+                    }
+                    leftPair = getCases(variableTop, strengthIsPrimary, leftPair);
+                }
+
+                while(rightPair == 0) {
+                    if(rightIndex == rightLimit) {
+                        rightPair = EOS;
+                        break;
+                    }
+                    int c = right[rightIndex++] & 0xff;
+                    if(c <= 0x7f) {
+                        rightPair = table[c];
+                    } else {
+                        rightPair = lookupUTF8Unsafe(table, c, right, rightIndex);
+                        rightIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                    }
+                    if(rightPair < MIN_LONG) {
+                        long pairAndInc = nextPairUTF8(table, rightPair, right, rightIndex, rightLimit);
+                        rightIndex += (int)(pairAndInc >>> 32);
+                        rightPair = (int)pairAndInc;
+                    }
+                    rightPair = getCases(variableTop, strengthIsPrimary, rightPair);
+                }
+
+                if(leftPair == rightPair) {
+                    if(leftPair == EOS) { break; }
+                    leftPair = rightPair = 0;
+                    continue;
+                }
+                int leftCase = leftPair & 0xffff;
+                int rightCase = rightPair & 0xffff;
+                if(leftCase != rightCase) {
+                    if((options & CollationSettings.UPPER_FIRST) == 0) {
+                        return (leftCase < rightCase) ? Collation.LESS : Collation.GREATER;
+                    } else {
+                        return (leftCase < rightCase) ? Collation.GREATER : Collation.LESS;
+                    }
+                }
+                if(leftPair == EOS) { break; }
+                leftPair >>>= 16;
+                rightPair >>>= 16;
+            }
+        }
+        if(CollationSettings.getStrength(options) <= Collator.SECONDARY) { return Collation.EQUAL; }
+
+        // Remove the case bits from the tertiary weight when caseLevel is on or caseFirst is off.
+        boolean withCaseBits = CollationSettings.isTertiaryWithCaseBits(options);
+
+        leftIndex = leftStart;
+        rightIndex = rightStart;
+        leftPair = rightPair = 0;
+        for(;;) {
+            while(leftPair == 0) {
+                if(leftIndex == leftLimit) {
+                    leftPair = EOS;
+                    break;
+                }
+                int c = left[leftIndex++] & 0xff;
+                if(c <= 0x7f) {
+                    leftPair = table[c];
+                } else {
+                    leftPair = lookupUTF8Unsafe(table, c, left, leftIndex);
+                    leftIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                }
+                if(leftPair < MIN_LONG) {
+                    long pairAndInc = nextPairUTF8(table, leftPair, left, leftIndex, leftLimit);
+                    leftIndex += (int)(pairAndInc >>> 32);
+                    leftPair = (int)pairAndInc;
+                }
+                leftPair = getTertiaries(variableTop, withCaseBits, leftPair);
+            }
+
+            while(rightPair == 0) {
+                if(rightIndex == rightLimit) {
+                    rightPair = EOS;
+                    break;
+                }
+                int c = right[rightIndex++] & 0xff;
+                if(c <= 0x7f) {
+                    rightPair = table[c];
+                } else {
+                    rightPair = lookupUTF8Unsafe(table, c, right, rightIndex);
+                    rightIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                }
+                if(rightPair < MIN_LONG) {
+                    long pairAndInc = nextPairUTF8(table, rightPair, right, rightIndex, rightLimit);
+                    rightIndex += (int)(pairAndInc >>> 32);
+                    rightPair = (int)pairAndInc;
+                }
+                rightPair = getTertiaries(variableTop, withCaseBits, rightPair);
+            }
+
+            if(leftPair == rightPair) {
+                if(leftPair == EOS) { break; }
+                leftPair = rightPair = 0;
+                continue;
+            }
+            int leftTertiary = leftPair & 0xffff;
+            int rightTertiary = rightPair & 0xffff;
+            if(leftTertiary != rightTertiary) {
+                if(CollationSettings.sortsTertiaryUpperCaseFirst(options)) {
+                    // Pass through EOS and MERGE_WEIGHT
+                    // and keep real tertiary weights larger than the MERGE_WEIGHT.
+                    // Tertiary CEs (secondary ignorables) are not supported in fast Latin.
+                    if(leftTertiary > MERGE_WEIGHT) {
+                        leftTertiary ^= CASE_MASK;
+                    }
+                    if(rightTertiary > MERGE_WEIGHT) {
+                        rightTertiary ^= CASE_MASK;
+                    }
+                }
+                return (leftTertiary < rightTertiary) ? Collation.LESS : Collation.GREATER;
+            }
+            if(leftPair == EOS) { break; }
+            leftPair >>>= 16;
+            rightPair >>>= 16;
+        }
+        if(CollationSettings.getStrength(options) <= Collator.TERTIARY) { return Collation.EQUAL; }
+
+        leftIndex = leftStart;
+        rightIndex = rightStart;
+        leftPair = rightPair = 0;
+        for(;;) {
+            while(leftPair == 0) {
+                if(leftIndex == leftLimit) {
+                    leftPair = EOS;
+                    break;
+                }
+                int c = left[leftIndex++] & 0xff;
+                if(c <= 0x7f) {
+                    leftPair = table[c];
+                } else {
+                    leftPair = lookupUTF8Unsafe(table, c, left, leftIndex);
+                    leftIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                }
+                if(leftPair < MIN_LONG) {
+                    long pairAndInc = nextPairUTF8(table, leftPair, left, leftIndex, leftLimit);
+                    leftIndex += (int)(pairAndInc >>> 32);
+                    leftPair = (int)pairAndInc;
+                }
+                leftPair = getQuaternaries(variableTop, leftPair);
+            }
+
+            while(rightPair == 0) {
+                if(rightIndex == rightLimit) {
+                    rightPair = EOS;
+                    break;
+                }
+                int c = right[rightIndex++] & 0xff;
+                if(c <= 0x7f) {
+                    rightPair = table[c];
+                } else {
+                    rightPair = lookupUTF8Unsafe(table, c, right, rightIndex);
+                    rightIndex += (c <= LATIN_MAX_UTF8_LEAD) ? 1 : 2;
+                }
+                if(rightPair < MIN_LONG) {
+                    long pairAndInc = nextPairUTF8(table, rightPair, right, rightIndex, rightLimit);
+                    rightIndex += (int)(pairAndInc >>> 32);
+                    rightPair = (int)pairAndInc;
+                }
+                rightPair = getQuaternaries(variableTop, rightPair);
+            }
+
+            if(leftPair == rightPair) {
+                if(leftPair == EOS) { break; }
+                leftPair = rightPair = 0;
+                continue;
+            }
+            int leftQuaternary = leftPair & 0xffff;
+            int rightQuaternary = rightPair & 0xffff;
+            if(leftQuaternary != rightQuaternary) {
+                return (leftQuaternary < rightQuaternary) ? Collation.LESS : Collation.GREATER;
+            }
+            if(leftPair == EOS) { break; }
+            leftPair >>>= 16;
+            rightPair >>>= 16;
+        }
+        return Collation.EQUAL;
+    }
+
+    private static int lookup(char[] table, int blockDelta, int c) {
+        assert(c > 0x7f);
+        int i = c - blockDelta;
+        if(0x80 <= i && i <= LATIN_MAX) {
+            return table[i];
+        } else if(PUNCT_START <= c && c < PUNCT_LIMIT) {
             return table[c - PUNCT_START + LATIN_LIMIT];
         } else if(c == 0xfffe) {
             return MERGE_WEIGHT;
@@ -678,11 +1106,56 @@ private static int lookup(char[] table, int c) {
         }
     }
 
+    /**
+     * Looks up a non-ASCII, non-Latin UTF-8 sequence starting with lead byte c.
+     * sIndex is the index after c.
+     * If the result is not BAIL_OUT, then the caller skips two more bytes.
+     */
+    private static int lookupUTF8(char[] table, int c, byte[] s8, int sIndex, int sLimit) {
+        // The caller handled ASCII and valid/supported Latin.
+        assert(c > 0x7f);
+        if((sIndex + 1) < sLimit) {
+            int t1 = s8[sIndex] & 0xff;
+            int t2 = s8[sIndex + 1] & 0xff;
+            if(c == 0xe2 && t1 == 0x80 && 0x80 <= t2 && t2 <= 0xbf) {
+                return table[(LATIN_LIMIT - 0x80) + t2];  // 2000..203F -> 0180..01BF
+            } else if(c == 0xef && t1 == 0xbf) {
+                if(t2 == 0xbe) {
+                    return MERGE_WEIGHT;  // U+FFFE
+                } else if(t2 == 0xbf) {
+                    return MAX_SHORT | COMMON_SEC | LOWER_CASE | COMMON_TER;  // U+FFFF
+                }
+            }
+        }
+        return BAIL_OUT;
+    }
+
+    /**
+     * Like lookupUTF8() but for text that is known to be well-formed
+     * and to contain only supported characters.
+     * The caller skips one more byte if c<=LATIN_MAX_UTF8_LEAD, otherwise two more bytes.
+     */
+    private static int lookupUTF8Unsafe(char[] table, int c, byte[] s8, int sIndex) {
+        // The caller handled ASCII.
+        assert(c > 0x7f);
+        if(c <= LATIN_MAX_UTF8_LEAD) {
+            return table[((c - 0xc2) << 6) + (s8[sIndex] & 0xff)];  // 0080..017F
+        }
+        int t2 = s8[sIndex + 1] & 0xff;
+        if(c == 0xe2) {
+            return table[(LATIN_LIMIT - 0x80) + t2];  // 2000..203F -> 0180..01BF
+        } else if(t2 == 0xbe) {
+            return MERGE_WEIGHT;  // U+FFFE
+        } else {
+            return MAX_SHORT | COMMON_SEC | LOWER_CASE | COMMON_TER;  // U+FFFF
+        }
+    }
+
     /**
      * Java returns a negative result (use the '~' operator) if sIndex is to be incremented.
      * C++ modifies sIndex.
      */
-    private static long nextPair(char[] table, int c, int ce, CharSequence s16, int sIndex) {
+    private static long nextPair(char[] table, int blockDelta, int ce, CharSequence s16, int sIndex) {
         if(ce >= MIN_LONG || ce < CONTRACTION) {
             return ce;  // simple or special mini CE
         } else if(ce >= EXPANSION) {
@@ -698,8 +1171,10 @@ private static long nextPair(char[] table, int c, int ce, CharSequence s16, int
                 int c2;
                 int nextIndex = sIndex;
                 c2 = s16.charAt(nextIndex++);
-                if(c2 > LATIN_MAX) {
-                    if(PUNCT_START <= c2 && c2 < PUNCT_LIMIT) {
+                if(c2 > 0x7f) {
+                    if(0x80 <= (c2 - blockDelta) && (c2 - blockDelta) <= LATIN_MAX) {
+                        c2 -= blockDelta;
+                    } else if(PUNCT_START <= c2 && c2 < PUNCT_LIMIT) {
                         c2 = c2 - PUNCT_START + LATIN_LIMIT;  // 2000..203F -> 0180..01BF
                     } else if(c2 == 0xfffe || c2 == 0xffff) {
                         c2 = -1;  // U+FFFE & U+FFFF cannot occur in contractions.
@@ -720,6 +1195,10 @@ private static long nextPair(char[] table, int c, int ce, CharSequence s16, int
                 if(x == c2) {
                     index = i;
                     inc = true;
+                } else if(c2 >= 0 && table[c2] == BAIL_OUT) {
+                    // The next character might be a combining mark that is not supported
+                    // in a script table, and it might continue a discontiguous contraction.
+                    return BAIL_OUT;
                 }
             }
             // Return the CE or CEs for the default or contraction mapping.
@@ -738,6 +1217,81 @@ private static long nextPair(char[] table, int c, int ce, CharSequence s16, int
         }
     }
 
+    /**
+     * UTF-8 version of nextPair().
+     * Returns the pair in bits 31..0 and the number of bytes
+     * by which sIndex is to be incremented in bits 63..32.
+     */
+    private static long nextPairUTF8(char[] table, int ce, byte[] s8, int sIndex, int sLimit) {
+        if(ce >= MIN_LONG || ce < CONTRACTION) {
+            return ce;  // simple or special mini CE
+        } else if(ce >= EXPANSION) {
+            int index = NUM_FAST_CHARS + (ce & INDEX_MASK);
+            return ((long)table[index + 1] << 16) | table[index];
+        } else /* ce >= CONTRACTION */ {
+            // Contraction list: Default mapping followed by
+            // 0 or more single-character contraction suffix mappings.
+            int index = NUM_FAST_CHARS + (ce & INDEX_MASK);
+            int inc = 0;  // number of bytes consumed for the next character
+            if(sIndex != sLimit) {
+                // Read the next character.
+                int nextIndex = sIndex;
+                int c2 = s8[nextIndex++] & 0xff;
+                if(c2 > 0x7f) {
+                    int t;
+                    if(c2 <= LATIN_MAX_UTF8_LEAD && 0xc2 <= c2 && nextIndex != sLimit &&
+                            0x80 <= (t = s8[nextIndex] & 0xff) && t <= 0xbf) {
+                        c2 = ((c2 - 0xc2) << 6) + t;  // 0080..017F
+                        ++nextIndex;
+                    } else {
+                        int i2 = nextIndex + 1;
+                        if(i2 < sLimit) {
+                            if(c2 == 0xe2 && s8[nextIndex] == (byte)0x80 &&
+                                    0x80 <= (t = s8[i2] & 0xff) && t <= 0xbf) {
+                                c2 = (LATIN_LIMIT - 0x80) + t;  // 2000..203F -> 0180..01BF
+                            } else if(c2 == 0xef && s8[nextIndex] == (byte)0xbf &&
+                                    ((t = s8[i2] & 0xff) == 0xbe || t == 0xbf)) {
+                                c2 = -1;  // U+FFFE & U+FFFF cannot occur in contractions.
+                            } else {
+                                return BAIL_OUT;
+                            }
+                        } else {
+                            return BAIL_OUT;
+                        }
+                        nextIndex += 2;
+                    }
+                }
+                // Look for the next character in the contraction suffix list,
+                // which is in ascending order of single suffix characters.
+                int i = index;
+                int head = table[i];  // first skip the default mapping
+                int x;
+                do {
+                    i += head >> CONTR_LENGTH_SHIFT;
+                    head = table[i];
+                    x = head & CONTR_CHAR_MASK;
+                } while(x < c2);
+                if(x == c2) {
+                    index = i;
+                    inc = nextIndex - sIndex;
+                }
+            }
+            // Return the CE or CEs for the default or contraction mapping.
+            int length = table[index] >> CONTR_LENGTH_SHIFT;
+            if(length == 1) {
+                return BAIL_OUT;
+            }
+            ce = table[index + 1];
+            long result;
+            if(length == 2) {
+                result = ce;
+            } else {
+                result = ((long)table[index + 2] << 16) | ce;
+            }
+            return ((long)inc << 32) | result;
+        }
+    }
+
     private static int getPrimaries(int variableTop, int pair) {
         int ce = pair & 0xffff;
         if(ce >= MIN_SHORT) { return pair & TWO_SHORT_PRIMARIES_MASK; }
@@ -69,10 +69,14 @@ private static final int binarySearch(long[] list, int limit, long ce) {
         contractionCEs = new UVector64();
         uniqueCEs = new UVector64();
         miniCEs = null;
+        script = UScript.LATIN;
+        blockStart = 0x80;
         firstDigitPrimary = 0;
-        firstLatinPrimary = 0;
-        lastLatinPrimary = 0;
+        lastDigitPrimary = 0;
+        firstScriptPrimary = 0;
+        lastScriptPrimary = 0;
         firstShortPrimary = 0;
+        shortPrimaries = null;
         shortPrimaryOverflow = false;
         headerLength = 0;
     }
@@ -90,7 +94,7 @@ boolean forData(CollationData data) {
         if(shortPrimaryOverflow) {
             // Give digits long mini primaries,
             // so that there are more short primaries for letters.
-            firstShortPrimary = firstLatinPrimary;
+            firstShortPrimary = firstScriptPrimary;
             resetCEs();
             getCEs(data);
             encodeUniqueCEs();
@@ -113,6 +117,40 @@ boolean forData(CollationData data) {
         return ok;
     }
 
+    /**
+     * Builds a table in the same format for the letters of a non-Latin script.
+     * It maps ASCII, the 256 characters starting at blockStart, and general punctuation.
+     * ASCII letters and other characters with primaries between the digits and the script
+     * are not supported.
+     * Digits get long mini primaries so that all short ones are available for letters.
+     * When there are more letter primaries than short mini primaries,
+     * then characters are taken in code point order, which prefers the common letters
+     * at the start of a block; the others are not supported.
+     */
+    boolean forScript(CollationData data, int script, int blockStart) {
+        if(result.length() != 0) {  // This builder is not reusable.
+            throw new IllegalStateException("attempt to reuse a CollationFastLatinBuilder");
+        }
+        assert(0x80 <= blockStart && blockStart <= 0xff00 &&
+                ((blockStart + 0x100) <= CollationFastLatin.PUNCT_START ||
+                    CollationFastLatin.PUNCT_LIMIT <= blockStart));
+        this.script = script;
+        this.blockStart = blockStart;
+        if(!loadGroups(data)) { return false; }
+
+        firstShortPrimary = firstScriptPrimary;
+        shortPrimaries = new UVector64();
+        getCEs(data);
+        encodeUniqueCEs();
+        assert(!shortPrimaryOverflow);
+        encodeCharCEs();
+        encodeContractions();
+        contractionCEs.removeAllElements();
+        uniqueCEs.removeAllElements();
+        shortPrimaries = null;
+        return true;
+    }
+
     // C++ returns one combined array with the contents of the result buffer.
     // Java returns two arrays (header & table) because we cannot use pointer arithmetic,
     // and we do not want to index into the table with an offset.
@@ -144,9 +182,10 @@ private boolean loadGroups(CollationData data) {
         }
 
         firstDigitPrimary = data.getFirstPrimaryForGroup(Collator.ReorderCodes.DIGIT);
-        firstLatinPrimary = data.getFirstPrimaryForGroup(UScript.LATIN);
-        lastLatinPrimary = data.getLastPrimaryForGroup(UScript.LATIN);
-        if(firstDigitPrimary == 0 || firstLatinPrimary == 0) {
+        lastDigitPrimary = data.getLastPrimaryForGroup(Collator.ReorderCodes.DIGIT);
+        firstScriptPrimary = data.getFirstPrimaryForGroup(script);
+        lastScriptPrimary = data.getLastPrimaryForGroup(script);
+        if(firstDigitPrimary == 0 || firstScriptPrimary == 0) {
             // missing data
             return false;
         }
@@ -193,7 +232,9 @@ private void resetCEs() {
     private void getCEs(CollationData data) {
         int i = 0;
         for(char c = 0;; ++i, ++c) {
-            if(c == CollationFastLatin.LATIN_LIMIT) {
+            if(c == 0x80) {
+                c = (char)blockStart;  // no change for the Latin table
+            } else if(c == blockStart + 0x100) {
                 c = CollationFastLatin.PUNCT_START;
             } else if(c == CollationFastLatin.PUNCT_LIMIT) {
                 break;
@@ -206,7 +247,9 @@ private void getCEs(CollationData data) {
             } else {
                 d = data;
             }
-            if(getCEsFromCE32(d, c, ce32)) {
+            if(isSupportedChar(data, c, ce32) &&
+                    getCEsFromCE32(d, c, ce32) &&
+                    (isContractionCharCE(ce0) || reserveShortPrimaries(ce0, ce1))) {
                 charCEs[i][0] = ce0;
                 charCEs[i][1] = ce1;
                 addUniqueCE(ce0);
@@ -229,6 +272,17 @@ private void getCEs(CollationData data) {
         contractionCEs.addElement(CollationFastLatin.CONTR_CHAR_MASK);
     }
 
+    private static boolean isSupportedChar(CollationData data, int c, int ce32) {
+        if(c < 0x80) { return true; }
+        // Non-ASCII digits are not supported because only ASCII digits
+        // bail out in numeric mode (see CollationFastLatin.getOptions()).
+        if(Collation.hasCE32Tag(ce32, Collation.DIGIT_TAG)) { return false; }
+        // Combining marks are not supported, so that the text need not be checked for FCD
+        // and there are no discontiguous contractions.
+        // (There are none in the Latin table's range.)
+        return data.getFCD16(c) <= 0xff;
+    }
+
     private boolean getCEsFromCE32(CollationData data, int c, int ce32) {
         ce32 = data.getFinalCE32(ce32);
         ce1 = 0;
@@ -287,8 +341,8 @@ private boolean getCEsFromCE32(CollationData data, int c, int ce32) {
         // We do not support an ignorable ce0 unless it is completely ignorable.
         long p0 = ce0 >>> 32;
         if(p0 == 0) { return false; }
-        // We only support primaries up to the Latin script.
-        if(p0 > lastLatinPrimary) { return false; }
+        // We only support primaries up to the table's script.
+        if(!isSupportedPrimary(p0)) { return false; }
         // We support non-common secondary and case weights only together with short primaries.
         int lower32_0 = (int)ce0;
         if(p0 < firstShortPrimary) {
@@ -304,7 +358,8 @@ private boolean getCEsFromCE32(CollationData data, int c, int ce32) {
             // This is so that we can test the first primary and use the same mask for both,
             // and determine for both whether they are variable.
             long p1 = ce1 >>> 32;
-            if(p1 == 0 ? p0 < firstShortPrimary : !inSameGroup(p0, p1)) { return false; }
+            if(p1 == 0 ? p0 < firstShortPrimary :
+                    !isSupportedPrimary(p1) || !inSameGroup(p0, p1)) { return false; }
             int lower32_1 = (int)ce1;
             // No tertiary CEs.
             if((lower32_1 >>> 16) == 0) { return false; }
@@ -343,7 +398,7 @@ private boolean getCEsFromContractionCE32(CollationData data, int ce32) {
         while(suffixes.hasNext()) {
             CharsTrie.Entry entry = suffixes.next();
             CharSequence suffix = entry.chars;
-            int x = CollationFastLatin.getCharIndex(suffix.charAt(0));
+            int x = CollationFastLatin.getCharIndex(blockStart, suffix.charAt(0));
             if(x < 0) { continue; }  // ignore anything but fast Latin text
             if(x == prevX) {
                 if(addContraction) {
@@ -379,6 +434,10 @@ private boolean getCEsFromContractionCE32(CollationData data, int ce32) {
     }
 
     private void addContractionEntry(int x, long cce0, long cce1) {
+        if(cce0 != Collation.NO_CE && !reserveShortPrimaries(cce0, cce1)) {
+            cce0 = Collation.NO_CE;
+            cce1 = 0;
+        }
         contractionCEs.addElement(x);
         contractionCEs.addElement(cce0);
         contractionCEs.addElement(cce1);
@@ -386,6 +445,41 @@ private void addContractionEntry(int x, long cce0, long cce1) {
         addUniqueCE(cce1);
     }
 
+    private boolean isSupportedPrimary(long p) {
+        // For a non-Latin script, skip the Latin script and others before it.
+        return p <= lastScriptPrimary && (p <= lastDigitPrimary || firstScriptPrimary <= p);
+    }
+
+    /**
+     * For a script table, checks that the primaries of the two CEs
+     * fit into the short mini primaries together with the previously reserved ones.
+     * Always returns true for the Latin table.
+     */
+    private boolean reserveShortPrimaries(long cce0, long cce1) {
+        if(shortPrimaries == null) { return true; }
+        long p0 = cce0 >>> 32;
+        long p1 = cce1 >>> 32;
+        int i0 = -1, i1 = -1;
+        int count = shortPrimaries.size();
+        if(p0 >= firstShortPrimary &&
+                (i0 = binarySearch(shortPrimaries.getBuffer(), shortPrimaries.size(), p0)) < 0) {
+            ++count;
+        }
+        if(p1 >= firstShortPrimary && p1 != p0 &&
+                (i1 = binarySearch(shortPrimaries.getBuffer(), shortPrimaries.size(), p1)) < 0) {
+            ++count;
+        }
+        if(count > MAX_NUM_SHORT_PRIMARIES) { return false; }
+        if(i0 < 0 && p0 >= firstShortPrimary) {
+            shortPrimaries.insertElementAt(p0, ~i0);
+        }
+        if(i1 < 0 && p1 >= firstShortPrimary && p1 != p0) {
+            i1 = binarySearch(shortPrimaries.getBuffer(), shortPrimaries.size(), p1);
+            shortPrimaries.insertElementAt(p1, ~i1);
+        }
+        return true;
+    }
+
     private void addUniqueCE(long ce) {
         if(ce == 0 || (ce >>> 32) == Collation.NO_CE_PRIMARY) { return; }
         ce &= ~(long)Collation.CASE_MASK;  // blank out case bits
@@ -679,6 +773,11 @@ private static boolean isContractionCharCE(long ce) {
 
     private static final long CONTRACTION_FLAG = 0x80000000L;
 
+    // Short mini primaries MIN_SHORT..MAX_SHORT-SHORT_INC; MAX_SHORT is reserved for U+FFFF.
+    private static final int MAX_NUM_SHORT_PRIMARIES =
+            (CollationFastLatin.MAX_SHORT - CollationFastLatin.MIN_SHORT) /
+            CollationFastLatin.SHORT_INC;
+
     // temporary "buffer"
     private long ce0, ce1;
 
@@ -690,14 +789,22 @@ private static boolean isContractionCharCE(long ce) {
     /** One 16-bit mini CE per unique CE. */
     private char[] miniCEs;
 
+    /** The script of the letters; LATIN for the regular fast Latin table. */
+    private int script;
+    /** Start of the 256 characters mapped to table indexes 0080..017F. */
+    private int blockStart;
+
     // These are constant for a given root collator.
     long[] lastSpecialPrimaries = new long[NUM_SPECIAL_GROUPS];
     private long firstDigitPrimary;
-    private long firstLatinPrimary;
-    private long lastLatinPrimary;
+    private long lastDigitPrimary;
+    private long firstScriptPrimary;
+    private long lastScriptPrimary;
     // This determines the first normal primary weight which is mapped to
     // a short mini primary. It must be >=firstDigitPrimary.
     private long firstShortPrimary;
+    /** Sorted short primaries used so far, only for a script table. */
+    private UVector64 shortPrimaries;
 
     private boolean shortPrimaryOverflow;
 
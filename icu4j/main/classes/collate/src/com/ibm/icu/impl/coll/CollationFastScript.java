@@ -0,0 +1,129 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+/*
+*******************************************************************************
+* CollationFastScript.java
+*******************************************************************************
+*/
+
+package com.ibm.icu.impl.coll;
+
+import com.ibm.icu.lang.UScript;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Fast comparison table for common text in one non-Latin script.
+ *
+ * <p>The table has the CollationFastLatin format,
+ * but the 256 characters starting at a script-specific block start
+ * take the places of U+0080..U+017F.
+ * ASCII and general punctuation are mapped as in the fast Latin table,
+ * except that ASCII letters are not supported.
+ *
+ * <p>Tables are built at runtime by CollationFastLatinBuilder.forScript()
+ * and cached in the CollationData, see {@link CollationData#getFastScript(int)}.
+ */
+public final class CollationFastScript {
+    /**
+     * Returns the start of the 256-character block that a table for the script covers,
+     * or -1 if fast tables are not supported for the script.
+     */
+    public static int getBlockStart(int script) {
+        switch(script) {
+        case UScript.GREEK:
+            return 0x370;
+        case UScript.CYRILLIC:
+            return 0x400;
+        case UScript.ARMENIAN:
+            return 0x530;
+        case UScript.HEBREW:
+            return 0x590;
+        case UScript.ARABIC:
+            return 0x600;
+        case UScript.THAI:
+            return 0xe00;
+        case UScript.GEORGIAN:
+            return 0x10a0;
+        case UScript.HIRAGANA:
+        case UScript.KATAKANA:
+            return 0x3000;  // CJK symbols & punctuation, Hiragana, Katakana
+        default:
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the script for the fast table of a tailoring:
+     * The first supported script in the reordering codes,
+     * otherwise the script of the locale (after adding likely subtags).
+     * Returns UScript.INVALID_CODE if there is no supported script.
+     */
+    public static int getDefaultScript(int[] reorderCodes, ULocale locale) {
+        for(int code : reorderCodes) {
+            if(getBlockStart(code) >= 0) { return code; }
+        }
+        if(locale != null && !locale.equals(ULocale.ROOT)) {
+            String scriptName = locale.getScript();
+            if(scriptName.isEmpty()) {
+                scriptName = ULocale.addLikelySubtags(locale).getScript();
+            }
+            if(!scriptName.isEmpty()) {
+                int script = UScript.getCodeFromName(scriptName);
+                if(getBlockStart(script) >= 0) { return script; }
+            }
+        }
+        return UScript.INVALID_CODE;
+    }
+
+    /**
+     * Builds the table for the script.
+     * Returns null if the script is not supported or the data is missing.
+     */
+    static CollationFastScript build(CollationData data, int script) {
+        int blockStart = getBlockStart(script);
+        if(blockStart < 0) { return null; }
+        CollationFastLatinBuilder builder = new CollationFastLatinBuilder();
+        if(!builder.forScript(data, script, blockStart)) { return null; }
+        return new CollationFastScript(script, blockStart, builder.getHeader(), builder.getTable());
+    }
+
+    private CollationFastScript(int script, int blockStart, char[] header, char[] table) {
+        this.script = script;
+        this.blockStart = blockStart;
+        this.header = header;
+        this.table = table;
+    }
+
+    /**
+     * Same as CollationFastLatin.getOptions() but for this table.
+     * The capacity of primaries must be CollationFastLatin.LATIN_LIMIT.
+     */
+    public int getOptions(CollationData data, CollationSettings settings, char[] primaries) {
+        return CollationFastLatin.getOptions(data, header, table, script, settings, primaries);
+    }
+
+    /**
+     * Returns true if c is one of the characters mapped by the table.
+     * It might still not be supported by the table for the current data.
+     */
+    public boolean isFastChar(int c) {
+        return c <= 0x7f || (blockStart <= c && c < (blockStart + 0x100)) ||
+                (CollationFastLatin.PUNCT_START <= c && c < CollationFastLatin.PUNCT_LIMIT);
+    }
+
+    /**
+     * Same as CollationFastLatin.compareUTF16() but for this table.
+     */
+    public int compareUTF16(char[] primaries, int options,
+            CharSequence left, CharSequence right, int startIndex) {
+        return CollationFastLatin.compareUTF16(table, primaries, options, blockStart,
+                left, right, startIndex);
+    }
+
+    /** The script whose letters are supported. */
+    public final int script;
+    /** Start of the 256 characters mapped to table indexes 0080..017F. */
+    private final int blockStart;
+    private final char[] header;
+    private final char[] table;
+}
@@ -195,17 +195,19 @@ void appendWeight16(int w) {
 
         void appendWeight32(long w) {
             assert (w != 0);
-            byte[] bytes = new byte[] { (byte) (w >>> 24), (byte) (w >>> 16), (byte) (w >>> 8),
-                    (byte) w };
-            int appendLength = (bytes[1] == 0) ? 1 : (bytes[2] == 0) ? 2 : (bytes[3] == 0) ? 3 : 4;
+            byte b0 = (byte) (w >>> 24);
+            byte b1 = (byte) (w >>> 16);
+            byte b2 = (byte) (w >>> 8);
+            byte b3 = (byte) w;
+            int appendLength = (b1 == 0) ? 1 : (b2 == 0) ? 2 : (b3 == 0) ? 3 : 4;
             if ((len + appendLength) <= buffer.length || ensureCapacity(appendLength)) {
-                buffer[len++] = bytes[0];
-                if (bytes[1] != 0) {
-                    buffer[len++] = bytes[1];
-                    if (bytes[2] != 0) {
-                        buffer[len++] = bytes[2];
-                        if (bytes[3] != 0) {
-                            buffer[len++] = bytes[3];
+                buffer[len++] = b0;
+                if (b1 != 0) {
+                    buffer[len++] = b1;
+                    if (b2 != 0) {
+                        buffer[len++] = b2;
+                        if (b3 != 0) {
+                            buffer[len++] = b3;
                         }
                     }
                 }
@@ -15,16 +15,24 @@
 
 package com.ibm.icu.impl.coll;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.MissingResourceException;
 
+import com.ibm.icu.impl.ICUBinary;
+import com.ibm.icu.impl.ICUConfig;
 import com.ibm.icu.impl.ICUData;
 import com.ibm.icu.impl.ICUResourceBundle;
 import com.ibm.icu.util.ICUUncheckedIOException;
 import com.ibm.icu.util.Output;
 import com.ibm.icu.util.ULocale;
 import com.ibm.icu.util.UResourceBundle;
+import com.ibm.icu.util.VersionInfo;
 
 /**
  * Convenience string denoting the Collation data tree
@@ -56,6 +64,145 @@ public static String getRootRules() {
         return rootRules;
     }
 
+    /**
+     * Serializes a tailoring with the given settings
+     * in the binary collation data format.
+     */
+    public static byte[] writeTailoring(CollationTailoring t, CollationSettings settings)
+            throws IOException {
+        return CollationDataWriter.writeTailoring(t, settings);
+    }
+
+    /**
+     * Deserializes a tailoring of the root collation from binary data
+     * that was written by {@link #writeTailoring(CollationTailoring, CollationSettings)}.
+     * The buffer position must be 0.
+     * The tailoring does not have rules, and its actual locale is null.
+     */
+    public static CollationTailoring readTailoring(ByteBuffer inBytes) throws IOException {
+        CollationTailoring root = CollationRoot.getRoot();
+        CollationTailoring t = new CollationTailoring(root.settings);
+        CollationDataReader.read(root, inBytes, t);
+        t.actualLocale = null;
+        return t;
+    }
+
+    /**
+     * Folder for pre-built tailorings of rule strings, or null if there is no cache.
+     * Set via the ICUConfig property com.ibm.icu.impl.coll.CollationLoader.tailoringCachePath.
+     */
+    private static volatile File tailoringCacheFolder;
+
+    static {
+        String path = ICUConfig.get(CollationLoader.class.getName() + ".tailoringCachePath", "");
+        path = path.trim();
+        tailoringCacheFolder = path.length() != 0 ? new File(path) : null;
+    }
+
+    /**
+     * Sets the folder for pre-built tailorings, replacing the configured one.
+     * @param folder the new folder, or null for no cache
+     * @return the previous folder, or null if there was no cache
+     */
+    // VisibleForTesting
+    public static File setTailoringCacheFolder(File folder) {
+        File previous = tailoringCacheFolder;
+        tailoringCacheFolder = folder;
+        return previous;
+    }
+
+    /**
+     * Returns the tailoring for the rules from the tailoring cache.
+     * The cache file is memory-mapped, and the rule builder is not used.
+     *
+     * @return the tailoring, or null if there is no cache
+     *         or it does not contain a usable tailoring for these rules
+     */
+    public static CollationTailoring loadCachedTailoring(String rules) {
+        File file = getTailoringCacheFile(tailoringCacheFolder, rules);
+        if (file == null) {
+            return null;
+        }
+        ByteBuffer inBytes = ICUBinary.mapDataFile(file);
+        if (inBytes == null) {
+            return null;
+        }
+        CollationTailoring t;
+        try {
+            t = readTailoring(inBytes);
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // Truncated or otherwise unusable file: Rebuild and overwrite it.
+            return null;
+        }
+        t.setRules(rules);
+        return t;
+    }
+
+    /**
+     * Writes the tailoring that was built from the rules into the tailoring cache,
+     * if there is one. Errors are ignored: The cache is only an optimization.
+     */
+    public static void cacheTailoring(String rules, CollationTailoring t) {
+        File folder = tailoringCacheFolder;
+        File file = getTailoringCacheFile(folder, rules);
+        if (file == null) {
+            return;
+        }
+        File temp = null;
+        try {
+            byte[] bytes = writeTailoring(t, t.settings.readOnly());
+            // Write a temporary file and rename it,
+            // so that concurrent readers never map a partial file.
+            temp = File.createTempFile("coll", ".tmp", folder);
+            FileOutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(bytes);
+            } finally {
+                out.close();
+            }
+            // An unusable file that is still in the way is replaced.
+            if (temp.renameTo(file) || (file.delete() && temp.renameTo(file))) {
+                temp = null;
+            }
+        } catch (IOException ignored) {
+        } catch (SecurityException ignored) {
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the cache file for the rules.
+     * Its name is a hash of the rules and of the ICU and root collation versions,
+     * so that a different ICU version does not pick up stale data.
+     */
+    private static File getTailoringCacheFile(File folder, String rules) {
+        if (folder == null) {
+            return null;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        digest.update((VersionInfo.ICU_VERSION.toString() + '/' +
+                CollationRoot.getRoot().version + '/').getBytes(UTF_8));
+        byte[] hash = digest.digest(rules.getBytes(UTF_8));
+        StringBuilder name = new StringBuilder(hash.length * 2 + 4);
+        for (byte b : hash) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        name.append(".col");
+        return new File(folder, name.toString());
+    }
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     /**
      * Simpler/faster methods for ASCII than ones based on Unicode data.
      * TODO: There should be code like this somewhere already??
@@ -98,6 +98,9 @@ public CollationSettings clone() {
         // Note: The reorderTable, reorderRanges, and reorderCodes need not be cloned
         // because, in Java, they only get replaced but not modified.
         newSettings.fastLatinPrimaries = fastLatinPrimaries.clone();
+        if(fastScriptPrimaries != null) {
+            newSettings.fastScriptPrimaries = fastScriptPrimaries.clone();
+        }
         return newSettings;
     }
 
@@ -270,7 +273,7 @@ public void copyReorderingFrom(CollationSettings other) {
 
     public boolean hasReordering() { return reorderTable != null; }
 
-    private static boolean reorderTableHasSplitBytes(byte[] table) {
+    static boolean reorderTableHasSplitBytes(byte[] table) {
         assert(table[0] == 0);
         for(int i = 1; i < 256; ++i) {
             if(table[i] == 0) {
@@ -484,4 +487,14 @@ public boolean isNumeric() {
     // fastLatinPrimaries.length must be equal to CollationFastLatin.LATIN_LIMIT,
     // but we do not import CollationFastLatin to reduce circular dependencies.
     public char[] fastLatinPrimaries = new char[0x180];  // mutable contents
+
+    /**
+     * Additional fast table for a non-Latin script, or null.
+     * Not part of equals(): It only affects performance.
+     */
+    public CollationFastScript fastScript;
+    /** Options for the fastScript. Negative if disabled. */
+    public int fastScriptOptions = -1;
+    /** Like fastLatinPrimaries but for the fastScript; null if there is none. */
+    public char[] fastScriptPrimaries;  // mutable contents
 }
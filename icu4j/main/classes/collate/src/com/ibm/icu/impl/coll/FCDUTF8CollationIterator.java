@@ -0,0 +1,509 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+/*
+*******************************************************************************
+* FCDUTF8CollationIterator.java, ported from utf8collationiterator.h/.cpp
+*
+* C++ version created on: 2012nov12 (from utf16collationiterator.cpp & uitercollationiterator.cpp)
+* created by: Markus W. Scherer
+*/
+
+package com.ibm.icu.impl.coll;
+
+import com.ibm.icu.impl.Normalizer2Impl;
+import com.ibm.icu.impl.UTF8;
+
+/**
+ * Incrementally checks the input text for FCD and normalizes where necessary.
+ */
+public final class FCDUTF8CollationIterator extends UTF8CollationIterator {
+    /**
+     * Partial constructor, see {@link CollationIterator#CollationIterator(CollationData)}.
+     */
+    public FCDUTF8CollationIterator(CollationData d) {
+        super(d);
+        nfcImpl = d.nfcImpl;
+    }
+
+    public FCDUTF8CollationIterator(CollationData data, boolean numeric,
+            byte[] s, int start, int p, int limit) {
+        super(data, numeric, s, start, p, limit);
+        nfcImpl = data.nfcImpl;
+        segmentStart = p;
+        state = CHECK_FWD;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        // Skip the UTF8CollationIterator and call its parent.
+        if (!(other instanceof FCDUTF8CollationIterator)
+            || !((CollationIterator)this).equals(other))
+        {
+            return false;
+        }
+        FCDUTF8CollationIterator o = (FCDUTF8CollationIterator)other;
+        // Compare the iterator state but not the text: Assume that the caller does that.
+        if (state != o.state) {
+            return false;
+        }
+        if (state < IN_NORMALIZED) {
+            return (pos - start) == (o.pos - o.start);
+        } else {
+            return (segmentStart - start) == (o.segmentStart - o.start) && pos == o.pos;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        assert false : "hashCode not designed";
+        return 42; // any arbitrary constant will do
+    }
+
+    @Override
+    public void resetToOffset(int newOffset) {
+        reset();
+        segmentStart = pos = start + newOffset;
+        state = CHECK_FWD;
+    }
+
+    @Override
+    public int getOffset() {
+        if(state != IN_NORMALIZED) {
+            return pos - start;
+        } else if(pos == 0) {
+            return segmentStart - start;
+        } else {
+            return segmentLimit - start;
+        }
+    }
+
+    @Override
+    public void setText(boolean numeric, byte[] s, int start, int p, int limit) {
+        super.setText(numeric, s, start, p, limit);
+        segmentStart = p;
+        state = CHECK_FWD;
+    }
+
+    @Override
+    protected long handleNextCE32() {
+        int c;
+        for(;;) {
+            if(state == CHECK_FWD) {
+                // Combination of UTF8CollationIterator.handleNextCE32() with FCD check fastpath.
+                if(pos == limit) {
+                    return NO_CP_AND_CE32;
+                }
+                c = u8[pos++];
+                if(c >= 0) {
+                    // ASCII 00..7F
+                    return makeCodePointAndCE32Pair(c, trie.get(c));
+                }
+                c &= 0xff;
+                int t1, t2;
+                if(0xe0 <= c && c < 0xf0 &&
+                        (pos + 1) < limit &&
+                        UTF8.isValidLead3AndT1(c, t1 = u8[pos]) &&
+                        (t2 = (u8[pos + 1] & 0xff) ^ 0x80) <= 0x3f) {
+                    // U+0800..U+FFFF except surrogates
+                    c = ((c & 0xf) << 12) | ((t1 & 0x3f) << 6) | t2;
+                    pos += 2;
+                    if(CollationFCD.hasTccc(c) &&
+                            (CollationFCD.maybeTibetanCompositeVowel(c) ||
+                                (pos != limit && nextHasLccc()))) {
+                        pos -= 3;
+                    } else {
+                        break;  // return CE32(BMP)
+                    }
+                } else if(c < 0xe0 && c >= 0xc2 && pos != limit &&
+                        (t1 = (u8[pos] & 0xff) ^ 0x80) <= 0x3f) {
+                    // U+0080..U+07FF
+                    c = ((c & 0x1f) << 6) | t1;
+                    ++pos;
+                    if(CollationFCD.hasTccc(c) && pos != limit && nextHasLccc()) {
+                        pos -= 2;
+                    } else {
+                        return makeCodePointAndCE32Pair(c, trie.get(c));
+                    }
+                } else {
+                    // Supplementary code points and error cases.
+                    // Illegal byte sequences yield U+FFFD.
+                    int result = UTF8.nextCodePoint(u8, --pos, limit);
+                    pos += UTF8.getLength(result);
+                    c = UTF8.getCodePoint(result);
+                    if(c == 0xfffd) {
+                        return makeCodePointAndCE32Pair(c, Collation.FFFD_CE32);
+                    } else {
+                        assert(c > 0xffff);
+                        if(CollationFCD.hasTccc(Character.highSurrogate(c)) &&
+                                pos != limit && nextHasLccc()) {
+                            pos -= 4;
+                        } else {
+                            return makeCodePointAndCE32Pair(c, data.getCE32FromSupplementary(c));
+                        }
+                    }
+                }
+                nextSegment();
+                continue;
+            } else if(state == IN_FCD_SEGMENT && pos != segmentLimit) {
+                return super.handleNextCE32();
+            } else if(state == IN_NORMALIZED && pos != normalized.length()) {
+                c = normalized.charAt(pos++);
+                break;
+            } else {
+                switchToForward();
+            }
+        }
+        return makeCodePointAndCE32Pair(c, trie.getFromU16SingleLead((char)c));
+    }
+
+    /**
+     * @return true if the code point starting at pos has lccc!=0
+     */
+    private boolean nextHasLccc() {
+        assert(state == CHECK_FWD && pos != limit);
+        // The lowest code point with ccc!=0 is U+0300 which is CC 80 in UTF-8.
+        // CJK U+4000..U+DFFF except U+Axxx are also FCD-inert. (Lead bytes E4..ED except EA.)
+        int c = u8[pos] & 0xff;
+        if(c < 0xcc || (0xe4 <= c && c <= 0xed && c != 0xea)) { return false; }
+        c = UTF8.getCodePoint(UTF8.nextCodePoint(u8, pos, limit));
+        if(c > 0xffff) { c = Character.highSurrogate(c); }
+        return CollationFCD.hasLccc(c);
+    }
+
+    /**
+     * @return true if the code point ending before pos has tccc!=0
+     */
+    private boolean previousHasTccc() {
+        assert(state == CHECK_BWD && pos != start);
+        int c = u8[pos - 1];
+        if(c >= 0) { return false; }
+        c = UTF8.getCodePoint(UTF8.previousCodePoint(u8, start, pos));
+        if(c > 0xffff) { c = Character.highSurrogate(c); }
+        return CollationFCD.hasTccc(c);
+    }
+
+    @Override
+    protected char handleGetTrailSurrogate() {
+        if(state != IN_NORMALIZED) { return 0; }
+        assert(pos < normalized.length());
+        char trail;
+        if(Character.isLowSurrogate(trail = normalized.charAt(pos))) { ++pos; }
+        return trail;
+    }
+
+    /* boolean foundNULTerminator(); */
+
+    @Override
+    public int nextCodePoint() {
+        int c;
+        for(;;) {
+            if(state == CHECK_FWD) {
+                if(pos == limit) {
+                    return Collation.SENTINEL_CP;
+                }
+                c = u8[pos];
+                if(c >= 0) {
+                    ++pos;
+                    return c;
+                }
+                int result = UTF8.nextCodePoint(u8, pos, limit);
+                pos += UTF8.getLength(result);
+                c = UTF8.getCodePoint(result);
+                if(CollationFCD.hasTccc(c <= 0xffff ? c : Character.highSurrogate(c)) &&
+                        (CollationFCD.maybeTibetanCompositeVowel(c) ||
+                            (pos != limit && nextHasLccc()))) {
+                    // c is not FCD-inert, therefore it is not U+FFFD and it has a valid byte sequence.
+                    pos -= UTF8.getLength(result);
+                    nextSegment();
+                    continue;
+                }
+                return c;
+            } else if(state == IN_FCD_SEGMENT && pos != segmentLimit) {
+                int result = UTF8.nextCodePoint(u8, pos, limit);
+                pos += UTF8.getLength(result);
+                return UTF8.getCodePoint(result);
+            } else if(state == IN_NORMALIZED && pos != normalized.length()) {
+                c = Character.codePointAt(normalized, pos);
+                pos += Character.charCount(c);
+                return c;
+            } else {
+                switchToForward();
+            }
+        }
+    }
+
+    @Override
+    public int previousCodePoint() {
+        int c;
+        for(;;) {
+            if(state == CHECK_BWD) {
+                if(pos == start) {
+                    return Collation.SENTINEL_CP;
+                }
+                c = u8[pos - 1];
+                if(c >= 0) {
+                    --pos;
+                    return c;
+                }
+                int result = UTF8.previousCodePoint(u8, start, pos);
+                pos -= UTF8.getLength(result);
+                c = UTF8.getCodePoint(result);
+                if(CollationFCD.hasLccc(c <= 0xffff ? c : Character.highSurrogate(c)) &&
+                        (CollationFCD.maybeTibetanCompositeVowel(c) ||
+                            (pos != start && previousHasTccc()))) {
+                    // c is not FCD-inert, therefore it is not U+FFFD and it has a valid byte sequence.
+                    pos += UTF8.getLength(result);
+                    previousSegment();
+                    continue;
+                }
+                return c;
+            } else if(state == IN_FCD_SEGMENT && pos != segmentStart) {
+                int result = UTF8.previousCodePoint(u8, start, pos);
+                pos -= UTF8.getLength(result);
+                return UTF8.getCodePoint(result);
+            } else if(state >= IN_NORMALIZED && pos != 0) {
+                c = Character.codePointBefore(normalized, pos);
+                pos -= Character.charCount(c);
+                return c;
+            } else {
+                switchToBackward();
+            }
+        }
+    }
+
+    @Override
+    protected void forwardNumCodePoints(int num) {
+        // Specify the class to avoid a virtual-function indirection.
+        // In Java, we would declare this class final.
+        while(num > 0 && nextCodePoint() >= 0) {
+            --num;
+        }
+    }
+
+    @Override
+    protected void backwardNumCodePoints(int num) {
+        // Specify the class to avoid a virtual-function indirection.
+        // In Java, we would declare this class final.
+        while(num > 0 && previousCodePoint() >= 0) {
+            --num;
+        }
+    }
+
+    /**
+     * Switches to forward checking if possible.
+     */
+    private void switchToForward() {
+        assert(state == CHECK_BWD ||
+                (state == IN_FCD_SEGMENT && pos == segmentLimit) ||
+                (state == IN_NORMALIZED && pos == normalized.length()));
+        if(state == CHECK_BWD) {
+            // Turn around from backward checking.
+            segmentStart = pos;
+            if(pos == segmentLimit) {
+                state = CHECK_FWD;  // Check forward.
+            } else {  // pos < segmentLimit
+                state = IN_FCD_SEGMENT;  // Stay in FCD segment.
+            }
+        } else {
+            // Reached the end of the FCD segment.
+            if(state == IN_FCD_SEGMENT) {
+                // The input text segment is FCD, extend it forward.
+            } else {
+                // The input text segment needed to be normalized.
+                // Switch to checking forward from it.
+                segmentStart = pos = segmentLimit;
+            }
+            state = CHECK_FWD;
+        }
+    }
+
+    /**
+     * Extends the FCD text segment forward or normalizes around pos.
+     */
+    private void nextSegment() {
+        assert(state == CHECK_FWD && pos != limit);
+        // The input text [segmentStart..pos[ passes the FCD check.
+        int segStart = pos;
+        // Collect the characters being checked, in case they need to be normalized.
+        StringBuilder s = getSegmentBuffer();
+        int prevCC = 0;
+        for(;;) {
+            // Fetch the next character and its fcd16 value.
+            int cpStart = pos;
+            int result = UTF8.nextCodePoint(u8, pos, limit);
+            pos += UTF8.getLength(result);
+            int c = UTF8.getCodePoint(result);
+            int fcd16 = nfcImpl.getFCD16(c);
+            int leadCC = fcd16 >> 8;
+            if(leadCC == 0 && cpStart != segStart) {
+                // FCD boundary before this character.
+                pos = cpStart;
+                break;
+            }
+            s.appendCodePoint(c);
+            if(leadCC != 0 && (prevCC > leadCC || CollationFCD.isFCD16OfTibetanCompositeVowel(fcd16))) {
+                // Fails FCD check. Find the next FCD boundary and normalize.
+                while(pos != limit) {
+                    cpStart = pos;
+                    result = UTF8.nextCodePoint(u8, pos, limit);
+                    pos += UTF8.getLength(result);
+                    c = UTF8.getCodePoint(result);
+                    if(nfcImpl.getFCD16(c) <= 0xff) {
+                        pos = cpStart;
+                        break;
+                    }
+                    s.appendCodePoint(c);
+                }
+                normalize(s);
+                segmentStart = segStart;
+                segmentLimit = pos;
+                state = IN_NORMALIZED;
+                pos = 0;
+                return;
+            }
+            prevCC = fcd16 & 0xff;
+            if(pos == limit || prevCC == 0) {
+                // FCD boundary after the last character.
+                break;
+            }
+        }
+        segmentLimit = pos;
+        pos = segStart;
+        assert(pos != segmentLimit);
+        state = IN_FCD_SEGMENT;
+    }
+
+    /**
+     * Switches to backward checking.
+     */
+    private void switchToBackward() {
+        assert(state == CHECK_FWD ||
+                (state == IN_FCD_SEGMENT && pos == segmentStart) ||
+                (state >= IN_NORMALIZED && pos == 0));
+        if(state == CHECK_FWD) {
+            // Turn around from forward checking.
+            segmentLimit = pos;
+            if(pos == segmentStart) {
+                state = CHECK_BWD;  // Check backward.
+            } else {  // pos > segmentStart
+                state = IN_FCD_SEGMENT;  // Stay in FCD segment.
+            }
+        } else {
+            // Reached the start of the FCD segment.
+            if(state == IN_FCD_SEGMENT) {
+                // The input text segment is FCD, extend it backward.
+            } else {
+                // The input text segment needed to be normalized.
+                // Switch to checking backward from it.
+                segmentLimit = pos = segmentStart;
+            }
+            state = CHECK_BWD;
+        }
+    }
+
+    /**
+     * Extends the FCD text segment backward or normalizes around pos.
+     */
+    private void previousSegment() {
+        assert(state == CHECK_BWD && pos != start);
+        // The input text [pos..segmentLimit[ passes the FCD check.
+        int segLimit = pos;
+        // Collect the characters being checked, in case they need to be normalized.
+        StringBuilder s = getSegmentBuffer();
+        int nextCC = 0;
+        for(;;) {
+            // Fetch the previous character and its fcd16 value.
+            int cpLimit = pos;
+            int result = UTF8.previousCodePoint(u8, start, pos);
+            pos -= UTF8.getLength(result);
+            int c = UTF8.getCodePoint(result);
+            int fcd16 = nfcImpl.getFCD16(c);
+            int trailCC = fcd16 & 0xff;
+            if(trailCC == 0 && cpLimit != segLimit) {
+                // FCD boundary after this character.
+                pos = cpLimit;
+                break;
+            }
+            s.appendCodePoint(c);
+            if(trailCC != 0 && ((nextCC != 0 && trailCC > nextCC) ||
+                                CollationFCD.isFCD16OfTibetanCompositeVowel(fcd16))) {
+                // Fails FCD check. Find the previous FCD boundary and normalize.
+                while(fcd16 > 0xff && pos != start) {
+                    cpLimit = pos;
+                    result = UTF8.previousCodePoint(u8, start, pos);
+                    pos -= UTF8.getLength(result);
+                    c = UTF8.getCodePoint(result);
+                    fcd16 = nfcImpl.getFCD16(c);
+                    if(fcd16 == 0) {
+                        pos = cpLimit;
+                        break;
+                    }
+                    s.appendCodePoint(c);
+                }
+                s.reverse();  // Keeps surrogate pairs intact.
+                normalize(s);
+                segmentLimit = segLimit;
+                segmentStart = pos;
+                state = IN_NORMALIZED;
+                pos = normalized.length();
+                return;
+            }
+            nextCC = fcd16 >> 8;
+            if(pos == start || nextCC == 0) {
+                // FCD boundary before the following character.
+                break;
+            }
+        }
+        segmentStart = pos;
+        pos = segLimit;
+        assert(pos != segmentStart);
+        state = IN_FCD_SEGMENT;
+    }
+
+    private StringBuilder getSegmentBuffer() {
+        if(segment == null) {
+            segment = new StringBuilder();
+        } else {
+            segment.setLength(0);
+        }
+        return segment;
+    }
+
+    private void normalize(CharSequence s) {
+        if(normalized == null) {
+            normalized = new StringBuilder();
+        }
+        // NFD without argument checking.
+        nfcImpl.decompose(s, 0, s.length(), normalized, s.length());
+    }
+
+    /**
+     * The input text [segmentStart..pos[ passes the FCD check.
+     * Moving forward checks incrementally.
+     * segmentLimit is undefined.
+     */
+    private static final int CHECK_FWD = 0;
+    /**
+     * The input text [pos..segmentLimit[ passes the FCD check.
+     * Moving backward checks incrementally.
+     * segmentStart is undefined.
+     */
+    private static final int CHECK_BWD = 1;
+    /**
+     * The input text [segmentStart..segmentLimit[ passes the FCD check.
+     * pos is in the text segment.
+     */
+    private static final int IN_FCD_SEGMENT = 2;
+    /**
+     * The input text [segmentStart..segmentLimit[ failed the FCD check and was normalized.
+     * pos is an index into the normalized string.
+     */
+    private static final int IN_NORMALIZED = 3;
+
+    private int state;
+    private int segmentStart;
+    private int segmentLimit;
+    private final Normalizer2Impl nfcImpl;
+    private StringBuilder segment;
+    private StringBuilder normalized;
+}
@@ -0,0 +1,157 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+/*
+*******************************************************************************
+* UTF8CollationIterator.java, ported from utf8collationiterator.h/.cpp
+*
+* C++ version created on: 2012nov12 (from utf16collationiterator.cpp & uitercollationiterator.cpp)
+* created by: Markus W. Scherer
+*/
+
+package com.ibm.icu.impl.coll;
+
+import com.ibm.icu.impl.UTF8;
+
+/**
+ * UTF-8 collation element and character iterator.
+ * Handles normalized UTF-8 text in a byte array range.
+ * Unnormalized text is handled by a subclass.
+ * Ill-formed byte sequences are treated like U+FFFD.
+ */
+public class UTF8CollationIterator extends CollationIterator {
+    /**
+     * Partial constructor, see {@link CollationIterator#CollationIterator(CollationData)}.
+     */
+    public UTF8CollationIterator(CollationData d) {
+        super(d);
+    }
+
+    public UTF8CollationIterator(CollationData d, boolean numeric, byte[] s, int start, int p, int limit) {
+        super(d, numeric);
+        u8 = s;
+        this.start = start;
+        pos = p;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(!super.equals(other)) { return false; }
+        UTF8CollationIterator o = (UTF8CollationIterator)other;
+        // Compare the iterator state but not the text: Assume that the caller does that.
+        return (pos - start) == (o.pos - o.start);
+    }
+
+    @Override
+    public int hashCode() {
+        assert false : "hashCode not designed";
+        return 42; // any arbitrary constant will do
+    }
+
+    @Override
+    public void resetToOffset(int newOffset) {
+        reset();
+        pos = start + newOffset;
+    }
+
+    @Override
+    public int getOffset() {
+        return pos - start;
+    }
+
+    /**
+     * Sets the text to s[start, limit[ and starts iterating at p.
+     * Offsets returned by {@link #getOffset()} are relative to start.
+     */
+    public void setText(boolean numeric, byte[] s, int start, int p, int limit) {
+        reset(numeric);
+        u8 = s;
+        this.start = start;
+        pos = p;
+        this.limit = limit;
+    }
+
+    @Override
+    public int nextCodePoint() {
+        if(pos == limit) {
+            return Collation.SENTINEL_CP;
+        }
+        int result = UTF8.nextCodePoint(u8, pos, limit);
+        pos += UTF8.getLength(result);
+        return UTF8.getCodePoint(result);
+    }
+
+    @Override
+    public int previousCodePoint() {
+        if(pos == start) {
+            return Collation.SENTINEL_CP;
+        }
+        int result = UTF8.previousCodePoint(u8, start, pos);
+        pos -= UTF8.getLength(result);
+        return UTF8.getCodePoint(result);
+    }
+
+    @Override
+    protected long handleNextCE32() {
+        if(pos == limit) {
+            return NO_CP_AND_CE32;
+        }
+        // Optimized combination of UTF8.nextCodePoint() and the trie lookup.
+        int c = u8[pos++];
+        if(c >= 0) {
+            // ASCII 00..7F
+            return makeCodePointAndCE32Pair(c, trie.get(c));
+        }
+        c &= 0xff;
+        int t1, t2;
+        if(0xe0 <= c && c < 0xf0 &&
+                (pos + 1) < limit &&
+                UTF8.isValidLead3AndT1(c, t1 = u8[pos]) &&
+                (t2 = (u8[pos + 1] & 0xff) ^ 0x80) <= 0x3f) {
+            // U+0800..U+FFFF except surrogates
+            c = ((c & 0xf) << 12) | ((t1 & 0x3f) << 6) | t2;
+            pos += 2;
+            return makeCodePointAndCE32Pair(c, trie.getFromU16SingleLead((char)c));
+        } else if(c < 0xe0 && c >= 0xc2 && pos != limit && (t1 = (u8[pos] & 0xff) ^ 0x80) <= 0x3f) {
+            // U+0080..U+07FF
+            c = ((c & 0x1f) << 6) | t1;
+            ++pos;
+            return makeCodePointAndCE32Pair(c, trie.get(c));
+        } else {
+            // Supplementary code points and error cases.
+            // Illegal byte sequences yield U+FFFD.
+            int result = UTF8.nextCodePoint(u8, --pos, limit);
+            pos += UTF8.getLength(result);
+            c = UTF8.getCodePoint(result);
+            return makeCodePointAndCE32Pair(c, data.getCE32(c));
+        }
+    }
+
+    /* boolean foundNULTerminator(); */
+
+    @Override
+    protected boolean forbidSurrogateCodePoints() {
+        return true;
+    }
+
+    @Override
+    protected void forwardNumCodePoints(int num) {
+        while(num > 0 && pos != limit) {
+            pos = UTF8.forward(u8, pos, limit);
+            --num;
+        }
+    }
+
+    @Override
+    protected void backwardNumCodePoints(int num) {
+        while(num > 0 && pos != start) {
+            pos = UTF8.back(u8, start, pos);
+            --num;
+        }
+    }
+
+    protected byte[] u8;
+    protected int start;
+    protected int pos;
+    protected int limit;
+}
@@ -14,7 +14,15 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.ibm.icu.impl.coll.Collation;
+import com.ibm.icu.impl.coll.CollationIterator;
+import com.ibm.icu.impl.coll.CollationSettings;
+import com.ibm.icu.impl.coll.FCDUTF16CollationIterator;
+import com.ibm.icu.impl.coll.UTF16CollationIterator;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.text.AlphabeticIndex.Bucket;
 import com.ibm.icu.text.AlphabeticIndex.Bucket.LabelType;
@@ -171,11 +179,9 @@ public int compare(Record<V> o1, Record<V> o2) {
      */
     public static final class ImmutableIndex<V> implements Iterable<Bucket<V>> {
         private final BucketList<V> buckets;
-        private final Collator collatorPrimaryOnly;
 
-        private ImmutableIndex(BucketList<V> bucketList, Collator collatorPrimaryOnly) {
+        private ImmutableIndex(BucketList<V> bucketList) {
             this.buckets = bucketList;
-            this.collatorPrimaryOnly = collatorPrimaryOnly;
         }
 
         /**
@@ -197,7 +203,51 @@ public int getBucketCount() {
          * @stable ICU 51
          */
         public int getBucketIndex(CharSequence name) {
-            return buckets.getBucketIndex(name, collatorPrimaryOnly);
+            return buckets.getBucketIndex(name);
+        }
+
+        /**
+         * Finds the index bucket for each of the given names.
+         * Same as calling {@link #getBucketIndex(CharSequence)} for each name,
+         * but reuses internal buffers for all of them.
+         *
+         * @param names the strings to be sorted into index buckets
+         * @return the bucket number for each name, in the same order
+         * @draft ICU 69
+         * @provisional This API might change or be removed in a future release.
+         */
+        public int[] getBucketIndexes(CharSequence[] names) {
+            int[] indexes = new int[names.length];
+            buckets.getBucketIndexes(names, 0, names.length, indexes);
+            return indexes;
+        }
+
+        /**
+         * Same as {@link #getBucketIndexes(CharSequence[])}
+         * but large inputs are split into chunks which are bucketed
+         * concurrently by tasks in the given pool.
+         *
+         * @param names the strings to be sorted into index buckets
+         * @param pool the pool which runs the tasks; if null, then the names are bucketed sequentially
+         * @return the bucket number for each name, in the same order
+         * @draft ICU 69
+         * @provisional This API might change or be removed in a future release.
+         */
+        public int[] getBucketIndexes(CharSequence[] names, ForkJoinPool pool) {
+            int count = names.length;
+            if (pool == null || count < 2 * MIN_NAMES_PER_TASK) {
+                return getBucketIndexes(names);
+            }
+            int[] indexes = new int[count];
+            int taskCount = Math.min(4 * pool.getParallelism(), count / MIN_NAMES_PER_TASK);
+            BucketIndexesTask[] tasks = new BucketIndexesTask[taskCount];
+            for (int i = 0; i < taskCount; ++i) {
+                tasks[i] = new BucketIndexesTask(buckets, names,
+                        (int) ((long) count * i / taskCount), (int) ((long) count * (i + 1) / taskCount),
+                        indexes);
+            }
+            pool.invoke(new BucketIndexesTasks(tasks));
+            return indexes;
         }
 
         /**
@@ -625,7 +675,7 @@ public ImmutableIndex<V> buildImmutableIndex() {
             }
             immutableBucketList = buckets;
         }
-        return new ImmutableIndex<V>(immutableBucketList, collatorPrimaryOnly);
+        return new ImmutableIndex<V>(immutableBucketList);
     }
 
     /**
@@ -704,7 +754,7 @@ public AlphabeticIndex<V> addRecord(CharSequence name, V data) {
      */
     public int getBucketIndex(CharSequence name) {
         initBuckets();
-        return buckets.getBucketIndex(name, collatorPrimaryOnly);
+        return buckets.getBucketIndex(name);
     }
 
     /**
@@ -1091,7 +1141,7 @@ private BucketList<V> createBucketList() {
         }
         if (bucketList.size() == 1) {
             // No real labels, show only the underflow label.
-            return new BucketList<V>(bucketList, bucketList);
+            return new BucketList<V>(bucketList, bucketList, collatorPrimaryOnly);
         }
         // overflow bucket
         bucketList.add(new Bucket<V>(getOverflowLabel(), scriptUpperBoundary, LabelType.OVERFLOW)); // final
@@ -1111,7 +1161,7 @@ private BucketList<V> createBucketList() {
         }
 
         if (!hasInvisibleBuckets) {
-            return new BucketList<V>(bucketList, bucketList);
+            return new BucketList<V>(bucketList, bucketList, collatorPrimaryOnly);
         }
         // Merge inflow buckets that are visually adjacent.
         // Iterate backwards: Merge inflow into overflow rather than the other way around.
@@ -1137,14 +1187,23 @@ private BucketList<V> createBucketList() {
                 publicBucketList.add(bucket);
             }
         }
-        return new BucketList<V>(bucketList, publicBucketList);
+        return new BucketList<V>(bucketList, publicBucketList, collatorPrimaryOnly);
     }
 
     private static class BucketList<V> implements Iterable<Bucket<V>> {
         private final ArrayList<Bucket<V>> bucketList;
         private final List<Bucket<V>> immutableVisibleList;
-
-        private BucketList(ArrayList<Bucket<V>> bucketList, ArrayList<Bucket<V>> publicBucketList) {
+        private final RuleBasedCollator collatorPrimaryOnly;
+        // The primary weights of the lower boundary of bucketList.get(i) are
+        // boundaryPrimaries[boundaryStarts[i]..boundaryStarts[i + 1][.
+        private final long[] boundaryPrimaries;
+        private final int[] boundaryStarts;
+        // Reused by single-name lookups. A caller takes it out of the slot while using it,
+        // and concurrent callers that find the slot empty use their own.
+        private final AtomicReference<PrimaryWeights> cachedWeights = new AtomicReference<PrimaryWeights>();
+
+        private BucketList(ArrayList<Bucket<V>> bucketList, ArrayList<Bucket<V>> publicBucketList,
+                RuleBasedCollator collatorPrimaryOnly) {
             this.bucketList = bucketList;
 
             int displayIndex = 0;
@@ -1152,20 +1211,63 @@ private BucketList(ArrayList<Bucket<V>> bucketList, ArrayList<Bucket<V>> publicB
                 bucket.displayIndex = displayIndex++;
             }
             immutableVisibleList = Collections.unmodifiableList(publicBucketList);
+
+            // Precompute the boundaries' primary weights,
+            // so that bucketing compares weights rather than strings.
+            this.collatorPrimaryOnly = collatorPrimaryOnly;
+            int count = bucketList.size();
+            boundaryStarts = new int[count + 1];
+            PrimaryWeights weights = newPrimaryWeights();
+            long[] primaries = new long[4 * count];
+            int length = 0;
+            for (int i = 0; i < count; ++i) {
+                boundaryStarts[i] = length;
+                weights.setText(bucketList.get(i).lowerBoundary);
+                long p;
+                for (int j = 0; (p = weights.get(j)) != PrimaryWeights.END; ++j) {
+                    if (length == primaries.length) {
+                        long[] newPrimaries = new long[2 * length];
+                        System.arraycopy(primaries, 0, newPrimaries, 0, length);
+                        primaries = newPrimaries;
+                    }
+                    primaries[length++] = p;
+                }
+            }
+            boundaryStarts[count] = length;
+            boundaryPrimaries = primaries;
+        }
+
+        private PrimaryWeights newPrimaryWeights() {
+            return new PrimaryWeights(collatorPrimaryOnly);
         }
 
         private int getBucketCount() {
             return immutableVisibleList.size();
         }
 
-        private int getBucketIndex(CharSequence name, Collator collatorPrimaryOnly) {
+        private int getBucketIndex(CharSequence name) {
+            PrimaryWeights weights = cachedWeights.getAndSet(null);
+            if (weights == null) {
+                weights = newPrimaryWeights();
+            }
+            int bucketIndex = getBucketIndex(name, weights);
+            cachedWeights.set(weights);
+            return bucketIndex;
+        }
+
+        private int getBucketIndex(CharSequence name, PrimaryWeights weights) {
+            weights.setText(name);
             // binary search
             int start = 0;
             int limit = bucketList.size();
             while ((start + 1) < limit) {
                 int i = (start + limit) / 2;
-                Bucket<V> bucket = bucketList.get(i);
-                int nameVsBucket = collatorPrimaryOnly.compare(name, bucket.lowerBoundary);
+                int nameVsBucket = compareToBoundary(weights, i);
+                if (nameVsBucket == 0) {
+                    // Equal primary weights: Let the collator decide,
+                    // in case it compares more than the primary level (e.g., the case level).
+                    nameVsBucket = collatorPrimaryOnly.compare(name, bucketList.get(i).lowerBoundary);
+                }
                 if (nameVsBucket < 0) {
                     limit = i;
                 } else {
@@ -1179,6 +1281,33 @@ private int getBucketIndex(CharSequence name, Collator collatorPrimaryOnly) {
             return bucket.displayIndex;
         }
 
+        private void getBucketIndexes(CharSequence[] names, int start, int limit, int[] indexes) {
+            PrimaryWeights weights = newPrimaryWeights();
+            for (int i = start; i < limit; ++i) {
+                indexes[i] = getBucketIndex(names[i], weights);
+            }
+        }
+
+        /**
+         * Compares the name's primary weights with those of a bucket's lower boundary,
+         * fetching only as many of the name's weights as needed.
+         */
+        private int compareToBoundary(PrimaryWeights weights, int bucketIndex) {
+            int boundaryIndex = boundaryStarts[bucketIndex];
+            int boundaryLimit = boundaryStarts[bucketIndex + 1];
+            for (int j = 0;; ++j, ++boundaryIndex) {
+                long p = weights.get(j);
+                long q = boundaryIndex < boundaryLimit ?
+                        boundaryPrimaries[boundaryIndex] : PrimaryWeights.END;
+                if (p != q) {
+                    return p < q ? -1 : 1;
+                }
+                if (p == PrimaryWeights.END) {
+                    return 0;
+                }
+            }
+        }
+
         /**
          * Private iterator over all the buckets, visible and invisible
          */
@@ -1195,6 +1324,131 @@ public Iterator<Bucket<V>> iterator() {
         }
     }
 
+    /**
+     * The primary weights of a string, as compared by a primary-strength collator:
+     * Without primary ignorables and (with alternate=shifted) variable weights,
+     * and with script reordering applied.
+     * Weights are fetched from the collation iterator only as far as they are requested.
+     * Not thread-safe.
+     */
+    private static final class PrimaryWeights {
+        /** Returned after the last weight; lower than any primary weight. */
+        static final long END = 1;  // Collation.NO_CE_PRIMARY
+
+        private final CollationSettings settings;
+        private final CollationIterator iter;
+        private final boolean numeric;
+        private final long variableTop;
+        private long[] primaries = new long[8];
+        private int length;
+        private boolean done;
+
+        PrimaryWeights(RuleBasedCollator collator) {
+            settings = collator.settings.readOnly();
+            if (settings.dontCheckFCD()) {
+                iter = new UTF16CollationIterator(collator.data);
+            } else {
+                iter = new FCDUTF16CollationIterator(collator.data);
+            }
+            numeric = settings.isNumeric();
+            if (settings.getAlternateHandling()) {
+                // +1 so that we can use "<" and primary ignorables test out early.
+                variableTop = settings.variableTop + 1;
+            } else {
+                variableTop = 0;
+            }
+        }
+
+        void setText(CharSequence s) {
+            if (iter instanceof FCDUTF16CollationIterator) {
+                ((FCDUTF16CollationIterator) iter).setText(numeric, s, 0);
+            } else {
+                ((UTF16CollationIterator) iter).setText(numeric, s, 0);
+            }
+            length = 0;
+            done = false;
+        }
+
+        /** Returns the i-th primary weight, or END if there are not more than i of them. */
+        long get(int i) {
+            while (i >= length) {
+                if (done) {
+                    return END;
+                }
+                fetchNext();
+            }
+            return primaries[i];
+        }
+
+        private void fetchNext() {
+            long p;
+            do {
+                long ce = iter.nextCE();
+                if (ce == Collation.NO_CE) {
+                    done = true;
+                    return;
+                }
+                p = ce >>> 32;
+                if (p < variableTop && p > Collation.MERGE_SEPARATOR_PRIMARY) {
+                    p = 0;  // variable, shifted to the quaternary level
+                }
+            } while (p == 0);
+            if (settings.hasReordering()) {
+                p = settings.reorder(p);
+            }
+            if (length == primaries.length) {
+                long[] newPrimaries = new long[2 * length];
+                System.arraycopy(primaries, 0, newPrimaries, 0, length);
+                primaries = newPrimaries;
+            }
+            primaries[length++] = p;
+        }
+    }
+
+    /**
+     * Minimum number of names per parallel bucketing task,
+     * to amortize the task overhead.
+     */
+    private static final int MIN_NAMES_PER_TASK = 1024;
+
+    /** Runs all of the chunk tasks and waits for them. */
+    private static final class BucketIndexesTasks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final BucketIndexesTask[] tasks;
+
+        BucketIndexesTasks(BucketIndexesTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    /** Buckets one chunk of the input names. */
+    private static final class BucketIndexesTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final BucketList<?> buckets;
+        private final CharSequence[] names;
+        private final int start;
+        private final int limit;
+        private final int[] indexes;
+
+        BucketIndexesTask(BucketList<?> buckets, CharSequence[] names, int start, int limit, int[] indexes) {
+            this.buckets = buckets;
+            this.names = names;
+            this.start = start;
+            this.limit = limit;
+            this.indexes = indexes;
+        }
+
+        @Override
+        protected void compute() {
+            buckets.getBucketIndexes(names, start, limit, indexes);
+        }
+    }
+
     private static boolean hasMultiplePrimaryWeights(
             RuleBasedCollator coll, long variableTop, String s) {
         long[] ces = coll.internalGetCEs(s);
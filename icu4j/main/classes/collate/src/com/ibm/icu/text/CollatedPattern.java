@@ -0,0 +1,156 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.text;
+
+/**
+ * A search pattern together with its collation elements,
+ * computed once for a collator.
+ *
+ * <p>A <code>CollatedPattern</code> is immutable and can be shared among threads.
+ * It can be used with any number of {@link StringSearch} instances,
+ * via {@link StringSearch#StringSearch(CollatedPattern, java.text.CharacterIterator, BreakIterator)}
+ * and {@link StringSearch#setPattern(CollatedPattern)},
+ * and it is the unit of a {@link CollatedPatternSet} which finds
+ * many patterns in one pass over a text.
+ *
+ * <p>Numeric collation is not supported, as in {@link StringSearch}.
+ *
+ * @see StringSearch
+ * @see CollatedPatternSet
+ * @draft ICU 69
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CollatedPattern {
+    private final String pattern;
+    private final RuleBasedCollator collator;
+    /** Non-ignorable collation elements, as used by StringSearch. */
+    private final int[] ces;
+    /** Processed collation elements, as used by StringSearch. */
+    private final long[] pces;
+
+    /**
+     * Computes the collation elements of the pattern.
+     *
+     * <p>If the collator is not frozen, then a frozen clone is used.
+     * When creating many patterns, pass in a frozen collator so that they all share it.
+     *
+     * @param pattern the text to look for
+     * @param collator the collator which defines the language rules
+     * @throws IllegalArgumentException if the pattern is null or empty
+     * @throws UnsupportedOperationException if the collator uses numeric collation
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CollatedPattern(String pattern, RuleBasedCollator collator) {
+        if (pattern == null || pattern.length() <= 0) {
+            throw new IllegalArgumentException(
+                    "Pattern to search for can not be null or of length 0");
+        }
+        if (collator.getNumericCollation()) {
+            throw new UnsupportedOperationException("Numeric collation is not supported by StringSearch");
+        }
+        if (!collator.isFrozen()) {
+            collator = (RuleBasedCollator) collator.cloneAsThawed().freeze();
+        }
+        this.pattern = pattern;
+        this.collator = collator;
+        CollationElementIterator iter = new CollationElementIterator(pattern, collator);
+        ces = computeCEs(pattern, iter, collator);
+        iter.reset();
+        pces = computePCEs(pattern, iter);
+    }
+
+    /**
+     * Returns the pattern text.
+     *
+     * @return the pattern text
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the frozen collator for which the collation elements were computed.
+     *
+     * @return the frozen collator
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public RuleBasedCollator getCollator() {
+        return collator;
+    }
+
+    /**
+     * Returns the non-ignorable collation elements. The caller must not modify the array.
+     */
+    int[] getCEs() {
+        return ces;
+    }
+
+    /**
+     * Returns the processed collation elements. The caller must not modify the array.
+     */
+    long[] getPCEs() {
+        return pces;
+    }
+
+    /**
+     * Returns true if the collation elements are valid for the other collator,
+     * that is, if it is equal to this pattern's collator.
+     */
+    boolean isCompatibleWith(RuleBasedCollator other) {
+        return other == collator || collator.equals(other);
+    }
+
+    private static int[] computeCEs(String pattern, CollationElementIterator iter,
+            RuleBasedCollator collator) {
+        int strength = collator.getStrength();
+        int ceMask = StringSearch.getMask(strength);
+        boolean toShift = collator.isAlternateHandlingShifted();
+        int variableTop = collator.getVariableTop();
+        int[] ces = new int[pattern.length() + 1];
+        int length = 0;
+        int ce;
+        while ((ce = iter.next()) != CollationElementIterator.NULLORDER) {
+            ce = StringSearch.getCE(ce, ceMask, toShift, variableTop, strength);
+            if (ce == CollationElementIterator.IGNORABLE) {
+                continue;
+            }
+            if (length == ces.length) {
+                int[] newCEs = new int[2 * length];
+                System.arraycopy(ces, 0, newCEs, 0, length);
+                ces = newCEs;
+            }
+            ces[length++] = ce;
+        }
+        if (length != ces.length) {
+            int[] newCEs = new int[length];
+            System.arraycopy(ces, 0, newCEs, 0, length);
+            ces = newCEs;
+        }
+        return ces;
+    }
+
+    private static long[] computePCEs(String pattern, CollationElementIterator iter) {
+        StringSearch.CollationPCE pceIter = new StringSearch.CollationPCE(iter);
+        long[] pces = new long[pattern.length() + 1];
+        int length = 0;
+        long pce;
+        while ((pce = pceIter.nextProcessed(null)) != StringSearch.CollationPCE.PROCESSED_NULLORDER) {
+            if (length == pces.length) {
+                long[] newPCEs = new long[2 * length];
+                System.arraycopy(pces, 0, newPCEs, 0, length);
+                pces = newPCEs;
+            }
+            pces[length++] = pce;
+        }
+        if (length != pces.length) {
+            long[] newPCEs = new long[length];
+            System.arraycopy(pces, 0, newPCEs, 0, length);
+            pces = newPCEs;
+        }
+        return pces;
+    }
+}
@@ -0,0 +1,541 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.text;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Finds all occurrences of many collation-equivalent patterns in one pass over a text.
+ *
+ * <p>The set compiles the collation elements of its patterns into
+ * an Aho-Corasick automaton. A {@link Matcher} iterates over the collation elements
+ * of a text once, advances the automaton by one transition per collation element,
+ * and reports every pattern occurrence, including overlapping and nested ones.
+ * The cost per text is independent of the number of patterns,
+ * and reporting a match does not allocate any objects.
+ *
+ * <p>Collation elements are compared exactly, as with
+ * {@link SearchIterator.ElementComparisonType#STANDARD_ELEMENT_COMPARISON}.
+ * A match in collation element space is accepted with the same boundary rules as
+ * in {@link StringSearch} with its default character break iterator:
+ * It must not begin or end in the middle of an expansion or of a combining sequence.
+ * Patterns without any non-ignorable collation elements never match.
+ *
+ * <p>A <code>CollatedPatternSet</code> is immutable and can be shared among threads.
+ * Each thread uses its own {@link Matcher}, which can be reused for any number of texts.
+ *
+ * <p>Example:
+ * <pre>
+ * RuleBasedCollator collator = ...;
+ * collator.setStrength(Collator.PRIMARY);
+ * collator.freeze();
+ * List&lt;CollatedPattern&gt; patterns = new ArrayList&lt;CollatedPattern&gt;();
+ * for (String keyword : keywords) {
+ *     patterns.add(new CollatedPattern(keyword, collator));
+ * }
+ * CollatedPatternSet set = new CollatedPatternSet(patterns);
+ * CollatedPatternSet.Matcher matcher = set.matcher();
+ * matcher.findAll(document, new CollatedPatternSet.MatchHandler() {
+ *     public boolean handleMatch(int patternIndex, int start, int limit) {
+ *         ...
+ *         return true;  // continue
+ *     }
+ * });
+ * </pre>
+ *
+ * @see CollatedPattern
+ * @see StringSearch
+ * @draft ICU 69
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CollatedPatternSet {
+    /**
+     * Receives the matches found by a {@link Matcher}.
+     *
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public interface MatchHandler {
+        /**
+         * Called for each pattern occurrence, in the order of their end positions
+         * in collation element space; for matches with the same end, longer patterns first.
+         *
+         * @param patternIndex the index of the pattern in the set
+         * @param start the start index of the match in the text
+         * @param limit the limit index of the match in the text
+         * @return true to continue, false to stop the search
+         * @draft ICU 69
+         * @provisional This API might change or be removed in a future release.
+         */
+        boolean handleMatch(int patternIndex, int start, int limit);
+    }
+
+    private final CollatedPattern[] patterns;
+    private final RuleBasedCollator collator;
+    /** Number of collation elements of each pattern. */
+    private final int[] patternLengths;
+    private final int maxPatternLength;
+
+    // Aho-Corasick automaton over processed collation elements. State 0 is the root.
+    // The transitions of state s are edgeCEs[edgeStarts[s]..edgeStarts[s + 1][,
+    // sorted in ascending signed order, with the target states in parallel edgeTargets[].
+    private final int[] edgeStarts;
+    private final long[] edgeCEs;
+    private final int[] edgeTargets;
+    /** State of the longest proper suffix of each state's CE sequence which is also in the trie. */
+    private final int[] failures;
+    /** Nearest state on the failure chain, excluding the state itself, which ends a pattern; 0 if none. */
+    private final int[] outputLinks;
+    // The patterns which end at state s are outputs[outputStarts[s]..outputStarts[s + 1][.
+    private final int[] outputStarts;
+    private final int[] outputs;
+
+    /**
+     * Compiles the patterns into one automaton.
+     * The index of a pattern in the set is its position in the iteration order of the collection.
+     *
+     * @param patterns the patterns to look for, all created with equal collators
+     * @throws IllegalArgumentException if the collection is empty,
+     *         or if the patterns were created with collators which are not equal
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CollatedPatternSet(Collection<CollatedPattern> patterns) {
+        this.patterns = patterns.toArray(new CollatedPattern[patterns.size()]);
+        int count = this.patterns.length;
+        if (count == 0) {
+            throw new IllegalArgumentException("no patterns");
+        }
+        collator = this.patterns[0].getCollator();
+        patternLengths = new int[count];
+        int maxLength = 0;
+        int totalLength = 0;
+        for (int i = 0; i < count; ++i) {
+            CollatedPattern p = this.patterns[i];
+            if (!p.isCompatibleWith(collator)) {
+                throw new IllegalArgumentException(
+                        "pattern " + i + " was created with a different collator than pattern 0");
+            }
+            int length = p.getPCEs().length;
+            patternLengths[i] = length;
+            if (length > maxLength) {
+                maxLength = length;
+            }
+            totalLength += length;
+        }
+        maxPatternLength = maxLength;
+
+        // Build the trie from the patterns sorted by their collation elements:
+        // Each pattern shares a prefix path with its predecessor,
+        // and the edges out of each state are created in ascending order.
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+        }
+        final CollatedPattern[] sortedPatterns = this.patterns;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer left, Integer right) {
+                return comparePCEs(sortedPatterns[left].getPCEs(), sortedPatterns[right].getPCEs());
+            }
+        });
+        // At most one state per pattern collation element, plus the root.
+        int maxStates = totalLength + 1;
+        int[] parents = new int[maxStates];
+        long[] incomingCEs = new long[maxStates];
+        int[] endStates = new int[count];
+        int[] path = new int[maxLength + 1];  // path[d] = state at depth d of the previous pattern
+        int stateCount = 1;
+        long[] prevPCEs = null;
+        for (int k = 0; k < count; ++k) {
+            int p = order[k];
+            long[] pces = this.patterns[p].getPCEs();
+            int common = 0;
+            if (prevPCEs != null) {
+                int minLength = Math.min(prevPCEs.length, pces.length);
+                while (common < minLength && prevPCEs[common] == pces[common]) {
+                    ++common;
+                }
+            }
+            for (int d = common; d < pces.length; ++d) {
+                int state = stateCount++;
+                parents[state] = path[d];
+                incomingCEs[state] = pces[d];
+                path[d + 1] = state;
+            }
+            endStates[p] = path[pces.length];
+            prevPCEs = pces;
+        }
+
+        // States were numbered in creation order, so the edges out of each state
+        // are already in ascending CE order. Group them by source state.
+        edgeStarts = new int[stateCount + 1];
+        for (int state = 1; state < stateCount; ++state) {
+            ++edgeStarts[parents[state] + 1];
+        }
+        for (int state = 0; state < stateCount; ++state) {
+            edgeStarts[state + 1] += edgeStarts[state];
+        }
+        int edgeCount = stateCount - 1;
+        edgeCEs = new long[edgeCount];
+        edgeTargets = new int[edgeCount];
+        int[] fill = Arrays.copyOf(edgeStarts, stateCount);
+        for (int state = 1; state < stateCount; ++state) {
+            int e = fill[parents[state]]++;
+            edgeCEs[e] = incomingCEs[state];
+            edgeTargets[e] = state;
+        }
+
+        // Group the patterns by their end states.
+        // Patterns without collation elements end at the root and are not recorded.
+        outputStarts = new int[stateCount + 1];
+        for (int p = 0; p < count; ++p) {
+            if (endStates[p] != 0) {
+                ++outputStarts[endStates[p] + 1];
+            }
+        }
+        for (int state = 0; state < stateCount; ++state) {
+            outputStarts[state + 1] += outputStarts[state];
+        }
+        outputs = new int[outputStarts[stateCount]];
+        fill = Arrays.copyOf(outputStarts, stateCount);
+        for (int p = 0; p < count; ++p) {
+            if (endStates[p] != 0) {
+                outputs[fill[endStates[p]]++] = p;
+            }
+        }
+
+        // Failure and output links, in breadth-first order
+        // so that the links of shorter paths are known first.
+        failures = new int[stateCount];
+        outputLinks = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int queueLimit = 0;
+        for (int e = edgeStarts[0]; e < edgeStarts[1]; ++e) {
+            queue[queueLimit++] = edgeTargets[e];
+        }
+        for (int queueStart = 0; queueStart < queueLimit; ++queueStart) {
+            int state = queue[queueStart];
+            for (int e = edgeStarts[state]; e < edgeStarts[state + 1]; ++e) {
+                long ce = edgeCEs[e];
+                int target = edgeTargets[e];
+                int f = failures[state];
+                int next;
+                while ((next = findTransition(f, ce)) < 0 && f != 0) {
+                    f = failures[f];
+                }
+                f = next >= 0 ? next : 0;
+                failures[target] = f;
+                outputLinks[target] = hasOutputs(f) ? f : outputLinks[f];
+                queue[queueLimit++] = target;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of patterns in the set.
+     *
+     * @return the number of patterns
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Returns the pattern with the given index.
+     *
+     * @param index the pattern index, as reported to a {@link MatchHandler}
+     * @return the pattern
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CollatedPattern getPattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Returns a new matcher for this set.
+     * A matcher is not thread-safe; each thread needs its own.
+     *
+     * @return a new matcher
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public Matcher matcher() {
+        return new Matcher(this);
+    }
+
+    /**
+     * Finds all occurrences of the patterns in the text.
+     * Convenience method for <code>matcher().findAll(text, handler)</code>.
+     *
+     * @param text the text to search
+     * @param handler receives the matches
+     * @return false if the handler stopped the search, otherwise true
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public boolean findAll(String text, MatchHandler handler) {
+        return matcher().findAll(text, handler);
+    }
+
+    private static int comparePCEs(long[] left, long[] right) {
+        int minLength = Math.min(left.length, right.length);
+        for (int i = 0; i < minLength; ++i) {
+            if (left[i] != right[i]) {
+                return left[i] < right[i] ? -1 : 1;
+            }
+        }
+        return left.length - right.length;
+    }
+
+    /**
+     * Returns the target of the state's transition for the CE, or -1 if there is none.
+     */
+    private int findTransition(int state, long ce) {
+        int start = edgeStarts[state];
+        int limit = edgeStarts[state + 1];
+        while (start < limit) {
+            int i = (start + limit) >>> 1;
+            long edgeCE = edgeCEs[i];
+            if (ce < edgeCE) {
+                limit = i;
+            } else if (ce > edgeCE) {
+                start = i + 1;
+            } else {
+                return edgeTargets[i];
+            }
+        }
+        return -1;
+    }
+
+    private int nextState(int state, long ce) {
+        for (;;) {
+            int next = findTransition(state, ce);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures[state];
+        }
+    }
+
+    private boolean hasOutputs(int state) {
+        return outputStarts[state] < outputStarts[state + 1];
+    }
+
+    /**
+     * Finds pattern occurrences in texts.
+     * Not thread-safe, but reusable: All of its buffers are allocated once.
+     *
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final class Matcher {
+        private final CollatedPatternSet set;
+        private final CollationElementIterator textIter;
+        private final StringSearch.CollationPCE pceIter;
+        private final StringSearch.CollationPCE.Range range = new StringSearch.CollationPCE.Range();
+        private final BreakIterator breakIter;
+        private final Normalizer2 nfd = Normalizer2.getNFDInstance();
+        // Ring buffer of the most recent collation elements of the text with their source ranges,
+        // long enough for the longest match plus the collation element which follows it.
+        private final int ringSize;
+        private final long[] ces;
+        private final int[] lows;
+        private final int[] highs;
+        private String text;
+        // Only for identical strength.
+        private String[] nfdPatterns;
+        private StringBuilder nfdText;
+        private TextRegion region;
+
+        private Matcher(CollatedPatternSet set) {
+            this.set = set;
+            RuleBasedCollator collator = set.collator;
+            textIter = new CollationElementIterator("", collator);
+            pceIter = new StringSearch.CollationPCE(textIter);
+            ULocale collLocale = collator.getLocale(ULocale.VALID_LOCALE);
+            breakIter = BreakIterator.getCharacterInstance(collLocale == null ? ULocale.ROOT : collLocale);
+            ringSize = set.maxPatternLength + 1;
+            ces = new long[ringSize];
+            lows = new int[ringSize];
+            highs = new int[ringSize];
+            if (collator.getStrength() == Collator.IDENTICAL) {
+                nfdPatterns = new String[set.patterns.length];
+                for (int i = 0; i < nfdPatterns.length; ++i) {
+                    nfdPatterns[i] = nfd.normalize(set.patterns[i].getPattern());
+                }
+                nfdText = new StringBuilder();
+                region = new TextRegion();
+            }
+        }
+
+        /**
+         * Finds all occurrences of the set's patterns in the text.
+         *
+         * @param text the text to search
+         * @param handler receives the matches
+         * @return false if the handler stopped the search, otherwise true
+         * @draft ICU 69
+         * @provisional This API might change or be removed in a future release.
+         */
+        public boolean findAll(String text, MatchHandler handler) {
+            this.text = text;
+            textIter.setText(text);
+            pceIter.init(textIter);
+            breakIter.setText(text);
+            boolean completed = true;
+            int state = 0;
+            // Matches which end with CE n-1 are checked when CE n is known.
+            for (int n = 0;; ++n) {
+                long ce = pceIter.nextProcessed(range);
+                int i = n % ringSize;
+                ces[i] = ce;
+                lows[i] = range.ixLow_;
+                highs[i] = range.ixHigh_;
+                if (state != 0 && !reportMatches(state, n, handler)) {
+                    completed = false;
+                    break;
+                }
+                if (ce == StringSearch.CollationPCE.PROCESSED_NULLORDER) {
+                    break;
+                }
+                state = set.nextState(state, ce);
+            }
+            this.text = null;
+            return completed;
+        }
+
+        /**
+         * Reports the patterns which end at the state,
+         * that is, with the collation element before CE next.
+         */
+        private boolean reportMatches(int state, int next, MatchHandler handler) {
+            int s = set.hasOutputs(state) ? state : set.outputLinks[state];
+            while (s != 0) {
+                for (int i = set.outputStarts[s]; i < set.outputStarts[s + 1]; ++i) {
+                    int p = set.outputs[i];
+                    int first = next - set.patternLengths[p];
+                    int limit = getMatchLimit(first, next);
+                    if (limit >= 0) {
+                        int start = lows[first % ringSize];
+                        if ((nfdPatterns == null || isIdentical(p, start, limit)) &&
+                                !handler.handleMatch(p, start, limit)) {
+                            return false;
+                        }
+                    }
+                }
+                s = set.outputLinks[s];
+            }
+            return true;
+        }
+
+        /**
+         * Determines the bounds of a match in string index space,
+         * for the match in CE space from CE first up to CE next.
+         * Same as StringSearch.search() with standard element comparison.
+         *
+         * @return the match limit, or -1 if the CE range does not correspond to
+         *         an acceptable character range
+         */
+        private int getMatchLimit(int first, int next) {
+            int firstIx = first % ringSize;
+            int lastIx = (next - 1) % ringSize;
+            int nextIx = next % ringSize;
+            int mStart = lows[firstIx];
+            // Reject a start within a combining sequence or within an expansion.
+            if (!breakIter.isBoundary(mStart) || mStart == highs[firstIx]) {
+                return -1;
+            }
+            // Reject an end within an expansion.
+            long nextCE = ces[nextIx];
+            int maxLimit = lows[nextIx];
+            if (maxLimit == highs[nextIx] && nextCE != StringSearch.CollationPCE.PROCESSED_NULLORDER) {
+                return -1;
+            }
+            int minLimit = lows[lastIx];
+            int lastHigh = highs[lastIx];
+            boolean allowMidclusterMatch =
+                    ((nextCE >>> 32) & 0xFFFF0000L) != 0 &&
+                    maxLimit >= lastHigh && highs[nextIx] > maxLimit &&
+                    (nfd.hasBoundaryBefore(text.codePointAt(maxLimit)) ||
+                            (maxLimit > 0 && nfd.hasBoundaryAfter(text.codePointBefore(maxLimit))));
+            int mLimit = maxLimit;
+            if (minLimit < maxLimit) {
+                if (minLimit == lastHigh && breakIter.isBoundary(minLimit)) {
+                    mLimit = minLimit;
+                } else {
+                    int nba = breakIter.following(minLimit);
+                    if (nba >= lastHigh && (!allowMidclusterMatch || nba < maxLimit)) {
+                        mLimit = nba;
+                    }
+                }
+            }
+            if (!allowMidclusterMatch && (mLimit > maxLimit || !breakIter.isBoundary(mLimit))) {
+                return -1;
+            }
+            return mLimit;
+        }
+
+        private boolean isIdentical(int patternIndex, int start, int limit) {
+            region.set(text, start, limit);
+            String nfdPattern = nfdPatterns[patternIndex];
+            nfd.normalize(region, nfdText);
+            int length = nfdText.length();
+            if (length != nfdPattern.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; ++i) {
+                if (nfdText.charAt(i) != nfdPattern.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reusable view of a part of a string, so that identical-strength checks do not
+     * allocate substrings.
+     */
+    private static final class TextRegion implements CharSequence {
+        private String s;
+        private int start;
+        private int limit;
+
+        void set(String s, int start, int limit) {
+            this.s = s;
+            this.start = start;
+            this.limit = limit;
+        }
+
+        @Override
+        public int length() {
+            return limit - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return s.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int subStart, int subLimit) {
+            return s.subSequence(start + subStart, start + subLimit);
+        }
+
+        @Override
+        public String toString() {
+            return s.substring(start, limit);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.text;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Sorts lists of objects by the collation order of their texts.
+ *
+ * <p>Instead of calling {@link Collator#compare(String, String)} O(n log n) times,
+ * as in <code>Collections.sort(list, collator)</code>,
+ * the sorter computes the sort key of each element's text once,
+ * into one contiguous byte array, and then sorts the elements
+ * with a most-significant-byte-first radix sort over the sort key bytes.
+ * Latin texts which are long relative to the number of comparisons per element
+ * are instead sorted with the collator's comparison function:
+ * Its fast Latin path usually finds a difference near the start of the texts,
+ * while a sort key covers the whole text.
+ *
+ * <p>The sort is stable: Elements with equal texts (according to the collator)
+ * keep their relative order.
+ *
+ * <p>Example:
+ * <pre>
+ * List&lt;Person&gt; people = ...;
+ * CollationSorter.sort(people, new Transform&lt;Person, String&gt;() {
+ *     public String transform(Person p) { return p.getName(); }
+ * }, collator);
+ * </pre>
+ *
+ * @draft ICU 69
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CollationSorter {
+    /**
+     * Sorts the texts by their collation order.
+     *
+     * @param list the texts to be sorted; must be modifiable
+     * @param collator the collator which defines the order
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static <T extends CharSequence> void sort(List<T> list, RuleBasedCollator collator) {
+        sort(list, IDENTITY, collator);
+    }
+
+    private static final Transform<CharSequence, CharSequence> IDENTITY =
+            new Transform<CharSequence, CharSequence>() {
+        @Override
+        public CharSequence transform(CharSequence source) {
+            return source;
+        }
+    };
+
+    /**
+     * Sorts the objects by the collation order of their texts.
+     * The text of each object is fetched exactly once.
+     *
+     * @param list the objects to be sorted; must be modifiable
+     * @param getText returns the text of an object
+     * @param collator the collator which defines the order
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static <T> void sort(List<T> list, Transform<? super T, ? extends CharSequence> getText,
+            RuleBasedCollator collator) {
+        int length = list.size();
+        if (length < 2) {
+            return;
+        }
+        Object[] items = list.toArray();
+        CharSequence[] texts = new CharSequence[length];
+        boolean allFastLatin = true;
+        long totalTextLength = 0;
+        for (int i = 0; i < length; ++i) {
+            @SuppressWarnings("unchecked")
+            T item = (T) items[i];
+            CharSequence text = getText.transform(item);
+            texts[i] = text;
+            totalTextLength += text.length();
+            if (allFastLatin) {
+                allFastLatin = isFastLatin(text);
+            }
+        }
+        // A comparison sort compares each element about log2(length) times,
+        // with two texts per comparison.
+        int log2Length = 32 - Integer.numberOfLeadingZeros(length);
+        int[] order;
+        if (allFastLatin &&
+                (length <= MAX_SMALL_COMPARISON_SORT_LENGTH || totalTextLength >= 2L * length * log2Length)) {
+            if (getText == IDENTITY) {
+                // The items are the texts: Sort them directly.
+                Arrays.sort(items, collator);
+                ListIterator<T> iter = list.listIterator();
+                for (Object item : items) {
+                    iter.next();
+                    @SuppressWarnings("unchecked")
+                    T t = (T) item;
+                    iter.set(t);
+                }
+                return;
+            }
+            order = sortByComparison(texts, collator);
+        } else {
+            order = sortByKeys(texts, collator);
+        }
+        ListIterator<T> iter = list.listIterator();
+        for (int i = 0; i < length; ++i) {
+            iter.next();
+            @SuppressWarnings("unchecked")
+            T item = (T) items[order[i]];
+            iter.set(item);
+        }
+    }
+
+    /**
+     * Up to this many Latin texts are always sorted by comparison:
+     * Computing their sort keys costs more than the comparisons via the fast Latin path.
+     */
+    private static final int MAX_SMALL_COMPARISON_SORT_LENGTH = 64;
+
+    /**
+     * Ranges up to this size are sorted by insertion sort over the key bytes
+     * rather than being distributed into 256 buckets.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    private static boolean isFastLatin(CharSequence s) {
+        int length = s.length();
+        for (int i = 0; i < length; ++i) {
+            // Latin-1 and Latin Extended-A, as covered by the fast Latin table.
+            if (s.charAt(i) >= 0x180) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the permutation which sorts the texts, using the collator's comparison function.
+     */
+    private static int[] sortByComparison(CharSequence[] texts, final RuleBasedCollator collator) {
+        int length = texts.length;
+        IndexedText[] entries = new IndexedText[length];
+        for (int i = 0; i < length; ++i) {
+            entries[i] = new IndexedText(texts[i], i);
+        }
+        // Arrays.sort() on objects is a stable merge sort.
+        Arrays.sort(entries, new Comparator<IndexedText>() {
+            @Override
+            public int compare(IndexedText left, IndexedText right) {
+                return collator.compare(left.text, right.text);
+            }
+        });
+        int[] order = new int[length];
+        for (int i = 0; i < length; ++i) {
+            order[i] = entries[i].index;
+        }
+        return order;
+    }
+
+    private static final class IndexedText {
+        final CharSequence text;
+        final int index;
+
+        IndexedText(CharSequence text, int index) {
+            this.text = text;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Returns the permutation which sorts the texts, via their sort keys.
+     */
+    private static int[] sortByKeys(CharSequence[] texts, RuleBasedCollator collator) {
+        int length = texts.length;
+        int[] offsets = new int[length + 1];
+        byte[] keys = collator.getRawCollationKeys(Arrays.asList(texts), offsets, null).bytes;
+        int[] order = new int[length];
+        for (int i = 0; i < length; ++i) {
+            order[i] = i;
+        }
+        new KeySorter(keys, offsets, order).sort();
+        return order;
+    }
+
+    /**
+     * MSD radix sort of an index permutation by the sort keys in a byte arena.
+     * Each sort key ends with a 00 byte which does not occur anywhere else in a key.
+     * Keys that end at the current depth are therefore equal and finished.
+     */
+    private static final class KeySorter {
+        private final byte[] keys;
+        private final int[] offsets;
+        private final int[] order;
+        private final int[] temp;
+        private final int[] counts = new int[257];
+        /** Stack of (start, limit, depth) triples of ranges which remain to be sorted. */
+        private int[] stack = new int[3 * 64];
+        private int stackLength = 0;
+
+        KeySorter(byte[] keys, int[] offsets, int[] order) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.order = order;
+            temp = new int[order.length];
+        }
+
+        void sort() {
+            push(0, order.length, 0);
+            while (stackLength > 0) {
+                stackLength -= 3;
+                int start = stack[stackLength];
+                int limit = stack[stackLength + 1];
+                int depth = stack[stackLength + 2];
+                if ((limit - start) <= INSERTION_SORT_THRESHOLD) {
+                    insertionSort(start, limit, depth);
+                } else {
+                    distribute(start, limit, depth);
+                }
+            }
+        }
+
+        private void push(int start, int limit, int depth) {
+            if (stackLength == stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stackLength);
+            }
+            stack[stackLength] = start;
+            stack[stackLength + 1] = limit;
+            stack[stackLength + 2] = depth;
+            stackLength += 3;
+        }
+
+        /**
+         * Distributes order[start..limit[ by the key byte at depth,
+         * stably, and pushes the buckets which need more sorting.
+         */
+        private void distribute(int start, int limit, int depth) {
+            for (;;) {
+                Arrays.fill(counts, 0);
+                for (int i = start; i < limit; ++i) {
+                    ++counts[(keys[offsets[order[i]] + depth] & 0xff) + 1];
+                }
+                // All keys in one bucket: Just look at the next byte, without moving anything.
+                int b = keys[offsets[order[start]] + depth] & 0xff;
+                if (counts[b + 1] != (limit - start)) {
+                    break;
+                }
+                if (b == 0) {
+                    return;  // all keys end here, they are equal
+                }
+                ++depth;
+            }
+            for (int b = 1; b <= 256; ++b) {
+                counts[b] += counts[b - 1];
+            }
+            // counts[b] is now the start of bucket b relative to start.
+            for (int i = start; i < limit; ++i) {
+                int index = order[i];
+                temp[start + counts[keys[offsets[index] + depth] & 0xff]++] = index;
+            }
+            System.arraycopy(temp, start, order, start, limit - start);
+            // counts[b] is now the limit of bucket b.
+            // Bucket 0 contains the keys that end here.
+            int bucketStart = start + counts[0];
+            for (int b = 1; b <= 0xff; ++b) {
+                int bucketLimit = start + counts[b];
+                if ((bucketLimit - bucketStart) > 1) {
+                    push(bucketStart, bucketLimit, depth + 1);
+                }
+                bucketStart = bucketLimit;
+            }
+        }
+
+        private void insertionSort(int start, int limit, int depth) {
+            for (int i = start + 1; i < limit; ++i) {
+                int index = order[i];
+                int j = i;
+                while (j > start && compareKeys(order[j - 1], index, depth) > 0) {
+                    order[j] = order[j - 1];
+                    --j;
+                }
+                order[j] = index;
+            }
+        }
+
+        /** Compares two keys which are known to be equal before depth. */
+        private int compareKeys(int left, int right, int depth) {
+            int l = offsets[left] + depth;
+            int r = offsets[right] + depth;
+            for (;;) {
+                int lb = keys[l++] & 0xff;
+                int rb = keys[r++] & 0xff;
+                if (lb != rb) {
+                    return lb - rb;
+                }
+                if (lb == 0) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private CollationSorter() {}  // all static
+}
@@ -8,23 +8,29 @@
  */
 package com.ibm.icu.text;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.text.CharacterIterator;
 import java.text.ParseException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.ibm.icu.impl.ClassLoaderUtil;
 import com.ibm.icu.impl.Normalizer2Impl;
 import com.ibm.icu.impl.Normalizer2Impl.ReorderingBuffer;
+import com.ibm.icu.impl.UTF8;
 import com.ibm.icu.impl.coll.BOCSU;
 import com.ibm.icu.impl.coll.Collation;
 import com.ibm.icu.impl.coll.CollationCompare;
 import com.ibm.icu.impl.coll.CollationData;
 import com.ibm.icu.impl.coll.CollationFastLatin;
+import com.ibm.icu.impl.coll.CollationFastScript;
 import com.ibm.icu.impl.coll.CollationIterator;
 import com.ibm.icu.impl.coll.CollationKeys;
 import com.ibm.icu.impl.coll.CollationKeys.SortKeyByteSink;
@@ -34,10 +40,14 @@
 import com.ibm.icu.impl.coll.CollationTailoring;
 import com.ibm.icu.impl.coll.ContractionsAndExpansions;
 import com.ibm.icu.impl.coll.FCDUTF16CollationIterator;
+import com.ibm.icu.impl.coll.FCDUTF8CollationIterator;
 import com.ibm.icu.impl.coll.SharedObject;
 import com.ibm.icu.impl.coll.TailoredSet;
 import com.ibm.icu.impl.coll.UTF16CollationIterator;
+import com.ibm.icu.impl.coll.UTF8CollationIterator;
 import com.ibm.icu.lang.UScript;
+import com.ibm.icu.util.ByteArrayWrapper;
+import com.ibm.icu.util.ICUUncheckedIOException;
 import com.ibm.icu.util.ULocale;
 import com.ibm.icu.util.VersionInfo;
 
@@ -211,12 +221,45 @@ public RuleBasedCollator(String rules) throws Exception {
         internalBuildTailoring(rules);
     }
 
+    /**
+     * Creates a collator from a binary image that was created by {@link #cloneBinary()},
+     * for example from a memory-mapped file.
+     * This is much faster than building the collator from rules.
+     * The binary image must have been created with the same version of ICU.
+     * The new collator's {@link #getRules()} returns an empty string.
+     *
+     * @param bin binary image; its position is not modified
+     * @throws IOException if the data is not a valid collation binary image
+     * @see #cloneBinary()
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public RuleBasedCollator(ByteBuffer bin) throws IOException {
+        validLocale = ULocale.ROOT;
+        CollationTailoring t = CollationLoader.readTailoring(bin.slice());
+        adoptTailoring(t);
+        initFastPathScript();
+    }
+
     /**
      * Implements from-rule constructors.
      * @param rules rule string
      * @throws Exception
      */
     private final void internalBuildTailoring(String rules) throws Exception {
+        // With a tailoring cache, a previously built tailoring is memory-mapped
+        // and the builder is not needed.
+        CollationTailoring t = CollationLoader.loadCachedTailoring(rules);
+        if (t == null) {
+            t = buildTailoring(rules);
+            CollationLoader.cacheTailoring(rules, t);
+        }
+        t.actualLocale = null;
+        adoptTailoring(t);
+        initFastPathScript();
+    }
+
+    private final CollationTailoring buildTailoring(String rules) throws Exception {
         CollationTailoring base = CollationRoot.getRoot();
         // Most code using Collator does not need to build a Collator from rules.
         // By using reflection, most code will not have a static dependency on the builder code.
@@ -232,8 +275,7 @@ private final void internalBuildTailoring(String rules) throws Exception {
         } catch(InvocationTargetException e) {
             throw (Exception)e.getTargetException();
         }
-        t.actualLocale = null;
-        adoptTailoring(t);
+        return t;
     }
 
     // public methods --------------------------------------------------------
@@ -252,6 +294,26 @@ public Object clone() throws CloneNotSupportedException {
         return cloneAsThawed();
     }
 
+    /**
+     * Creates a binary image of this collator's tailoring data and current settings.
+     * The image can be stored, for example in a file,
+     * and later passed to {@link #RuleBasedCollator(ByteBuffer)}
+     * to recreate an equivalent collator without building it from rules.
+     * The rules string is not included.
+     *
+     * @return the binary image
+     * @see #RuleBasedCollator(ByteBuffer)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public byte[] cloneBinary() {
+        try {
+            return CollationLoader.writeTailoring(tailoring, settings.readOnly());
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException(e);
+        }
+    }
+
     private final void initMaxExpansions() {
         synchronized(tailoring) {
             if (tailoring.maxExpansions == null) {
@@ -308,7 +370,7 @@ public CollationElementIterator getCollationElementIterator(UCharacterIterator s
      */
     @Override
     public boolean isFrozen() {
-        return frozenLock != null;
+        return frozenBuffers != null;
     }
 
     /**
@@ -319,10 +381,13 @@ public boolean isFrozen() {
     @Override
     public Collator freeze() {
         if (!isFrozen()) {
-            frozenLock = new ReentrantLock();
-            if (collationBuffer == null) {
-                collationBuffer = new CollationBuffer(data);
+            AtomicReferenceArray<CollationBuffer> buffers =
+                    new AtomicReferenceArray<>(frozenBufferSlotCount());
+            if (collationBuffer != null) {
+                buffers.set(0, collationBuffer);
+                collationBuffer = null;
             }
+            frozenBuffers = buffers;
         }
         return this;
     }
@@ -340,7 +405,7 @@ public RuleBasedCollator cloneAsThawed() {
             // except in cases where we can't
             result.settings = settings.clone();
             result.collationBuffer = null;
-            result.frozenLock = null;
+            result.frozenBuffers = null;
             return result;
         } catch (CloneNotSupportedException e) {
             // Clone is implemented
@@ -940,6 +1005,70 @@ public void setReorderCodes(int... order) {
     private void setFastLatinOptions(CollationSettings ownedSettings) {
         ownedSettings.fastLatinOptions = CollationFastLatin.getOptions(
                 data, ownedSettings, ownedSettings.fastLatinPrimaries);
+        if(ownedSettings.fastScript != null) {
+            ownedSettings.fastScriptOptions = ownedSettings.fastScript.getOptions(
+                    data, ownedSettings, ownedSettings.fastScriptPrimaries);
+        }
+    }
+
+    /**
+     * {@icu} Sets the script whose common letters are compared with an additional
+     * fast-path table, like the built-in fast path for Latin text.
+     * This does not change any comparison results, only the performance of
+     * {@link #compare(String, String)} for text in that script.
+     *
+     * <p>The table covers ASCII digits, spaces and punctuation, general punctuation,
+     * and a 256-character block of the script, such as U+0400..U+04FF for Cyrillic
+     * or U+0370..U+046F for Greek.
+     * If the script has more letters than fit into the table, then the ones
+     * that come first in the block are supported.
+     * Strings with other characters are compared with the regular code.
+     *
+     * <p>By default, the script is the first supported script in the
+     * reordering codes of the tailoring, otherwise the script of the collator's locale.
+     *
+     * @param script one of {@link UScript#GREEK}, {@link UScript#CYRILLIC}, {@link UScript#ARMENIAN},
+     *        {@link UScript#HEBREW}, {@link UScript#ARABIC}, {@link UScript#THAI},
+     *        {@link UScript#GEORGIAN}, {@link UScript#HIRAGANA} or {@link UScript#KATAKANA};
+     *        or {@link UScript#INVALID_CODE} to use only the fast path for Latin text
+     * @throws IllegalArgumentException if there is no fast path for the script
+     * @see #getFastPathScript
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void setFastPathScript(int script) {
+        checkNotFrozen();
+        if(script != UScript.INVALID_CODE && CollationFastScript.getBlockStart(script) < 0) {
+            throw new IllegalArgumentException(
+                    "no collation fast path for script " + UScript.getShortName(script));
+        }
+        if(script == getFastPathScript()) { return; }
+        setFastScript(getOwnedSettings(),
+                script == UScript.INVALID_CODE ? null : data.getFastScript(script));
+    }
+
+    private void setFastScript(CollationSettings ownedSettings, CollationFastScript fastScript) {
+        ownedSettings.fastScript = fastScript;
+        if(fastScript == null) {
+            ownedSettings.fastScriptOptions = -1;
+            ownedSettings.fastScriptPrimaries = null;
+        } else {
+            if(ownedSettings.fastScriptPrimaries == null) {
+                ownedSettings.fastScriptPrimaries = new char[CollationFastLatin.LATIN_LIMIT];
+            }
+            setFastLatinOptions(ownedSettings);
+        }
+    }
+
+    private void initFastPathScript() {
+        int script = CollationFastScript.getDefaultScript(
+                settings.readOnly().reorderCodes, validLocale);
+        if(script != UScript.INVALID_CODE) {
+            CollationFastScript fastScript = data.getFastScript(script);
+            if(fastScript != null) {
+                setFastScript(getOwnedSettings(), fastScript);
+            }
+        }
     }
 
     // public getters --------------------------------------------------------
@@ -1100,6 +1229,195 @@ public RawCollationKey getRawCollationKey(String source, RawCollationKey key) {
         }
     }
 
+    /**
+     * Writes the sort keys for all of the source strings into one contiguous byte array.
+     * This is equivalent to calling {@link #getRawCollationKey(String, RawCollationKey)}
+     * for each string and concatenating the results, but it reuses the same internal
+     * iterators and output buffer for all of the strings.
+     *
+     * <p>The sort key for <code>sources.get(i)</code> is stored in
+     * <code>keys.bytes[offsets[i]]</code> up to but excluding <code>keys.bytes[offsets[i+1]]</code>.
+     * Each sort key includes its terminating zero byte, so that the key byte sequences
+     * can be compared with each other just like individual sort keys.
+     * <code>keys.size</code> is set to the total length, which is also stored in
+     * <code>offsets[sources.size()]</code>.
+     *
+     * @param sources the text strings to be transformed into sort keys
+     * @param offsets output array for the start offset of each sort key and the limit of the last one;
+     *        must have a length of at least <code>sources.size()+1</code>
+     * @param keys output RawCollationKey to store the concatenated sort keys;
+     *        if null, then a new one is created
+     * @return the keys parameter, or a new RawCollationKey if keys was null
+     * @throws IllegalArgumentException if the offsets array is too short
+     * @see #getRawCollationKey(String, RawCollationKey)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public RawCollationKey getRawCollationKeys(List<? extends CharSequence> sources, int[] offsets,
+            RawCollationKey keys) {
+        int count = sources.size();
+        checkSortKeyOffsets(count, offsets);
+        keys = prepareSortKeys(sources, 0, count, keys);
+        CollationBuffer buffer = null;
+        try {
+            buffer = getCollationBuffer();
+            writeSortKeys(sources, 0, count, offsets, 0, keys, buffer);
+        } finally {
+            releaseCollationBuffer(buffer);
+        }
+        return keys;
+    }
+
+    /**
+     * Same as {@link #getRawCollationKeys(List, int[], RawCollationKey)}
+     * but large inputs are split into chunks whose sort keys are written
+     * concurrently by tasks in the given pool.
+     * The result is the same as for the sequential version.
+     *
+     * <p>This collator must not be modified while this method runs.
+     * An unfrozen collator uses temporary internal buffers for the concurrent tasks.
+     *
+     * @param sources the text strings to be transformed into sort keys
+     * @param offsets output array for the start offset of each sort key and the limit of the last one;
+     *        must have a length of at least <code>sources.size()+1</code>
+     * @param keys output RawCollationKey to store the concatenated sort keys;
+     *        if null, then a new one is created
+     * @param pool the pool which runs the tasks; if null, then the keys are written sequentially
+     * @return the keys parameter, or a new RawCollationKey if keys was null
+     * @throws IllegalArgumentException if the offsets array is too short
+     * @see #getRawCollationKeys(List, int[], RawCollationKey)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public RawCollationKey getRawCollationKeys(List<? extends CharSequence> sources, int[] offsets,
+            RawCollationKey keys, ForkJoinPool pool) {
+        int count = sources.size();
+        if (pool == null || count < 2 * MIN_SORT_KEYS_PER_TASK) {
+            return getRawCollationKeys(sources, offsets, keys);
+        }
+        checkSortKeyOffsets(count, offsets);
+        int taskCount = Math.min(4 * pool.getParallelism(), count / MIN_SORT_KEYS_PER_TASK);
+        SortKeysTask[] tasks = new SortKeysTask[taskCount];
+        for (int i = 0; i < taskCount; ++i) {
+            tasks[i] = new SortKeysTask(sources,
+                    (int) ((long) count * i / taskCount), (int) ((long) count * (i + 1) / taskCount));
+        }
+        pool.invoke(new SortKeysTasks(tasks));
+        // Concatenate the chunks and rebase their offsets.
+        int length = 0;
+        for (SortKeysTask task : tasks) {
+            length += task.keys.size;
+        }
+        if (keys == null) {
+            keys = new RawCollationKey(length);
+        } else {
+            keys.size = 0;
+            keys.ensureCapacity(length);
+        }
+        for (SortKeysTask task : tasks) {
+            int base = keys.size;
+            for (int i = task.start; i < task.limit; ++i) {
+                offsets[i] = base + task.offsets[i - task.start];
+            }
+            keys.append(task.keys.bytes, 0, task.keys.size);
+        }
+        offsets[count] = keys.size;
+        return keys;
+    }
+
+    /**
+     * Minimum number of strings per parallel sort key task,
+     * to amortize the task overhead.
+     */
+    private static final int MIN_SORT_KEYS_PER_TASK = 256;
+
+    /** Runs all of the chunk tasks and waits for them. */
+    private static final class SortKeysTasks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SortKeysTask[] tasks;
+
+        SortKeysTasks(SortKeysTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Writes the sort keys for one chunk of the input into its own byte array,
+     * with offsets relative to the chunk.
+     * The caller concatenates the chunks.
+     */
+    private final class SortKeysTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<? extends CharSequence> sources;
+        private final int start;
+        private final int limit;
+        private int[] offsets;
+        private RawCollationKey keys;
+
+        SortKeysTask(List<? extends CharSequence> sources, int start, int limit) {
+            this.sources = sources;
+            this.start = start;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            keys = prepareSortKeys(sources, start, limit, null);
+            offsets = new int[limit - start + 1];
+            // An unfrozen collator has only one buffer, which must not be shared among threads.
+            CollationBuffer buffer = isFrozen() ? getCollationBuffer() : new CollationBuffer(data);
+            try {
+                writeSortKeys(sources, start, limit, offsets, start, keys, buffer);
+            } finally {
+                releaseCollationBuffer(buffer);
+            }
+        }
+    }
+
+    private static void checkSortKeyOffsets(int count, int[] offsets) {
+        if (offsets.length <= count) {
+            throw new IllegalArgumentException(
+                    "offsets.length=" + offsets.length + " must be greater than the number of strings " + count);
+        }
+    }
+
+    private RawCollationKey prepareSortKeys(List<? extends CharSequence> sources, int start, int limit,
+            RawCollationKey keys) {
+        int estimate = 0;
+        for (int i = start; i < limit; ++i) {
+            estimate += simpleKeyLengthEstimate(sources.get(i));
+        }
+        if (keys == null) {
+            keys = new RawCollationKey(estimate);
+        } else if (keys.bytes == null) {
+            keys.bytes = new byte[estimate];
+        }
+        keys.size = 0;
+        return keys;
+    }
+
+    /**
+     * Appends the sort keys for sources[start..limit[ to keys,
+     * and writes their start offsets to offsets[start-offsetsBase..limit-offsetsBase],
+     * where the last value is the limit of the last key.
+     */
+    private void writeSortKeys(List<? extends CharSequence> sources, int start, int limit,
+            int[] offsets, int offsetsBase, RawCollationKey keys, CollationBuffer buffer) {
+        CollationKeyByteSink sink = new CollationKeyByteSink(keys);
+        sink.setBufferAndAppended(keys.bytes, keys.size);
+        for (int i = start; i < limit; ++i) {
+            offsets[i - offsetsBase] = sink.NumberOfBytesAppended();
+            writeSortKey(sources.get(i), sink, buffer);
+        }
+        keys.size = sink.NumberOfBytesAppended();
+        offsets[limit - offsetsBase] = keys.size;
+    }
+
     private static final class CollationKeyByteSink extends SortKeyByteSink {
         CollationKeyByteSink(RawCollationKey key) {
             super(key.bytes);
@@ -1136,6 +1454,202 @@ protected boolean Resize(int appendCapacity, int length) {
         private RawCollationKey key_;
     }
 
+    /**
+     * Gets at most the first maxLength bytes of the sort key for the source text.
+     * The result is the same as truncating the RawCollationKey from
+     * {@link #getRawCollationKey(String, RawCollationKey)} to maxLength bytes,
+     * but sort key generation stops as soon as maxLength bytes of the primary level
+     * have been written, without looking at the rest of the text.
+     * This is useful for indexes that store only fixed-length key prefixes of long strings.
+     *
+     * <p>Such prefixes preserve the order of the full sort keys in the weak sense:
+     * If one string sorts before another, then its prefix key is less than or equal to the other's.
+     * If the complete sort key fits, then the result is the complete, zero-terminated sort key.
+     * Otherwise the result has exactly maxLength bytes and is not terminated.
+     *
+     * <p>Similar to the ICU4C partial sort key functions, except that this always
+     * returns the beginning of the sort key.
+     *
+     * @param source the text to be transformed into a sort key prefix
+     * @param maxLength the maximum number of sort key bytes to be generated; must be positive
+     * @param key output RawCollationKey to store the result; if null, then a new one is created.
+     *        If its internal byte array does not have length maxLength,
+     *        then it is replaced by a new array of that length.
+     * @return the key parameter, or a new RawCollationKey if key was null
+     * @throws IllegalArgumentException if maxLength is not positive
+     * @see #getRawCollationKey(String, RawCollationKey)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public RawCollationKey getRawCollationKeyPrefix(CharSequence source, int maxLength, RawCollationKey key) {
+        if (source == null) {
+            return null;
+        }
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength=" + maxLength + " must be positive");
+        }
+        if (key == null) {
+            key = new RawCollationKey(maxLength);
+        } else if (key.bytes == null || key.bytes.length != maxLength) {
+            key.bytes = new byte[maxLength];
+        }
+        CollationBuffer buffer = null;
+        try {
+            buffer = getCollationBuffer();
+            PrefixByteSink sink = new PrefixByteSink(key.bytes);
+            writeSortKeyPrefix(source, sink, buffer);
+            key.size = Math.min(sink.NumberOfBytesAppended(), maxLength);
+        } finally {
+            releaseCollationBuffer(buffer);
+        }
+        return key;
+    }
+
+    /**
+     * Writes into a fixed-capacity buffer and drops whatever does not fit.
+     */
+    private static final class PrefixByteSink extends SortKeyByteSink {
+        PrefixByteSink(byte[] dest) {
+            super(dest);
+        }
+
+        @Override
+        protected void AppendBeyondCapacity(byte[] bytes, int start, int n, int length) {
+            // n > 0 && appended_ > capacity_
+            if (length < buffer_.length) {
+                System.arraycopy(bytes, start, buffer_, length, buffer_.length - length);
+            }
+        }
+
+        @Override
+        protected boolean Resize(int appendCapacity, int length) {
+            return false;
+        }
+    }
+
+    /**
+     * Compares the sort key of the source text with a sort key that was generated earlier
+     * by this collator or an equivalent one.
+     * The result is the same as
+     * <code>getRawCollationKey(source, null).compareTo(key)</code>,
+     * but the sort key of the source text is generated only as far as needed:
+     * Generation stops at the first byte that differs from the stored key.
+     * This avoids computing complete sort keys when looking up text in a sorted index of keys.
+     *
+     * @param source the text to be compared
+     * @param key a sort key from {@link #getRawCollationKey(String, RawCollationKey)}
+     *        or {@link #getRawCollationKeys(List, int[], RawCollationKey)}
+     * @return -1, 0, or 1 as the sort key of the source text compares less than, equal to,
+     *         or greater than the key
+     * @see #getRawCollationKey(String, RawCollationKey)
+     * @see RawCollationKey#compareTo(RawCollationKey)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int compareToKey(CharSequence source, RawCollationKey key) {
+        CollationBuffer buffer = null;
+        try {
+            buffer = getCollationBuffer();
+            ComparingByteSink sink = new ComparingByteSink(key.bytes, key.size);
+            writeSortKeyPrefix(source, sink, buffer);
+            return sink.result;
+        } finally {
+            releaseCollationBuffer(buffer);
+        }
+    }
+
+    /**
+     * Compares the appended bytes with an existing sort key instead of storing them.
+     * Reports an overflow as soon as it finds a difference,
+     * which stops sort key generation.
+     */
+    private static final class ComparingByteSink extends SortKeyByteSink {
+        private final byte[] key;
+        private final int keyLength;
+        private int length;
+        /** 0 while the appended bytes equal the key prefix, otherwise -1 or 1. */
+        int result;
+
+        ComparingByteSink(byte[] key, int keyLength) {
+            super(EMPTY_BYTES);
+            this.key = key;
+            this.keyLength = keyLength;
+        }
+
+        @Override
+        public void Append(int b) {
+            if (result == 0) {
+                if (length < keyLength) {
+                    b &= 0xff;
+                    int k = key[length++] & 0xff;
+                    if (b != k) {
+                        result = b < k ? -1 : 1;
+                    }
+                } else {
+                    result = 1;
+                }
+            }
+        }
+
+        @Override
+        public void Append(byte[] bytes, int n) {
+            for (int i = 0; i < n && result == 0; ++i) {
+                Append(bytes[i]);
+            }
+        }
+
+        @Override
+        public boolean Overflowed() {
+            return result != 0;
+        }
+
+        @Override
+        protected void AppendBeyondCapacity(byte[] bytes, int start, int n, int length) {
+            // not used: Append() is overridden
+        }
+
+        @Override
+        protected boolean Resize(int appendCapacity, int length) {
+            return false;
+        }
+
+        private static final byte[] EMPTY_BYTES = new byte[0];
+    }
+
+    /**
+     * Writes the sort key without preflighting:
+     * Stops as soon as the sink overflows.
+     */
+    private void writeSortKeyPrefix(CharSequence s, SortKeyByteSink sink, CollationBuffer buffer) {
+        boolean numeric = settings.readOnly().isNumeric();
+        CollationIterator iter;
+        if(settings.readOnly().dontCheckFCD()) {
+            buffer.leftUTF16CollIter.setText(numeric, s, 0);
+            iter = buffer.leftUTF16CollIter;
+        } else {
+            buffer.leftFCDUTF16Iter.setText(numeric, s, 0);
+            iter = buffer.leftFCDUTF16Iter;
+        }
+        // Without preflighting, this stops as soon as the primary level overflows the sink.
+        CollationKeys.writeSortKeyUpToQuaternary(
+                iter, data.compressibleBytes, settings.readOnly(),
+                sink, Collation.PRIMARY_LEVEL,
+                CollationKeys.SIMPLE_LEVEL_FALLBACK, false);
+        if (sink.Overflowed()) {
+            return;
+        }
+        if(settings.readOnly().getStrength() == IDENTICAL) {
+            sink.Append(Collation.LEVEL_SEPARATOR_BYTE);
+            if (sink.Overflowed()) {
+                return;
+            }
+            RawCollationKey identical = new RawCollationKey(s.length() + 2);
+            writeIdenticalLevelRuns(s, identical);
+            sink.Append(identical.bytes, identical.size);
+        }
+        sink.Append(Collation.TERMINATOR_BYTE);
+    }
+
     private RawCollationKey getRawCollationKey(CharSequence source, RawCollationKey key, CollationBuffer buffer) {
         if (key == null) {
             key = new RawCollationKey(simpleKeyLengthEstimate(source));
@@ -1174,24 +1688,31 @@ private void writeSortKey(CharSequence s, CollationKeyByteSink sink, CollationBu
     }
 
     private void writeIdenticalLevel(CharSequence s, CollationKeyByteSink sink) {
-        // NFD quick check
-        int nfdQCYesLimit = data.nfcImpl.decompose(s, 0, s.length(), null);
         sink.Append(Collation.LEVEL_SEPARATOR_BYTE);
         // Sync the ByteArrayWrapper size with the key length.
         sink.key_.size = sink.NumberOfBytesAppended();
+        writeIdenticalLevelRuns(s, sink.key_);
+        // Sync the key with the buffer again which got bytes appended and may have been reallocated.
+        sink.setBufferAndAppended(sink.key_.bytes, sink.key_.size);
+    }
+
+    /**
+     * Appends the identical-level bytes (without the level separator) to dest.
+     */
+    private void writeIdenticalLevelRuns(CharSequence s, ByteArrayWrapper dest) {
+        // NFD quick check
+        int nfdQCYesLimit = data.nfcImpl.decompose(s, 0, s.length(), null);
         int prev = 0;
         if(nfdQCYesLimit != 0) {
-            prev = BOCSU.writeIdenticalLevelRun(prev, s, 0, nfdQCYesLimit, sink.key_);
+            prev = BOCSU.writeIdenticalLevelRun(prev, s, 0, nfdQCYesLimit, dest);
         }
         // Is there non-NFD text?
         if(nfdQCYesLimit < s.length()) {
             int destLengthEstimate = s.length() - nfdQCYesLimit;
             StringBuilder nfd = new StringBuilder();
             data.nfcImpl.decompose(s, nfdQCYesLimit, s.length(), nfd, destLengthEstimate);
-            BOCSU.writeIdenticalLevelRun(prev, nfd, 0, nfd.length(), sink.key_);
+            BOCSU.writeIdenticalLevelRun(prev, nfd, 0, nfd.length(), dest);
         }
-        // Sync the key with the buffer again which got bytes appended and may have been reallocated.
-        sink.setBufferAndAppended(sink.key_.bytes, sink.key_.size);
     }
 
     /**
@@ -1378,6 +1899,19 @@ public boolean getNumericCollation() {
         return (settings.readOnly().options & CollationSettings.NUMERIC) != 0;
     }
 
+    /**
+     * {@icu} Returns the script whose common letters are compared with an additional
+     * fast-path table, or {@link UScript#INVALID_CODE} if there is none.
+     * @return the fast-path script code
+     * @see #setFastPathScript
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getFastPathScript() {
+        CollationFastScript fastScript = settings.readOnly().fastScript;
+        return fastScript != null ? fastScript.script : UScript.INVALID_CODE;
+    }
+
     /**
      * Retrieves the reordering codes for this collator.
      * These reordering codes are a combination of UScript codes and ReorderCodes.
@@ -1484,6 +2018,76 @@ public int compare(String source, String target) {
         return doCompare(source, target);
     }
 
+    /**
+     * Compares two strings given as UTF-8 byte sequences, without converting them to Strings.
+     * The result is the same as for compare(String, String) with the decoded strings,
+     * where each ill-formed byte sequence is treated like U+FFFD.
+     *
+     * @param left the array with the first UTF-8 string
+     * @param leftOffset the index of the first byte of the first string
+     * @param leftLength the number of bytes in the first string
+     * @param right the array with the second UTF-8 string
+     * @param rightOffset the index of the first byte of the second string
+     * @param rightLength the number of bytes in the second string
+     * @return a value less than zero if left is less than right, zero if they are equal,
+     *         or a value greater than zero if left is greater than right
+     * @throws IndexOutOfBoundsException if an offset or length is out of bounds
+     * @see #compare(String, String)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int compare(byte[] left, int leftOffset, int leftLength,
+            byte[] right, int rightOffset, int rightLength) {
+        checkUTF8Range(left, leftOffset, leftLength);
+        checkUTF8Range(right, rightOffset, rightLength);
+        return doCompare(left, leftOffset, leftOffset + leftLength,
+                right, rightOffset, rightOffset + rightLength);
+    }
+
+    /**
+     * Compares two strings given as the remaining UTF-8 bytes of two ByteBuffers,
+     * from their positions to their limits.
+     * The buffers' positions are not changed.
+     * Heap buffers are compared in place, other buffers are copied first.
+     *
+     * @param left the buffer with the first UTF-8 string
+     * @param right the buffer with the second UTF-8 string
+     * @return a value less than zero if left is less than right, zero if they are equal,
+     *         or a value greater than zero if left is greater than right
+     * @see #compare(byte[], int, int, byte[], int, int)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int compare(ByteBuffer left, ByteBuffer right) {
+        byte[] leftBytes, rightBytes;
+        int leftStart, rightStart;
+        if(left.hasArray()) {
+            leftBytes = left.array();
+            leftStart = left.arrayOffset() + left.position();
+        } else {
+            leftBytes = new byte[left.remaining()];
+            left.duplicate().get(leftBytes);
+            leftStart = 0;
+        }
+        if(right.hasArray()) {
+            rightBytes = right.array();
+            rightStart = right.arrayOffset() + right.position();
+        } else {
+            rightBytes = new byte[right.remaining()];
+            right.duplicate().get(rightBytes);
+            rightStart = 0;
+        }
+        return doCompare(leftBytes, leftStart, leftStart + left.remaining(),
+                rightBytes, rightStart, rightStart + right.remaining());
+    }
+
+    private static void checkUTF8Range(byte[] s, int offset, int length) {
+        if(offset < 0 || length < 0 || offset > s.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset " + offset + " length " + length + " for array length " + s.length);
+        }
+    }
+
     /**
     * Abstract iterator for identical-level string comparisons.
     * Returns FCD code points and handles temporary switching to NFD.
@@ -1589,6 +2193,45 @@ void setText(Normalizer2Impl nfcImpl, CharSequence seq, int start) {
         private StringBuilder str;
     }
 
+    private static class UTF8NFDIterator extends NFDIterator {
+        UTF8NFDIterator() {}
+        void setText(byte[] bytes, int start, int limit) {
+            reset();
+            s = bytes;
+            pos = start;
+            this.limit = limit;
+        }
+
+        @Override
+        protected int nextRawCodePoint() {
+            if(pos == limit) { return Collation.SENTINEL_CP; }
+            int result = UTF8.nextCodePoint(s, pos, limit);
+            pos += UTF8.getLength(result);
+            return UTF8.getCodePoint(result);
+        }
+
+        private byte[] s;
+        private int pos;
+        private int limit;
+    }
+
+    private static final class FCDUTF8NFDIterator extends NFDIterator {
+        FCDUTF8NFDIterator(CollationData data) {
+            u8ci = new FCDUTF8CollationIterator(data);
+        }
+        void setText(byte[] bytes, int start, int limit) {
+            reset();
+            u8ci.setText(false, bytes, start, start, limit);
+        }
+
+        @Override
+        protected int nextRawCodePoint() {
+            return u8ci.nextCodePoint();
+        }
+
+        private final FCDUTF8CollationIterator u8ci;
+    }
+
     private static final int compareNFDIter(Normalizer2Impl nfcImpl, NFDIterator left, NFDIterator right) {
         for(;;) {
             // Fetch the next FCD code point from each string.
@@ -1619,6 +2262,52 @@ private static final int compareNFDIter(Normalizer2Impl nfcImpl, NFDIterator lef
         return Collation.EQUAL;
     }
 
+    /**
+     * Compares the strings with the fast Latin table and then with the fast-path script table,
+     * as long as their first characters at startIndex are supported.
+     * @return the comparison result, or CollationFastLatin.BAIL_OUT_RESULT
+     */
+    private int compareFastPath(CollationSettings roSettings,
+            CharSequence left, CharSequence right, int startIndex) {
+        int result = CollationFastLatin.BAIL_OUT_RESULT;
+        int fastLatinOptions = roSettings.fastLatinOptions;
+        if(fastLatinOptions >= 0 &&
+                (startIndex == left.length() ||
+                    left.charAt(startIndex) <= CollationFastLatin.LATIN_MAX) &&
+                (startIndex == right.length() ||
+                    right.charAt(startIndex) <= CollationFastLatin.LATIN_MAX)) {
+            result = CollationFastLatin.compareUTF16(data.fastLatinTable,
+                                                      roSettings.fastLatinPrimaries,
+                                                      fastLatinOptions,
+                                                      left, right, startIndex);
+        }
+        int fastScriptOptions = roSettings.fastScriptOptions;
+        if(result == CollationFastLatin.BAIL_OUT_RESULT && fastScriptOptions >= 0) {
+            CollationFastScript fastScript = roSettings.fastScript;
+            if((startIndex == left.length() ||
+                        fastScript.isFastChar(left.charAt(startIndex))) &&
+                    (startIndex == right.length() ||
+                        fastScript.isFastChar(right.charAt(startIndex)))) {
+                result = fastScript.compareUTF16(roSettings.fastScriptPrimaries,
+                                                 fastScriptOptions,
+                                                 left, right, startIndex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares two strings only with the fast-path tables.
+     * Returns the same result as compare() without the identical level,
+     * or -2 (CollationFastLatin.BAIL_OUT_RESULT) if the regular code would be used.
+     * @internal for tests &amp; tools
+     * @deprecated This API is ICU internal only.
+     */
+    @Deprecated
+    public int internalCompareFastPath(CharSequence left, CharSequence right) {
+        return compareFastPath(settings.readOnly(), left, right, 0);
+    }
+
     /**
      * Compares two CharSequences.
      * @internal
@@ -1664,20 +2353,7 @@ protected int doCompare(CharSequence left, CharSequence right) {
             // so that prefix matches back into the equal prefix work.
         }
 
-        int result;
-        int fastLatinOptions = roSettings.fastLatinOptions;
-        if(fastLatinOptions >= 0 &&
-                (equalPrefixLength == left.length() ||
-                    left.charAt(equalPrefixLength) <= CollationFastLatin.LATIN_MAX) &&
-                (equalPrefixLength == right.length() ||
-                    right.charAt(equalPrefixLength) <= CollationFastLatin.LATIN_MAX)) {
-            result = CollationFastLatin.compareUTF16(data.fastLatinTable,
-                                                      roSettings.fastLatinPrimaries,
-                                                      fastLatinOptions,
-                                                      left, right, equalPrefixLength);
-        } else {
-            result = CollationFastLatin.BAIL_OUT_RESULT;
-        }
+        int result = compareFastPath(roSettings, left, right, equalPrefixLength);
 
         if(result == CollationFastLatin.BAIL_OUT_RESULT) {
             CollationBuffer buffer = null;
@@ -1721,6 +2397,129 @@ protected int doCompare(CharSequence left, CharSequence right) {
         }
     }
 
+    /**
+     * Compares two UTF-8 strings in byte array ranges.
+     * Ported from the C++ RuleBasedCollator::doCompare() for UTF-8.
+     */
+    private int doCompare(byte[] left, int leftStart, int leftLimit,
+            byte[] right, int rightStart, int rightLimit) {
+        if(left == right && leftStart == rightStart && leftLimit == rightLimit) {
+            return Collation.EQUAL;
+        }
+
+        // Identical-prefix test.
+        int equalPrefixLength = 0;
+        int leftLength = leftLimit - leftStart;
+        int rightLength = rightLimit - rightStart;
+        for(;;) {
+            if(equalPrefixLength == leftLength) {
+                if(equalPrefixLength == rightLength) { return Collation.EQUAL; }
+                break;
+            } else if(equalPrefixLength == rightLength ||
+                      left[leftStart + equalPrefixLength] != right[rightStart + equalPrefixLength]) {
+                break;
+            }
+            ++equalPrefixLength;
+        }
+        // Back up to the start of a partially-equal code point.
+        if(equalPrefixLength > 0 &&
+                ((equalPrefixLength != leftLength &&
+                    UTF8.isTrail(left[leftStart + equalPrefixLength])) ||
+                (equalPrefixLength != rightLength &&
+                    UTF8.isTrail(right[rightStart + equalPrefixLength])))) {
+            while(--equalPrefixLength > 0 && UTF8.isTrail(left[leftStart + equalPrefixLength])) {}
+        }
+
+        CollationSettings roSettings = settings.readOnly();
+        boolean numeric = roSettings.isNumeric();
+        if(equalPrefixLength > 0) {
+            boolean unsafe = false;
+            if(equalPrefixLength != leftLength) {
+                int c = UTF8.getCodePoint(
+                        UTF8.nextCodePoint(left, leftStart + equalPrefixLength, leftLimit));
+                unsafe = data.isUnsafeBackward(c, numeric);
+            }
+            if(!unsafe && equalPrefixLength != rightLength) {
+                int c = UTF8.getCodePoint(
+                        UTF8.nextCodePoint(right, rightStart + equalPrefixLength, rightLimit));
+                unsafe = data.isUnsafeBackward(c, numeric);
+            }
+            if(unsafe) {
+                // Identical prefix: Back up to the start of a contraction or reordering sequence.
+                int c;
+                do {
+                    int result = UTF8.previousCodePoint(left, leftStart, leftStart + equalPrefixLength);
+                    equalPrefixLength -= UTF8.getLength(result);
+                    c = UTF8.getCodePoint(result);
+                } while(equalPrefixLength > 0 && data.isUnsafeBackward(c, numeric));
+            }
+            // See the notes in the UTF-16 version.
+        }
+
+        int result;
+        int fastLatinOptions = roSettings.fastLatinOptions;
+        if(fastLatinOptions >= 0 &&
+                (equalPrefixLength == leftLength ||
+                    (left[leftStart + equalPrefixLength] & 0xff) <= CollationFastLatin.LATIN_MAX_UTF8_LEAD) &&
+                (equalPrefixLength == rightLength ||
+                    (right[rightStart + equalPrefixLength] & 0xff) <= CollationFastLatin.LATIN_MAX_UTF8_LEAD)) {
+            result = CollationFastLatin.compareUTF8(data.fastLatinTable,
+                                                     roSettings.fastLatinPrimaries,
+                                                     fastLatinOptions,
+                                                     left, leftStart + equalPrefixLength, leftLimit,
+                                                     right, rightStart + equalPrefixLength, rightLimit);
+        } else {
+            result = CollationFastLatin.BAIL_OUT_RESULT;
+        }
+
+        if(result == CollationFastLatin.BAIL_OUT_RESULT) {
+            CollationBuffer buffer = null;
+            try {
+                buffer = getCollationBuffer();
+                buffer.initUTF8Iterators();
+                if(roSettings.dontCheckFCD()) {
+                    buffer.leftUTF8CollIter.setText(numeric, left, leftStart,
+                            leftStart + equalPrefixLength, leftLimit);
+                    buffer.rightUTF8CollIter.setText(numeric, right, rightStart,
+                            rightStart + equalPrefixLength, rightLimit);
+                    result = CollationCompare.compareUpToQuaternary(
+                            buffer.leftUTF8CollIter, buffer.rightUTF8CollIter, roSettings);
+                } else {
+                    buffer.leftFCDUTF8Iter.setText(numeric, left, leftStart,
+                            leftStart + equalPrefixLength, leftLimit);
+                    buffer.rightFCDUTF8Iter.setText(numeric, right, rightStart,
+                            rightStart + equalPrefixLength, rightLimit);
+                    result = CollationCompare.compareUpToQuaternary(
+                            buffer.leftFCDUTF8Iter, buffer.rightFCDUTF8Iter, roSettings);
+                }
+            } finally {
+                releaseCollationBuffer(buffer);
+            }
+        }
+        if(result != Collation.EQUAL || roSettings.getStrength() < Collator.IDENTICAL) {
+            return result;
+        }
+
+        CollationBuffer buffer = null;
+        try {
+            buffer = getCollationBuffer();
+            buffer.initUTF8Iterators();
+            // Compare identical level.
+            Normalizer2Impl nfcImpl = data.nfcImpl;
+            if(roSettings.dontCheckFCD()) {
+                buffer.leftUTF8NFDIter.setText(left, leftStart + equalPrefixLength, leftLimit);
+                buffer.rightUTF8NFDIter.setText(right, rightStart + equalPrefixLength, rightLimit);
+                return compareNFDIter(nfcImpl, buffer.leftUTF8NFDIter, buffer.rightUTF8NFDIter);
+            } else {
+                buffer.leftFCDUTF8NFDIter.setText(left, leftStart + equalPrefixLength, leftLimit);
+                buffer.rightFCDUTF8NFDIter.setText(right, rightStart + equalPrefixLength, rightLimit);
+                return compareNFDIter(nfcImpl, buffer.leftFCDUTF8NFDIter, buffer.rightFCDUTF8NFDIter);
+            }
+        } finally {
+            releaseCollationBuffer(buffer);
+        }
+    }
+
     // package private constructors ------------------------------------------
 
     RuleBasedCollator(CollationTailoring t, ULocale vl) {
@@ -1729,6 +2528,7 @@ protected int doCompare(CharSequence left, CharSequence right) {
         tailoring = t;
         validLocale = vl;
         actualLocaleIsSameAsValid = false;
+        initFastPathScript();
     }
 
     private void adoptTailoring(CollationTailoring t) {
@@ -1755,8 +2555,29 @@ final boolean isUnsafe(int c) {
 
     /**
      * Frozen state of the collator.
+     * Once frozen, CollationBuffers are shared via these slots:
+     * Each thread takes a buffer out of a slot (or creates a new one if all are empty)
+     * and puts it back when it is done.
+     * There is no lock, so concurrent compare() calls on a frozen collator
+     * do not serialize each other.
      */
-    private Lock frozenLock;
+    private volatile AtomicReferenceArray<CollationBuffer> frozenBuffers;
+
+    /**
+     * Upper limit for the number of CollationBuffers retained by a frozen collator.
+     * More threads than this still work but may allocate temporary buffers.
+     */
+    private static final int MAX_FROZEN_BUFFER_SLOTS = 64;
+
+    private static int frozenBufferSlotCount() {
+        // A power of 2 at least as large as the number of processors, for masking.
+        int processors = Runtime.getRuntime().availableProcessors();
+        int count = 2;
+        while (count < processors && count < MAX_FROZEN_BUFFER_SLOTS) {
+            count <<= 1;
+        }
+        return count;
+    }
 
     private static final class CollationBuffer {
         private CollationBuffer(CollationData data) {
@@ -1768,8 +2589,29 @@ private CollationBuffer(CollationData data) {
             rightUTF16NFDIter = new UTF16NFDIterator();
             leftFCDUTF16NFDIter = new FCDUTF16NFDIterator();
             rightFCDUTF16NFDIter = new FCDUTF16NFDIterator();
+            this.data = data;
+        }
+
+        /**
+         * Creates the UTF-8 iterators on first use,
+         * so that buffers which only compare UTF-16 strings do not pay for them.
+         */
+        void initUTF8Iterators() {
+            if (leftUTF8CollIter != null) {
+                return;
+            }
+            leftUTF8CollIter = new UTF8CollationIterator(data);
+            rightUTF8CollIter = new UTF8CollationIterator(data);
+            leftFCDUTF8Iter = new FCDUTF8CollationIterator(data);
+            rightFCDUTF8Iter = new FCDUTF8CollationIterator(data);
+            leftUTF8NFDIter = new UTF8NFDIterator();
+            rightUTF8NFDIter = new UTF8NFDIterator();
+            leftFCDUTF8NFDIter = new FCDUTF8NFDIterator(data);
+            rightFCDUTF8NFDIter = new FCDUTF8NFDIterator(data);
         }
 
+        private final CollationData data;
+
         UTF16CollationIterator leftUTF16CollIter;
         UTF16CollationIterator rightUTF16CollIter;
         FCDUTF16CollationIterator leftFCDUTF16Iter;
@@ -1780,6 +2622,16 @@ private CollationBuffer(CollationData data) {
         FCDUTF16NFDIterator leftFCDUTF16NFDIter;
         FCDUTF16NFDIterator rightFCDUTF16NFDIter;
 
+        UTF8CollationIterator leftUTF8CollIter;
+        UTF8CollationIterator rightUTF8CollIter;
+        FCDUTF8CollationIterator leftFCDUTF8Iter;
+        FCDUTF8CollationIterator rightFCDUTF8Iter;
+
+        UTF8NFDIterator leftUTF8NFDIter;
+        UTF8NFDIterator rightUTF8NFDIter;
+        FCDUTF8NFDIterator leftFCDUTF8NFDIter;
+        FCDUTF8NFDIterator rightFCDUTF8NFDIter;
+
         RawCollationKey rawCollationKey;
     }
 
@@ -1820,8 +2672,19 @@ public VersionInfo getUCAVersion() {
     private CollationBuffer collationBuffer;
 
     private final CollationBuffer getCollationBuffer() {
-        if (isFrozen()) {
-            frozenLock.lock();
+        AtomicReferenceArray<CollationBuffer> buffers = frozenBuffers;
+        if (buffers != null) {
+            // Start at this thread's preferred slot so that threads mostly use disjoint slots.
+            int mask = buffers.length() - 1;
+            int start = (int) Thread.currentThread().getId();
+            for (int i = 0; i <= mask; ++i) {
+                int slot = (start + i) & mask;
+                CollationBuffer buffer = buffers.get(slot);
+                if (buffer != null && buffers.compareAndSet(slot, buffer, null)) {
+                    return buffer;
+                }
+            }
+            return new CollationBuffer(data);
         } else if (collationBuffer == null) {
             collationBuffer = new CollationBuffer(data);
         }
@@ -1829,8 +2692,16 @@ private final CollationBuffer getCollationBuffer() {
     }
 
     private final void releaseCollationBuffer(CollationBuffer buffer) {
-        if (isFrozen()) {
-            frozenLock.unlock();
+        AtomicReferenceArray<CollationBuffer> buffers = frozenBuffers;
+        if (buffers != null && buffer != null) {
+            int mask = buffers.length() - 1;
+            int start = (int) Thread.currentThread().getId();
+            for (int i = 0; i <= mask; ++i) {
+                if (buffers.compareAndSet((start + i) & mask, null, buffer)) {
+                    return;
+                }
+            }
+            // All slots are occupied: Drop this buffer.
         }
     }
 
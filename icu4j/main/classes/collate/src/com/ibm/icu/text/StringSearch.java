@@ -152,6 +152,10 @@ public final class StringSearch extends SearchIterator {
 
     private boolean toShift_;
 
+    // Reused by search() and searchBackwards(), so that searching does not allocate.
+    private CEBuffer ceBuffer_;
+    private final Match match_ = new Match();
+
     // *** Boyer-Moore ***
     // private char[] canonicalPrefixAccents_;
     // private char[] canonicalSuffixAccents_;
@@ -175,6 +179,15 @@ public final class StringSearch extends SearchIterator {
      */
     public StringSearch(String pattern, CharacterIterator target, RuleBasedCollator collator,
             BreakIterator breakiter) {
+        this(pattern, target, collator, breakiter, null);
+    }
+
+    /**
+     * Implements the public constructors.
+     * With a collatedPattern, its tables are used rather than computed again.
+     */
+    private StringSearch(String pattern, CharacterIterator target, RuleBasedCollator collator,
+            BreakIterator breakiter, CollatedPattern collatedPattern) {
 
         // This implementation is ported from ICU4C usearch_open()
 
@@ -215,7 +228,29 @@ public StringSearch(String pattern, CharacterIterator target, RuleBasedCollator
         search_.internalBreakIter_ = BreakIterator.getCharacterInstance(collLocale == null ? ULocale.ROOT : collLocale);
         search_.internalBreakIter_.setText((CharacterIterator)target.clone());  // We need to create a clone
 
-        initialize();
+        if (collatedPattern != null) {
+            setPatternTables(collatedPattern);
+        } else {
+            initialize();
+        }
+    }
+
+    /**
+     * Initializes the iterator to search for the argument pattern in the argument
+     * target text, using the pattern's collator and its precomputed collation elements.
+     * The argument <code>breakiter</code> is used to define logical matches.
+     * @param pattern compiled pattern to look for.
+     * @param target target text to search for pattern.
+     * @param breakiter A {@link BreakIterator} that is used to determine the
+     *                boundaries of a logical match. This argument can be null.
+     * @throws IllegalArgumentException thrown when argument target is null,
+     *            or of length 0
+     * @see CollatedPattern
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public StringSearch(CollatedPattern pattern, CharacterIterator target, BreakIterator breakiter) {
+        this(pattern.getPattern(), target, pattern.getCollator(), breakiter, pattern);
     }
 
     /**
@@ -360,6 +395,33 @@ public void setPattern(String pattern) {
         initialize();
     }
 
+    /**
+     * Set the pattern to search for.
+     * If the pattern was compiled for a collator equal to this <tt>StringSearch</tt>'s
+     * collator, then its collation elements are used as is, rather than being computed again.
+     * The iterator's position will not be changed by this method.
+     * @param pattern compiled pattern for searching
+     * @see CollatedPattern
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void setPattern(CollatedPattern pattern) {
+        if (pattern.isCompatibleWith(collator_)) {
+            pattern_.text_ = pattern.getPattern();
+            setPatternTables(pattern);
+        } else {
+            setPattern(pattern.getPattern());
+        }
+    }
+
+    private void setPatternTables(CollatedPattern pattern) {
+        // The tables are only read, so they can be shared.
+        pattern_.CE_ = pattern.getCEs();
+        pattern_.CELength_ = pattern_.CE_.length;
+        pattern_.PCE_ = pattern.getPCEs();
+        pattern_.PCELength_ = pattern_.PCE_.length;
+    }
+
     /**
      * Determines whether canonical matches (option 1, as described in the
      * class documentation) is set.
@@ -576,7 +638,7 @@ protected int handlePrevious(int position) {
      * @param strength collation strength
      * @return collation element mask
      */
-    private static int getMask(int strength) {
+    static int getMask(int strength) {
         switch (strength) {
         case Collator.PRIMARY:
             return PRIMARYORDERMASK;
@@ -620,25 +682,32 @@ private final char getFCD(int c) {
      * @return the modified collation element
      */
     private int getCE(int sourcece) {
+        return getCE(sourcece, ceMask_, toShift_, variableTop_, strength_);
+    }
+
+    /**
+     * Static version of {@link #getCE(int)}, for CollatedPattern.
+     */
+    static int getCE(int sourcece, int ceMask, boolean toShift, int variableTop, int strength) {
         // note for tertiary we can't use the collator->tertiaryMask, that
         // is a preprocessed mask that takes into account case options. since
         // we are only concerned with exact matches, we don't need that.
-        sourcece &= ceMask_;
+        sourcece &= ceMask;
 
-        if (toShift_) {
+        if (toShift) {
             // alternate handling here, since only the 16 most significant digits
             // is only used, we can safely do a compare without masking
             // if the ce is a variable, we mask and get only the primary values
             // no shifting to quartenary is required since all primary values
             // less than variabletop will need to be masked off anyway.
-            if (variableTop_ > sourcece) {
-                if (strength_ >= Collator.QUATERNARY) {
+            if (variableTop > sourcece) {
+                if (strength >= Collator.QUATERNARY) {
                     sourcece &= PRIMARYORDERMASK;
                 } else {
                     sourcece = CollationElementIterator.IGNORABLE;
                 }
             }
-        } else if (strength_ >= Collator.QUATERNARY && sourcece == CollationElementIterator.IGNORABLE) {
+        } else if (strength >= Collator.QUATERNARY && sourcece == CollationElementIterator.IGNORABLE) {
             sourcece = 0xFFFF;
         }
 
@@ -885,6 +954,15 @@ private boolean checkIdentical(int start, int end) {
         return textstr.equals(patternstr);
     }
 
+    private CEBuffer getCEBuffer() {
+        if (ceBuffer_ == null) {
+            ceBuffer_ = new CEBuffer(this);
+        } else {
+            ceBuffer_.init();
+        }
+        return ceBuffer_;
+    }
+
     private boolean initTextProcessedIter() {
         if (textProcessedIter_ == null) {
             textProcessedIter_ = new CollationPCE(textIter_);
@@ -1015,7 +1093,7 @@ private boolean search(int startIdx, Match m) {
         }
 
         textIter_.setOffset(startIdx);
-        CEBuffer ceb = new CEBuffer(this);
+        CEBuffer ceb = getCEBuffer();
 
         int targetIx = 0;
         CEI targetCEI = null;
@@ -1290,7 +1368,7 @@ private boolean searchBackwards(int startIdx, Match m) {
             initializePatternPCETable();
         }
 
-        CEBuffer ceb = new CEBuffer(this);
+        CEBuffer ceb = getCEBuffer();
         int targetIx = 0;
 
         /*
@@ -1520,7 +1598,7 @@ private boolean handleNextCanonical() {
 
     private boolean handleNextCommonImpl() {
         int textOffset = textIter_.getOffset();
-        Match match = new Match();
+        Match match = match_;
 
         if (search(textOffset, match)) {
             search_.matchedIndex_ = match.start_;
@@ -1571,7 +1649,7 @@ private boolean handlePreviousCommonImpl() {
             textOffset = textIter_.getOffset();
         }
 
-        Match match = new Match();
+        Match match = match_;
         if (searchBackwards(textOffset, match)) {
             search_.matchedIndex_ = match.start_;
             search_.setMatchedLength(match.limit_ - match.start_);
@@ -1633,8 +1711,10 @@ protected Pattern(String pattern) {
 
     /**
      * Java port of ICU4C UCollationPCE (usrchimp.h)
+     *
+     * Package-private for CollatedPattern and CollatedPatternSet.
      */
-    private static class CollationPCE {
+    static final class CollationPCE {
         public static final long PROCESSED_NULLORDER = -1;
 
         private static final int DEFAULT_BUFFER_SIZE = 16;
@@ -1645,6 +1725,7 @@ private static class CollationPCE {
         private static final int CONTINUATION_MARKER = 0xc0;
 
         private PCEBuffer pceBuffer_ = new PCEBuffer();
+        private RCEBuffer rceBuffer_ = new RCEBuffer();
         private CollationElementIterator cei_;
         private int strength_;
         private boolean toShift_;
@@ -1776,7 +1857,8 @@ public long previousProcessed(Range range) {
 
             while (pceBuffer_.empty()) {
                 // buffer raw CEs up to non-ignorable primary
-                RCEBuffer rceb = new RCEBuffer();
+                // (The buffer is always empty here: It is drained completely below.)
+                RCEBuffer rceb = rceBuffer_;
                 int ce;
 
                 boolean finish = false;
@@ -1869,7 +1951,9 @@ void put(long ce, int ixLow, int ixHigh)
                     System.arraycopy(buffer_, 0, newBuffer, 0, buffer_.length);
                     buffer_ = newBuffer;
                 }
-                buffer_[bufferIndex_] = new PCEI();
+                if (buffer_[bufferIndex_] == null) {
+                    buffer_[bufferIndex_] = new PCEI();
+                }
                 buffer_[bufferIndex_].ce_ = ce;
                 buffer_[bufferIndex_].low_ = ixLow;
                 buffer_[bufferIndex_].high_ = ixHigh;
@@ -1906,7 +1990,9 @@ void put(int ce, int ixLow, int ixHigh) {
                     System.arraycopy(buffer_, 0, newBuffer, 0, buffer_.length);
                     buffer_ = newBuffer;
                 }
-                buffer_[bufferIndex_] = new RCEI();
+                if (buffer_[bufferIndex_] == null) {
+                    buffer_[bufferIndex_] = new RCEI();
+                }
                 buffer_[bufferIndex_].ce_ = ce;
                 buffer_[bufferIndex_].low_ = ixLow;
                 buffer_[bufferIndex_].high_ = ixHigh;
@@ -1956,8 +2042,19 @@ private static class CEBuffer {
 
         StringSearch strSearch_;
 
+        private final CollationPCE.Range range_ = new CollationPCE.Range();
+
         CEBuffer(StringSearch ss) {
             strSearch_ = ss;
+            init();
+        }
+
+        /**
+         * Prepares the buffer for a new search with the current pattern and text.
+         * Keeps the CEI objects of a previous search if there are enough of them.
+         */
+        void init() {
+            StringSearch ss = strSearch_;
             bufSize_ = ss.pattern_.PCELength_ + CEBUFFER_EXTRA;
             if (ss.search_.elementComparisonType_ != ElementComparisonType.STANDARD_ELEMENT_COMPARISON) {
                 String patText = ss.pattern_.text_;
@@ -1984,7 +2081,9 @@ private static class CEBuffer {
                 return;
             }
 
-            buf_ = new CEI[bufSize_];
+            if (buf_ == null || buf_.length < bufSize_) {
+                buf_ = new CEI[bufSize_];
+            }
         }
 
         // Get the CE with the specified index.
@@ -2018,7 +2117,7 @@ CEI get(int index) {
                 firstIx_++;
             }
 
-            CollationPCE.Range range = new CollationPCE.Range();
+            CollationPCE.Range range = range_;
             if (buf_[i] == null) {
                 buf_[i] = new CEI();
             }
@@ -2060,7 +2159,7 @@ CEI getPrevious(int index) {
                 firstIx_++;
             }
 
-            CollationPCE.Range range = new CollationPCE.Range();
+            CollationPCE.Range range = range_;
             if (buf_[i] == null) {
                 buf_[i] = new CEI();
             }
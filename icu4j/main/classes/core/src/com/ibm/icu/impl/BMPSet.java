@@ -321,6 +321,66 @@ public final int spanBack(CharSequence s, int limit, SpanCondition spanCondition
         return limit + 1;
     }
 
+    /**
+     * Span the initial substring of UTF-8 text for which each code point c has spanCondition==contains(c).
+     * Ill-formed sequences are treated like U+FFFD.
+     *
+     * @param s The UTF-8 bytes
+     * @param start The start index
+     * @param limit The limit index, start&lt;limit
+     * @return the limit (exclusive end) of the span
+     */
+    public final int spanUTF8(byte[] s, int start, int limit, SpanCondition spanCondition) {
+        boolean spanContained = SpanCondition.NOT_CONTAINED != spanCondition;
+        int i = start;
+        while (i < limit) {
+            int b = s[i];
+            if (b >= 0) {
+                if (latin1Contains[b] != spanContained) {
+                    break;
+                }
+                ++i;
+                continue;
+            }
+            int result = UTF8.nextCodePoint(s, i, limit);
+            if (contains(UTF8.getCodePoint(result)) != spanContained) {
+                break;
+            }
+            i += UTF8.getLength(result);
+        }
+        return i;
+    }
+
+    /**
+     * Symmetrical with spanUTF8().
+     * Span the trailing substring of UTF-8 text for which each code point c has spanCondition==contains(c).
+     *
+     * @param s The UTF-8 bytes
+     * @param start The start index
+     * @param limit The limit index, start&lt;limit
+     * @return The string index which starts the span (i.e. inclusive).
+     */
+    public final int spanBackUTF8(byte[] s, int start, int limit, SpanCondition spanCondition) {
+        boolean spanContained = SpanCondition.NOT_CONTAINED != spanCondition;
+        int i = limit;
+        while (i > start) {
+            int b = s[i - 1];
+            if (b >= 0) {
+                if (latin1Contains[b] != spanContained) {
+                    break;
+                }
+                --i;
+                continue;
+            }
+            int result = UTF8.previousCodePoint(s, start, i);
+            if (contains(UTF8.getCodePoint(result)) != spanContained) {
+                break;
+            }
+            i -= UTF8.getLength(result);
+        }
+        return i;
+    }
+
     /**
      * Set bits in a bit rectangle in "vertical" bit organization. start<limit<=0x800
      */
@@ -10,6 +10,7 @@
 import com.ibm.icu.lang.UCharacterCategory;
 import com.ibm.icu.text.BreakIterator;
 import com.ibm.icu.text.Edits;
+import com.ibm.icu.text.UTF16;
 import com.ibm.icu.util.ICUUncheckedIOException;
 import com.ibm.icu.util.ULocale;
 
@@ -423,21 +424,83 @@ private static String applyEdits(CharSequence src, StringBuilder replacementChar
     private static final Trie2_16 CASE_TRIE = UCaseProps.getTrie();
 
     /**
-     * caseLocale >= 0: Lowercases [srcStart..srcLimit[ but takes context [0..srcLength[ into account.
-     * caseLocale < 0: Case-folds [srcStart..srcLimit[.
+     * caseLocale >= 0: Returns the Latin deltas for lowercasing.
+     * caseLocale < 0: Returns the Latin deltas for case folding.
      */
-    private static void internalToLower(int caseLocale, int options,
-            CharSequence src, int srcStart, int srcLimit, StringContextIterator iter,
-            Appendable dest, Edits edits) throws IOException {
-        byte[] latinToLower;
+    private static byte[] getLatinToLower(int caseLocale, int options) {
         if (caseLocale == UCaseProps.LOC_ROOT ||
                 (caseLocale >= 0 ?
                     !(caseLocale == UCaseProps.LOC_TURKISH || caseLocale == UCaseProps.LOC_LITHUANIAN) :
                     (options & UCaseProps.FOLD_CASE_OPTIONS_MASK) == UCharacter.FOLD_CASE_DEFAULT)) {
-            latinToLower = UCaseProps.LatinCase.TO_LOWER_NORMAL;
+            return UCaseProps.LatinCase.TO_LOWER_NORMAL;
         } else {
-            latinToLower = UCaseProps.LatinCase.TO_LOWER_TR_LT;
+            return UCaseProps.LatinCase.TO_LOWER_TR_LT;
+        }
+    }
+
+    private static byte[] getLatinToUpper(int caseLocale) {
+        if (caseLocale == UCaseProps.LOC_TURKISH) {
+            return UCaseProps.LatinCase.TO_UPPER_TR;
+        } else {
+            return UCaseProps.LatinCase.TO_UPPER_NORMAL;
+        }
+    }
+
+    /**
+     * Fast path for the String-returning functions:
+     * Maps src with the Latin deltas if all of its characters are below U+017F
+     * and none of them is an exception.
+     * The mappings in this range do not depend on context.
+     *
+     * @return the mapped string; src.toString() if no character changes;
+     *         null if src needs the full code path
+     */
+    private static String mapLatin(byte[] latinDeltas, CharSequence src) {
+        int length = src.length();
+        // Pre-scan for the first character that changes.
+        int i = 0;
+        for (;; ++i) {
+            if (i == length) {
+                return src.toString();
+            }
+            char c = src.charAt(i);
+            if (c >= UCaseProps.LatinCase.LONG_S) {
+                return null;
+            }
+            byte d = latinDeltas[c];
+            if (d != 0) {
+                if (d == UCaseProps.LatinCase.EXC) {
+                    return null;
+                }
+                break;
+            }
         }
+        char[] result = new char[length];
+        for (int j = 0; j < i; ++j) {
+            result[j] = src.charAt(j);
+        }
+        for (; i < length; ++i) {
+            char c = src.charAt(i);
+            if (c >= UCaseProps.LatinCase.LONG_S) {
+                return null;
+            }
+            byte d = latinDeltas[c];
+            if (d == UCaseProps.LatinCase.EXC) {
+                return null;
+            }
+            result[i] = (char)(c + d);
+        }
+        return new String(result);
+    }
+
+    /**
+     * caseLocale >= 0: Lowercases [srcStart..srcLimit[ but takes context [0..srcLength[ into account.
+     * caseLocale < 0: Case-folds [srcStart..srcLimit[.
+     */
+    private static void internalToLower(int caseLocale, int options,
+            CharSequence src, int srcStart, int srcLimit, StringContextIterator iter,
+            Appendable dest, Edits edits) throws IOException {
+        byte[] latinToLower = getLatinToLower(caseLocale, options);
         int prev = srcStart;
         int srcIndex = srcStart;
         outerLoop:
@@ -512,12 +575,7 @@ private static void internalToLower(int caseLocale, int options,
     private static void internalToUpper(int caseLocale, int options,
             CharSequence src, Appendable dest, Edits edits) throws IOException {
         StringContextIterator iter = null;
-        byte[] latinToUpper;
-        if (caseLocale == UCaseProps.LOC_TURKISH) {
-            latinToUpper = UCaseProps.LatinCase.TO_UPPER_TR;
-        } else {
-            latinToUpper = UCaseProps.LatinCase.TO_UPPER_NORMAL;
-        }
+        byte[] latinToUpper = getLatinToUpper(caseLocale);
         int prev = 0;
         int srcIndex = 0;
         int srcLength = src.length();
@@ -587,6 +645,12 @@ private static void internalToUpper(int caseLocale, int options,
     }
 
     public static String toLower(int caseLocale, int options, CharSequence src) {
+        if ((options & OMIT_UNCHANGED_TEXT) == 0) {
+            String result = mapLatin(getLatinToLower(caseLocale, options), src);
+            if (result != null) {
+                return result;
+            }
+        }
         if (src.length() <= 100 && (options & OMIT_UNCHANGED_TEXT) == 0) {
             if (src.length() == 0) {
                 return src.toString();
@@ -617,6 +681,12 @@ public static <A extends Appendable> A toLower(int caseLocale, int options,
     }
 
     public static String toUpper(int caseLocale, int options, CharSequence src) {
+        if ((options & OMIT_UNCHANGED_TEXT) == 0 && caseLocale != UCaseProps.LOC_GREEK) {
+            String result = mapLatin(getLatinToUpper(caseLocale), src);
+            if (result != null) {
+                return result;
+            }
+        }
         if (src.length() <= 100 && (options & OMIT_UNCHANGED_TEXT) == 0) {
             if (src.length() == 0) {
                 return src.toString();
@@ -780,6 +850,12 @@ public static <A extends Appendable> A toTitle(
     }
 
     public static String fold(int options, CharSequence src) {
+        if ((options & OMIT_UNCHANGED_TEXT) == 0) {
+            String result = mapLatin(getLatinToLower(-1, options), src);
+            if (result != null) {
+                return result;
+            }
+        }
         if (src.length() <= 100 && (options & OMIT_UNCHANGED_TEXT) == 0) {
             if (src.length() == 0) {
                 return src.toString();
@@ -808,6 +884,125 @@ public static <A extends Appendable> A fold(int options,
         }
     }
 
+    /**
+     * Compares the full case foldings of two strings in code unit order,
+     * without creating the folded strings.
+     * The result has the same sign as fold(options, s1).compareTo(fold(options, s2)).
+     */
+    public static int compareFolded(CharSequence s1, CharSequence s2, int options) {
+        byte[] latinToFold = getLatinToLower(-1, options);
+        int length1 = s1.length();
+        int length2 = s2.length();
+        int minLength = Math.min(length1, length2);
+        // Fast path: Equal non-surrogate code units fold equally,
+        // and the LatinCase deltas fold to single code units.
+        int i = 0;
+        for (; i < minLength; ++i) {
+            char c1 = s1.charAt(i);
+            char c2 = s2.charAt(i);
+            if (c1 == c2 && !UTF16.isSurrogate(c1)) {
+                continue;
+            }
+            if (c1 >= UCaseProps.LatinCase.LONG_S || c2 >= UCaseProps.LatinCase.LONG_S) {
+                break;
+            }
+            byte d1 = latinToFold[c1];
+            byte d2 = latinToFold[c2];
+            if (d1 == UCaseProps.LatinCase.EXC || d2 == UCaseProps.LatinCase.EXC) {
+                break;
+            }
+            int diff = (c1 + d1) - (c2 + d2);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        if (i == minLength) {
+            // A non-empty string never folds to an empty string.
+            return length1 - length2;
+        }
+        FoldingIterator iter1 = new FoldingIterator(s1, i, options);
+        FoldingIterator iter2 = new FoldingIterator(s2, i, options);
+        for (;;) {
+            int c1 = iter1.next();
+            int c2 = iter2.next();
+            if (c1 != c2) {
+                return c1 - c2;
+            } else if (c1 < 0) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the hash code of the full case folding of s, without creating the folded string.
+     * Same as fold(options, s).hashCode().
+     */
+    public static int foldedHashCode(CharSequence s, int options) {
+        byte[] latinToFold = getLatinToLower(-1, options);
+        int length = s.length();
+        int hash = 0;
+        int i = 0;
+        for (; i < length; ++i) {
+            char c = s.charAt(i);
+            if (c >= UCaseProps.LatinCase.LONG_S) {
+                break;
+            }
+            byte d = latinToFold[c];
+            if (d == UCaseProps.LatinCase.EXC) {
+                break;
+            }
+            hash = 31 * hash + (c + d);
+        }
+        if (i < length) {
+            FoldingIterator iter = new FoldingIterator(s, i, options);
+            int c;
+            while ((c = iter.next()) >= 0) {
+                hash = 31 * hash + c;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the code units of the full case folding of a string, one at a time.
+     * Folds one code point at a time into a small buffer.
+     */
+    private static final class FoldingIterator {
+        FoldingIterator(CharSequence src, int start, int options) {
+            this.src = src;
+            index = start;
+            this.options = options;
+        }
+
+        /**
+         * @return the next code unit of the folded string, or -1 at the end
+         */
+        int next() {
+            while (foldedIndex == folded.length()) {
+                if (index == src.length()) {
+                    return -1;
+                }
+                int c = Character.codePointAt(src, index);
+                index += Character.charCount(c);
+                folded.setLength(0);
+                foldedIndex = 0;
+                int result = UCaseProps.INSTANCE.toFullFolding(c, folded, options);
+                if (result < 0) {
+                    folded.appendCodePoint(~result);
+                } else if (result > UCaseProps.MAX_STRING_LENGTH) {
+                    folded.appendCodePoint(result);
+                }  // else the folding string has been appended.
+            }
+            return folded.charAt(foldedIndex++);
+        }
+
+        private final CharSequence src;
+        private int index;
+        private final int options;
+        private final StringBuilder folded = new StringBuilder(UCaseProps.MAX_STRING_LENGTH);
+        private int foldedIndex;
+    }
+
     private static final class GreekUpper {
         // Data bits.
         private static final int UPPER_MASK = 0x3ff;
@@ -514,6 +514,22 @@ private static ByteBuffer getDataFromFile(String itemPath) {
         return null;
     }
 
+    /**
+     * Memory-maps a binary data file outside of the ICU data path,
+     * for example a cache file written by the application.
+     * The buffer contents is read-only, but its position etc. can be modified.
+     *
+     * @param path The file to be mapped.
+     * @return The data as a read-only ByteBuffer,
+     *         or null if the file does not exist or could not be mapped.
+     */
+    public static ByteBuffer mapDataFile(File path) {
+        if (!path.isFile()) {
+            return null;
+        }
+        return mapFile(path);
+    }
+
     @SuppressWarnings("resource")  // Closing a file closes its channel.
     private static ByteBuffer mapFile(File path) {
         FileInputStream file;
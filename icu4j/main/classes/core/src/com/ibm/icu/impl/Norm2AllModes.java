@@ -105,7 +105,14 @@ public Appendable normalize(CharSequence src, Appendable dest) {
             buffer.flush();
             return dest;
         }
-        protected abstract void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer);
+        protected void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer) {
+            normalize(src, 0, src.length(), buffer);
+        }
+        /**
+         * Normalizes src[start..limit[ which must begin and end at normalization boundaries.
+         */
+        protected abstract void normalize(CharSequence src, int start, int limit,
+                Normalizer2Impl.ReorderingBuffer buffer);
 
         // normalize and append
         @Override
@@ -158,6 +165,24 @@ public Normalizer.QuickCheckResult quickCheck(CharSequence s) {
         }
 
         public abstract int getQuickCheck(int c);
+        /**
+         * Same as getQuickCheck(c) for norm16=impl.getNorm16(c).
+         * @return 0=no, 1=yes, 2=maybe
+         */
+        public abstract int getQuickCheckFromNorm16(int norm16);
+        /**
+         * Returns a code point limit below which all characters are quick check "yes"
+         * and have a normalization boundary before them, so they normalize to themselves
+         * regardless of their context.
+         */
+        public abstract int getMinNoMaybeCP();
+        /**
+         * For a character which passed the quick check with ccc=0,
+         * returns the lowest combining class that a following combining mark may have
+         * for the text to remain normalized.
+         * Only FCC cares about the trailing ccc of such a character.
+         */
+        public int getQuickCheckTrailCC(int norm16) { return 0; }
 
         public final Normalizer2Impl impl;
     }
@@ -168,8 +193,9 @@ public DecomposeNormalizer2(Normalizer2Impl ni) {
         }
 
         @Override
-        protected void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.decompose(src, 0, src.length(), buffer);
+        protected void normalize(CharSequence src, int start, int limit,
+                Normalizer2Impl.ReorderingBuffer buffer) {
+            impl.decompose(src, start, limit, buffer);
         }
         @Override
         protected void normalizeAndAppend(
@@ -185,6 +211,14 @@ public int getQuickCheck(int c) {
             return impl.isDecompYes(impl.getNorm16(c)) ? 1 : 0;
         }
         @Override
+        public int getQuickCheckFromNorm16(int norm16) {
+            return impl.isDecompYes(norm16) ? 1 : 0;
+        }
+        @Override
+        public int getMinNoMaybeCP() {
+            return Math.min(impl.getMinDecompNoCP(), impl.getMinLcccCP());
+        }
+        @Override
         public boolean hasBoundaryBefore(int c) { return impl.hasDecompBoundaryBefore(c); }
         @Override
         public boolean hasBoundaryAfter(int c) { return impl.hasDecompBoundaryAfter(c); }
@@ -199,8 +233,9 @@ public ComposeNormalizer2(Normalizer2Impl ni, boolean fcc) {
         }
 
         @Override
-        protected void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.compose(src, 0, src.length(), onlyContiguous, true, buffer);
+        protected void normalize(CharSequence src, int start, int limit,
+                Normalizer2Impl.ReorderingBuffer buffer) {
+            impl.compose(src, start, limit, onlyContiguous, true, buffer);
         }
         @Override
         protected void normalizeAndAppend(
@@ -235,6 +270,23 @@ public int getQuickCheck(int c) {
             return impl.getCompQuickCheck(impl.getNorm16(c));
         }
         @Override
+        public int getQuickCheckFromNorm16(int norm16) {
+            return impl.getCompQuickCheck(norm16);
+        }
+        @Override
+        public int getMinNoMaybeCP() {
+            int minNoMaybeCP=Math.min(impl.getMinCompNoMaybeCP(), impl.getMinLcccCP());
+            if(onlyContiguous) {
+                // FCC needs the tccc of decomposable characters.
+                minNoMaybeCP=Math.min(minNoMaybeCP, impl.getMinDecompNoCP());
+            }
+            return minNoMaybeCP;
+        }
+        @Override
+        public int getQuickCheckTrailCC(int norm16) {
+            return onlyContiguous ? impl.getTrailCCFromCompYesAndZeroCC(norm16) : 0;
+        }
+        @Override
         public boolean hasBoundaryBefore(int c) { return impl.hasCompBoundaryBefore(c); }
         @Override
         public boolean hasBoundaryAfter(int c) {
@@ -254,8 +306,9 @@ public FCDNormalizer2(Normalizer2Impl ni) {
         }
 
         @Override
-        protected void normalize(CharSequence src, Normalizer2Impl.ReorderingBuffer buffer) {
-            impl.makeFCD(src, 0, src.length(), buffer);
+        protected void normalize(CharSequence src, int start, int limit,
+                Normalizer2Impl.ReorderingBuffer buffer) {
+            impl.makeFCD(src, start, limit, buffer);
         }
         @Override
         protected void normalizeAndAppend(
@@ -271,6 +324,15 @@ public int getQuickCheck(int c) {
             return impl.isDecompYes(impl.getNorm16(c)) ? 1 : 0;
         }
         @Override
+        public int getQuickCheckFromNorm16(int norm16) {
+            return impl.isDecompYes(norm16) ? 1 : 0;
+        }
+        @Override
+        public int getMinNoMaybeCP() {
+            // Not just minLcccCP: Decomposable characters may have a non-zero tccc.
+            return Math.min(impl.getMinDecompNoCP(), impl.getMinLcccCP());
+        }
+        @Override
         public boolean hasBoundaryBefore(int c) { return impl.hasFCDBoundaryBefore(c); }
         @Override
         public boolean hasBoundaryAfter(int c) { return impl.hasFCDBoundaryAfter(c); }
@@ -692,6 +692,19 @@ public int getNorm16(int c) {
         return UTF16Plus.isLeadSurrogate(c) ? INERT : normTrie.get(c);
     }
     public int getRawNorm16(int c) { return normTrie.get(c); }
+    /**
+     * Same as getNorm16() but only for code points decoded from well-formed UTF-8,
+     * which are never surrogates: Looks up the trie directly.
+     */
+    public int getNorm16FromUTF8(int c) {
+        return c<=0xffff ? normTrie.bmpGet(c) : normTrie.suppGet(c);
+    }
+
+    // Below these code points, all characters are "yes" with ccc=0 and lccc=0,
+    // so they normalize to themselves and have a normalization boundary before them.
+    public int getMinDecompNoCP() { return minDecompNoCP; }
+    public int getMinCompNoMaybeCP() { return minCompNoMaybeCP; }
+    public int getMinLcccCP() { return minLcccCP; }
 
     public int getCompQuickCheck(int norm16) {
         if(norm16<minNoNo || MIN_YES_YES_WITH_CC<=norm16) {
@@ -0,0 +1,142 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.impl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.ibm.icu.text.Normalizer2;
+
+/**
+ * Parallel normalization of long texts, implementing
+ * Normalizer2.normalize(CharSequence, StringBuilder, ForkJoinPool).
+ *
+ * <p>The text is split into chunks at normalization boundaries
+ * found via Normalizer2.hasBoundaryBefore().
+ * The chunks do not interact, so they are normalized independently
+ * by concurrent tasks, and their results are concatenated.
+ * The result is the same as that of normalizing the whole text at once.
+ */
+public final class Normalizer2Parallel {
+    /**
+     * Minimum number of chars per task, to amortize the task overhead.
+     */
+    private static final int MIN_CHUNK_LENGTH = 0x10000;
+
+    private Normalizer2Parallel() {}
+
+    /**
+     * Implements Normalizer2.normalize(CharSequence, StringBuilder, ForkJoinPool).
+     */
+    public static StringBuilder normalize(Normalizer2 n2, CharSequence src, StringBuilder dest,
+            ForkJoinPool pool) {
+        if (dest == src) {
+            throw new IllegalArgumentException();
+        }
+        int length = src.length();
+        // With only one worker thread, splitting the text would only add overhead.
+        if (pool == null || pool.getParallelism() < 2 || length < 2 * MIN_CHUNK_LENGTH) {
+            return n2.normalize(src, dest);
+        }
+        int maxTaskCount = Math.min(4 * pool.getParallelism(), length / MIN_CHUNK_LENGTH);
+        NormalizeTask[] tasks = new NormalizeTask[maxTaskCount];
+        int taskCount = 0;
+        int start = 0;
+        for (int i = 1; i <= maxTaskCount; ++i) {
+            int limit;
+            if (i == maxTaskCount) {
+                limit = length;
+            } else {
+                limit = nextBoundary(n2, src, (int) ((long) length * i / maxTaskCount),
+                        (int) ((long) length * (i + 1) / maxTaskCount));
+                if (limit < 0) {
+                    continue;  // No boundary in this stretch: Merge it into the next chunk.
+                }
+            }
+            if (start < limit) {
+                tasks[taskCount++] = new NormalizeTask(n2, src, start, limit);
+                start = limit;
+            }
+        }
+        if (taskCount == 1) {
+            return n2.normalize(src, dest);
+        }
+        NormalizeTask[] allTasks = new NormalizeTask[taskCount];
+        System.arraycopy(tasks, 0, allTasks, 0, taskCount);
+        pool.invoke(new NormalizeTasks(allTasks));
+        int destLength = 0;
+        for (NormalizeTask task : allTasks) {
+            destLength += task.result.length();
+        }
+        dest.setLength(0);
+        dest.ensureCapacity(destLength);
+        for (NormalizeTask task : allTasks) {
+            dest.append(task.result);
+        }
+        return dest;
+    }
+
+    /**
+     * Returns the first normalization boundary in src[index..limit[,
+     * or -1 if there is none.
+     */
+    private static int nextBoundary(Normalizer2 n2, CharSequence src, int index, int limit) {
+        if (Character.isLowSurrogate(src.charAt(index)) &&
+                Character.isHighSurrogate(src.charAt(index - 1))) {
+            ++index;
+        }
+        while (index < limit) {
+            int c = Character.codePointAt(src, index);
+            if (n2.hasBoundaryBefore(c)) {
+                return index;
+            }
+            index += Character.charCount(c);
+        }
+        return -1;
+    }
+
+    /** Runs all of the chunk tasks and waits for them. */
+    private static final class NormalizeTasks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final NormalizeTask[] tasks;
+
+        NormalizeTasks(NormalizeTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    /** Normalizes one chunk of the text into its own buffer. */
+    private static final class NormalizeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Normalizer2 n2;
+        private final CharSequence src;
+        private final int start;
+        private final int limit;
+        StringBuilder result;
+
+        NormalizeTask(Normalizer2 n2, CharSequence src, int start, int limit) {
+            this.n2 = n2;
+            this.src = src;
+            this.start = start;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            if (n2 instanceof Norm2AllModes.Normalizer2WithImpl) {
+                // Normalize the chunk in place, without copying it first.
+                Norm2AllModes.Normalizer2WithImpl n2WithImpl = (Norm2AllModes.Normalizer2WithImpl) n2;
+                result = new StringBuilder();
+                n2WithImpl.normalize(src, start, limit,
+                        new Normalizer2Impl.ReorderingBuffer(n2WithImpl.impl, result, limit - start));
+            } else {
+                result = n2.normalize(src.subSequence(start, limit), new StringBuilder());
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.ibm.icu.text.Edits;
+import com.ibm.icu.text.Normalizer2;
+import com.ibm.icu.util.ICUUncheckedIOException;
+
+/**
+ * Normalization of UTF-8 text, implementing the Normalizer2 UTF-8 functions.
+ *
+ * <p>The text is scanned code point by code point. For a Normalizer2WithImpl,
+ * each code point is checked with one normalization trie lookup,
+ * and code points below the normalizer's minNoMaybeCP (which includes ASCII)
+ * are skipped without any lookup.
+ * Only the segments around code points that fail the quick check are
+ * converted to UTF-16, normalized, and converted back.
+ * Everything else is written in bulk from the source bytes.
+ *
+ * <p>Ill-formed sequences are treated like U+FFFD, which is inert,
+ * and are always copied unchanged.
+ */
+public final class Normalizer2UTF8 {
+    private final Normalizer2 n2;
+    private final Norm2AllModes.Normalizer2WithImpl n2WithImpl;
+    private final int minNoMaybeCP;
+    /**
+     * Without a quick check, segments which need to be converted to UTF-16
+     * are combined into regions of at least this many bytes.
+     */
+    private final int minRegionLength;
+
+    private Normalizer2UTF8(Normalizer2 n2) {
+        this.n2 = n2;
+        if (n2 instanceof Norm2AllModes.Normalizer2WithImpl) {
+            n2WithImpl = (Norm2AllModes.Normalizer2WithImpl) n2;
+            minNoMaybeCP = n2WithImpl.getMinNoMaybeCP();
+            minRegionLength = 0;
+        } else {
+            n2WithImpl = null;
+            minNoMaybeCP = 0;
+            minRegionLength = 256;
+        }
+    }
+
+    /**
+     * Implements Normalizer2.normalizeUTF8().
+     */
+    public static void normalize(Normalizer2 n2, byte[] src, int start, int limit,
+            OutputStream dest, Edits edits) {
+        if (edits != null) {
+            edits.reset();
+        }
+        try {
+            new Normalizer2UTF8(n2).normalize(src, start, limit, dest, edits);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException(e);  // Avoid declaring "throws IOException".
+        }
+    }
+
+    /**
+     * Implements Normalizer2.isNormalizedUTF8().
+     */
+    public static boolean isNormalized(Normalizer2 n2, byte[] src, int start, int limit) {
+        try {
+            return new Normalizer2UTF8(n2).normalize(src, start, limit, null, null);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException(e);  // cannot occur without an OutputStream
+        }
+    }
+
+    /**
+     * Writes the normalized text to dest.
+     * If dest is null, then this only checks whether the text is normalized.
+     *
+     * @return true if the text is normalized
+     */
+    private boolean normalize(byte[] src, int start, int limit,
+            OutputStream dest, Edits edits) throws IOException {
+        // The source bytes before this index have been written.
+        int written = start;
+        // Normalization boundary at or before the current position:
+        // The text after it may still interact with the following text.
+        // Characters which pass the quick check do not move it;
+        // the boundary before a failing character is found by looking backward.
+        int prevBoundary = start;
+        int prevCC = 0;
+        int i = start;
+        StringBuilder segment = null;
+        byte[] utf8 = null;
+        while (i < limit) {
+            int b = src[i];
+            if (0 <= b && b < minNoMaybeCP) {
+                // Fast path for ASCII.
+                prevBoundary = i++;
+                prevCC = 0;
+                continue;
+            }
+            int result = UTF8.nextCodePoint(src, i, limit);
+            int c = UTF8.getCodePoint(result);
+            int length = UTF8.getLength(result);
+            if (c < minNoMaybeCP) {
+                prevBoundary = i;
+                i += length;
+                prevCC = 0;
+                continue;
+            }
+            if (c == 0xfffd) {
+                // Inert, possibly ill-formed: Never include it in a segment that gets normalized.
+                i += length;
+                prevBoundary = i;
+                prevCC = 0;
+                continue;
+            }
+            if (n2WithImpl != null) {
+                int norm16 = n2WithImpl.impl.getNorm16FromUTF8(c);
+                int cc = n2WithImpl.impl.getCC(norm16);
+                if (n2WithImpl.getQuickCheckFromNorm16(norm16) == 1 && (cc == 0 || prevCC <= cc)) {
+                    i += length;
+                    prevCC = cc != 0 ? cc : n2WithImpl.getQuickCheckTrailCC(norm16);
+                    continue;
+                }
+            }
+            // Find the normalization segment(s) around c and check them in UTF-16.
+            int regionStart = i;
+            if (!n2.hasBoundaryBefore(c)) {
+                while (regionStart > prevBoundary) {
+                    result = UTF8.previousCodePoint(src, prevBoundary, regionStart);
+                    regionStart -= UTF8.getLength(result);
+                    if (n2.hasBoundaryBefore(UTF8.getCodePoint(result))) {
+                        break;
+                    }
+                }
+            }
+            int regionLimit = i + length;
+            while (regionLimit < limit) {
+                result = UTF8.nextCodePoint(src, regionLimit, limit);
+                c = UTF8.getCodePoint(result);
+                if (c < minNoMaybeCP || c == 0xfffd ||
+                        ((regionLimit - regionStart) >= minRegionLength && n2.hasBoundaryBefore(c))) {
+                    break;
+                }
+                regionLimit += UTF8.getLength(result);
+            }
+            if (segment == null) {
+                segment = new StringBuilder();
+            } else {
+                segment.setLength(0);
+            }
+            decode(src, regionStart, regionLimit, segment);
+            if (!n2.isNormalized(segment)) {
+                if (dest == null) {
+                    return false;
+                }
+                String normalized = n2.normalize(segment);
+                if (utf8 == null || utf8.length < 3 * normalized.length()) {
+                    utf8 = new byte[3 * normalized.length() + 16];
+                }
+                int utf8Length = encode(normalized, utf8);
+                dest.write(src, written, regionStart - written);
+                dest.write(utf8, 0, utf8Length);
+                if (edits != null) {
+                    edits.addUnchanged(regionStart - written);
+                    edits.addReplace(regionLimit - regionStart, utf8Length);
+                }
+                written = regionLimit;
+            }
+            // The region ends at a boundary.
+            prevBoundary = i = regionLimit;
+            prevCC = 0;
+        }
+        if (dest != null && written < limit) {
+            dest.write(src, written, limit - written);
+            if (edits != null) {
+                edits.addUnchanged(limit - written);
+            }
+        }
+        return true;
+    }
+
+    /** Decodes well-formed UTF-8. */
+    private static void decode(byte[] src, int start, int limit, StringBuilder dest) {
+        while (start < limit) {
+            int result = UTF8.nextCodePoint(src, start, limit);
+            dest.appendCodePoint(UTF8.getCodePoint(result));
+            start += UTF8.getLength(result);
+        }
+    }
+
+    /** Encodes well-formed UTF-16; dest must have at least 3 bytes per char. */
+    private static int encode(CharSequence s, byte[] dest) {
+        int length = 0;
+        for (int i = 0; i < s.length();) {
+            int c = Character.codePointAt(s, i);
+            length = UTF8.append(dest, length, c);
+            i += Character.charCount(c);
+        }
+        return length;
+    }
+}
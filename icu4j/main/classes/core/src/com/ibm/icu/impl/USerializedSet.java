@@ -8,6 +8,15 @@
 */
 
 package com.ibm.icu.impl;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+import com.ibm.icu.text.UTF16;
+import com.ibm.icu.text.UnicodeSet;
+import com.ibm.icu.text.UnicodeSet.SpanCondition;
+
 /**
  * @version     1.1
  * @author     Markus W. Scherer
@@ -18,6 +27,11 @@
  * Simple class for handling serialized USet/UnicodeSet structures
  * without object creation. See ICU4C icu/source/common/uset.c.
  *
+ * <p>The char[] form holds only code points, as in ICU4C.
+ * The ByteBuffer form appends the set's strings, see {@link #serialize(UnicodeSet, ByteBuffer)}.
+ * A set read from a ByteBuffer works directly on the buffer's contents,
+ * so it can be backed by a direct or memory-mapped buffer.
+ *
  * @internal
  */
 public final class USerializedSet {
@@ -29,11 +43,12 @@ public final class USerializedSet {
      */
     public final boolean getSet(char src[], int srcStart) {
         // leave most argument checking up to Java exceptions
-        array=null;
+        units=EMPTY_UNITS;
         arrayOffset=bmpLength=length=0;
+        stringCount=maxStringLength=0;
 
         length=src[srcStart++];
-        
+
         if ((length&0x8000) != 0) {
             /* there are supplementary values */
             length&=0x7fff;
@@ -50,12 +65,82 @@ public final boolean getSet(char src[], int srcStart) {
             }
             bmpLength=length;
         }
-        array = new char[length];
+        char[] array = new char[length];
         System.arraycopy(src,srcStart,array,0,length);
-        //arrayOffset=srcStart;
+        units = CharBuffer.wrap(array);
+        return true;
+    }
+
+    /**
+     * Fill in the given serialized set object from data written by
+     * {@link #serialize(UnicodeSet, ByteBuffer)}, including the strings.
+     * The set object keeps a view of the buffer and does not copy the data.
+     * The buffer's position is advanced to the end of the serialized set.
+     * @param bytes buffer positioned at the start of the serialized data,
+     *        with the same byte order that was used for writing it
+     * @return true if the given buffer is valid, otherwise false
+     */
+    public final boolean getSet(ByteBuffer bytes) {
+        units=EMPTY_UNITS;
+        arrayOffset=bmpLength=length=0;
+        stringCount=maxStringLength=0;
+
+        CharBuffer src = bytes.asCharBuffer();
+        int srcLimit = src.limit();
+        int srcIndex = 0;
+        if(srcLimit<1) {
+            throw new IndexOutOfBoundsException();
+        }
+        int rangesLength=src.get(srcIndex++);
+        int rangesBmpLength;
+        if ((rangesLength&0x8000) != 0) {
+            /* there are supplementary values */
+            rangesLength&=0x7fff;
+            if(srcLimit<(srcIndex+1+rangesLength)) {
+                throw new IndexOutOfBoundsException();
+            }
+            rangesBmpLength=src.get(srcIndex++);
+        } else {
+            rangesBmpLength=rangesLength;
+        }
+        int rangesStart=srcIndex;
+        srcIndex+=rangesLength;
+        if(srcLimit<(srcIndex+2)) {
+            throw new IndexOutOfBoundsException();
+        }
+        int count=(src.get(srcIndex)<<16)|src.get(srcIndex+1);
+        srcIndex+=2;
+        // one more offset than strings, two units per offset
+        if(count<0 || (srcLimit-srcIndex)/2<=count) {
+            throw new IndexOutOfBoundsException();
+        }
+        int offsetsStart=srcIndex;
+        srcIndex+=2*(count+1);
+        int stringsLength=getInt(src, offsetsStart+2*count);
+        if(stringsLength<0 || srcLimit-srcIndex<stringsLength) {
+            throw new IndexOutOfBoundsException();
+        }
+        int srcLength=srcIndex+stringsLength;
+
+        units=src;
+        arrayOffset=rangesStart;
+        length=rangesLength;
+        bmpLength=rangesBmpLength;
+        stringCount=count;
+        stringOffsetsStart=offsetsStart;
+        stringsStart=srcIndex;
+        int prevOffset=0;
+        for(int i=1; i<=count; ++i) {
+            int offset=getInt(src, offsetsStart+2*i);
+            if((offset-prevOffset)>maxStringLength) {
+                maxStringLength=offset-prevOffset;
+            }
+            prevOffset=offset;
+        }
+        bytes.position(bytes.position()+2*srcLength);
         return true;
     }
-    
+
     /**
      * Set the USerializedSet to contain the given character (and nothing
      * else).
@@ -65,6 +150,9 @@ public final void setToOne(int c) {
             return;
         }
 
+        char[] array = new char[4];
+        arrayOffset=0;
+        stringCount=maxStringLength=0;
         if(c<0xffff) {
             bmpLength=length=2;
             array[0]=(char)c;
@@ -89,8 +177,9 @@ public final void setToOne(int c) {
             array[0]=0x10;
             array[1]=0xffff;
         }
+        units = CharBuffer.wrap(array);
     }
-        
+
     /**
      * Returns a range of characters contained in the given serialized
      * set.
@@ -103,19 +192,16 @@ public final boolean getRange(int rangeIndex, int[] range) {
         if( rangeIndex<0) {
             return false;
         }
-        if(array==null){
-            array = new char[8];
-        }
         if(range==null || range.length <2){
             throw new IllegalArgumentException();
         }
         rangeIndex*=2; /* address start/limit pairs */
         if(rangeIndex<bmpLength) {
-            range[0]=array[rangeIndex++];
+            range[0]=units.get(arrayOffset+rangeIndex++);
             if(rangeIndex<bmpLength) {
-                range[1]=array[rangeIndex]-1;
+                range[1]=units.get(arrayOffset+rangeIndex)-1;
             } else if(rangeIndex<length) {
-                range[1]=((((int)array[rangeIndex])<<16)|array[rangeIndex+1])-1;
+                range[1]=getInt(units, arrayOffset+rangeIndex)-1;
             } else {
                 range[1]=0x10ffff;
             }
@@ -126,10 +212,10 @@ public final boolean getRange(int rangeIndex, int[] range) {
             int suppLength=length-bmpLength;
             if(rangeIndex<suppLength) {
                 int offset=arrayOffset+bmpLength;
-                range[0]=(((int)array[offset+rangeIndex])<<16)|array[offset+rangeIndex+1];
+                range[0]=getInt(units, offset+rangeIndex);
                 rangeIndex+=2;
                 if(rangeIndex<suppLength) {
-                    range[1]=((((int)array[offset+rangeIndex])<<16)|array[offset+rangeIndex+1])-1;
+                    range[1]=getInt(units, offset+rangeIndex)-1;
                 } else {
                     range[1]=0x10ffff;
                 }
@@ -139,7 +225,7 @@ public final boolean getRange(int rangeIndex, int[] range) {
             }
         }
     }
-    
+
     /**
      * Returns true if the given USerializedSet contains the given
      * character.
@@ -147,27 +233,57 @@ public final boolean getRange(int rangeIndex, int[] range) {
      * @return true if set contains c
      */
     public final boolean contains(int c) {
-        
+
         if(c>0x10ffff) {
             return false;
         }
-            
+
         if(c<=0xffff) {
-            int i;
-            /* find c in the BMP part */
-            for(i=0; i<bmpLength && (char)c>=array[i]; ++i) {}
-            return ((i&1) != 0);
+            /* binary search for the number of BMP values <=c */
+            int start=0, limit=bmpLength;
+            while(start<limit) {
+                int i=(start+limit)>>>1;
+                if(c>=units.get(arrayOffset+i)) {
+                    start=i+1;
+                } else {
+                    limit=i;
+                }
+            }
+            return ((start&1) != 0);
         } else {
-            int i;
-            /* find c in the supplementary part */
-            char high=(char)(c>>16), low=(char)c;
-            for(i=bmpLength;
-                i<length && (high>array[i] || (high==array[i] && low>=array[i+1]));
-                i+=2) {}
-        
-            /* count pairs of 16-bit units even per BMP and check if the number of pairs is odd */
-            return (((i+bmpLength)&2)!=0);
+            /* binary search for the number of supplementary values <=c */
+            int offset=arrayOffset+bmpLength;
+            int start=0, limit=(length-bmpLength)/2;
+            while(start<limit) {
+                int i=(start+limit)>>>1;
+                if(c>=getInt(units, offset+2*i)) {
+                    start=i+1;
+                } else {
+                    limit=i;
+                }
+            }
+            /* count all values and check if the number is odd */
+            return (((start+bmpLength)&1)!=0);
+        }
+    }
+
+    /**
+     * Returns true if the given USerializedSet contains the given
+     * string, or the given single code point.
+     * Same as {@link UnicodeSet#contains(CharSequence)}.
+     * @param s the string to test for, must not be empty
+     * @return true if set contains s
+     */
+    public final boolean contains(CharSequence s) {
+        int sLength=s.length();
+        if(sLength==0) {
+            throw new IllegalArgumentException("Can't use zero-length strings in UnicodeSet");
+        }
+        int c=Character.codePointAt(s, 0);
+        if(Character.charCount(c)==sLength) {
+            return contains(c);
         }
+        return findString(s, 0, sLength)>=0;
     }
 
     /**
@@ -180,7 +296,327 @@ public final boolean contains(int c) {
     public final int countRanges() {
         return (bmpLength+(length-bmpLength)/2+1)/2;
     }
-    
-    private char array[] = new char[8];
+
+    /**
+     * Returns the number of strings contained in the given serialized set.
+     * Sets read from a char[] never contain strings.
+     * @return a non-negative integer counting the strings
+     */
+    public final int countStrings() {
+        return stringCount;
+    }
+
+    /**
+     * Returns a string contained in the given serialized set.
+     * The strings are in the same order as in {@link UnicodeSet#strings()}.
+     * @param stringIndex a non-negative integer in the range <code>0..
+     * countStrings()-1</code>
+     * @return the string
+     */
+    public final String getString(int stringIndex) {
+        if(stringIndex<0 || stringCount<=stringIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        int start=stringsStart+getStringOffset(stringIndex);
+        int limit=stringsStart+getStringOffset(stringIndex+1);
+        char[] chars=new char[limit-start];
+        for(int i=0; start<limit; ++i, ++start) {
+            chars[i]=units.get(start);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Spans a string using the given serialized set.
+     * Returns the same index as {@link UnicodeSet#span(CharSequence, int, SpanCondition)}
+     * for the set that was serialized.
+     * @param s the string to be spanned
+     * @param start the start index that the span begins
+     * @param spanCondition the span condition
+     * @return the string index which ends the span (i.e. exclusive)
+     */
+    public final int span(CharSequence s, int start, SpanCondition spanCondition) {
+        int end=s.length();
+        if(start<0) {
+            start=0;
+        } else if(start>=end) {
+            return end;
+        }
+        if(stringCount==0) {
+            boolean spanContained=spanCondition!=SpanCondition.NOT_CONTAINED;
+            while(start<end) {
+                int c=Character.codePointAt(s, start);
+                if(contains(c)!=spanContained) {
+                    break;
+                }
+                start+=Character.charCount(c);
+            }
+            return start;
+        }
+        if(spanCondition==SpanCondition.NOT_CONTAINED) {
+            return spanNot(s, start);
+        } else if(spanCondition==SpanCondition.SIMPLE) {
+            return spanSimple(s, start);
+        } else {
+            return spanContained(s, start);
+        }
+    }
+
+    /**
+     * Serializes the set's code points in the format that {@link #getSet(char[], int)} reads.
+     * Same as C++ UnicodeSet::serialize(). Ignores any strings contained in the set.
+     * @param set the set to be serialized
+     * @return the serialized set
+     * @throws IndexOutOfBoundsException if the set has too many ranges for the format
+     */
+    public static char[] serialize(UnicodeSet set) {
+        // Inversion list: range starts and limits, without a limit of 0x110000.
+        int rangeCount = set.getRangeCount();
+        int[] list = new int[rangeCount * 2];
+        int length = 0;
+        for(int i = 0; i < rangeCount; ++i) {
+            list[length++] = set.getRangeStart(i);
+            int limit = set.getRangeEnd(i) + 1;
+            if(limit <= 0x10ffff) {
+                list[length++] = limit;
+            }
+        }
+        int bmpLength = 0;
+        while(bmpLength < length && list[bmpLength] <= 0xffff) { ++bmpLength; }
+        // Number of 16-bit array units.
+        int arrayLength = bmpLength + 2 * (length - bmpLength);
+        if(arrayLength > 0x7fff) {
+            // There are only 15 bits for the length in the first serialized word.
+            throw new IndexOutOfBoundsException("set too large to serialize");
+        }
+        boolean hasSupplementary = arrayLength > bmpLength;
+        char[] dest = new char[arrayLength + (hasSupplementary ? 2 : 1)];
+        int destIndex = 0;
+        if(hasSupplementary) {
+            dest[destIndex++] = (char)(0x8000 | arrayLength);
+            dest[destIndex++] = (char)bmpLength;
+        } else {
+            dest[destIndex++] = (char)arrayLength;
+        }
+        int i = 0;
+        for(; i < bmpLength; ++i) {
+            dest[destIndex++] = (char)list[i];
+        }
+        for(; i < length; ++i) {
+            dest[destIndex++] = (char)(list[i] >> 16);
+            dest[destIndex++] = (char)list[i];
+        }
+        return dest;
+    }
+
+    /**
+     * Serializes the set with its strings in the format that {@link #getSet(ByteBuffer)} reads.
+     * The data is written as 16-bit units in the buffer's byte order,
+     * starting at the buffer's position, which is advanced past the data.
+     * Several sets can be written into one buffer, one after the other.
+     *
+     * <p>The data starts with the code points as in {@link #serialize(UnicodeSet)}, followed by
+     * <ul>
+     * <li>the number of strings n, as two units (high, low)
+     * <li>n+1 string offsets, two units each, relative to the start of the string units;
+     *     the last one is the total number of string units
+     * <li>the strings' units, in {@link UnicodeSet#strings()} order
+     * </ul>
+     * @param set the set to be serialized
+     * @param dest the buffer that receives the serialized set
+     * @throws IndexOutOfBoundsException if the set has too many ranges for the format
+     * @throws BufferOverflowException if there is not enough space in the buffer,
+     *         see {@link #getSerializedLength(UnicodeSet)}
+     */
+    public static void serialize(UnicodeSet set, ByteBuffer dest) {
+        char[] ranges = serialize(set);
+        if(dest.remaining() < getSerializedLength(set)) {
+            throw new BufferOverflowException();
+        }
+        int count = set.strings().size();
+        for(char c : ranges) {
+            dest.putChar(c);
+        }
+        putInt(dest, count);
+        int offset = 0;
+        putInt(dest, offset);
+        for(String s : set.strings()) {
+            offset += s.length();
+            putInt(dest, offset);
+        }
+        for(String s : set.strings()) {
+            for(int i = 0; i < s.length(); ++i) {
+                dest.putChar(s.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes that {@link #serialize(UnicodeSet, ByteBuffer)}
+     * writes for the set.
+     * @param set the set to be serialized
+     * @return the number of bytes
+     */
+    public static int getSerializedLength(UnicodeSet set) {
+        int rangeCount = set.getRangeCount();
+        int bmpLength = 0, suppLength = 0;
+        for(int i = 0; i < rangeCount; ++i) {
+            if(set.getRangeStart(i) <= 0xffff) { ++bmpLength; } else { suppLength += 2; }
+            int limit = set.getRangeEnd(i) + 1;
+            if(limit <= 0xffff) { ++bmpLength; } else if(limit <= 0x10ffff) { suppLength += 2; }
+        }
+        int length = 1 + (suppLength > 0 ? 1 : 0) + bmpLength + suppLength;
+        int count = set.strings().size();
+        length += 2 * (count + 2);
+        for(String s : set.strings()) {
+            length += s.length();
+        }
+        return 2 * length;
+    }
+
+    private int spanNot(CharSequence s, int start) {
+        int end=s.length();
+        while(start<end) {
+            int c=Character.codePointAt(s, start);
+            if(contains(c) || longestStringMatch(s, start, Integer.MAX_VALUE)>0) {
+                break;
+            }
+            start+=Character.charCount(c);
+        }
+        return start;
+    }
+
+    private int spanSimple(CharSequence s, int start) {
+        int end=s.length();
+        while(start<end) {
+            int c=Character.codePointAt(s, start);
+            int step=contains(c) ? Character.charCount(c) : 0;
+            int matchLength=longestStringMatch(s, start, Integer.MAX_VALUE);
+            if(matchLength>step) {
+                step=matchLength;
+            }
+            if(step==0) {
+                break;
+            }
+            start+=step;
+        }
+        return start;
+    }
+
+    /**
+     * Finds the longest concatenation of set elements. Every position that such a
+     * concatenation reaches is marked in a small ring buffer which only needs to
+     * look ahead by the length of the longest element.
+     */
+    private int spanContained(CharSequence s, int start) {
+        int end=s.length();
+        int window=Math.max(maxStringLength, 2)+1;
+        boolean[] reached=new boolean[window];
+        reached[0]=true;
+        int spanLimit=start;
+        for(int pos=start; pos<end && pos<=spanLimit; ++pos) {
+            int slot=(pos-start)%window;
+            if(!reached[slot]) {
+                continue;
+            }
+            reached[slot]=false;
+            int c=Character.codePointAt(s, pos);
+            if(contains(c)) {
+                int limit=pos+Character.charCount(c);
+                reached[(limit-start)%window]=true;
+                if(limit>spanLimit) {
+                    spanLimit=limit;
+                }
+            }
+            // Mark the ends of all strings that match at pos, longest first.
+            int maxLength=Integer.MAX_VALUE;
+            int matchLength;
+            while((matchLength=longestStringMatch(s, pos, maxLength))>0) {
+                int limit=pos+matchLength;
+                reached[(limit-start)%window]=true;
+                if(limit>spanLimit) {
+                    spanLimit=limit;
+                }
+                maxLength=matchLength-1;
+            }
+        }
+        return spanLimit;
+    }
+
+    /**
+     * Returns the length of the longest set string that matches s at start
+     * and is not longer than maxLength, or 0 if there is none.
+     * Only matches that start and end on code point boundaries in s are considered.
+     */
+    private int longestStringMatch(CharSequence s, int start, int maxLength) {
+        if(start>0 && start<s.length() && UTF16.isTrailSurrogate(s.charAt(start)) &&
+                UTF16.isLeadSurrogate(s.charAt(start-1))) {
+            return 0;
+        }
+        int matchLength=Math.min(Math.min(maxStringLength, maxLength), s.length()-start);
+        for(; matchLength>1; --matchLength) {
+            int limit=start+matchLength;
+            if(limit<s.length() && UTF16.isLeadSurrogate(s.charAt(limit-1)) &&
+                    UTF16.isTrailSurrogate(s.charAt(limit))) {
+                continue;
+            }
+            if(findString(s, start, matchLength)>=0) {
+                return matchLength;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Binary search for s[start..start+sLength[ among the set strings
+     * which are sorted in code unit order.
+     * @return the string index, or -1 if not found
+     */
+    private int findString(CharSequence s, int start, int sLength) {
+        int lo=0, hi=stringCount;
+        while(lo<hi) {
+            int i=(lo+hi)>>>1;
+            int cmp=compareString(i, s, start, sLength);
+            if(cmp==0) {
+                return i;
+            } else if(cmp<0) {
+                lo=i+1;
+            } else {
+                hi=i;
+            }
+        }
+        return -1;
+    }
+
+    private int compareString(int stringIndex, CharSequence s, int start, int sLength) {
+        int unitsIndex=stringsStart+getStringOffset(stringIndex);
+        int strLength=stringsStart+getStringOffset(stringIndex+1)-unitsIndex;
+        int minLength=Math.min(strLength, sLength);
+        for(int i=0; i<minLength; ++i) {
+            int diff=units.get(unitsIndex+i)-s.charAt(start+i);
+            if(diff!=0) {
+                return diff;
+            }
+        }
+        return strLength-sLength;
+    }
+
+    private int getStringOffset(int stringIndex) {
+        return getInt(units, stringOffsetsStart+2*stringIndex);
+    }
+
+    private static int getInt(CharBuffer src, int index) {
+        return (src.get(index)<<16)|src.get(index+1);
+    }
+
+    private static void putInt(ByteBuffer dest, int value) {
+        dest.putChar((char)(value>>16));
+        dest.putChar((char)value);
+    }
+
+    private static final CharBuffer EMPTY_UNITS = CharBuffer.wrap(new char[0]);
+
+    private CharBuffer units = EMPTY_UNITS;
     private int arrayOffset, bmpLength, length;
+    private int stringCount, maxStringLength, stringOffsetsStart, stringsStart;
 }
@@ -0,0 +1,303 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+/*
+*******************************************************************************
+* UTF8.java, ported from unicode/utf8.h & utf_impl.cpp
+*******************************************************************************
+*/
+
+package com.ibm.icu.impl;
+
+/**
+ * Low-level UTF-8 code point iteration over byte arrays.
+ *
+ * <p>Ill-formed sequences are handled like the ICU4C U8_NEXT_OR_FFFD() and U8_PREV_OR_FFFD()
+ * macros: Each maximal subpart of an ill-formed sequence yields one U+FFFD.
+ * Surrogate code points are ill-formed.
+ *
+ * <p>The next/previous functions return the code point in bits 20..0
+ * and the number of bytes it occupies in bits 26..24;
+ * use {@link #getCodePoint(int)} and {@link #getLength(int)} to take it apart.
+ */
+public final class UTF8 {
+    private UTF8() {}
+
+    /**
+     * The maximum number of bytes per code point.
+     */
+    public static final int MAX_LENGTH = 4;
+
+    /**
+     * Is this byte a single-byte (ASCII) code point?
+     */
+    public static boolean isSingle(byte b) {
+        return b >= 0;
+    }
+
+    /**
+     * Is this byte a lead byte of a well-formed multi-byte sequence (C2..F4)?
+     */
+    public static boolean isLead(int b) {
+        b &= 0xff;
+        return 0xc2 <= b && b <= 0xf4;
+    }
+
+    /**
+     * Is this byte a trail byte (80..BF)?
+     */
+    public static boolean isTrail(int b) {
+        return (b & 0xc0) == 0x80;
+    }
+
+    // Bit set indexed by the 3-byte lead byte's low 4 bits, bit number t1>>5.
+    private static final byte[] LEAD3_T1_BITS = {
+        0x20, 0x30, 0x30, 0x30, 0x30, 0x30, 0x30, 0x30,
+        0x30, 0x30, 0x30, 0x30, 0x30, 0x10, 0x30, 0x30
+    };
+
+    // Bit set indexed by the first trail byte's high 4 bits, bit number (lead&7).
+    private static final byte[] LEAD4_T1_BITS = {
+        0, 0, 0, 0, 0, 0, 0, 0, 0x1e, 0x0f, 0x0f, 0x0f, 0, 0, 0, 0
+    };
+
+    /**
+     * Is t1 a valid first trail byte for the 3-byte lead byte E0..EF?
+     * Excludes overlong sequences and surrogates.
+     */
+    public static boolean isValidLead3AndT1(int lead, int t1) {
+        return (LEAD3_T1_BITS[lead & 0xf] & (1 << ((t1 & 0xff) >> 5))) != 0;
+    }
+
+    /**
+     * Is t1 a valid first trail byte for the 4-byte lead byte F0..F4?
+     * Excludes overlong sequences and code points above U+10FFFF.
+     */
+    public static boolean isValidLead4AndT1(int lead, int t1) {
+        return (LEAD4_T1_BITS[(t1 & 0xff) >> 4] & (1 << (lead & 7))) != 0;
+    }
+
+    /**
+     * @return the number of bytes (1..4) for encoding code point c,
+     *         or 0 if c is a surrogate or not a Unicode code point
+     */
+    public static int length(int c) {
+        if (c < 0) {
+            return 0;
+        } else if (c <= 0x7f) {
+            return 1;
+        } else if (c <= 0x7ff) {
+            return 2;
+        } else if (c <= 0xd7ff) {
+            return 3;
+        } else if (c <= 0xdfff) {
+            return 0;
+        } else if (c <= 0xffff) {
+            return 3;
+        } else if (c <= 0x10ffff) {
+            return 4;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * @param result return value of nextCodePoint() or previousCodePoint()
+     * @return the code point (U+FFFD for an ill-formed sequence)
+     */
+    public static int getCodePoint(int result) {
+        return result & 0x1fffff;
+    }
+
+    /**
+     * @param result return value of nextCodePoint() or previousCodePoint()
+     * @return the number of bytes that were read
+     */
+    public static int getLength(int result) {
+        return result >>> 24;
+    }
+
+    /**
+     * Reads the code point that starts at s[i].
+     *
+     * @param s byte array
+     * @param i start index of the code point, must be &lt;limit
+     * @param limit end of the text
+     * @return the code point and its byte length, see getCodePoint() and getLength()
+     */
+    public static int nextCodePoint(byte[] s, int i, int limit) {
+        int c = s[i] & 0xff;
+        if (c <= 0x7f) {
+            return (1 << 24) | c;
+        }
+        int start = i++;
+        if (i != limit) {
+            int t;
+            if (c >= 0xe0) {
+                if (c < 0xf0) {
+                    // U+0800..U+FFFF except surrogates
+                    if (isValidLead3AndT1(c, t = s[i])) {
+                        c = ((c & 0xf) << 6) | (t & 0x3f);
+                        if (++i != limit && (t = (s[i] & 0xff) ^ 0x80) <= 0x3f) {
+                            return ((i + 1 - start) << 24) | (c << 6) | t;
+                        }
+                    }
+                } else if (c <= 0xf4) {
+                    // U+10000..U+10FFFF
+                    if (isValidLead4AndT1(c, t = s[i])) {
+                        c = ((c & 7) << 6) | (t & 0x3f);
+                        if (++i != limit && (t = (s[i] & 0xff) ^ 0x80) <= 0x3f) {
+                            c = (c << 6) | t;
+                            if (++i != limit && (t = (s[i] & 0xff) ^ 0x80) <= 0x3f) {
+                                return ((i + 1 - start) << 24) | (c << 6) | t;
+                            }
+                        }
+                    }
+                }
+            } else if (c >= 0xc2) {
+                // U+0080..U+07FF
+                if ((t = (s[i] & 0xff) ^ 0x80) <= 0x3f) {
+                    return (2 << 24) | ((c & 0x1f) << 6) | t;
+                }
+            }
+        }
+        // Ill-formed: the maximal subpart is [start, i[.
+        return ((i - start) << 24) | 0xfffd;
+    }
+
+    /**
+     * Reads the code point that ends before s[i].
+     *
+     * @param s byte array
+     * @param start start of the text
+     * @param i limit index of the code point, must be &gt;start
+     * @return the code point and its byte length, see getCodePoint() and getLength()
+     */
+    public static int previousCodePoint(byte[] s, int start, int i) {
+        int c = s[--i] & 0xff;
+        if (c <= 0x7f) {
+            return (1 << 24) | c;
+        }
+        if (isTrail(c) && i > start) {
+            int b1 = s[i - 1] & 0xff;
+            if (isLead(b1)) {
+                if (b1 < 0xe0) {
+                    return (2 << 24) | ((b1 - 0xc0) << 6) | (c & 0x3f);
+                } else if (b1 < 0xf0 ? isValidLead3AndT1(b1, c) : isValidLead4AndT1(b1, c)) {
+                    // Truncated 3- or 4-byte sequence.
+                    return (2 << 24) | 0xfffd;
+                }
+            } else if (isTrail(b1) && i - 1 > start) {
+                c &= 0x3f;
+                int b2 = s[i - 2] & 0xff;
+                if (0xe0 <= b2 && b2 <= 0xf4) {
+                    if (b2 < 0xf0) {
+                        if (isValidLead3AndT1(b2, b1)) {
+                            return (3 << 24) | ((b2 & 0xf) << 12) | ((b1 & 0x3f) << 6) | c;
+                        }
+                    } else if (isValidLead4AndT1(b2, b1)) {
+                        // Truncated 4-byte sequence.
+                        return (3 << 24) | 0xfffd;
+                    }
+                } else if (isTrail(b2) && i - 2 > start) {
+                    int b3 = s[i - 3] & 0xff;
+                    if (0xf0 <= b3 && b3 <= 0xf4 && isValidLead4AndT1(b3, b2)) {
+                        return (4 << 24) | ((b3 & 7) << 18) | ((b2 & 0x3f) << 12) |
+                                ((b1 & 0x3f) << 6) | c;
+                    }
+                }
+            }
+        }
+        return (1 << 24) | 0xfffd;
+    }
+
+    /**
+     * Skips the code point that starts at s[i], like nextCodePoint()
+     * but without assembling the code point.
+     *
+     * @return the index after the code point
+     */
+    public static int forward(byte[] s, int i, int limit) {
+        int b = s[i++] & 0xff;
+        if (isLead(b) && i != limit) {
+            int t1 = s[i];
+            if (0xe0 <= b && b < 0xf0) {
+                if (isValidLead3AndT1(b, t1) && ++i != limit && isTrail(s[i])) {
+                    ++i;
+                }
+            } else if (b < 0xe0) {
+                if (isTrail(t1)) {
+                    ++i;
+                }
+            } else /* b >= 0xf0 */ {
+                if (isValidLead4AndT1(b, t1) &&
+                        ++i != limit && isTrail(s[i]) &&
+                        ++i != limit && isTrail(s[i])) {
+                    ++i;
+                }
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Skips the code point that ends before s[i], like previousCodePoint()
+     * but without assembling the code point.
+     *
+     * @return the start index of the code point
+     */
+    public static int back(byte[] s, int start, int i) {
+        int b = s[--i];
+        if (isTrail(b) && i > start) {
+            int orig = i;
+            int b1 = s[--i] & 0xff;
+            if (isLead(b1)) {
+                if (b1 < 0xe0 ||
+                        (b1 < 0xf0 ? isValidLead3AndT1(b1, b) : isValidLead4AndT1(b1, b))) {
+                    return i;
+                }
+            } else if (isTrail(b1) && i > start) {
+                int b2 = s[--i] & 0xff;
+                if (0xe0 <= b2 && b2 <= 0xf4) {
+                    if (b2 < 0xf0 ? isValidLead3AndT1(b2, b1) : isValidLead4AndT1(b2, b1)) {
+                        return i;
+                    }
+                } else if (isTrail(b2) && i > start) {
+                    int b3 = s[--i] & 0xff;
+                    if (0xf0 <= b3 && b3 <= 0xf4 && isValidLead4AndT1(b3, b2)) {
+                        return i;
+                    }
+                }
+            }
+            return orig;
+        }
+        return i;
+    }
+
+    /**
+     * Writes the UTF-8 bytes for code point c into dest starting at i.
+     * The caller must ensure that there is enough space.
+     * Surrogate code points are written as three bytes, as in CESU-8;
+     * callers that need well-formed output must not pass them.
+     *
+     * @return the index after the written bytes
+     */
+    public static int append(byte[] dest, int i, int c) {
+        if (c <= 0x7f) {
+            dest[i++] = (byte)c;
+        } else {
+            if (c <= 0x7ff) {
+                dest[i++] = (byte)((c >> 6) | 0xc0);
+            } else {
+                if (c <= 0xffff) {
+                    dest[i++] = (byte)((c >> 12) | 0xe0);
+                } else {
+                    dest[i++] = (byte)((c >> 18) | 0xf0);
+                    dest[i++] = (byte)(((c >> 12) & 0x3f) | 0x80);
+                }
+                dest[i++] = (byte)(((c >> 6) & 0x3f) | 0x80);
+            }
+            dest[i++] = (byte)((c & 0x3f) | 0x80);
+        }
+        return i;
+    }
+}
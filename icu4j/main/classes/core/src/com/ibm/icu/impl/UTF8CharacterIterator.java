@@ -0,0 +1,179 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.impl;
+
+import java.text.CharacterIterator;
+
+import com.ibm.icu.text.UTF16;
+import com.ibm.icu.util.ICUCloneNotSupportedException;
+
+/**
+ * Implement the Java CharacterIterator interface on UTF-8 text in a byte array.
+ * Intended for internal use by ICU only.
+ *
+ * <p>The iteration indexes are byte indexes. A code point that is encoded in 1..3 bytes
+ * is at the index of its first byte; an ill-formed sequence reads as U+FFFD, as in {@link UTF8}.
+ * A supplementary code point is returned as a surrogate pair, with the lead surrogate
+ * at the index of its first byte and the trail surrogate at that index + 1.
+ * Setting an index in the middle of a sequence moves it back to the start of the sequence,
+ * except for the trail surrogate position of a 4-byte sequence.
+ */
+public class UTF8CharacterIterator implements CharacterIterator {
+
+    private final byte[] bytes;
+    // bytes[offset + i] is the byte at iteration index i.
+    private final int offset;
+    private final int begin;
+    private final int end;
+    private int index;
+    // True if index is the trail surrogate position of a 4-byte sequence starting at index - 1.
+    private boolean atTrail;
+
+
+    /**
+     * Constructor.
+     * @param bytes The UTF-8 text.
+     * @param offset bytes[offset + i] is the byte at index i.
+     * @param begin The index of the start of the text.
+     * @param end The index of the end of the text.
+     */
+    public UTF8CharacterIterator(byte[] bytes, int offset, int begin, int end) {
+        if (bytes == null) {
+            throw new NullPointerException();
+        }
+        if (begin < 0 || begin > end || begin + offset < 0 || end + offset > bytes.length) {
+            throw new IllegalArgumentException();
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.begin = begin;
+        this.end = end;
+        index = begin;
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public char first() {
+        index = begin;
+        atTrail = false;
+        return current();
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public char last() {
+        index = end;
+        atTrail = false;
+        return previous();
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public char current() {
+        if (index >= end) {
+            return DONE;
+        }
+        int i = index + offset;
+        if (bytes[i] >= 0) {
+            return (char)bytes[i];
+        }
+        if (atTrail) {
+            int c = UTF8.getCodePoint(UTF8.nextCodePoint(bytes, i - 1, end + offset));
+            return UTF16.getTrailSurrogate(c);
+        }
+        int c = UTF8.getCodePoint(UTF8.nextCodePoint(bytes, i, end + offset));
+        return c <= 0xffff ? (char)c : UTF16.getLeadSurrogate(c);
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public char next() {
+        if (atTrail) {
+            index += 3;
+            atTrail = false;
+        } else if (index < end) {
+            int length = UTF8.forward(bytes, index + offset, end + offset) - (index + offset);
+            if (length == 4) {
+                ++index;
+                atTrail = true;
+            } else {
+                index += length;
+            }
+        }
+        return current();
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public char previous() {
+        if (atTrail) {
+            --index;
+            atTrail = false;
+        } else {
+            if (index <= begin) {
+                return DONE;
+            }
+            int start = UTF8.back(bytes, begin + offset, index + offset) - offset;
+            if (index - start == 4) {
+                index = start + 1;
+                atTrail = true;
+            } else {
+                index = start;
+            }
+        }
+        return current();
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public char setIndex(int position) {
+        if (position < begin || position > end) {
+            throw new IllegalArgumentException();
+        }
+        index = position;
+        atTrail = false;
+        if (position > begin && position < end && UTF8.isTrail(bytes[position + offset])) {
+            // Find the sequence that contains this byte.
+            int start = UTF8.back(bytes, begin + offset, position + offset + 1) - offset;
+            if (start < position) {
+                int length = UTF8.forward(bytes, start + offset, end + offset) - (start + offset);
+                if (position < start + length) {
+                    if (length == 4 && position == start + 1) {
+                        atTrail = true;
+                    } else {
+                        index = start;
+                    }
+                }
+            }
+        }
+        return current();
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public int getBeginIndex() {
+        return begin;
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public int getEndIndex() {
+        return end;
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    /** @{inheritDoc} */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new ICUCloneNotSupportedException(e);
+        }
+    }
+}
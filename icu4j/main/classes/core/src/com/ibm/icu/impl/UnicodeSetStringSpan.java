@@ -32,6 +32,7 @@ public class UnicodeSetStringSpan {
     public static final int FWD           = 0x20;
     public static final int BACK          = 0x10;
     // public static final int UTF16      = 8;
+    public static final int WITH_UTF8     = 4;  // spanUTF8() may be called
     public static final int CONTAINED     = 2;
     public static final int NOT_CONTAINED = 1;
 
@@ -41,6 +42,10 @@ public class UnicodeSetStringSpan {
     public static final int FWD_UTF16_NOT_CONTAINED  = FWD  | /* UTF16 | */NOT_CONTAINED;
     public static final int BACK_UTF16_CONTAINED     = BACK | /* UTF16 | */    CONTAINED;
     public static final int BACK_UTF16_NOT_CONTAINED = BACK | /* UTF16 | */NOT_CONTAINED;
+    public static final int FWD_UTF8_CONTAINED       = FWD  | WITH_UTF8 |     CONTAINED;
+    public static final int FWD_UTF8_NOT_CONTAINED   = FWD  | WITH_UTF8 | NOT_CONTAINED;
+    public static final int BACK_UTF8_CONTAINED      = BACK | WITH_UTF8 |     CONTAINED;
+    public static final int BACK_UTF8_NOT_CONTAINED  = BACK | WITH_UTF8 | NOT_CONTAINED;
 
     /**
      * Special spanLength short values. (since Java has not unsigned byte type)
@@ -65,8 +70,19 @@ public class UnicodeSetStringSpan {
     /** The lengths of span(), spanBack() etc. for each string. */
     private short[] spanLengths;
 
+    /**
+     * The UTF-8 versions of the strings, if the UTF8 variants were requested.
+     * null for a string that is not needed in UTF-8,
+     * or one that cannot be represented in UTF-8 because it contains an unpaired surrogate.
+     */
+    private byte[][] utf8Strings;
+
+    /** The lengths of spanUTF8(), spanBackUTF8() for each UTF-8 string, like spanLengths. */
+    private short[] spanUTF8Lengths;
+
     /** Maximum lengths of relevant strings. */
     private final int maxLength16;
+    private final int maxLength8;
 
     /** Are there strings that are not fully contained in the code point set? */
     private boolean someRelevant;
@@ -109,7 +125,11 @@ public UnicodeSetStringSpan(final UnicodeSet set, final ArrayList<String> setStr
 
         int i, spanLength;
         int maxLength16 = 0;
+        int maxLength8 = 0;
         someRelevant = false;
+        if (0 != (which & WITH_UTF8)) {
+            utf8Strings = new byte[stringsLength][];
+        }
         for (i = 0; i < stringsLength; ++i) {
             String string = strings.get(i);
             int length16 = string.length();
@@ -120,8 +140,17 @@ public UnicodeSetStringSpan(final UnicodeSet set, final ArrayList<String> setStr
             if (/* (0 != (which & UTF16)) && */ length16 > maxLength16) {
                 maxLength16 = length16;
             }
+            // Irrelevant strings are only needed for the SIMPLE (longest match) UTF-8 span.
+            if (0 != (which & WITH_UTF8) && (spanLength < length16 || 0 != (which & CONTAINED))) {
+                byte[] s8 = toUTF8(string);
+                utf8Strings[i] = s8;
+                if (s8 != null && s8.length > maxLength8) {
+                    maxLength8 = s8.length;
+                }
+            }
         }
         this.maxLength16 = maxLength16;
+        this.maxLength8 = maxLength8;
         if (!someRelevant && (which & WITH_COUNT) == 0) {
             return;
         }
@@ -143,6 +172,9 @@ public UnicodeSetStringSpan(final UnicodeSet set, final ArrayList<String> setStr
             allocSize = stringsLength; // One set of span lengths.
         }
         spanLengths = new short[allocSize];
+        if (0 != (which & WITH_UTF8)) {
+            spanUTF8Lengths = new short[allocSize];
+        }
 
         if (all) {
             // Store span lengths for all span() variants.
@@ -174,6 +206,22 @@ public UnicodeSetStringSpan(final UnicodeSet set, final ArrayList<String> setStr
                                                                                      // flag.
                     }
                 }
+                byte[] s8;
+                if (0 != (which & WITH_UTF8) && (s8 = utf8Strings[i]) != null) {
+                    if (0 != (which & CONTAINED)) {
+                        if (0 != (which & FWD)) {
+                            spanLength = spanSet.spanUTF8(s8, 0, s8.length, SpanCondition.CONTAINED);
+                            spanUTF8Lengths[i] = makeSpanLengthByte(spanLength);
+                        }
+                        if (0 != (which & BACK)) {
+                            spanLength = s8.length
+                                    - spanSet.spanBackUTF8(s8, 0, s8.length, SpanCondition.CONTAINED);
+                            spanUTF8Lengths[spanBackLengthsOffset + i] = makeSpanLengthByte(spanLength);
+                        }
+                    } else /* not CONTAINED, not all, but NOT_CONTAINED */{
+                        spanUTF8Lengths[i] = spanUTF8Lengths[spanBackLengthsOffset + i] = 0;
+                    }
+                }
                 if (0 != (which & NOT_CONTAINED)) {
                     // Add string start and end code points to the spanNotSet so that
                     // a span(while not contained) stops before any string.
@@ -194,6 +242,9 @@ public UnicodeSetStringSpan(final UnicodeSet set, final ArrayList<String> setStr
                     // All spanXYZLengths pointers contain the same address.
                     spanLengths[i] = ALL_CP_CONTAINED;
                 }
+                if (0 != (which & WITH_UTF8)) {
+                    spanUTF8Lengths[i] = spanUTF8Lengths[spanBackLengthsOffset + i] = ALL_CP_CONTAINED;
+                }
             }
         }
 
@@ -212,6 +263,7 @@ public UnicodeSetStringSpan(final UnicodeSetStringSpan otherStringSpan,
         spanSet = otherStringSpan.spanSet;
         strings = newParentSetStrings;
         maxLength16 = otherStringSpan.maxLength16;
+        maxLength8 = otherStringSpan.maxLength8;
         someRelevant = otherStringSpan.someRelevant;
         all = true;
         if (Utility.sameObjects(otherStringSpan.spanNotSet, otherStringSpan.spanSet)) {
@@ -222,6 +274,11 @@ public UnicodeSetStringSpan(final UnicodeSetStringSpan otherStringSpan,
         offsets = new OffsetList();
 
         spanLengths = otherStringSpan.spanLengths.clone();
+        // The UTF-8 strings are never modified, so they can be shared.
+        utf8Strings = otherStringSpan.utf8Strings;
+        if (otherStringSpan.spanUTF8Lengths != null) {
+            spanUTF8Lengths = otherStringSpan.spanUTF8Lengths.clone();
+        }
     }
 
     /**
@@ -234,6 +291,16 @@ public boolean needsStringSpanUTF16() {
         return someRelevant;
     }
 
+    /**
+     * Do the strings need to be checked in spanUTF8() etc.?
+     *
+     * @return true if strings need to be checked (call spanUTF8() here),
+     *         false if not (use a BMPSet for best performance).
+     */
+    public boolean needsStringSpanUTF8() {
+        return someRelevant && maxLength8 != 0;
+    }
+
     /** For fast UnicodeSet::contains(c). */
     public boolean contains(int c) {
         return spanSet.contains(c);
@@ -804,6 +871,366 @@ && matches16CPB(s, pos - dec, length, string, length16)) {
         }
     }
 
+    /**
+     * Spans UTF-8 text.
+     * Same algorithm as span(), see there.
+     * The UTF-8 strings are well-formed, so they can only match starting at a lead byte.
+     *
+     * @param s The UTF-8 bytes to be spanned
+     * @param start The start index that the span begins
+     * @param limit The limit index of the text, start&lt;limit
+     * @param spanCondition The span condition
+     * @return the limit (exclusive end) of the span
+     */
+    public int spanUTF8(byte[] s, int start, int limit, SpanCondition spanCondition) {
+        if (spanCondition == SpanCondition.NOT_CONTAINED) {
+            return spanNotUTF8(s, start, limit);
+        }
+        int spanLimit = spanSet.spanUTF8(s, start, limit - start, SpanCondition.CONTAINED);
+        if (spanLimit == limit) {
+            return spanLimit;
+        }
+        return spanUTF8WithStrings(s, start, limit, spanLimit, spanCondition);
+    }
+
+    private synchronized int spanUTF8WithStrings(byte[] s, int start, int limit, int spanLimit,
+            SpanCondition spanCondition) {
+        // Consider strings; they may overlap with the span.
+        int initSize = 0;
+        if (spanCondition == SpanCondition.CONTAINED) {
+            // Use offset list to try all possibilities.
+            initSize = maxLength8;
+        }
+        offsets.setMaxLength(initSize);
+        int pos = spanLimit, rest = limit - spanLimit;
+        int spanLength = spanLimit - start;
+        int i, stringsLength = strings.size();
+        for (;;) {
+            if (spanCondition == SpanCondition.CONTAINED) {
+                for (i = 0; i < stringsLength; ++i) {
+                    byte[] s8 = utf8Strings[i];
+                    if (s8 == null) {
+                        continue; // String not representable in UTF-8.
+                    }
+                    int overlap = spanUTF8Lengths[i];
+                    if (overlap == ALL_CP_CONTAINED) {
+                        continue; // Irrelevant string.
+                    }
+                    int length8 = s8.length;
+
+                    // Try to match this string at pos-overlap..pos.
+                    if (overlap >= LONG_SPAN) {
+                        // While contained: No point matching fully inside the code point span.
+                        overlap = UTF8.back(s8, 0, length8); // Length of the string minus the last code point.
+                    }
+                    if (overlap > spanLength) {
+                        overlap = spanLength;
+                    }
+                    int inc = length8 - overlap; // Keep overlap+inc==length8.
+                    for (;;) {
+                        if (inc > rest) {
+                            break;
+                        }
+                        // Try to match if the increment is not listed already.
+                        // Match at code point boundaries.
+                        if (!UTF8.isTrail(s[pos - overlap]) && !offsets.containsOffset(inc) &&
+                                matches8(s, pos - overlap, s8)) {
+                            if (inc == rest) {
+                                return limit; // Reached the end of the string.
+                            }
+                            offsets.addOffset(inc);
+                        }
+                        if (overlap == 0) {
+                            break;
+                        }
+                        --overlap;
+                        ++inc;
+                    }
+                }
+            } else /* SIMPLE */{
+                int maxInc = 0, maxOverlap = 0;
+                for (i = 0; i < stringsLength; ++i) {
+                    byte[] s8 = utf8Strings[i];
+                    if (s8 == null) {
+                        continue; // String not representable in UTF-8.
+                    }
+                    int overlap = spanUTF8Lengths[i];
+                    // For longest match, we do need to try to match even an all-contained string
+                    // to find the match from the earliest start.
+                    int length8 = s8.length;
+
+                    // Try to match this string at pos-overlap..pos.
+                    if (overlap >= LONG_SPAN) {
+                        overlap = length8;
+                        // Longest match: Need to match fully inside the code point span
+                        // to find the match from the earliest start.
+                    }
+                    if (overlap > spanLength) {
+                        overlap = spanLength;
+                    }
+                    int inc = length8 - overlap; // Keep overlap+inc==length8.
+                    for (;;) {
+                        if (inc > rest || overlap < maxOverlap) {
+                            break;
+                        }
+                        // Try to match if the string is longer or starts earlier.
+                        // Match at code point boundaries.
+                        if (!UTF8.isTrail(s[pos - overlap]) &&
+                                (overlap > maxOverlap || /* redundant overlap==maxOverlap && */inc > maxInc) &&
+                                matches8(s, pos - overlap, s8)) {
+                            maxInc = inc; // Longest match from earliest start.
+                            maxOverlap = overlap;
+                            break;
+                        }
+                        --overlap;
+                        ++inc;
+                    }
+                }
+
+                if (maxInc != 0 || maxOverlap != 0) {
+                    // Longest-match algorithm, and there was a string match.
+                    // Simply continue after it.
+                    pos += maxInc;
+                    rest -= maxInc;
+                    if (rest == 0) {
+                        return limit; // Reached the end of the string.
+                    }
+                    spanLength = 0; // Match strings from after a string match.
+                    continue;
+                }
+            }
+            // Finished trying to match all strings at pos.
+
+            if (spanLength != 0 || pos == start) {
+                // The position is after an unlimited code point span (spanLength!=0),
+                // not after a string match.
+                // The only position where spanLength==0 after a span is pos==start.
+                // Otherwise, an unlimited code point span is only tried again when no
+                // strings match, and if such a non-initial span fails we stop.
+                if (offsets.isEmpty()) {
+                    return pos; // No strings matched after a span.
+                }
+                // Match strings from after the next string match.
+            } else {
+                // The position is after a string match (or a single code point).
+                if (offsets.isEmpty()) {
+                    // No more strings matched after a previous string match.
+                    // Try another code point span from after the last string match.
+                    spanLimit = spanSet.spanUTF8(s, pos, rest, SpanCondition.CONTAINED);
+                    spanLength = spanLimit - pos;
+                    if (spanLength == rest || // Reached the end of the string, or
+                            spanLength == 0 // neither strings nor span progressed.
+                    ) {
+                        return spanLimit;
+                    }
+                    pos += spanLength;
+                    rest -= spanLength;
+                    continue; // spanLength>0: Match strings from after a span.
+                } else {
+                    // Try to match only one code point from after a string match if some
+                    // string matched beyond it, so that we try all possible positions
+                    // and don't overshoot.
+                    spanLength = spanOneUTF8(spanSet, s, pos, limit);
+                    if (spanLength > 0) {
+                        if (spanLength == rest) {
+                            return limit; // Reached the end of the string.
+                        }
+                        // Match strings after this code point.
+                        // There cannot be any increments below it because UnicodeSet strings
+                        // contain multiple code points.
+                        pos += spanLength;
+                        rest -= spanLength;
+                        offsets.shift(spanLength);
+                        spanLength = 0;
+                        continue; // Match strings from after a single code point.
+                    }
+                    // Match strings from after the next string match.
+                }
+            }
+            int minOffset = offsets.popMinimum(null);
+            pos += minOffset;
+            rest -= minOffset;
+            spanLength = 0; // Match strings from after a string match.
+        }
+    }
+
+    /**
+     * Spans UTF-8 text backwards.
+     * Same algorithm as spanBack(), see there.
+     *
+     * @param s The UTF-8 bytes to be spanned
+     * @param start The start index of the text
+     * @param limit The index where the backward span begins, start&lt;limit
+     * @param spanCondition The span condition
+     * @return The string index which starts the span (i.e. inclusive).
+     */
+    public synchronized int spanBackUTF8(byte[] s, int start, int limit, SpanCondition spanCondition) {
+        if (spanCondition == SpanCondition.NOT_CONTAINED) {
+            return spanNotBackUTF8(s, start, limit);
+        }
+        int pos = spanSet.spanBackUTF8(s, start, limit - start, SpanCondition.CONTAINED);
+        if (pos == start) {
+            return start;
+        }
+        int spanLength = limit - pos;
+
+        // Consider strings; they may overlap with the span.
+        int initSize = 0;
+        if (spanCondition == SpanCondition.CONTAINED) {
+            // Use offset list to try all possibilities.
+            initSize = maxLength8;
+        }
+        offsets.setMaxLength(initSize);
+        int i, stringsLength = strings.size();
+        int spanBackLengthsOffset = 0;
+        if (all) {
+            spanBackLengthsOffset = stringsLength;
+        }
+        for (;;) {
+            if (spanCondition == SpanCondition.CONTAINED) {
+                for (i = 0; i < stringsLength; ++i) {
+                    byte[] s8 = utf8Strings[i];
+                    if (s8 == null) {
+                        continue; // String not representable in UTF-8.
+                    }
+                    int overlap = spanUTF8Lengths[spanBackLengthsOffset + i];
+                    if (overlap == ALL_CP_CONTAINED) {
+                        continue; // Irrelevant string.
+                    }
+                    int length8 = s8.length;
+
+                    // Try to match this string at pos-(length8-overlap)..pos-length8.
+                    if (overlap >= LONG_SPAN) {
+                        // While contained: No point matching fully inside the code point span.
+                        // Length of the string minus the first code point.
+                        overlap = length8 - UTF8.forward(s8, 0, length8);
+                    }
+                    if (overlap > spanLength) {
+                        overlap = spanLength;
+                    }
+                    int dec = length8 - overlap; // Keep dec+overlap==length8.
+                    for (;;) {
+                        if (dec > pos - start) {
+                            break;
+                        }
+                        // Try to match if the decrement is not listed already.
+                        // Match at code point boundaries.
+                        if (!UTF8.isTrail(s[pos - dec]) && !offsets.containsOffset(dec) &&
+                                matches8(s, pos - dec, s8)) {
+                            if (dec == pos - start) {
+                                return start; // Reached the start of the string.
+                            }
+                            offsets.addOffset(dec);
+                        }
+                        if (overlap == 0) {
+                            break;
+                        }
+                        --overlap;
+                        ++dec;
+                    }
+                }
+            } else /* SIMPLE */{
+                int maxDec = 0, maxOverlap = 0;
+                for (i = 0; i < stringsLength; ++i) {
+                    byte[] s8 = utf8Strings[i];
+                    if (s8 == null) {
+                        continue; // String not representable in UTF-8.
+                    }
+                    int overlap = spanUTF8Lengths[spanBackLengthsOffset + i];
+                    // For longest match, we do need to try to match even an all-contained string
+                    // to find the match from the latest end.
+                    int length8 = s8.length;
+
+                    // Try to match this string at pos-(length8-overlap)..pos-length8.
+                    if (overlap >= LONG_SPAN) {
+                        overlap = length8;
+                        // Longest match: Need to match fully inside the code point span
+                        // to find the match from the latest end.
+                    }
+                    if (overlap > spanLength) {
+                        overlap = spanLength;
+                    }
+                    int dec = length8 - overlap; // Keep dec+overlap==length8.
+                    for (;;) {
+                        if (dec > pos - start || overlap < maxOverlap) {
+                            break;
+                        }
+                        // Try to match if the string is longer or ends later.
+                        // Match at code point boundaries.
+                        if (!UTF8.isTrail(s[pos - dec]) &&
+                                (overlap > maxOverlap || /* redundant overlap==maxOverlap && */dec > maxDec) &&
+                                matches8(s, pos - dec, s8)) {
+                            maxDec = dec; // Longest match from latest end.
+                            maxOverlap = overlap;
+                            break;
+                        }
+                        --overlap;
+                        ++dec;
+                    }
+                }
+
+                if (maxDec != 0 || maxOverlap != 0) {
+                    // Longest-match algorithm, and there was a string match.
+                    // Simply continue before it.
+                    pos -= maxDec;
+                    if (pos == start) {
+                        return start; // Reached the start of the string.
+                    }
+                    spanLength = 0; // Match strings from before a string match.
+                    continue;
+                }
+            }
+            // Finished trying to match all strings at pos.
+
+            if (spanLength != 0 || pos == limit) {
+                // The position is before an unlimited code point span (spanLength!=0),
+                // not before a string match.
+                // The only position where spanLength==0 before a span is pos==limit.
+                // Otherwise, an unlimited code point span is only tried again when no
+                // strings match, and if such a non-initial span fails we stop.
+                if (offsets.isEmpty()) {
+                    return pos; // No strings matched before a span.
+                }
+                // Match strings from before the next string match.
+            } else {
+                // The position is before a string match (or a single code point).
+                if (offsets.isEmpty()) {
+                    // No more strings matched before a previous string match.
+                    // Try another code point span from before the last string match.
+                    int oldPos = pos;
+                    pos = spanSet.spanBackUTF8(s, start, oldPos - start, SpanCondition.CONTAINED);
+                    spanLength = oldPos - pos;
+                    if (pos == start || // Reached the start of the string, or
+                            spanLength == 0 // neither strings nor span progressed.
+                    ) {
+                        return pos;
+                    }
+                    continue; // spanLength>0: Match strings from before a span.
+                } else {
+                    // Try to match only one code point from before a string match if some
+                    // string matched beyond it, so that we try all possible positions
+                    // and don't overshoot.
+                    spanLength = spanOneBackUTF8(spanSet, s, start, pos);
+                    if (spanLength > 0) {
+                        if (spanLength == pos - start) {
+                            return start; // Reached the start of the string.
+                        }
+                        // Match strings before this code point.
+                        // There cannot be any decrements below it because UnicodeSet strings
+                        // contain multiple code points.
+                        pos -= spanLength;
+                        offsets.shift(spanLength);
+                        spanLength = 0;
+                        continue; // Match strings from before a single code point.
+                    }
+                    // Match strings from before the next string match.
+                }
+            }
+            pos -= offsets.popMinimum(null);
+            spanLength = 0; // Match strings from before a string match.
+        }
+    }
+
     /**
      * Algorithm for spanNot()==span(SpanCondition.NOT_CONTAINED)
      *
@@ -931,6 +1358,87 @@ private int spanNotBack(CharSequence s, int length) {
         return 0; // Reached the start of the string.
     }
 
+    /**
+     * Same as spanNot() but for UTF-8 text.
+     */
+    private int spanNotUTF8(byte[] s, int start, int limit) {
+        int pos = start, rest = limit - start;
+        int stringsLength = strings.size();
+        do {
+            // Span until we find a code point from the set,
+            // or a code point that starts or ends some string.
+            int spanLimit = spanNotSet.spanUTF8(s, pos, rest, SpanCondition.NOT_CONTAINED);
+            if (spanLimit == limit) {
+                return limit; // Reached the end of the string.
+            }
+            pos = spanLimit;
+            rest = limit - spanLimit;
+
+            // Check whether the current code point is in the original set,
+            // without the string starts and ends.
+            int cpLength = spanOneUTF8(spanSet, s, pos, limit);
+            if (cpLength > 0) {
+                return pos; // There is a set element at pos.
+            }
+
+            // Try to match the strings at pos.
+            for (int i = 0; i < stringsLength; ++i) {
+                byte[] s8 = utf8Strings[i];
+                // ALL_CP_CONTAINED: Irrelevant string.
+                if (s8 != null && spanUTF8Lengths[i] != ALL_CP_CONTAINED &&
+                        s8.length <= rest && matches8(s, pos, s8)) {
+                    return pos; // There is a set element at pos.
+                }
+            }
+
+            // The span(while not contained) ended on a string start/end which is
+            // not in the original set. Skip this code point and continue.
+            // cpLength<0
+            pos -= cpLength;
+            rest += cpLength;
+        } while (rest != 0);
+        return limit; // Reached the end of the string.
+    }
+
+    /**
+     * Same as spanNotBack() but for UTF-8 text.
+     */
+    private int spanNotBackUTF8(byte[] s, int start, int limit) {
+        int pos = limit;
+        int i, stringsLength = strings.size();
+        do {
+            // Span until we find a code point from the set,
+            // or a code point that starts or ends some string.
+            pos = spanNotSet.spanBackUTF8(s, start, pos - start, SpanCondition.NOT_CONTAINED);
+            if (pos == start) {
+                return start; // Reached the start of the string.
+            }
+
+            // Check whether the current code point is in the original set,
+            // without the string starts and ends.
+            int cpLength = spanOneBackUTF8(spanSet, s, start, pos);
+            if (cpLength > 0) {
+                return pos; // There is a set element at pos.
+            }
+
+            // Try to match the strings at pos.
+            for (i = 0; i < stringsLength; ++i) {
+                byte[] s8 = utf8Strings[i];
+                // ALL_CP_CONTAINED: Irrelevant string.
+                if (s8 != null && spanUTF8Lengths[i] != ALL_CP_CONTAINED &&
+                        s8.length <= pos - start && matches8(s, pos - s8.length, s8)) {
+                    return pos; // There is a set element at pos.
+                }
+            }
+
+            // The span(while not contained) ended on a string start/end which is
+            // not in the original set. Skip this code point and continue.
+            // cpLength<0
+            pos += cpLength;
+        } while (pos != start);
+        return start; // Reached the start of the string.
+    }
+
     static short makeSpanLengthByte(int spanLength) {
         // 0xfe==UnicodeSetStringSpan::LONG_SPAN
         return spanLength < LONG_SPAN ? (short) spanLength : LONG_SPAN;
@@ -993,6 +1501,67 @@ static int spanOneBack(final UnicodeSet set, CharSequence s, int length) {
         return set.contains(c) ? 1 : -1;
     }
 
+    /**
+     * Compares the UTF-8 string t with s[start..start+t.length[, which must be in bounds.
+     */
+    private static boolean matches8(byte[] s, int start, byte[] t) {
+        for (int i = t.length; i > 0;) {
+            --i;
+            if (s[start + i] != t[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as spanOne() but for UTF-8 text; ill-formed sequences are treated like U+FFFD.
+     */
+    static int spanOneUTF8(final UnicodeSet set, byte[] s, int start, int limit) {
+        int c = s[start];
+        if (c >= 0) {
+            return set.contains(c) ? 1 : -1;
+        }
+        int result = UTF8.nextCodePoint(s, start, limit);
+        int length = UTF8.getLength(result);
+        return set.contains(UTF8.getCodePoint(result)) ? length : -length;
+    }
+
+    static int spanOneBackUTF8(final UnicodeSet set, byte[] s, int start, int limit) {
+        int c = s[limit - 1];
+        if (c >= 0) {
+            return set.contains(c) ? 1 : -1;
+        }
+        int result = UTF8.previousCodePoint(s, start, limit);
+        int length = UTF8.getLength(result);
+        return set.contains(UTF8.getCodePoint(result)) ? length : -length;
+    }
+
+    /**
+     * @return the UTF-8 version of the string,
+     *         or null if it contains an unpaired surrogate and so cannot match UTF-8 text
+     */
+    private static byte[] toUTF8(String s) {
+        int length8 = 0;
+        for (int i = 0; i < s.length();) {
+            int c = s.codePointAt(i);
+            int cpLength8 = UTF8.length(c);
+            if (cpLength8 == 0) {
+                return null;
+            }
+            length8 += cpLength8;
+            i += Character.charCount(c);
+        }
+        byte[] s8 = new byte[length8];
+        int j = 0;
+        for (int i = 0; i < s.length();) {
+            int c = s.codePointAt(i);
+            j = UTF8.append(s8, j, c);
+            i += Character.charCount(c);
+        }
+        return s8;
+    }
+
     /**
      * Helper class for UnicodeSetStringSpan.
      *
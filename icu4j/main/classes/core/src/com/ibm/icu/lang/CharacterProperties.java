@@ -3,6 +3,8 @@
 
 package com.ibm.icu.lang;
 
+import java.nio.CharBuffer;
+
 import com.ibm.icu.impl.CharacterPropertiesImpl;
 import com.ibm.icu.text.UnicodeSet;
 import com.ibm.icu.util.CodePointMap;
@@ -83,7 +85,8 @@ private static CodePointMap makeMap(int property) {
         }
 
         CodePointTrie.Type type;
-        if (property == UProperty.BIDI_CLASS || property == UProperty.GENERAL_CATEGORY) {
+        if (property == UProperty.BIDI_CLASS || property == UProperty.GENERAL_CATEGORY ||
+                property == UProperty.SCRIPT) {
             type = CodePointTrie.Type.FAST;
         } else {
             type = CodePointTrie.Type.SMALL;
@@ -156,4 +159,164 @@ public static final CodePointMap getIntPropertyMap(int property) {
             return map;
         }
     }
+
+    /**
+     * Gets the values of an enumerated/catalog/int-valued property for all of the code points
+     * in a string, in one pass over the string with the property's map.
+     * This is much faster than calling {@link UCharacter#getIntPropertyValue(int, int)}
+     * for each code point.
+     *
+     * <p>The values are stored at the same indexes as the string's code units:
+     * values[i] is the property value for the code point that contains s.charAt(i).
+     * Both code units of a supplementary code point get the same value.
+     *
+     * @param property {@link UProperty#INT_START}..{@link UProperty#INT_LIMIT}-1
+     * @param s the string
+     * @param values receives the property values; must have at least s.length() elements
+     * @see #getIntPropertyMap(int)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final void getIntPropertyValues(int property, CharSequence s, int[] values) {
+        getValues(getIntPropertyMap(property), s, 0, values);
+    }
+
+    /**
+     * Gets the values of an enumerated/catalog/int-valued property for all of the code points
+     * in s[start..limit[, in one pass over the text with the property's map.
+     *
+     * <p>values[i] is the property value for the code point that contains s[i],
+     * for start&lt;=i&lt;limit.
+     * Both code units of a supplementary code point get the same value.
+     * A surrogate pair that straddles start or limit is treated as two unpaired surrogates.
+     *
+     * @param property {@link UProperty#INT_START}..{@link UProperty#INT_LIMIT}-1
+     * @param s the text
+     * @param start the start index of the text in s
+     * @param limit the limit index of the text in s
+     * @param values receives the property values; must have at least limit elements
+     * @see #getIntPropertyValues(int, CharSequence, int[])
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final void getIntPropertyValues(int property, char[] s, int start, int limit,
+            int[] values) {
+        getValues(getIntPropertyMap(property), CharBuffer.wrap(s, start, limit - start), start,
+                values);
+    }
+
+    /**
+     * Splits a string into runs of code points with the same value
+     * of an enumerated/catalog/int-valued property, in one pass over the string
+     * with the property's map.
+     * This is useful for example for segmenting text by script or by general category.
+     *
+     * <p>Run i ends at string index limits[i] and has the property value values[i].
+     * The first run starts at index 0, each following run starts at the limit of the previous one,
+     * and the last run ends at s.length().
+     * Adjacent runs have different values.
+     *
+     * @param property {@link UProperty#INT_START}..{@link UProperty#INT_LIMIT}-1
+     * @param s the string
+     * @param limits receives the limit index of each run; must have at least s.length() elements
+     *               unless the caller knows that there are fewer runs
+     * @param values receives the property value of each run; same length requirement as limits
+     * @return the number of runs
+     * @see #getIntPropertyMap(int)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int getIntPropertyRuns(int property, CharSequence s,
+            int[] limits, int[] values) {
+        return getRuns(getIntPropertyMap(property), s, 0, limits, values);
+    }
+
+    /**
+     * Splits s[start..limit[ into runs of code points with the same value
+     * of an enumerated/catalog/int-valued property, in one pass over the text
+     * with the property's map.
+     *
+     * <p>Run i ends at index limits[i] in s and has the property value values[i].
+     * The first run starts at start, each following run starts at the limit of the previous one,
+     * and the last run ends at limit.
+     * Adjacent runs have different values.
+     * A surrogate pair that straddles start or limit is treated as two unpaired surrogates.
+     *
+     * @param property {@link UProperty#INT_START}..{@link UProperty#INT_LIMIT}-1
+     * @param s the text
+     * @param start the start index of the text in s
+     * @param limit the limit index of the text in s
+     * @param limits receives the limit index of each run; must have at least limit-start elements
+     *               unless the caller knows that there are fewer runs
+     * @param values receives the property value of each run; same length requirement as limits
+     * @return the number of runs
+     * @see #getIntPropertyRuns(int, CharSequence, int[], int[])
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int getIntPropertyRuns(int property, char[] s, int start, int limit,
+            int[] limits, int[] values) {
+        return getRuns(getIntPropertyMap(property), CharBuffer.wrap(s, start, limit - start), start,
+                limits, values);
+    }
+
+    /**
+     * Stores the map value for each code unit of s at values[offset + index].
+     */
+    private static void getValues(CodePointMap map, CharSequence s, int offset, int[] values) {
+        // Most property maps are CodePointTries, and most text is usually in the BMP:
+        // Look up BMP code points directly in a FAST trie.
+        CodePointTrie.Fast fast = map instanceof CodePointTrie.Fast ? (CodePointTrie.Fast) map : null;
+        int length = s.length();
+        for (int i = 0; i < length;) {
+            int start = i;
+            int c = s.charAt(i++);
+            if (!Character.isSurrogate((char) c)) {
+                values[offset + start] = fast != null ? fast.bmpGet(c) : map.get(c);
+            } else {
+                char trail;
+                if (Character.isHighSurrogate((char) c) && i < length &&
+                        Character.isLowSurrogate(trail = s.charAt(i))) {
+                    c = Character.toCodePoint((char) c, trail);
+                    ++i;
+                    values[offset + start + 1] = map.get(c);
+                }
+                // An unpaired surrogate is looked up as a surrogate code point.
+                values[offset + start] = map.get(c);
+            }
+        }
+    }
+
+    /**
+     * Stores offset + the limit and the map value of each run of s in limits and values.
+     *
+     * @return the number of runs
+     */
+    private static int getRuns(CodePointMap map, CharSequence s, int offset,
+            int[] limits, int[] values) {
+        CodePointTrie.Fast fast = map instanceof CodePointTrie.Fast ? (CodePointTrie.Fast) map : null;
+        int length = s.length();
+        int r = -1;  // index of the current run
+        int prevValue = 0;
+        for (int i = 0; i < length;) {
+            int c = s.charAt(i++);
+            int value;
+            if (!Character.isSurrogate((char) c)) {
+                value = fast != null ? fast.bmpGet(c) : map.get(c);
+            } else {
+                char trail;
+                if (Character.isHighSurrogate((char) c) && i < length &&
+                        Character.isLowSurrogate(trail = s.charAt(i))) {
+                    c = Character.toCodePoint((char) c, trail);
+                    ++i;
+                }
+                value = map.get(c);
+            }
+            if (r < 0 || value != prevValue) {
+                values[++r] = prevValue = value;
+            }
+            limits[r] = offset + i;
+        }
+        return r + 1;
+    }
 }
@@ -5573,6 +5573,46 @@ public static final String foldCase(String str, int options) {
         return CaseMapImpl.fold(options, str);
     }
 
+    /**
+     * {@icu} Compares the full case foldings of two strings, as with
+     * {@link #foldCase(String, int)}, in code unit order.
+     * The strings are folded incrementally while they are compared,
+     * so no folded copies are created.
+     * The result has the same sign as
+     * <code>foldCase(s1.toString(), options).compareTo(foldCase(s2.toString(), options))</code>.
+     *
+     * @param s1 first string
+     * @param s2 second string
+     * @param options A bit set for special processing. Currently the recognised options
+     *                are FOLD_CASE_EXCLUDE_SPECIAL_I and FOLD_CASE_DEFAULT
+     * @return a negative value if the folded s1 is less than the folded s2,
+     *         0 if they are equal, and a positive value otherwise
+     * @see #foldedHashCode(CharSequence, int)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static int compareFolded(CharSequence s1, CharSequence s2, int options) {
+        return CaseMapImpl.compareFolded(s1, s2, options);
+    }
+
+    /**
+     * {@icu} Returns a hash code of the full case folding of a string,
+     * consistent with {@link #compareFolded(CharSequence, CharSequence, int)}:
+     * Strings that compare as equal with the same options have the same hash code.
+     * The string is folded incrementally, so no folded copy is created.
+     * The result is the same as <code>foldCase(s.toString(), options).hashCode()</code>.
+     *
+     * @param s the string
+     * @param options A bit set for special processing. Currently the recognised options
+     *                are FOLD_CASE_EXCLUDE_SPECIAL_I and FOLD_CASE_DEFAULT
+     * @return the hash code
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static int foldedHashCode(CharSequence s, int options) {
+        return CaseMapImpl.foldedHashCode(s, options);
+    }
+
     /**
      * {@icu} Returns the numeric value of a Han character.
      *
@@ -22,9 +22,8 @@ public CharsDictionaryMatcher(CharSequence chars) {
 
     @Override
     public int matches(CharacterIterator text_, int maxLength, int[] lengths, int[] count_, int limit, int[] values) {
-        UCharacterIterator text = UCharacterIterator.getInstance(text_);
         CharsTrie uct = new CharsTrie(characters, 0);
-        int c = text.nextCodePoint();
+        int c = nextCodePoint(text_);
         if (c == UCharacterIterator.DONE) {
             return 0;
         }
@@ -52,7 +51,7 @@ public int matches(CharacterIterator text_, int maxLength, int[] lengths, int[]
             if (numChars >= maxLength) {
                 break;
             }
-            c = text.nextCodePoint();
+            c = nextCodePoint(text_);
             if (c == UCharacterIterator.DONE) {
                 break;
             }
@@ -63,6 +62,47 @@ public int matches(CharacterIterator text_, int maxLength, int[] lengths, int[]
         return numChars;
     }
 
+    @Override
+    public int matches(char[] text, int start, int end, int maxLength, int[] lengths, int[] count_, int limit, int[] values) {
+        if (start >= end) {
+            count_[0] = 0;
+            return 0;
+        }
+        CharsTrie uct = new CharsTrie(characters, 0);
+        int c = Character.codePointAt(text, start, end);
+        int i = start + Character.charCount(c);
+        Result result = uct.firstForCodePoint(c);
+        int numChars = 1;
+        int count = 0;
+        for (;;) {
+            if (result.hasValue()) {
+                if (count < limit) {
+                    if (values != null) {
+                        values[count] = uct.getValue();
+                    }
+                    lengths[count] = numChars;
+                    count++;
+                }
+
+                if (result == Result.FINAL_VALUE) {
+                    break;
+                }
+            } else if (result == Result.NO_MATCH) {
+                break;
+            }
+
+            if (numChars >= maxLength || i >= end) {
+                break;
+            }
+            c = Character.codePointAt(text, i, end);
+            i += Character.charCount(c);
+            ++numChars;
+            result = uct.nextForCodePoint(c);
+        }
+        count_[0] = count;
+        return numChars;
+    }
+
     @Override
     public int getType() {
         return DictionaryData.TRIE_TYPE_UCHARS;
@@ -8,10 +8,6 @@
  */
 package com.ibm.icu.text;
 
-import static com.ibm.icu.impl.CharacterIteration.DONE32;
-import static com.ibm.icu.impl.CharacterIteration.current32;
-import static com.ibm.icu.impl.CharacterIteration.next32;
-
 import java.io.IOException;
 import java.text.CharacterIterator;
 
@@ -70,8 +66,8 @@ public int hashCode() {
     private static final int kMaxKatakanaGroupLength = 20;
     private static final int maxSnlp = 255;
     private static final int kint32max = Integer.MAX_VALUE;
+    private static final int katakanaCost[] =  new int[] { 8192, 984, 408, 240, 204, 252, 300, 372, 480 };
     private static int getKatakanaCost(int wordlength) {
-        int katakanaCost[] =  new int[] { 8192, 984, 408, 240, 204, 252, 300, 372, 480 };
         return (wordlength > kMaxKatakanaLength) ? 8192 : katakanaCost[wordlength];
     }
 
@@ -83,39 +79,46 @@ private static boolean isKatakana(int value) {
     @Override
     public int divideUpDictionaryRange(CharacterIterator inText, int startPos, int endPos,
             DequeI foundBreaks) {
+        return divideUpDictionaryRange(inText, startPos, endPos, foundBreaks, new ScratchBuffers());
+    }
+
+    @Override
+    int divideUpDictionaryRange(CharacterIterator inText, int startPos, int endPos,
+            DequeI foundBreaks, ScratchBuffers scratch) {
         if (startPos >= endPos) {
             return 0;
         }
 
-        inText.setIndex(startPos);
-
+        // Copy the range into a char array. The dictionary and the loops below work on the array,
+        // rather than through CharacterIterator calls for each code unit.
         int inputLength = endPos - startPos;
-        int[] charPositions = new int[inputLength + 1];
-        StringBuffer s = new StringBuffer("");
+        char[] text = scratch.getChars(inputLength);
+        int textLength = inputLength;
         inText.setIndex(startPos);
-        while (inText.getIndex() < endPos) {
-            s.append(inText.current());
+        for (int i = 0; i < inputLength; i++) {
+            text[i] = inText.current();
             inText.next();
         }
-        String prenormstr = s.toString();
-        boolean isNormalized = Normalizer.quickCheck(prenormstr, Normalizer.NFKC) == Normalizer.YES ||
-                               Normalizer.isNormalized(prenormstr, Normalizer.NFKC, 0);
-        CharacterIterator text;
+        boolean isNormalized = Normalizer.quickCheck(text, 0, inputLength, Normalizer.NFKC, 0) == Normalizer.YES ||
+                               Normalizer.isNormalized(text, 0, inputLength, Normalizer.NFKC, 0);
+        int[] charPositions;
         int numCodePts = 0;
         if (isNormalized) {
-            text = new java.text.StringCharacterIterator(prenormstr);
+            charPositions = scratch.getInts(0, inputLength + 1);
             int index = 0;
             charPositions[0] = 0;
-            while (index < prenormstr.length()) {
-                int codepoint = prenormstr.codePointAt(index);
+            while (index < inputLength) {
+                int codepoint = Character.codePointAt(text, index, inputLength);
                 index += Character.charCount(codepoint);
                 numCodePts++;
                 charPositions[numCodePts] = index;
             }
         } else {
+            String prenormstr = new String(text, 0, inputLength);
             String normStr = Normalizer.normalize(prenormstr, Normalizer.NFKC);
-            text = new java.text.StringCharacterIterator(normStr);
-            charPositions = new int[normStr.length() + 1];
+            textLength = normStr.length();
+            text = normStr.toCharArray();
+            charPositions = scratch.getInts(0, textLength + 1);
             Normalizer normalizer = new Normalizer(prenormstr, Normalizer.NFKC, 0);
             int index = 0;
             charPositions[0] = 0;
@@ -129,37 +132,36 @@ public int divideUpDictionaryRange(CharacterIterator inText, int startPos, int e
 
         // From here on out, do the algorithm. Note that our indices
         // refer to indices within the normalized string.
-        int[] bestSnlp = new int[numCodePts + 1];
+        int[] bestSnlp = scratch.getInts(1, numCodePts + 1);
         bestSnlp[0] = 0;
         for (int i = 1; i <= numCodePts; i++) {
             bestSnlp[i] = kint32max;
         }
 
-        int[] prev = new int[numCodePts + 1];
+        int[] prev = scratch.getInts(2, numCodePts + 1);
         for (int i = 0; i <= numCodePts; i++) {
             prev[i] = -1;
         }
 
         final int maxWordSize = 20;
-        int values[] = new int[numCodePts];
-        int lengths[] = new int[numCodePts];
+        // At most maxWordSize dictionary matches, plus the single-character word.
+        int values[] = scratch.getInts(4, maxWordSize + 1);
+        int lengths[] = scratch.getInts(5, maxWordSize + 1);
+        int[] count_ = scratch.count;
         // dynamic programming to find the best segmentation
 
         // In outer loop, i  is the code point index,
         //                ix is the corresponding code unit index.
         //    They differ when the string contains supplementary characters.
         int ix = 0;
-        text.setIndex(ix);
         boolean is_prev_katakana = false;
-        for (int i = 0; i < numCodePts; i++, text.setIndex(ix), next32(text)) {
-            ix = text.getIndex();
+        for (int i = 0; i < numCodePts; i++, ix += Character.charCount(Character.codePointAt(text, ix, textLength))) {
             if (bestSnlp[i] == kint32max) {
                 continue;
             }
 
             int maxSearchLength = (i + maxWordSize < numCodePts) ? maxWordSize : (numCodePts - i);
-            int[] count_ = new int[1];
-            fDictionary.matches(text, maxSearchLength, lengths, count_, maxSearchLength, values);
+            fDictionary.matches(text, ix, textLength, maxSearchLength, lengths, count_, maxSearchLength, values);
             int count = count_[0];
 
             // if there are no single character matches found in the dictionary
@@ -167,8 +169,8 @@ public int divideUpDictionaryRange(CharacterIterator inText, int startPos, int e
             // with the highest value possible (i.e. the least likely to occur).
             // Exclude Korean characters from this treatment, as they should be
             // left together by default.
-            text.setIndex(ix);  // fDictionary.matches() advances the text position; undo that.
-            if ((count == 0 || lengths[0] != 1) && current32(text) != DONE32 && !fHangulWordSet.contains(current32(text))) {
+            int c = Character.codePointAt(text, ix, textLength);
+            if ((count == 0 || lengths[0] != 1) && !fHangulWordSet.contains(c)) {
                 values[count] = maxSnlp;
                 lengths[count] = 1;
                 count++;
@@ -187,12 +189,16 @@ public int divideUpDictionaryRange(CharacterIterator inText, int startPos, int e
             // run of Katakana characters is considered a candidate word with
             // a default cost specified in the katakanaCost table according
             // to its length.
-            boolean is_katakana = isKatakana(current32(text));
+            boolean is_katakana = isKatakana(c);
             if (!is_prev_katakana && is_katakana) {
                 int j = i + 1;
-                next32(text);
-                while (j < numCodePts && (j - i) < kMaxKatakanaGroupLength && isKatakana(current32(text))) {
-                    next32(text);
+                int jx = ix + Character.charCount(c);
+                while (j < numCodePts && (j - i) < kMaxKatakanaGroupLength) {
+                    int cj = Character.codePointAt(text, jx, textLength);
+                    if (!isKatakana(cj)) {
+                        break;
+                    }
+                    jx += Character.charCount(cj);
                     ++j;
                 }
 
@@ -207,7 +213,7 @@ public int divideUpDictionaryRange(CharacterIterator inText, int startPos, int e
             is_prev_katakana = is_katakana;
         }
 
-        int t_boundary[] = new int[numCodePts + 1];
+        int t_boundary[] = scratch.getInts(3, numCodePts + 1);
         int numBreaks = 0;
         if (bestSnlp[numCodePts] == kint32max) {
             t_boundary[numBreaks] = numCodePts;
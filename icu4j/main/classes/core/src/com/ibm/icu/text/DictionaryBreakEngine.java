@@ -167,6 +167,36 @@ void removeAllElements() {
         }
     }
 
+    /**
+     *  Working storage for divideUpDictionaryRange().
+     *  The break engines are shared by all break iterators, so each break iterator
+     *  owns one of these and passes it in, and the buffers are reused for all of the
+     *  dictionary ranges that the iterator subdivides.
+     *  For internal use only.
+     * @internal
+     */
+    static final class ScratchBuffers {
+        private char[] chars = new char[0];
+        private int[][] ints = new int[6][0];
+        final int[] count = new int[1];
+
+        /** Returns a char array with at least the given length. */
+        char[] getChars(int length) {
+            if (chars.length < length) {
+                chars = new char[length + (length >> 2)];
+            }
+            return chars;
+        }
+
+        /** Returns the int array number i (0..5) with at least the given length. */
+        int[] getInts(int i, int length) {
+            if (ints[i].length < length) {
+                ints[i] = new int[length + (length >> 2)];
+            }
+            return ints[i];
+        }
+    }
+
     UnicodeSet fSet = new UnicodeSet();
 
     /**
@@ -182,7 +212,7 @@ public boolean handles(int c) {
 
     @Override
     public int findBreaks(CharacterIterator text, int startPos, int endPos,
-            DequeI foundBreaks) {
+            DequeI foundBreaks, ScratchBuffers scratch) {
         int result = 0;
 
          // Find the span of characters included in the set.
@@ -201,7 +231,7 @@ public int findBreaks(CharacterIterator text, int startPos, int endPos,
         rangeStart = start;
         rangeEnd = current;
 
-        result = divideUpDictionaryRange(text, rangeStart, rangeEnd, foundBreaks);
+        result = divideUpDictionaryRange(text, rangeStart, rangeEnd, foundBreaks, scratch);
         text.setIndex(current);
 
         return result;
@@ -226,4 +256,17 @@ abstract int divideUpDictionaryRange(CharacterIterator text,
                                           int               rangeStart,
                                           int               rangeEnd,
                                           DequeI            foundBreaks );
+
+    /**
+     * <p>Divide up a range of known dictionary characters handled by this break engine,
+     * with working storage that the caller reuses across calls.
+     * The default implementation does not use the scratch buffers.</p>
+     *
+     * @param scratch Working storage owned by the calling break iterator
+     * @see #divideUpDictionaryRange(CharacterIterator, int, int, DequeI)
+     */
+    int divideUpDictionaryRange(CharacterIterator text, int rangeStart, int rangeEnd,
+            DequeI foundBreaks, ScratchBuffers scratch) {
+        return divideUpDictionaryRange(text, rangeStart, rangeEnd, foundBreaks);
+    }
 }
@@ -35,6 +35,49 @@ public int matches(CharacterIterator text, int maxLength, int[] lengths,
         return matches(text, maxLength, lengths, count, limit, null);
     }
 
+    /**
+     * Find dictionary words that match the text in a char array.
+     * Same as the CharacterIterator version, but without the per-character
+     * iterator calls, and without a text position to leave after the match.
+     *
+     * @param text The text.
+     * @param start The index in text where the words start.
+     * @param end The index in text where the text ends.
+     * @param maxLength The maximum number of code points to match.
+     * @param lengths An array that is filled with the lengths of words that matched.
+     * @param count Filled with the number of elements output in lengths.
+     * @param limit The maximum amount of words to output. Must be less than or equal to lengths.length.
+     * @param values Filled with the weight values associated with the various words.
+     * @return The number of characters in text that were matched.
+     */
+    public abstract int matches(char[] text, int start, int end, int maxLength, int[] lengths,
+            int[] count, int limit, int[] values);
+
+    /**
+     * Returns the code point at the iterator position and moves past it,
+     * or returns UCharacterIterator.DONE if the iterator is at the end of the text.
+     * Same as UCharacterIterator.getInstance(text).nextCodePoint(),
+     * without creating the UCharacterIterator.
+     */
+    static int nextCodePoint(CharacterIterator text) {
+        char c = text.current();
+        text.next();
+        if (c == CharacterIterator.DONE) {
+            return UCharacterIterator.DONE;
+        }
+        if (UTF16.isLeadSurrogate(c)) {
+            char c2 = text.current();
+            text.next();
+            if (UTF16.isTrailSurrogate(c2)) {
+                return Character.toCodePoint(c, c2);
+            } else if (c2 != CharacterIterator.DONE) {
+                // unmatched surrogate so back out
+                text.previous();
+            }
+        }
+        return c;
+    }
+
     /**
      * @return the kind of dictionary that this matcher is using
      */
@@ -0,0 +1,209 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.text;
+
+import java.nio.CharBuffer;
+
+/**
+ * Normalizes text that arrives in chunks, from one CharBuffer to another,
+ * similar to how a java.nio.charset.CharsetDecoder works.
+ * <p>
+ * Each chunk is normalized up to the last normalization boundary
+ * found via {@link Normalizer2#hasBoundaryBefore(int)} and {@link Normalizer2#hasBoundaryAfter(int)}.
+ * Only the text after that boundary, which might interact with the next chunk,
+ * is carried over to the next call.
+ * Memory use is therefore bounded by the chunk size,
+ * except for text which has no normalization boundaries over long stretches.
+ * <p>
+ * Usage: Call {@link #normalize(CharBuffer, CharBuffer, boolean)} with more input
+ * while it returns true, and drain the destination buffer while it returns false.
+ * After the last input, call it with endOfInput=true until it returns true.
+ * <p>
+ * An instance of this class is not thread-safe.
+ * The Normalizer2 that it uses can be shared.
+ *
+ * @see NormalizingReader
+ * @see NormalizingWriter
+ * @draft ICU 69
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class IncrementalNormalizer {
+    /**
+     * Maximum number of chars that are taken from the source at a time.
+     * Limits the size of the pending output.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Normalizer2 n2;
+    /**
+     * Text that has been read from the source but not yet normalized.
+     * Contains no normalization boundary except at index 0.
+     */
+    private final StringBuilder text = new StringBuilder();
+    /** Normalized text that has not yet been written to the destination. */
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingStart;
+
+    /**
+     * Constructs an incremental normalizer for the given Normalizer2.
+     *
+     * @param n2 the normalizer
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public IncrementalNormalizer(Normalizer2 n2) {
+        this.n2 = n2;
+    }
+
+    /**
+     * Returns the Normalizer2 used by this object.
+     *
+     * @return the normalizer
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public Normalizer2 getNormalizer() {
+        return n2;
+    }
+
+    /**
+     * Discards any carried-over input and pending output,
+     * so that this object can be used for new text.
+     *
+     * @return this
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public IncrementalNormalizer reset() {
+        text.setLength(0);
+        pending.setLength(0);
+        pendingStart = 0;
+        return this;
+    }
+
+    /**
+     * Normalizes as much of the source text as possible and writes the result to dest.
+     * <p>
+     * All of the remaining source text is consumed unless dest becomes full.
+     * Source text after the last normalization boundary is carried over to the next call,
+     * and so is normalized text that does not fit into dest.
+     * <p>
+     * Call this function with endOfInput=true after (or together with) the last source text.
+     * When it returns true after that, then all of the text has been normalized and written,
+     * and this object is ready for new text.
+     *
+     * @param src source text; its position is advanced past the consumed text
+     * @param dest destination for the normalized text; its position is advanced
+     * @param endOfInput true if there is no more source text after src
+     * @return true if all of src was consumed and all available output was written
+     *         (more input is needed, or the text is complete if endOfInput);
+     *         false if dest is full
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public boolean normalize(CharBuffer src, CharBuffer dest, boolean endOfInput) {
+        for (;;) {
+            if (!drainTo(dest)) {
+                return false;
+            }
+            if (!src.hasRemaining()) {
+                if (endOfInput && text.length() != 0) {
+                    n2.normalize(text, pending);
+                    text.setLength(0);
+                    continue;
+                }
+                return true;
+            }
+            // The normalization functions are fastest on Strings.
+            int oldLength = text.length();
+            int length = Math.min(src.remaining(), CHUNK_SIZE);
+            String chunk;
+            if (src.hasArray()) {
+                int position = src.position();
+                if (oldLength == 0) {
+                    chunk = new String(src.array(), src.arrayOffset() + position, length);
+                } else {
+                    chunk = text.append(src.array(), src.arrayOffset() + position, length).toString();
+                }
+                src.position(position + length);
+            } else {
+                for (int i = 0; i < length; ++i) {
+                    text.append(src.get());
+                }
+                chunk = text.toString();
+            }
+            text.setLength(0);
+            int boundary;
+            if (endOfInput && !src.hasRemaining()) {
+                boundary = chunk.length();
+            } else {
+                boundary = lastBoundary(chunk, oldLength);
+            }
+            if (boundary == chunk.length()) {
+                n2.normalize(chunk, pending);
+            } else {
+                if (boundary > 0) {
+                    n2.normalize(chunk.substring(0, boundary), pending);
+                }
+                text.append(chunk, boundary, chunk.length());
+            }
+        }
+    }
+
+    /**
+     * Writes as much of the pending output to dest as fits.
+     *
+     * @return true if there is no more pending output
+     */
+    private boolean drainTo(CharBuffer dest) {
+        int pendingLength = pending.length();
+        if (pendingStart == pendingLength) {
+            return true;
+        }
+        int length = Math.min(dest.remaining(), pendingLength - pendingStart);
+        if (dest.hasArray()) {
+            int position = dest.position();
+            pending.getChars(pendingStart, pendingStart + length,
+                    dest.array(), dest.arrayOffset() + position);
+            dest.position(position + length);
+        } else {
+            for (int i = 0; i < length; ++i) {
+                dest.put(pending.charAt(pendingStart + i));
+            }
+        }
+        pendingStart += length;
+        if (pendingStart < pendingLength) {
+            return false;
+        }
+        pending.setLength(0);
+        pendingStart = 0;
+        return true;
+    }
+
+    /**
+     * Finds the last normalization boundary in s.
+     * The text before start has no boundary other than at index 0,
+     * so the search stops there.
+     * A trailing lead surrogate is never followed by a boundary because
+     * its trail surrogate may be in the next chunk.
+     *
+     * @return the index of the last boundary, or 0 if there is none
+     */
+    private int lastBoundary(String s, int start) {
+        int p = s.length();
+        if (Character.isHighSurrogate(s.charAt(p - 1))) {
+            --p;
+        }
+        while (p > start) {
+            int c = s.codePointBefore(p);
+            if (n2.hasBoundaryAfter(c)) {
+                return p;
+            }
+            p -= Character.charCount(c);
+            if (n2.hasBoundaryBefore(c)) {
+                return p;
+            }
+        }
+        return 0;
+    }
+}
@@ -29,10 +29,11 @@ interface LanguageBreakEngine {
      * @param endPos The index of the possible end of our range. It is possible,
      *  however, that the range ends earlier
      * @param foundBreaks A data structure to receive the break positions.
+     * @param scratch Working storage owned by the calling break iterator, reused across calls.
      * @return the number of breaks found
      */
     int findBreaks(CharacterIterator text, int startPos, int endPos,
-            DictionaryBreakEngine.DequeI foundBreaks);
+            DictionaryBreakEngine.DequeI foundBreaks, DictionaryBreakEngine.ScratchBuffers scratch);
 }
 
 
@@ -11,10 +11,14 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
 
 import com.ibm.icu.impl.ICUBinary;
 import com.ibm.icu.impl.Norm2AllModes;
+import com.ibm.icu.impl.Normalizer2Parallel;
+import com.ibm.icu.impl.Normalizer2UTF8;
 import com.ibm.icu.util.ICUUncheckedIOException;
 
 /**
@@ -242,6 +246,27 @@ public String normalize(CharSequence src) {
      */
     public abstract StringBuilder normalize(CharSequence src, StringBuilder dest);
 
+    /**
+     * Same as {@link #normalize(CharSequence, StringBuilder)}
+     * but long texts are split at normalization boundaries into chunks
+     * which are normalized concurrently by tasks in the given pool.
+     * The result is the same as with sequential normalization.
+     * The source and destination strings must be different objects.
+     *
+     * <p>The source must not be modified while this function runs.
+     *
+     * @param src source string
+     * @param dest destination string; its contents is replaced with normalized src
+     * @param pool the pool which runs the tasks; if null or if its parallelism is 1,
+     *        then the text is normalized sequentially
+     * @return dest
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public StringBuilder normalize(CharSequence src, StringBuilder dest, ForkJoinPool pool) {
+        return Normalizer2Parallel.normalize(this, src, dest, pool);
+    }
+
     /**
      * Writes the normalized form of the source string to the destination Appendable
      * and returns the destination Appendable.
@@ -281,6 +306,58 @@ public abstract StringBuilder normalizeSecondAndAppend(
      */
     public abstract StringBuilder append(StringBuilder first, CharSequence second);
 
+    /**
+     * Normalizes a UTF-8 string and writes the result to the output stream.
+     * Text which is already normalized is written directly from the source bytes,
+     * in as few <code>write()</code> calls as possible;
+     * only the segments which change are converted to UTF-16 and back.
+     *
+     * <p>Ill-formed UTF-8 byte sequences are treated like U+FFFD
+     * and are written unchanged.
+     *
+     * <p>Any {@link java.io.IOException} is wrapped into a {@link com.ibm.icu.util.ICUUncheckedIOException}.
+     *
+     * @param src source UTF-8 bytes
+     * @param start index of the first source byte
+     * @param limit index after the last source byte
+     * @param dest receives the normalized UTF-8 bytes
+     * @param edits Records edits for index mapping, working with styled text,
+     *        and getting only changes (if any).
+     *        This function calls edits.reset() first. edits can be null.
+     * @throws IndexOutOfBoundsException if start or limit are out of bounds
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void normalizeUTF8(byte[] src, int start, int limit, OutputStream dest, Edits edits) {
+        checkUTF8Range(src, start, limit);
+        Normalizer2UTF8.normalize(this, src, start, limit, dest, edits);
+    }
+
+    /**
+     * Normalizes the remaining UTF-8 bytes of a ByteBuffer, from its position to its limit,
+     * and writes the result to the output stream.
+     * The buffer's position is not changed.
+     * Heap buffers are read in place, other buffers are copied first.
+     *
+     * @param src source UTF-8 bytes
+     * @param dest receives the normalized UTF-8 bytes
+     * @param edits Records edits for index mapping, working with styled text,
+     *        and getting only changes (if any).
+     *        This function calls edits.reset() first. edits can be null.
+     * @see #normalizeUTF8(byte[], int, int, OutputStream, Edits)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void normalizeUTF8(ByteBuffer src, OutputStream dest, Edits edits) {
+        if (src.hasArray()) {
+            int start = src.arrayOffset() + src.position();
+            Normalizer2UTF8.normalize(this, src.array(), start, start + src.remaining(), dest, edits);
+        } else {
+            byte[] bytes = copyRemaining(src);
+            Normalizer2UTF8.normalize(this, bytes, 0, bytes.length, dest, edits);
+        }
+    }
+
     /**
      * Gets the decomposition mapping of c.
      * Roughly equivalent to normalizing the String form of c
@@ -356,6 +433,60 @@ public abstract StringBuilder normalizeSecondAndAppend(
      */
     public abstract boolean isNormalized(CharSequence s);
 
+    /**
+     * Tests if the UTF-8 string is normalized.
+     * Same as <code>isNormalized()</code> for the decoded string,
+     * where ill-formed UTF-8 byte sequences are treated like U+FFFD,
+     * but without converting normalized text to UTF-16.
+     *
+     * @param src source UTF-8 bytes
+     * @param start index of the first source byte
+     * @param limit index after the last source byte
+     * @return true if the text is normalized
+     * @throws IndexOutOfBoundsException if start or limit are out of bounds
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public boolean isNormalizedUTF8(byte[] src, int start, int limit) {
+        checkUTF8Range(src, start, limit);
+        return Normalizer2UTF8.isNormalized(this, src, start, limit);
+    }
+
+    /**
+     * Tests if the remaining UTF-8 bytes of a ByteBuffer, from its position to its limit,
+     * are normalized.
+     * The buffer's position is not changed.
+     * Heap buffers are read in place, other buffers are copied first.
+     *
+     * @param src source UTF-8 bytes
+     * @return true if the text is normalized
+     * @see #isNormalizedUTF8(byte[], int, int)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public boolean isNormalizedUTF8(ByteBuffer src) {
+        if (src.hasArray()) {
+            int start = src.arrayOffset() + src.position();
+            return Normalizer2UTF8.isNormalized(this, src.array(), start, start + src.remaining());
+        } else {
+            byte[] bytes = copyRemaining(src);
+            return Normalizer2UTF8.isNormalized(this, bytes, 0, bytes.length);
+        }
+    }
+
+    private static void checkUTF8Range(byte[] src, int start, int limit) {
+        if (start < 0 || start > limit || limit > src.length) {
+            throw new IndexOutOfBoundsException(
+                    "start=" + start + ", limit=" + limit + ", length=" + src.length);
+        }
+    }
+
+    private static byte[] copyRemaining(ByteBuffer src) {
+        byte[] bytes = new byte[src.remaining()];
+        src.duplicate().get(bytes);
+        return bytes;
+    }
+
     /**
      * Tests if the string is normalized.
      * For the two COMPOSE modes, the result could be "maybe" in cases that
@@ -0,0 +1,113 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.text;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * A Reader that normalizes the text read from another Reader.
+ * The text is read and normalized in chunks, see {@link IncrementalNormalizer},
+ * so that large inputs can be normalized without holding them in memory.
+ * <p>
+ * The reader does not support mark() and reset().
+ *
+ * @see NormalizingWriter
+ * @draft ICU 69
+ * @provisional This API might change or be removed in a future release.
+ */
+public class NormalizingReader extends Reader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private Reader in;
+    private final IncrementalNormalizer normalizer;
+    /** Source text read from in, between position and limit. */
+    private final CharBuffer buffer;
+    private boolean endOfInput;
+    private boolean done;
+
+    /**
+     * Constructs a reader which returns the normalization of the text read from in.
+     *
+     * @param in the source of the text to be normalized
+     * @param n2 the normalizer
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public NormalizingReader(Reader in, Normalizer2 n2) {
+        super(in);
+        this.in = in;
+        normalizer = new IncrementalNormalizer(n2);
+        buffer = CharBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        synchronized (lock) {
+            ensureOpen();
+            if (done) {
+                return -1;
+            }
+            CharBuffer dest = CharBuffer.wrap(cbuf, off, len);
+            for (;;) {
+                boolean needInput = normalizer.normalize(buffer, dest, endOfInput);
+                if (needInput && endOfInput) {
+                    done = true;
+                    break;
+                }
+                if (!needInput || dest.position() > off) {
+                    // Return what we have rather than block on reading more input.
+                    break;
+                }
+                fill();
+            }
+            int length = dest.position() - off;
+            return length > 0 ? length : -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (in != null) {
+                in.close();
+                in = null;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (in == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /** Reads more text into the buffer, which has been fully consumed. */
+    private void fill() throws IOException {
+        buffer.clear();
+        int length = in.read(buffer.array(), buffer.arrayOffset(), buffer.capacity());
+        if (length < 0) {
+            endOfInput = true;
+            length = 0;
+        }
+        buffer.limit(length);
+    }
+}
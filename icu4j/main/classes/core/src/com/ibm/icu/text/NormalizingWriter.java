@@ -0,0 +1,162 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * A Writer that normalizes the text written to it and writes the result to another Writer.
+ * The text is normalized in chunks, see {@link IncrementalNormalizer},
+ * so that large outputs can be normalized without holding them in memory.
+ * <p>
+ * Text after the last normalization boundary may interact with text that is written later.
+ * It is held back until more text is written or until the writer is closed;
+ * flush() writes only the text before the last boundary.
+ * {@link #finish()} or close() must be called after the last text to write the rest.
+ *
+ * @see NormalizingReader
+ * @draft ICU 69
+ * @provisional This API might change or be removed in a future release.
+ */
+public class NormalizingWriter extends Writer {
+    private static final int BUFFER_SIZE = 8192;
+
+    private Writer out;
+    private final IncrementalNormalizer normalizer;
+    /** Normalized text that has not yet been written to out. */
+    private final CharBuffer buffer;
+    /** Temporary array for write(String). */
+    private char[] chars;
+
+    /**
+     * Constructs a writer which writes the normalization of its text to out.
+     *
+     * @param out the destination for the normalized text
+     * @param n2 the normalizer
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public NormalizingWriter(Writer out, Normalizer2 n2) {
+        super(out);
+        this.out = out;
+        normalizer = new IncrementalNormalizer(n2);
+        buffer = CharBuffer.allocate(BUFFER_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        synchronized (lock) {
+            ensureOpen();
+            normalize(CharBuffer.wrap(cbuf, off, len), false);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > str.length() - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        synchronized (lock) {
+            ensureOpen();
+            // Copy the text into an array because the normalizer reads array-backed buffers faster.
+            if (chars == null) {
+                chars = new char[BUFFER_SIZE];
+            }
+            while (len > 0) {
+                int length = Math.min(len, chars.length);
+                str.getChars(off, off + length, chars, 0);
+                normalize(CharBuffer.wrap(chars, 0, length), false);
+                off += length;
+                len -= length;
+            }
+        }
+    }
+
+    /**
+     * Writes the normalized text before the last normalization boundary,
+     * and flushes the underlying writer.
+     * Text after the last boundary is held back, see the class documentation.
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            writeBuffer();
+            out.flush();
+        }
+    }
+
+    /**
+     * Normalizes and writes all of the remaining text, including text after the last
+     * normalization boundary, and flushes the underlying writer without closing it.
+     * Text written after this call is normalized independently of the preceding text.
+     *
+     * @throws IOException if an I/O error occurs
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void finish() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            normalize(CharBuffer.allocate(0), true);
+            writeBuffer();
+            out.flush();
+        }
+    }
+
+    /**
+     * Finishes the normalization and closes the underlying writer.
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (out == null) {
+                return;
+            }
+            try {
+                finish();
+            } finally {
+                out.close();
+                out = null;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (out == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void normalize(CharBuffer src, boolean endOfInput) throws IOException {
+        while (!normalizer.normalize(src, buffer, endOfInput)) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        if (buffer.position() != 0) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+            buffer.clear();
+        }
+    }
+}
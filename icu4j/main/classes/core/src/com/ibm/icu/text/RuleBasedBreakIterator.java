@@ -18,18 +18,23 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.text.CharacterIterator;
-import java.util.ArrayList;
-import java.util.List;
+import java.text.StringCharacterIterator;
+import java.util.Arrays;
 
+import com.ibm.icu.impl.CSCharacterIterator;
 import com.ibm.icu.impl.CharacterIteration;
 import com.ibm.icu.impl.ICUBinary;
 import com.ibm.icu.impl.ICUDebug;
 import com.ibm.icu.impl.RBBIDataWrapper;
+import com.ibm.icu.impl.UTF8;
+import com.ibm.icu.impl.UTF8CharacterIterator;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UProperty;
 import com.ibm.icu.lang.UScript;
 import com.ibm.icu.util.CodePointTrie;
+import com.ibm.icu.util.ULocale;
 
 /**
  * Rule Based Break Iterator
@@ -47,9 +52,18 @@ public class RuleBasedBreakIterator extends BreakIterator {
      */
     private RuleBasedBreakIterator() {
         fDictionaryCharCount  = 0;
-        synchronized(gAllBreakEngines) {
-            fBreakEngines = new ArrayList<>(gAllBreakEngines);
-        }
+    }
+
+    /**
+     * Construct an iterator over the given compiled rules.
+     * Used by CompiledRules; shares the rule data and does no locking.
+     */
+    private RuleBasedBreakIterator(CompiledRules rules) {
+        this();
+        fRData = rules.fRData;
+        fLookAheadMatches = new int[fRData.fFTable.fLookAheadResultsSize];
+        fCompiledRules = rules;
+        setLocale(rules.fValidLocale, rules.fActualLocale);
     }
 
     /**
@@ -138,9 +152,6 @@ public Object clone()  {
         if (fText != null) {
             result.fText = (CharacterIterator)(fText.clone());
         }
-        synchronized (gAllBreakEngines)  {
-            result.fBreakEngines = new ArrayList<>(gAllBreakEngines);
-        }
         result.fLookAheadMatches = new int[fRData.fFTable.fLookAheadResultsSize];
         result.fBreakCache = result.new BreakCache(fBreakCache);
         result.fDictionaryCache = result.new DictionaryCache(fDictionaryCache);
@@ -224,6 +235,27 @@ public int hashCode()
      */
     private CharacterIterator   fText = new java.text.StringCharacterIterator("");
 
+    /**
+     * Direct access to the text, when it was set from a String or from an array-backed
+     * CharBuffer; null otherwise. The text index i of fText corresponds to
+     * fTextChars[fTextCharsOffset + i], and the text ends at fTextCharsLimit.
+     * The forward and safe-reverse state machines read from this array instead of
+     * going through the CharacterIterator.
+     */
+    private char[]              fTextChars;
+    private int                 fTextCharsOffset;
+    private int                 fTextCharsLimit;
+
+    /**
+     * The text, when it was set as UTF-8 bytes; null otherwise.
+     * Text index i is the byte fTextBytes[fTextBytesOffset + i],
+     * and the text ends at array index fTextBytesLimit.
+     * fText is then a UTF8CharacterIterator with the same indexes.
+     */
+    private byte[]              fTextBytes;
+    private int                 fTextBytesOffset;
+    private int                 fTextBytesLimit;
+
     /**
      * The rule data for this BreakIterator instance.
      * Not intended for public use. Declared public for testing purposes only.
@@ -301,22 +333,25 @@ public int hashCode()
      * Lazily updated as break engines are needed, because instantiation of
      * break engines is expensive.
      *
-     * Because gAllBreakEngines can be referenced concurrently from different
-     * BreakIterator instances, all access is synchronized.
+     * gAllBreakEngines can be referenced concurrently from different
+     * BreakIterator instances. Once made visible, an array is never modified;
+     * adding an engine replaces the array while holding gBreakEnginesLock.
+     * Lookups read the current array without locking.
      */
-    private static final List<LanguageBreakEngine> gAllBreakEngines;
+    private static volatile LanguageBreakEngine[] gAllBreakEngines;
+
+    private static final Object gBreakEnginesLock = new Object();
 
     static {
         gUnhandledBreakEngine = new UnhandledBreakEngine();
-        gAllBreakEngines = new ArrayList<>();
-        gAllBreakEngines.add(gUnhandledBreakEngine);
+        gAllBreakEngines = new LanguageBreakEngine[] { gUnhandledBreakEngine };
     }
 
     /**
-     * List of all known break engines. Similar to gAllBreakEngines, but local to a
-     * break iterator, allowing it to be used without synchronization.
+     * The compiled rules shared by this iterator and the iterators created from them,
+     * or null if getCompiledRules() has not been called yet.
      */
-    private List<LanguageBreakEngine> fBreakEngines;
+    private CompiledRules fCompiledRules;
 
     /**
      * Dump the contents of the state table and character classes for this break iterator.
@@ -351,6 +386,62 @@ public static void compileRules(String rules, OutputStream ruleBinary) throws IO
         RBBIRuleBuilder.compileRules(rules, ruleBinary);
     }
 
+    /**
+     * Returns the compiled rules of this break iterator, without its text or iteration state.
+     * The rules can be shared between threads, and can cheaply create new iterators.
+     *
+     * @return the compiled rules of this break iterator
+     * @see CompiledRules#createIterator()
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CompiledRules getCompiledRules() {
+        if (fCompiledRules == null) {
+            fCompiledRules = new CompiledRules(fRData,
+                    getLocale(ULocale.VALID_LOCALE), getLocale(ULocale.ACTUAL_LOCALE));
+        }
+        return fCompiledRules;
+    }
+
+    /**
+     * The compiled rules of a RuleBasedBreakIterator:
+     * the immutable state tables and character classes, without any text or iteration state.
+     *
+     * <p>CompiledRules objects are immutable and thread-safe.
+     * An application can obtain them once, for example from
+     * <code>((RuleBasedBreakIterator)BreakIterator.getWordInstance(locale)).getCompiledRules()</code>,
+     * and then use {@link #createIterator()} on any thread whenever it needs an iterator.
+     * Creating an iterator does not clone an existing one, look up any locale data,
+     * or take a lock. The dictionary break engines are shared by all iterators.
+     *
+     * @see RuleBasedBreakIterator#getCompiledRules()
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final class CompiledRules {
+        private final RBBIDataWrapper fRData;
+        private final ULocale fValidLocale;
+        private final ULocale fActualLocale;
+
+        private CompiledRules(RBBIDataWrapper rData, ULocale validLocale, ULocale actualLocale) {
+            fRData = rData;
+            fValidLocale = validLocale;
+            fActualLocale = actualLocale;
+        }
+
+        /**
+         * Creates a new break iterator that uses these rules.
+         * Its text is empty; set it with one of the setText() methods.
+         *
+         * @return a new break iterator
+         * @draft ICU 69
+         * @provisional This API might change or be removed in a future release.
+         */
+        public RuleBasedBreakIterator createIterator() {
+            return new RuleBasedBreakIterator(this);
+        }
+    }
+
     //=======================================================================
     // BreakIterator overrides
     //=======================================================================
@@ -624,6 +715,133 @@ public int getRuleStatusVec(int[] fillInArray) {
         return numStatusVals;
     }
 
+    /**
+     * Sets the text to be analyzed, and finds all of its boundaries with their rule status values.
+     * This gives the same results as iterating with <code>first()</code> and <code>next()</code>
+     * and calling <code>getRuleStatus()</code> at each boundary, but it runs the rules forward
+     * just once, without the bookkeeping for random access and backward iteration.
+     * <p>
+     * boundaries[0] is the start of the text (0) and the last boundary is the text length.
+     * The segment that ends at boundaries[i] (i&gt;0) starts at boundaries[i-1].
+     * If the arrays are too small, only as many boundaries as fit are stored.
+     * <p>
+     * When this function returns, the iterator is positioned at the start of the text,
+     * as after <code>setText(text)</code>.
+     *
+     * @param text the text to be analyzed
+     * @param boundaries an array to be filled in with the boundary positions
+     * @param statuses an array to be filled in with the rule status values for the boundaries,
+     *                 as returned by <code>getRuleStatus()</code>; can be null
+     * @return The number of boundaries in the text.
+     *         In the event that the arrays are too small, the return value is the total
+     *         number of boundaries, not the reduced number that were actually stored.
+     * @see #getWords(CharSequence, int[], int[], int[])
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getBoundaries(CharSequence text, int[] boundaries, int[] statuses) {
+        return getSegments(text, null, boundaries, statuses, false);
+    }
+
+    /**
+     * Sets the text to be analyzed, and finds the segments with a rule status value of
+     * {@link BreakIterator#WORD_NONE_LIMIT} or more, in order.
+     * With the standard word break rules, these are the words: the segments
+     * of letters, numbers, kana or ideographs, but not those of spaces or punctuation.
+     * Like {@link #getBoundaries(CharSequence, int[], int[])}, this runs the rules forward just once.
+     * <p>
+     * Segment i spans the text from starts[i] to limits[i].
+     * If the arrays are too small, only as many segments as fit are stored.
+     * <p>
+     * When this function returns, the iterator is positioned at the start of the text,
+     * as after <code>setText(text)</code>.
+     *
+     * @param text the text to be analyzed
+     * @param starts an array to be filled in with the start positions of the words
+     * @param limits an array to be filled in with the limit positions of the words
+     * @param statuses an array to be filled in with the rule status values of the words,
+     *                 such as {@link BreakIterator#WORD_LETTER}; can be null
+     * @return The number of words in the text.
+     *         In the event that the arrays are too small, the return value is the total
+     *         number of words, not the reduced number that were actually stored.
+     * @see #getBoundaries(CharSequence, int[], int[])
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getWords(CharSequence text, int[] starts, int[] limits, int[] statuses) {
+        return getSegments(text, starts, limits, statuses, true);
+    }
+
+    /**
+     * Implementation of getBoundaries() and getWords().
+     * Runs the forward state machine over the text, subdividing dictionary ranges
+     * the same way as the BreakCache does, but without adding the boundaries to it.
+     * With starts == null, stores every boundary including the start of the text.
+     */
+    private int getSegments(CharSequence text, int[] starts, int[] limits, int[] statuses,
+            boolean wordsOnly) {
+        setText(text);
+        int[] statusTable = fRData.fStatusTable;
+        int capacity = limits.length;
+        if (starts != null) {
+            capacity = Math.min(capacity, starts.length);
+        }
+        if (statuses != null) {
+            capacity = Math.min(capacity, statuses.length);
+        }
+        int count = 0;
+        int pos = fText.getBeginIndex();
+        int ruleStatusIdx = 0;
+        if (!wordsOnly) {
+            if (count < capacity) {
+                limits[count] = pos;
+                if (statuses != null) {
+                    statuses[count] = statusTable[ruleStatusIdx + statusTable[ruleStatusIdx]];
+                }
+            }
+            ++count;
+        }
+        for (;;) {
+            int next;
+            int nextRuleStatusIdx;
+            if (fDictionaryCache.following(pos)) {
+                next = fDictionaryCache.fBoundary;
+                nextRuleStatusIdx = fDictionaryCache.fStatusIndex;
+            } else {
+                fPosition = pos;
+                next = handleNext();
+                if (next == BreakIterator.DONE) {
+                    break;
+                }
+                nextRuleStatusIdx = fRuleStatusIndex;
+                if (fDictionaryCharCount > 0) {
+                    fDictionaryCache.populateDictionary(pos, next, ruleStatusIdx, nextRuleStatusIdx);
+                    if (fDictionaryCache.following(pos)) {
+                        next = fDictionaryCache.fBoundary;
+                        nextRuleStatusIdx = fDictionaryCache.fStatusIndex;
+                    }
+                }
+            }
+            int status = statusTable[nextRuleStatusIdx + statusTable[nextRuleStatusIdx]];
+            if (!wordsOnly || status >= WORD_NONE_LIMIT) {
+                if (count < capacity) {
+                    if (starts != null) {
+                        starts[count] = pos;
+                    }
+                    limits[count] = next;
+                    if (statuses != null) {
+                        statuses[count] = status;
+                    }
+                }
+                ++count;
+            }
+            pos = next;
+            ruleStatusIdx = nextRuleStatusIdx;
+        }
+        first();
+        return count;
+    }
+
     /**
      * Returns a CharacterIterator over the text being analyzed.
      * <p>
@@ -661,6 +879,135 @@ public CharacterIterator getText() {
      */
     @Override
     public void setText(CharacterIterator newText) {
+        setText(newText, null, 0);
+    }
+
+    /**
+     * Set the iterator to analyze a new piece of text.  This function resets
+     * the current iteration position to the beginning of the text.
+     * (The old text is dropped.)
+     * @param newText A String containing the text to analyze.
+     * @stable ICU 2.0
+     */
+    @Override
+    public void setText(String newText) {
+        setText(new StringCharacterIterator(newText), newText.toCharArray(), 0);
+    }
+
+    /**
+     * Set the iterator to analyze a new piece of text.  This function resets
+     * the current iteration position to the beginning of the text.
+     * (The old text is dropped.)
+     * <p>
+     * The text underlying the CharSequence must not be be modified while
+     * the BreakIterator holds a references to it.
+     * Text in a String or in an array-backed CharBuffer (including one from
+     * <code>CharBuffer.wrap(char[])</code>) is read directly, without going through
+     * a CharacterIterator.
+     * @param newText A CharSequence containing the text to analyze.
+     * @stable ICU 60
+     */
+    @Override
+    public void setText(CharSequence newText) {
+        char[] chars = null;
+        int offset = 0;
+        if (newText instanceof String) {
+            chars = ((String)newText).toCharArray();
+        } else if (newText instanceof CharBuffer && ((CharBuffer)newText).hasArray()) {
+            CharBuffer buffer = (CharBuffer)newText;
+            chars = buffer.array();
+            offset = buffer.arrayOffset() + buffer.position();
+        }
+        setText(new CSCharacterIterator(newText), chars, offset);
+    }
+
+    /**
+     * Set the text, with optional direct access to its chars.
+     * @param newText An iterator over the text to analyze.
+     * @param chars The text chars, or null if the text is only accessible through newText.
+     * @param offset The index in chars of the start of the text.
+     */
+    private void setText(CharacterIterator newText, char[] chars, int offset) {
+        fTextChars = chars;
+        fTextBytes = null;
+        if (chars != null) {
+            fTextCharsOffset = offset;
+            fTextCharsLimit = offset + newText.getEndIndex();
+        }
+        resetText(newText);
+    }
+
+    /**
+     * Set the iterator to analyze UTF-8 text in a byte array.
+     * This function resets the current iteration position to the beginning of the text.
+     * (The old text is dropped.)
+     * <p>
+     * Boundary positions, and the offsets passed into functions like
+     * <code>following()</code> and <code>isBoundary()</code>, are byte indexes
+     * into the array, from <code>offset</code> to <code>offset + length</code>.
+     * The text is segmented without converting it to UTF-16.
+     * An ill-formed UTF-8 sequence is treated like a U+FFFD replacement character.
+     * <p>
+     * The array is used directly, and its contents must not be modified
+     * while the BreakIterator holds a reference to it.
+     * {@link #getText()} returns a CharacterIterator over the text,
+     * whose indexes are the same byte indexes. It returns a supplementary
+     * code point as a surrogate pair, with the trail surrogate at the index
+     * that follows the start of the code point.
+     *
+     * @param utf8 The UTF-8 text.
+     * @param offset The index of the start of the text in the array.
+     * @param length The number of bytes of text.
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void setText(byte[] utf8, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > utf8.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset=" + offset + " length=" + length + " array length=" + utf8.length);
+        }
+        setTextUTF8(utf8, 0, offset, offset + length);
+    }
+
+    /**
+     * Set the iterator to analyze the UTF-8 text between the position and the limit
+     * of a ByteBuffer. The buffer's position is not changed.
+     * Same as {@link #setText(byte[], int, int)}, except that boundary positions
+     * are indexes into the buffer, from its position to its limit.
+     * The contents of a buffer without an accessible array are copied.
+     *
+     * @param utf8 The UTF-8 text.
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public void setText(ByteBuffer utf8) {
+        int begin = utf8.position();
+        int end = utf8.limit();
+        if (utf8.hasArray()) {
+            setTextUTF8(utf8.array(), utf8.arrayOffset(), begin, end);
+        } else {
+            byte[] bytes = new byte[end - begin];
+            utf8.duplicate().get(bytes);
+            setTextUTF8(bytes, -begin, begin, end);
+        }
+    }
+
+    /**
+     * Set UTF-8 text.
+     * @param bytes The UTF-8 text.
+     * @param offset bytes[offset + i] is the byte at text index i.
+     * @param begin The text index of the start of the text.
+     * @param end The text index of the end of the text.
+     */
+    private void setTextUTF8(byte[] bytes, int offset, int begin, int end) {
+        fTextChars = null;
+        fTextBytes = bytes;
+        fTextBytesOffset = offset;
+        fTextBytesLimit = offset + end;
+        resetText(new UTF8CharacterIterator(bytes, offset, begin, end));
+    }
+
+    private void resetText(CharacterIterator newText) {
         if (newText != null) {
             fBreakCache.reset(newText.getBeginIndex(), 0);
         } else {
@@ -685,19 +1032,18 @@ private LanguageBreakEngine getLanguageBreakEngine(int c) {
 
         // We have a dictionary character.
         // Does an already instantiated break engine handle it?
-        for (LanguageBreakEngine candidate : fBreakEngines) {
+        for (LanguageBreakEngine candidate : gAllBreakEngines) {
             if (candidate.handles(c)) {
                 return candidate;
             }
         }
 
-        synchronized (gAllBreakEngines) {
-            // This break iterator's list of break engines didn't handle the character.
-            // Check the global list, another break iterator may have instantiated the
-            // desired engine.
-            for (LanguageBreakEngine candidate : gAllBreakEngines) {
+        synchronized (gBreakEnginesLock) {
+            // Check the global list again, another break iterator may have instantiated the
+            // desired engine since it was read above.
+            LanguageBreakEngine[] engines = gAllBreakEngines;
+            for (LanguageBreakEngine candidate : engines) {
                 if (candidate.handles(c)) {
-                    fBreakEngines.add(candidate);
                     return candidate;
                 }
             }
@@ -741,11 +1087,12 @@ private LanguageBreakEngine getLanguageBreakEngine(int c) {
             }
 
             if (eng != null && eng != gUnhandledBreakEngine) {
-                gAllBreakEngines.add(eng);
-                fBreakEngines.add(eng);
+                LanguageBreakEngine[] newEngines = Arrays.copyOf(engines, engines.length + 1);
+                newEngines[engines.length] = eng;
+                gAllBreakEngines = newEngines;
             }
             return eng;
-        }   // end synchronized(gAllBreakEngines)
+        }   // end synchronized(gBreakEnginesLock)
     }
 
     /**
@@ -771,6 +1118,12 @@ private LanguageBreakEngine getLanguageBreakEngine(int c) {
      * points at the lead surrogate of a supplementary.
      */
     private int handleNext() {
+        if (fTextBytes != null) {
+            return handleNextUTF8();
+        }
+        if (fTextChars != null && !TRACE) {
+            return handleNextChars();
+        }
         if (TRACE) {
             System.out.println("Handle Next   pos      char  state category");
         }
@@ -937,6 +1290,111 @@ else if (mode == RBBI_RUN) {
         return result;
     }
 
+    /**
+     * handleNext() for text in fTextChars.
+     * Same state machine, but the text is read straight from the char array
+     * and the character categories are looked up with the BMP/supplementary
+     * trie accessors, without a CharacterIterator.
+     */
+    private int handleNextChars() {
+        // caches for quicker access
+        char[] chars = fTextChars;
+        int offset = fTextCharsOffset;
+        int limit = fTextCharsLimit;
+        CodePointTrie.Fast trie = (CodePointTrie.Fast)fRData.fTrie;
+        char[] stateTable  = fRData.fFTable.fTable;
+        int rowLength = fRData.getRowIndex(1);
+        int dictStart = fRData.fFTable.fDictCategoriesStart;
+        int[] lookAheadMatches = fLookAheadMatches;
+
+        int initialPosition = fPosition;
+        int result = initialPosition;
+        int ruleStatusIndex = 0;
+        int dictionaryCharCount = 0;
+
+        // p is the array index of the next char to be read.
+        int p = initialPosition + offset;
+        if (p >= limit) {
+            fRuleStatusIndex = 0;
+            fDictionaryCharCount = 0;
+            fDone = true;
+            return BreakIterator.DONE;
+        }
+
+        // Unlike handleNext(), each loop iteration first reads a character and advances past it,
+        // then makes the state transition, so that the text position of a match is simply p.
+        // Category 2 is the pseudo {bof} character, category 1 is {eof}.
+        int state = START_STATE;
+        int row = state * rowLength;
+        boolean atStart = (fRData.fFTable.fFlags & RBBIDataWrapper.RBBI_BOF_REQUIRED) != 0;
+        boolean atEnd = false;
+        while (state != STOP_STATE) {
+            int category;
+            if (p < limit && !atStart) {
+                char c = chars[p++];
+                if (UTF16.isLeadSurrogate(c) && p < limit && UTF16.isTrailSurrogate(chars[p])) {
+                    category = trie.suppGet(Character.toCodePoint(c, chars[p++]));
+                } else {
+                    category = trie.bmpGet(c);
+                }
+                // Check for categories that require word dictionary handling.
+                if (category >= dictStart) {
+                    dictionaryCharCount++;
+                }
+            } else if (atStart) {
+                category = 2;
+                atStart = false;
+            } else if (!atEnd) {
+                category = 1;
+                atEnd = true;
+            } else {
+                // Already ran the loop with the {eof} category.
+                break;
+            }
+
+            // look up a state transition in the state table
+            state = stateTable[row + RBBIDataWrapper.NEXTSTATES + category];
+            row   = state * rowLength;
+            int accepting = stateTable[row + RBBIDataWrapper.ACCEPTING];
+            if (accepting == RBBIDataWrapper.ACCEPTING_UNCONDITIONAL) {
+                // Match found, common case
+                result = p - offset;
+                ruleStatusIndex = stateTable[row + RBBIDataWrapper.TAGSIDX];
+            } else if (accepting > RBBIDataWrapper.ACCEPTING_UNCONDITIONAL) {
+                // Lookahead match is completed
+                int lookaheadResult = lookAheadMatches[accepting];
+                if (lookaheadResult >= 0) {
+                    fRuleStatusIndex = stateTable[row + RBBIDataWrapper.TAGSIDX];
+                    fDictionaryCharCount = dictionaryCharCount;
+                    fPosition = lookaheadResult;
+                    return lookaheadResult;
+                }
+            }
+
+            // If we are at the position of the '/' in a look-ahead (hard break) rule;
+            // record the current position, to be returned later, if the full rule matches.
+            int rule = stateTable[row + RBBIDataWrapper.LOOKAHEAD];
+            if (rule != 0) {
+                lookAheadMatches[rule] = p - offset;
+            }
+        }        // End of state machine main loop
+
+        // If the iterator failed to advance in the match engine force it ahead by one.
+        if (result == initialPosition) {
+            p = initialPosition + offset + 1;
+            if (UTF16.isLeadSurrogate(chars[p - 1]) && p < limit && UTF16.isTrailSurrogate(chars[p])) {
+                ++p;
+            }
+            result = p - offset;
+            ruleStatusIndex = 0;
+        }
+
+        fRuleStatusIndex = ruleStatusIndex;
+        fDictionaryCharCount = dictionaryCharCount;
+        fPosition = result;
+        return result;
+    }
+
     /**
      * Iterate backwards from an arbitrary position in the input text using the Safe Reverse rules.
      * This locates a "Safe Position" from which the forward break rules
@@ -949,6 +1407,12 @@ else if (mode == RBBI_RUN) {
      * @internal
      */
     private int handleSafePrevious(int fromPosition) {
+        if (fTextBytes != null) {
+            return handleSafePreviousUTF8(fromPosition);
+        }
+        if (fTextChars != null && !TRACE) {
+            return handleSafePreviousChars(fromPosition);
+        }
         char            state;
         short           category = 0;
         int             result = 0;
@@ -1009,6 +1473,219 @@ private int handleSafePrevious(int fromPosition) {
         return result;
     }
 
+    /**
+     * handleSafePrevious() for text in fTextChars.
+     */
+    private int handleSafePreviousChars(int fromPosition) {
+        char[] chars = fTextChars;
+        int offset = fTextCharsOffset;
+        CodePointTrie.Fast trie = (CodePointTrie.Fast)fRData.fTrie;
+        char[] stateTable  = fRData.fRTable.fTable;
+
+        // Pin the position to the text, and back it up to the start of a code point.
+        int p = offset + Math.min(Math.max(fromPosition, 0), fTextCharsLimit - offset);
+        if (p > offset && p < fTextCharsLimit &&
+                UTF16.isTrailSurrogate(chars[p]) && UTF16.isLeadSurrogate(chars[p - 1])) {
+            --p;
+        }
+        // if we're already at the start of the text, return DONE.
+        if (p == offset) {
+            return BreakIterator.DONE;
+        }
+
+        //  Set the initial state for the state machine
+        int state = START_STATE;
+        int row = fRData.getRowIndex(state);
+
+        // loop until we reach the start of the text or transition to state 0
+        while (p > offset) {
+            int c = chars[--p];
+            if (UTF16.isTrailSurrogate((char)c) && p > offset && UTF16.isLeadSurrogate(chars[p - 1])) {
+                c = Character.toCodePoint(chars[--p], (char)c);
+            }
+            short category = (short) (c <= 0xffff ? trie.bmpGet(c) : trie.suppGet(c));
+
+            // State Transition - move machine to its next state
+            assert(category < fRData.fHeader.fCatCount);
+            state = stateTable[row + RBBIDataWrapper.NEXTSTATES + category];
+            row   = fRData.getRowIndex(state);
+
+            if (state == STOP_STATE) {
+                // Transition to state zero means we have found a safe point.
+                break;
+            }
+        }
+        return p - offset;
+    }
+
+    /**
+     * handleNext() for UTF-8 text in fTextBytes.
+     * Same as handleNextChars(), but the code points are read from the UTF-8 bytes.
+     */
+    private int handleNextUTF8() {
+        // caches for quicker access
+        byte[] bytes = fTextBytes;
+        int offset = fTextBytesOffset;
+        int limit = fTextBytesLimit;
+        CodePointTrie.Fast trie = (CodePointTrie.Fast)fRData.fTrie;
+        char[] stateTable  = fRData.fFTable.fTable;
+        int rowLength = fRData.getRowIndex(1);
+        int dictStart = fRData.fFTable.fDictCategoriesStart;
+        int[] lookAheadMatches = fLookAheadMatches;
+
+        int initialPosition = fPosition;
+        int result = initialPosition;
+        int ruleStatusIndex = 0;
+        int dictionaryCharCount = 0;
+
+        // p is the array index of the next byte to be read.
+        int p = initialPosition + offset;
+        if (p >= limit) {
+            fRuleStatusIndex = 0;
+            fDictionaryCharCount = 0;
+            fDone = true;
+            return BreakIterator.DONE;
+        }
+
+        int state = START_STATE;
+        int row = state * rowLength;
+        boolean atStart = (fRData.fFTable.fFlags & RBBIDataWrapper.RBBI_BOF_REQUIRED) != 0;
+        boolean atEnd = false;
+        while (state != STOP_STATE) {
+            int category;
+            if (p < limit && !atStart) {
+                int b = bytes[p];
+                if (b >= 0) {
+                    ++p;
+                    category = trie.bmpGet(b);
+                } else {
+                    int cpAndLength = UTF8.nextCodePoint(bytes, p, limit);
+                    int c = UTF8.getCodePoint(cpAndLength);
+                    p += UTF8.getLength(cpAndLength);
+                    category = c <= 0xffff ? trie.bmpGet(c) : trie.suppGet(c);
+                }
+                // Check for categories that require word dictionary handling.
+                if (category >= dictStart) {
+                    dictionaryCharCount++;
+                }
+            } else if (atStart) {
+                category = 2;
+                atStart = false;
+            } else if (!atEnd) {
+                category = 1;
+                atEnd = true;
+            } else {
+                // Already ran the loop with the {eof} category.
+                break;
+            }
+
+            // look up a state transition in the state table
+            state = stateTable[row + RBBIDataWrapper.NEXTSTATES + category];
+            row   = state * rowLength;
+            int accepting = stateTable[row + RBBIDataWrapper.ACCEPTING];
+            if (accepting == RBBIDataWrapper.ACCEPTING_UNCONDITIONAL) {
+                // Match found, common case
+                result = p - offset;
+                ruleStatusIndex = stateTable[row + RBBIDataWrapper.TAGSIDX];
+            } else if (accepting > RBBIDataWrapper.ACCEPTING_UNCONDITIONAL) {
+                // Lookahead match is completed
+                int lookaheadResult = lookAheadMatches[accepting];
+                if (lookaheadResult >= 0) {
+                    fRuleStatusIndex = stateTable[row + RBBIDataWrapper.TAGSIDX];
+                    fDictionaryCharCount = dictionaryCharCount;
+                    fPosition = lookaheadResult;
+                    return lookaheadResult;
+                }
+            }
+
+            // If we are at the position of the '/' in a look-ahead (hard break) rule;
+            // record the current position, to be returned later, if the full rule matches.
+            int rule = stateTable[row + RBBIDataWrapper.LOOKAHEAD];
+            if (rule != 0) {
+                lookAheadMatches[rule] = p - offset;
+            }
+        }        // End of state machine main loop
+
+        // If the iterator failed to advance in the match engine force it ahead by one.
+        if (result == initialPosition) {
+            result = UTF8.forward(bytes, initialPosition + offset, limit) - offset;
+            ruleStatusIndex = 0;
+        }
+
+        fRuleStatusIndex = ruleStatusIndex;
+        fDictionaryCharCount = dictionaryCharCount;
+        fPosition = result;
+        return result;
+    }
+
+    /**
+     * handleSafePrevious() for UTF-8 text in fTextBytes.
+     */
+    private int handleSafePreviousUTF8(int fromPosition) {
+        byte[] bytes = fTextBytes;
+        int offset = fTextBytesOffset;
+        int start = offset + fText.getBeginIndex();
+        int limit = fTextBytesLimit;
+        CodePointTrie.Fast trie = (CodePointTrie.Fast)fRData.fTrie;
+        char[] stateTable  = fRData.fRTable.fTable;
+
+        // Pin the position to the text, and back it up to the start of a code point.
+        int p = Math.min(Math.max(offset + fromPosition, start), limit);
+        if (p > start && p < limit && UTF8.isTrail(bytes[p])) {
+            int cpStart = UTF8.back(bytes, start, p + 1);
+            if (cpStart < p && UTF8.forward(bytes, cpStart, limit) > p) {
+                p = cpStart;
+            }
+        }
+        // if we're already at the start of the text, return DONE.
+        if (p == start) {
+            return BreakIterator.DONE;
+        }
+
+        //  Set the initial state for the state machine
+        int state = START_STATE;
+        int row = fRData.getRowIndex(state);
+
+        // loop until we reach the start of the text or transition to state 0
+        while (p > start) {
+            int c = bytes[p - 1];
+            if (c >= 0) {
+                --p;
+            } else {
+                int cpAndLength = UTF8.previousCodePoint(bytes, start, p);
+                c = UTF8.getCodePoint(cpAndLength);
+                p -= UTF8.getLength(cpAndLength);
+            }
+            short category = (short) (c <= 0xffff ? trie.bmpGet(c) : trie.suppGet(c));
+
+            // State Transition - move machine to its next state
+            assert(category < fRData.fHeader.fCatCount);
+            state = stateTable[row + RBBIDataWrapper.NEXTSTATES + category];
+            row   = fRData.getRowIndex(state);
+
+            if (state == STOP_STATE) {
+                // Transition to state zero means we have found a safe point.
+                break;
+            }
+        }
+        return p - offset;
+    }
+
+    /**
+     * Return true if the text from start to limit is a single code point.
+     * Used after the safe reverse rules, which identify safe pairs of code points.
+     */
+    private boolean isOneCodePoint(int start, int limit) {
+        if (fTextBytes != null) {
+            return start < limit &&
+                    limit == UTF8.forward(fTextBytes, start + fTextBytesOffset, fTextBytesLimit) - fTextBytesOffset;
+        }
+        return limit == start + 1 ||
+                (limit == start + 2 &&
+                Character.isHighSurrogate(fText.setIndex(start)) &&
+                Character.isLowSurrogate(fText.next()));
+    }
+
     /**
      * Set the index of a CharacterIterator.
      * Pin the index to the valid range range of BeginIndex <= index <= EndIndex.
@@ -1147,7 +1824,7 @@ boolean preceding(int fromPos) {
          */
         void populateDictionary(int startPos, int endPos,
                                 int firstRuleStatus, int otherRuleStatus) {
-            if ((endPos - startPos) <= 1) {
+            if ((endPos - startPos) <= 1 || (fTextBytes != null && isOneCodePoint(startPos, endPos))) {
                 return;
             }
 
@@ -1166,14 +1843,38 @@ void populateDictionary(int startPos, int endPos,
             // For each span, find the appropriate break engine, and ask it to find
             // any breaks within the span.
 
-            fText.setIndex(rangeStart);
-            int     c = CharacterIteration.current32(fText);
+            // The break engines work on UTF-16 text. For UTF-8 text, give them the range
+            // converted to UTF-16, and map the breaks that they find back to byte indexes.
+            CharacterIterator text = fText;
+            int[] utf8Indexes = null;
+            if (fTextBytes != null) {
+                StringBuilder utf16 = new StringBuilder(rangeEnd - rangeStart);
+                utf8Indexes = new int[rangeEnd - rangeStart + 1];
+                int limit = rangeEnd + fTextBytesOffset;
+                for (int i = rangeStart + fTextBytesOffset; i < limit;) {
+                    int cpAndLength = UTF8.nextCodePoint(fTextBytes, i, limit);
+                    int c = UTF8.getCodePoint(cpAndLength);
+                    utf8Indexes[utf16.length()] = i - fTextBytesOffset;
+                    if (c > 0xffff) {
+                        utf8Indexes[utf16.length() + 1] = i - fTextBytesOffset;
+                    }
+                    utf16.appendCodePoint(c);
+                    i += UTF8.getLength(cpAndLength);
+                }
+                utf8Indexes[utf16.length()] = rangeEnd;
+                text = new java.text.StringCharacterIterator(utf16.toString());
+                rangeStart = 0;
+                rangeEnd = utf16.length();
+            }
+
+            text.setIndex(rangeStart);
+            int     c = CharacterIteration.current32(text);
             category = (short)fRData.fTrie.get(c);
             int dictStart = fRData.fFTable.fDictCategoriesStart;
 
             while(true) {
-                while((current = fText.getIndex()) < rangeEnd && (category < dictStart)) {
-                    c = CharacterIteration.next32(fText);    // pre-increment
+                while((current = text.getIndex()) < rangeEnd && (category < dictStart)) {
+                    c = CharacterIteration.next32(text);    // pre-increment
                     category = (short)fRData.fTrie.get(c);
                 }
                 if (current >= rangeEnd) {
@@ -1187,14 +1888,24 @@ void populateDictionary(int startPos, int endPos,
                 // Ask the language object if there are any breaks. It will add them to the cache and
                 // leave the text pointer on the other side of its range, ready to search for the next one.
                 if (lbe != null) {
-                    foundBreakCount += lbe.findBreaks(fText, rangeStart, rangeEnd, fBreaks);
+                    if (fScratch == null) {
+                        fScratch = new DictionaryBreakEngine.ScratchBuffers();
+                    }
+                    foundBreakCount += lbe.findBreaks(text, rangeStart, rangeEnd, fBreaks, fScratch);
                 }
 
                 // Reload the loop variables for the next go-round
-                c = CharacterIteration.current32(fText);
+                c = CharacterIteration.current32(text);
                 category = (short)fRData.fTrie.get(c);
             }
 
+            if (utf8Indexes != null) {
+                // Replace the UTF-16 breaks with the corresponding byte indexes, keeping their order.
+                for (int i = fBreaks.size(); i > 0; --i) {
+                    fBreaks.push(utf8Indexes[fBreaks.pollLast()]);
+                }
+            }
+
             // If we found breaks, ensure that the first and last entries are
             // the original starting and ending position. And initialize the
             // cache iteration position to the first entry.
@@ -1262,6 +1973,8 @@ void populateDictionary(int startPos, int endPos,
         int             fOtherRuleStatusIndex;  // Rule status info for 2nd through last boundaries.
         int             fBoundary;              // Current boundary. Set by preceding(), following().
         int             fStatusIndex;           // Current rule status index. Set by preceding, following().
+        // Working storage for the break engines, created when first needed. Not shared with clones.
+        DictionaryBreakEngine.ScratchBuffers fScratch;
     };
 
 
@@ -1409,10 +2122,7 @@ boolean populateNear(int position) {
                     //
                     fPosition = backupPos;
                     aBoundary = handleNext();
-                    if (aBoundary == backupPos + 1 ||
-                            (aBoundary == backupPos + 2 &&
-                            Character.isHighSurrogate(fText.setIndex(backupPos)) &&
-                            Character.isLowSurrogate(fText.next()))) {
+                    if (isOneCodePoint(backupPos, aBoundary)) {
                         // The initial handleNext() only advanced by a single code point. Go again.
                         // Safe rules identify safe pairs.
                         aBoundary = handleNext();
@@ -1562,10 +2272,7 @@ boolean populatePreceding() {
                 //
                 fPosition = backupPosition;  // TODO: pass starting position in a clearer way.
                 position = handleNext();
-                if (position == backupPosition + 1 ||
-                        (position == backupPosition + 2 &&
-                        Character.isHighSurrogate(fText.setIndex(backupPosition)) &&
-                        Character.isLowSurrogate(fText.next()))) {
+                if (isOneCodePoint(backupPosition, position)) {
                     // The initial handleNext() only advanced by a single code point. Go again.
                     // Safe rules identify safe pairs.
                     position = handleNext();
@@ -43,7 +43,7 @@ public boolean handles(int c) {
 
     @Override
     public int findBreaks(CharacterIterator text, int startPos, int endPos,
-            DictionaryBreakEngine.DequeI foundBreaks) {
+            DictionaryBreakEngine.DequeI foundBreaks, DictionaryBreakEngine.ScratchBuffers scratch) {
 
         UnicodeSet uniset = fHandled;
         int c = CharacterIteration.current32(text);
@@ -27,6 +27,7 @@
 import com.ibm.icu.impl.StringRange;
 import com.ibm.icu.impl.UCaseProps;
 import com.ibm.icu.impl.UPropertyAliases;
+import com.ibm.icu.impl.UTF8;
 import com.ibm.icu.impl.UnicodeSetStringSpan;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.lang.CharSequences;
@@ -4251,6 +4252,117 @@ public int spanBack(CharSequence s, int fromIndex, SpanCondition spanCondition)
         return prev;
     }
 
+    /**
+     * Span UTF-8 text using this UnicodeSet,
+     * without converting the text to UTF-16.
+     * Ill-formed UTF-8 byte sequences are treated like U+FFFD,
+     * each maximal subpart of an ill-formed sequence as one code point.
+     * <p>The set should be frozen for best performance.
+     *
+     * @param s the UTF-8 bytes
+     * @param start the index of the first byte to be spanned
+     * @param length the number of bytes to be spanned
+     * @param spanCondition The span condition
+     * @return the index in s which ends the span (i.e. exclusive), start..start+length
+     * @throws IndexOutOfBoundsException if start or length are out of bounds
+     * @see #span(CharSequence, int, SpanCondition)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int spanUTF8(byte[] s, int start, int length, SpanCondition spanCondition) {
+        checkUTF8Range(s, start, length);
+        int limit = start + length;
+        if (start == limit) {
+            return start;
+        }
+        if (bmpSet != null) {
+            // Frozen set without strings, or no string is relevant for span().
+            return bmpSet.spanUTF8(s, start, limit, spanCondition);
+        }
+        if (stringSpan != null) {
+            return stringSpan.spanUTF8(s, start, limit, spanCondition);
+        } else if (hasStrings()) {
+            int which = spanCondition == SpanCondition.NOT_CONTAINED ? UnicodeSetStringSpan.FWD_UTF8_NOT_CONTAINED
+                    : UnicodeSetStringSpan.FWD_UTF8_CONTAINED;
+            UnicodeSetStringSpan strSpan = new UnicodeSetStringSpan(this, new ArrayList<>(strings), which);
+            if (strSpan.needsStringSpanUTF8()) {
+                return strSpan.spanUTF8(s, start, limit, spanCondition);
+            }
+        }
+
+        // Pin to 0/1 values.
+        boolean spanContained = (spanCondition != SpanCondition.NOT_CONTAINED);
+
+        int next = start;
+        do {
+            int result = UTF8.nextCodePoint(s, next, limit);
+            if (spanContained != contains(UTF8.getCodePoint(result))) {
+                break;
+            }
+            next += UTF8.getLength(result);
+        } while (next < limit);
+        return next;
+    }
+
+    /**
+     * Span UTF-8 text backwards (from the end) using this UnicodeSet,
+     * without converting the text to UTF-16.
+     * Ill-formed UTF-8 byte sequences are treated like U+FFFD,
+     * each maximal subpart of an ill-formed sequence as one code point.
+     * <p>The set should be frozen for best performance.
+     *
+     * @param s the UTF-8 bytes
+     * @param start the index of the first byte to be spanned
+     * @param length the number of bytes to be spanned; spanning starts at start+length
+     * @param spanCondition The span condition
+     * @return the index in s which starts the span (i.e. inclusive), start..start+length
+     * @throws IndexOutOfBoundsException if start or length are out of bounds
+     * @see #spanBack(CharSequence, int, SpanCondition)
+     * @draft ICU 69
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int spanBackUTF8(byte[] s, int start, int length, SpanCondition spanCondition) {
+        checkUTF8Range(s, start, length);
+        int limit = start + length;
+        if (start == limit) {
+            return limit;
+        }
+        if (bmpSet != null) {
+            // Frozen set without strings, or no string is relevant for spanBack().
+            return bmpSet.spanBackUTF8(s, start, limit, spanCondition);
+        }
+        if (stringSpan != null) {
+            return stringSpan.spanBackUTF8(s, start, limit, spanCondition);
+        } else if (hasStrings()) {
+            int which = spanCondition == SpanCondition.NOT_CONTAINED ? UnicodeSetStringSpan.BACK_UTF8_NOT_CONTAINED
+                    : UnicodeSetStringSpan.BACK_UTF8_CONTAINED;
+            UnicodeSetStringSpan strSpan = new UnicodeSetStringSpan(this, new ArrayList<>(strings), which);
+            if (strSpan.needsStringSpanUTF8()) {
+                return strSpan.spanBackUTF8(s, start, limit, spanCondition);
+            }
+        }
+
+        // Pin to 0/1 values.
+        boolean spanContained = (spanCondition != SpanCondition.NOT_CONTAINED);
+
+        int prev = limit;
+        do {
+            int result = UTF8.previousCodePoint(s, start, prev);
+            if (spanContained != contains(UTF8.getCodePoint(result))) {
+                break;
+            }
+            prev -= UTF8.getLength(result);
+        } while (prev > start);
+        return prev;
+    }
+
+    private static void checkUTF8Range(byte[] s, int start, int length) {
+        if (start < 0 || length < 0 || length > s.length - start) {
+            throw new IndexOutOfBoundsException(
+                    "start=" + start + ", length=" + length + ", s.length=" + s.length);
+        }
+    }
+
     /**
      * Clone a thawed version of this class, according to the Freezable interface.
      * @return the clone, not frozen
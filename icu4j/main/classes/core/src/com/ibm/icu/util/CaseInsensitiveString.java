@@ -22,20 +22,6 @@ public class CaseInsensitiveString {
 
     private int hash = 0;
 
-    private String folded = null;
-
-    private static String foldCase(String foldee)
-    {
-        return UCharacter.foldCase(foldee, true);
-    }
-
-    private void getFolded()
-    {
-        if (folded == null) {
-            folded = foldCase(string);
-        }
-    }
-
     /**
      * Constructs an CaseInsentiveString object from the given string
      * @param s The string to construct this object from
@@ -66,10 +52,8 @@ public boolean equals(Object o) {
             return true;
         }
         if (o instanceof CaseInsensitiveString) {
-            getFolded();
             CaseInsensitiveString cis = (CaseInsensitiveString) o;
-            cis.getFolded();
-            return folded.equals(cis.folded);
+            return UCharacter.compareFolded(string, cis.string, UCharacter.FOLD_CASE_DEFAULT) == 0;
         }
         return false;
     }
@@ -81,10 +65,8 @@ public boolean equals(Object o) {
      */
     @Override
     public int hashCode() {
-        getFolded();
-
         if (hash == 0) {
-            hash = folded.hashCode();
+            hash = UCharacter.foldedHashCode(string, UCharacter.FOLD_CASE_DEFAULT);
         }
 
         return hash;
@@ -14,8 +14,10 @@
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -1066,6 +1068,67 @@ public void TestFrozenCollator() {
                 Collator.IDENTICAL, index.getCollator().getStrength());
     }
 
+    @Test
+    public void TestGetBucketIndexes() {
+        String[] names = new String[5000];
+        Random random = new Random(9);
+        String chars = "aAbBcCdeEfgHijkKlmnoOpqrstuvwxyzZ\u00E4\u00C5\u00E9\u0301\u0308 -'19\u03B1\u0391\u0431\u0416\u897F\u0F40";
+        for (int i = 0; i < names.length; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(6);
+            for (int j = 0; j < length; ++j) {
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            names[i] = sb.toString();
+        }
+        String[] rules = {
+            "",
+            "[alternate shifted]",
+            "[caseLevel on][caseFirst upper]",
+            "[reorder Grek Cyrl Latn]&c<ch<<<Ch<<<CH",
+            "[normalization on]&Z<\u00E6<\u00F8<\u00E5",
+        };
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String rule : rules) {
+                RuleBasedCollator coll;
+                try {
+                    coll = new RuleBasedCollator(rule);
+                } catch (Exception e) {
+                    errln("unable to build the collator for " + rule + ": " + e);
+                    continue;
+                }
+                AlphabeticIndex<Integer> index = new AlphabeticIndex<Integer>(coll);
+                index.addLabels(new UnicodeSet("[A-Z\u00C5\u0391-\u03A9\u0410-\u042F]"));
+                index.addLabels(new UnicodeSet("[{Ch}]"));
+                for (int i = 0; i < names.length; ++i) {
+                    index.addRecord(names[i], i);
+                }
+                // Records are distributed into the buckets independently of getBucketIndex().
+                int[] expected = new int[names.length];
+                int bucketIndex = 0;
+                for (Bucket<Integer> bucket : index) {
+                    for (Record<Integer> record : bucket) {
+                        expected[record.getData()] = bucketIndex;
+                    }
+                    ++bucketIndex;
+                }
+                ImmutableIndex<Integer> immIndex = index.buildImmutableIndex();
+                int[] indexes = immIndex.getBucketIndexes(names);
+                int[] parallelIndexes = immIndex.getBucketIndexes(names, pool);
+                for (int i = 0; i < names.length; ++i) {
+                    String msg = rule + " bucket index of " + prettify(names[i]);
+                    assertEquals(msg, expected[i], index.getBucketIndex(names[i]));
+                    assertEquals("immutable " + msg, expected[i], immIndex.getBucketIndex(names[i]));
+                    assertEquals("bulk " + msg, expected[i], indexes[i]);
+                    assertEquals("parallel " + msg, expected[i], parallelIndexes[i]);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void TestChineseUnihan() {
         AlphabeticIndex index = new AlphabeticIndex(new ULocale("zh-u-co-unihan"));
@@ -14,27 +14,43 @@
 
 package com.ibm.icu.dev.test.collator;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.CharacterIterator;
 import java.text.StringCharacterIterator;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.MissingResourceException;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.impl.ICUBinary;
 import com.ibm.icu.impl.Utility;
+import com.ibm.icu.impl.coll.CollationLoader;
 import com.ibm.icu.lang.UCharacter;
+import com.ibm.icu.lang.UScript;
 import com.ibm.icu.text.CollationElementIterator;
 import com.ibm.icu.text.CollationKey;
+import com.ibm.icu.text.CollationSorter;
 import com.ibm.icu.text.Collator;
 import com.ibm.icu.text.Collator.CollatorFactory;
 import com.ibm.icu.text.RawCollationKey;
 import com.ibm.icu.text.RuleBasedCollator;
+import com.ibm.icu.text.Transform;
 import com.ibm.icu.text.UCharacterIterator;
 import com.ibm.icu.text.UnicodeSet;
 import com.ibm.icu.util.ULocale;
@@ -181,6 +197,400 @@ public void TestRawCollationKey()
         }
     }
 
+    @Test
+    public void TestRawCollationKeys() throws Exception {
+        RuleBasedCollator coll = new RuleBasedCollator("&a<\u00e6<<<\u00c6&o<\u0153");
+        List<String> sources = new ArrayList<String>();
+        String[] samples = {
+            "", "a", "\u00c6on", "abc", "ABC", "co\u0308p", "c\u00f6p", "\u0153uf", "\u00e6", "zz\u4e00"
+        };
+        for (int i = 0; i < 2000; ++i) {
+            sources.add(samples[i % samples.length] + (i / samples.length));
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int strength : new int[] { Collator.PRIMARY, Collator.TERTIARY, Collator.IDENTICAL }) {
+                coll.setStrength(strength);
+                checkRawCollationKeys(coll, sources, null);
+                checkRawCollationKeys(coll, sources, pool);
+            }
+            coll.freeze();
+            checkRawCollationKeys(coll, sources, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        try {
+            coll.getRawCollationKeys(sources, new int[sources.size()], null);
+            errln("getRawCollationKeys() with too short offsets array did not fail");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private void checkRawCollationKeys(RuleBasedCollator coll, List<String> sources, ForkJoinPool pool) {
+        int[] offsets = new int[sources.size() + 1];
+        // Start with a too-short key buffer to exercise growing it.
+        RawCollationKey keys = coll.getRawCollationKeys(sources, offsets, new RawCollationKey(3), pool);
+        assertEquals("total sort keys length", offsets[sources.size()], keys.size);
+        for (int i = 0; i < sources.size(); ++i) {
+            RawCollationKey key = coll.getRawCollationKey(sources.get(i), null);
+            byte[] expected = Arrays.copyOf(key.bytes, key.size);
+            byte[] actual = Arrays.copyOfRange(keys.bytes, offsets[i], offsets[i + 1]);
+            if (!Arrays.equals(expected, actual)) {
+                errln("getRawCollationKeys() strength " + coll.getStrength() +
+                        " differs from getRawCollationKey() for [" + i + "] " +
+                        Utility.hex(sources.get(i)));
+                return;
+            }
+        }
+    }
+
+    @Test
+    public void TestRawCollationKeyPrefix() throws Exception {
+        RuleBasedCollator coll = new RuleBasedCollator("&a<\u00e6<<<\u00c6&o<\u0153");
+        String[] sources = {
+            "", "a", "\u00c6on-Flux", "co\u0308p\u00e9ration", "C\u00d6P\u00c9RATION",
+            "\u0153uf \u00e0 la coque", "zz\u4e00\u4e8c\u4e09", "x\uFFFEy", "--- ABC ---"
+        };
+        for (int strength : new int[] { Collator.PRIMARY, Collator.TERTIARY, Collator.IDENTICAL }) {
+            coll.setStrength(strength);
+            coll.setAlternateHandlingShifted(strength == Collator.TERTIARY);
+            for (String source : sources) {
+                RawCollationKey full = coll.getRawCollationKey(source, null);
+                RawCollationKey prefix = null;
+                for (int maxLength = 1; maxLength <= full.size + 2; ++maxLength) {
+                    prefix = coll.getRawCollationKeyPrefix(source, maxLength, prefix);
+                    int expectedLength = Math.min(maxLength, full.size);
+                    if (prefix.size != expectedLength ||
+                            !Arrays.equals(Arrays.copyOf(full.bytes, expectedLength),
+                                    Arrays.copyOf(prefix.bytes, prefix.size))) {
+                        errln("getRawCollationKeyPrefix(" + Utility.hex(source) + ", " + maxLength +
+                                ") strength " + strength + " is not a prefix of the full sort key");
+                        break;
+                    }
+                }
+            }
+        }
+        try {
+            coll.getRawCollationKeyPrefix("abc", 0, null);
+            errln("getRawCollationKeyPrefix(maxLength=0) did not fail");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void TestCompareToKey() throws Exception {
+        RuleBasedCollator coll = new RuleBasedCollator("&a<\u00e6<<<\u00c6&o<\u0153&c<ch<<<cH<<<Ch<<<CH");
+        String[] sources = {
+            "", "a", "A", "ab", "ch", "Ch", "cz", "\u00c6on-Flux", "\u00e6on-flux",
+            "co\u0308p\u00e9ration", "coop\u00e9ration", "C\u00d6P\u00c9RATION",
+            "\u0153uf \u00e0 la coque", "zz\u4e00\u4e8c\u4e09", "x\ufffey", "--- ABC ---", "---abc",
+            "\u1100\uac00", "\ud83d\ude00"
+        };
+        for (int strength : new int[] { Collator.PRIMARY, Collator.TERTIARY, Collator.IDENTICAL }) {
+            coll.setStrength(strength);
+            coll.setAlternateHandlingShifted(strength == Collator.TERTIARY);
+            coll.setCaseLevel(strength == Collator.PRIMARY);
+            for (String target : sources) {
+                RawCollationKey key = coll.getRawCollationKey(target, null);
+                for (String source : sources) {
+                    int expected = coll.getRawCollationKey(source, null).compareTo(key);
+                    int actual = coll.compareToKey(source, key);
+                    if (actual != expected) {
+                        errln("compareToKey(" + Utility.hex(source) + ", key(" + Utility.hex(target) +
+                                ")) strength " + strength + " = " + actual + " but expected " + expected);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void TestCompareUTF8() throws Exception {
+        RuleBasedCollator coll = new RuleBasedCollator("&c<ch<<<cH<<<Ch<<<CH");
+        String[] strings = {
+            "", "a", "ab", "ch", "Ch", "cz", "d", "co\u0308p\u00e9ration", "coop\u00e9ration",
+            "C\u00d6P\u00c9RATION", "\u0153uf", "x\uFFFEy", "--- ABC ---", "\u1100\uAC00",
+            "\u0f71\u0f72", "\ud83d\ude00", "\u4e00\u4e8c"
+        };
+        for (int strength : new int[] { Collator.PRIMARY, Collator.TERTIARY, Collator.IDENTICAL }) {
+            coll.setStrength(strength);
+            for (String left : strings) {
+                byte[] leftBytes = ("<<" + left).getBytes(StandardCharsets.UTF_8);
+                for (String right : strings) {
+                    byte[] rightBytes = right.getBytes(StandardCharsets.UTF_8);
+                    int expected = coll.compare(left, right);
+                    int actual = coll.compare(leftBytes, 2, leftBytes.length - 2,
+                            rightBytes, 0, rightBytes.length);
+                    if (actual != expected) {
+                        errln("compare(UTF-8 " + Utility.hex(left) + ", " + Utility.hex(right) +
+                                ") strength " + strength + " = " + actual + " != " + expected);
+                    }
+                    ByteBuffer direct = ByteBuffer.allocateDirect(rightBytes.length);
+                    direct.put(rightBytes).flip();
+                    actual = coll.compare(ByteBuffer.wrap(leftBytes, 2, leftBytes.length - 2), direct);
+                    if (actual != expected || direct.position() != 0) {
+                        errln("compare(ByteBuffer " + Utility.hex(left) + ", " + Utility.hex(right) +
+                                ") strength " + strength + " = " + actual + " != " + expected);
+                    }
+                }
+            }
+        }
+        // Each maximal subpart of an ill-formed sequence compares like U+FFFD.
+        coll.setStrength(Collator.IDENTICAL);
+        byte[] illFormed = { 0x61, (byte)0xe0, (byte)0xa0, 0x62, (byte)0xed, (byte)0xa0, (byte)0x80, (byte)0xf4 };
+        byte[] replaced = "a\ufffdb\ufffd\ufffd\ufffd\ufffd".getBytes(StandardCharsets.UTF_8);
+        assertEquals("ill-formed UTF-8 compares like U+FFFD", 0,
+                coll.compare(illFormed, 0, illFormed.length, replaced, 0, replaced.length));
+        try {
+            coll.compare(illFormed, 1, illFormed.length, replaced, 0, replaced.length);
+            errln("compare(UTF-8) with an out-of-bounds range did not fail");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    @Test
+    public void TestFastPathScript() throws Exception {
+        RuleBasedCollator coll = new RuleBasedCollator("[reorder Cyrl]&\u0435<\u0451<<<\u0401");
+        assertEquals("default fast-path script from the reordering", UScript.CYRILLIC,
+                coll.getFastPathScript());
+        RuleBasedCollator slow = (RuleBasedCollator)coll.clone();
+        slow.setFastPathScript(UScript.INVALID_CODE);
+        assertEquals("fast path turned off", UScript.INVALID_CODE, slow.getFastPathScript());
+        try {
+            coll.setFastPathScript(UScript.HAN);
+            errln("setFastPathScript(Hani) did not fail");
+        } catch (IllegalArgumentException expected) {
+        }
+        String[] strings = {
+            "", "1", "a", "\u0430", "\u0410", "\u0435", "\u0451", "\u0401\u0436", "\u0436",
+            "\u0436\u0435\u0301", "\u044f\u0431\u043b\u043e\u043a\u043e", "\u0406\u0432\u0430\u043d",
+            "\u0418\u0432\u0430\u043d", "\u0418\u0432\u0430\u043d-2", "\u0418\u0432\u0430\u043d 10",
+            "\u0418\u0432\u0430\u043d\u2014\u041f\u0435\u0442\u0440", "\u0438\u0432\u0430\u043d",
+            "\u0418\u0432\u0430\u043dA", "\u0391\u03b8\u03ae\u03bd\u03b1", "\u03b1", "\u0483\u0430"
+        };
+        int[] strengths = { Collator.PRIMARY, Collator.SECONDARY, Collator.TERTIARY, Collator.QUATERNARY };
+        for (int script : new int[] { UScript.CYRILLIC, UScript.GREEK }) {
+            coll.setFastPathScript(script);
+            for (int i = 0; i < 12; ++i) {
+                for (RuleBasedCollator c : new RuleBasedCollator[] { coll, slow }) {
+                    c.setStrength(strengths[i % strengths.length]);
+                    c.setAlternateHandlingShifted(i % 3 == 1);
+                    c.setCaseLevel(i == 5);
+                    c.setUpperCaseFirst(i == 6);
+                    c.setNumericCollation(i == 7);
+                    c.setReorderCodes(i == 8 ? new int[] { script, Collator.ReorderCodes.DIGIT } : null);
+                }
+                int hits = 0;
+                for (String left : strings) {
+                    for (String right : strings) {
+                        int expected = slow.compare(left, right);
+                        int actual = coll.compare(left, right);
+                        int fast = coll.internalCompareFastPath(left, right);
+                        if (fast != -2) {
+                            ++hits;
+                        }
+                        if (actual != expected || (fast != -2 && fast != expected)) {
+                            errln("fast path " + UScript.getShortName(script) + " setting " + i +
+                                    " compare(" + Utility.hex(left) + ", " + Utility.hex(right) + ") = " +
+                                    actual + " (fast " + fast + ") != " + expected);
+                        }
+                    }
+                }
+                logln("fast path " + UScript.getShortName(script) + " setting " + i + ": " +
+                        hits + " of " + (strings.length * strings.length) + " compares");
+            }
+        }
+        // Reordered digits must not use the fast-path mini primaries.
+        coll.setStrength(Collator.TERTIARY);
+        coll.setReorderCodes(UScript.LATIN, Collator.ReorderCodes.DIGIT);
+        assertEquals("Latn before digits", coll.getCollationKey("a").compareTo(coll.getCollationKey("1")),
+                coll.compare("a", "1"));
+        coll.setReorderCodes(UScript.CYRILLIC, Collator.ReorderCodes.DIGIT);
+        assertEquals("Cyrl before digits", coll.getCollationKey("\u0430").compareTo(coll.getCollationKey("1")),
+                coll.compare("\u0430", "1"));
+        coll.freeze();
+        try {
+            coll.setFastPathScript(UScript.CYRILLIC);
+            errln("setFastPathScript() on a frozen collator did not fail");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void TestCloneBinary() throws Exception {
+        String[] rules = {
+            "",
+            "[strength 2][reorder Grek digit]",
+            "[reorder Grek Latn][caseFirst upper]&c<ch<<<cH<<<Ch<<<CH&x<<\u00E4",
+            "&\u1100<\u1161<<\u11A8&\uAC00<z&a<\uD835\uDC00<\u0300\uD835\uDC01",
+            "[numericOrdering on][alternate shifted]&L\u00B7=\u0140&z<\u00E6/e"
+        };
+        String[] strings = {
+            "", "a", "A", "b", "c", "ch", "cH", "Ch", "CH", "cx", "d", "x", "\u00E4", "z", "\u00E6",
+            "ae", "\u0391", "\u03b1\u03b2", "1", "10", "2", "a 1", "a-2", "L\u00B7", "\u0140",
+            "\u1100\u1161", "\u1161", "\uAC00", "\uAC01", "\uD835\uDC00", "\u0300\uD835\uDC01",
+            "a\u0300", "\u0430", "\u4E00"
+        };
+        for (String r : rules) {
+            RuleBasedCollator coll = new RuleBasedCollator(r);
+            coll.setCaseLevel(r.isEmpty());
+            File file = File.createTempFile("coll", ".bin");
+            try {
+                FileOutputStream out = new FileOutputStream(file);
+                try {
+                    out.write(coll.cloneBinary());
+                } finally {
+                    out.close();
+                }
+                RuleBasedCollator fromBinary = new RuleBasedCollator(ICUBinary.mapDataFile(file));
+                assertEquals("rules " + r + " no rules from binary", "", fromBinary.getRules());
+                assertEquals("rules " + r + " strength", coll.getStrength(), fromBinary.getStrength());
+                assertEquals("rules " + r + " case level", coll.isCaseLevel(), fromBinary.isCaseLevel());
+                assertTrue("rules " + r + " reorder codes",
+                        Arrays.equals(coll.getReorderCodes(), fromBinary.getReorderCodes()));
+                assertEquals("rules " + r + " tailored set", coll.getTailoredSet(), fromBinary.getTailoredSet());
+                for (String left : strings) {
+                    CollationKey key = coll.getCollationKey(left);
+                    if (!Arrays.equals(key.toByteArray(), fromBinary.getCollationKey(left).toByteArray())) {
+                        errln("rules " + r + " sort key differs for " + Utility.hex(left));
+                    }
+                    for (String right : strings) {
+                        int expected = key.compareTo(coll.getCollationKey(right));
+                        if (fromBinary.compare(left, right) != expected) {
+                            errln("rules " + r + " compare(" + Utility.hex(left) + ", " +
+                                    Utility.hex(right) + ") differs from binary");
+                        }
+                    }
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void TestTailoringCache() throws Exception {
+        String rules = "[reorder Grek Latn][caseFirst upper]&c<ch<<<cH<<<Ch<<<CH&x<<\u00E4";
+        String[] strings = {
+            "", "a", "A", "b", "c", "ch", "cH", "Ch", "CH", "cx", "x", "\u00E4", "z",
+            "\u0391", "\u03b1\u03b2", "1", "a\u0300", "\u4E00"
+        };
+        RuleBasedCollator built = new RuleBasedCollator(rules);
+        File folder = File.createTempFile("collcache", "");
+        folder.delete();
+        assertTrue("create cache folder", folder.mkdir());
+        File previous = CollationLoader.setTailoringCacheFolder(folder);
+        try {
+            assertNull("empty cache", CollationLoader.loadCachedTailoring(rules));
+            checkCachedCollator("built and cached", built, rules, strings);
+            File[] files = folder.listFiles();
+            assertEquals("cache files", 1, files.length);
+            assertNotNull("cached tailoring", CollationLoader.loadCachedTailoring(rules));
+            checkCachedCollator("memory-mapped", built, rules, strings);
+
+            // Stale file: unsupported formatVersion[0] in the data header.
+            RandomAccessFile file = new RandomAccessFile(files[0], "rw");
+            try {
+                file.seek(16);
+                file.write(99);
+            } finally {
+                file.close();
+            }
+            assertNull("stale cache file", CollationLoader.loadCachedTailoring(rules));
+            checkCachedCollator("rebuilt after stale file", built, rules, strings);
+            assertNotNull("stale cache file replaced", CollationLoader.loadCachedTailoring(rules));
+
+            // Corrupt file: truncated.
+            file = new RandomAccessFile(files[0], "rw");
+            try {
+                file.setLength(file.length() / 2);
+            } finally {
+                file.close();
+            }
+            assertNull("truncated cache file", CollationLoader.loadCachedTailoring(rules));
+            checkCachedCollator("rebuilt after truncated file", built, rules, strings);
+            assertNotNull("truncated cache file replaced", CollationLoader.loadCachedTailoring(rules));
+            assertEquals("cache files at the end", 1, folder.listFiles().length);
+        } finally {
+            CollationLoader.setTailoringCacheFolder(previous);
+            for (File f : folder.listFiles()) {
+                f.delete();
+            }
+            folder.delete();
+        }
+    }
+
+    private void checkCachedCollator(String message, RuleBasedCollator built, String rules, String[] strings)
+            throws Exception {
+        RuleBasedCollator coll = new RuleBasedCollator(rules);
+        assertEquals(message + " rules", rules, coll.getRules());
+        assertEquals(message + " equals the built collator", built, coll);
+        for (String left : strings) {
+            if (!Arrays.equals(built.getCollationKey(left).toByteArray(),
+                    coll.getCollationKey(left).toByteArray())) {
+                errln(message + " sort key differs for " + Utility.hex(left));
+            }
+            for (String right : strings) {
+                if (coll.compare(left, right) != built.compare(left, right)) {
+                    errln(message + " compare(" + Utility.hex(left) + ", " + Utility.hex(right) + ") differs");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void TestCollationSorter() throws Exception {
+        final RuleBasedCollator coll = new RuleBasedCollator("&c<ch<<<cH<<<Ch<<<CH");
+        coll.setStrength(Collator.SECONDARY);
+        Random random = new Random(20201016);
+        String alphabet = "aAbcChHxz\u00E4\u00E9 -1\u0430\u0451\u03B1\u4E00\uD835\uDC00";
+        // Small lists of Latin texts are sorted by comparison, larger or non-Latin ones via sort keys.
+        for (int length : new int[] { 0, 1, 2, 10, 60, 100, 3000 }) {
+            for (int maxChar : new int[] { 11, alphabet.length() }) {
+                List<String> texts = new ArrayList<String>(length);
+                for (int i = 0; i < length; ++i) {
+                    StringBuilder sb = new StringBuilder();
+                    int textLength = random.nextInt(i % 2 == 0 ? 5 : 40);
+                    for (int j = 0; j < textLength; ++j) {
+                        sb.append(alphabet.charAt(random.nextInt(maxChar)));
+                    }
+                    texts.add(sb.toString());
+                }
+                // Pairs of (text, original index) check that the sort is stable.
+                List<String[]> items = new ArrayList<String[]>(length);
+                for (int i = 0; i < length; ++i) {
+                    items.add(new String[] { texts.get(i), Integer.toString(i) });
+                }
+                List<String> expected = new ArrayList<String>(texts);
+                Collections.sort(expected, coll);
+                List<String> actual = new ArrayList<String>(texts);
+                CollationSorter.sort(actual, coll);
+                assertEquals("sorted texts length " + length + " maxChar " + maxChar, expected, actual);
+                List<String[]> sortedItems = new ArrayList<String[]>(items);
+                CollationSorter.sort(sortedItems, new Transform<String[], String>() {
+                    @Override
+                    public String transform(String[] item) {
+                        return item[0];
+                    }
+                }, coll);
+                List<String[]> expectedItems = new ArrayList<String[]>(items);
+                Collections.sort(expectedItems, new Comparator<String[]>() {
+                    @Override
+                    public int compare(String[] left, String[] right) {
+                        return coll.compare(left[0], right[0]);
+                    }
+                });
+                for (int i = 0; i < length; ++i) {
+                    if (sortedItems.get(i) != expectedItems.get(i)) {
+                        errln("sorted items length " + length + " maxChar " + maxChar + " differ at " + i);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
     void doAssert(boolean conditions, String message) {
         if (!conditions) {
             errln(message);
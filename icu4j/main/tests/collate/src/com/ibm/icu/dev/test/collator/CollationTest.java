@@ -13,6 +13,7 @@
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.HashSet;
 import java.util.Set;
@@ -1488,6 +1489,19 @@ private static int getDifferenceLevel(CollationKey prevKey, CollationKey key,
         return level;
     }
 
+    private static boolean isWellFormedUTF16(String s) {
+        for (int i = 0; i < s.length(); ++i) {
+            char c = s.charAt(i);
+            if (Character.isHighSurrogate(c) && (i + 1) < s.length() &&
+                    Character.isLowSurrogate(s.charAt(i + 1))) {
+                ++i;
+            } else if (Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private boolean checkCompareTwo(String norm, String prevFileLine, String prevString, String s,
                                     int expectedOrder, int expectedLevel) {
         // Get the sort keys first, for error debug output.
@@ -1530,6 +1544,34 @@ private boolean checkCompareTwo(String norm, String prevFileLine, String prevStr
             return false;
         }
 
+        // Compare the UTF-8 versions too, unless a string contains unpaired surrogates
+        // which do not round-trip through UTF-8.
+        if (isWellFormedUTF16(prevString) && isWellFormedUTF16(s)) {
+            byte[] prevUTF8 = prevString.getBytes(StandardCharsets.UTF_8);
+            byte[] sUTF8 = s.getBytes(StandardCharsets.UTF_8);
+            RuleBasedCollator rbc = (RuleBasedCollator)coll;
+            order = rbc.compare(prevUTF8, 0, prevUTF8.length, sUTF8, 0, sUTF8.length);
+            if (order != expectedOrder) {
+                logln(fileTestName);
+                logln(prevFileLine);
+                logln(fileLine);
+                errln("line " + fileLineNumber
+                        + " Collator(" + norm + ").compare(UTF-8 previous, current) wrong order: "
+                        + order + " != " + expectedOrder);
+                return false;
+            }
+            order = rbc.compare(sUTF8, 0, sUTF8.length, prevUTF8, 0, prevUTF8.length);
+            if (order != -expectedOrder) {
+                logln(fileTestName);
+                logln(prevFileLine);
+                logln(fileLine);
+                errln("line " + fileLineNumber
+                        + " Collator(" + norm + ").compare(UTF-8 current, previous) wrong order: "
+                        + order + " != " + -expectedOrder);
+                return false;
+            }
+        }
+
         order = prevKey.compareTo(key);
         if (order != expectedOrder) {
             logln(fileTestName);
@@ -25,6 +25,9 @@
 
 import java.text.CharacterIterator;
 import java.text.StringCharacterIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 
 import org.junit.Before;
@@ -34,6 +37,8 @@
 
 import com.ibm.icu.dev.test.TestFmwk;
 import com.ibm.icu.text.BreakIterator;
+import com.ibm.icu.text.CollatedPattern;
+import com.ibm.icu.text.CollatedPatternSet;
 import com.ibm.icu.text.Collator;
 import com.ibm.icu.text.RuleBasedCollator;
 import com.ibm.icu.text.SearchIterator;
@@ -2249,4 +2254,133 @@ public void TestLongPattern() {
             errln("Error initializing a new StringSearch object");
         }
     }
+
+    @Test
+    public void TestCollatedPattern() {
+        RuleBasedCollator coll = (RuleBasedCollator)Collator.getInstance(Locale.ENGLISH);
+        coll.setStrength(PRIMARY);
+        String text = "A r\u00E9sum\u00E9, a RESUME and a resumed resume.";
+        CollatedPattern pattern = new CollatedPattern("resume", coll);
+        assertTrue("pattern collator is frozen", pattern.getCollator().isFrozen());
+        assertFalse("original collator is not frozen", coll.isFrozen());
+
+        StringSearch expected = new StringSearch("resume", new StringCharacterIterator(text), coll);
+        StringSearch actual = new StringSearch(pattern, new StringCharacterIterator(text), null);
+        StringSearch other = new StringSearch("xyz", new StringCharacterIterator(text), coll);
+        other.setPattern(pattern);
+        assertEquals("pattern text", "resume", other.getPattern());
+        int count = 0;
+        for (;;) {
+            int index = expected.next();
+            assertEquals("CollatedPattern match at " + count, index, actual.next());
+            assertEquals("setPattern(CollatedPattern) match at " + count, index, other.next());
+            if (index == SearchIterator.DONE) {
+                break;
+            }
+            assertEquals("match length", expected.getMatchLength(), actual.getMatchLength());
+            assertEquals("match length", expected.getMatchLength(), other.getMatchLength());
+            ++count;
+        }
+        assertEquals("number of matches", 4, count);
+
+        // Search repeatedly with the same objects.
+        actual.reset();
+        assertEquals("first match after reset", 2, actual.first());
+        assertEquals("match length after reset", 6, actual.getMatchLength());
+        assertEquals("last match", 33, actual.last());
+
+        // A pattern with only ignorable collation elements does not match.
+        CollatedPattern ignorable = new CollatedPattern("\u0301", coll);
+        assertEquals("ignorable pattern", SearchIterator.DONE,
+                new StringSearch("\u0301", new StringCharacterIterator(text), coll).next());
+        assertEquals("ignorable CollatedPattern", SearchIterator.DONE,
+                new StringSearch(ignorable, new StringCharacterIterator(text), null).next());
+        other.setPattern(ignorable);
+        assertEquals("setPattern(ignorable CollatedPattern)", SearchIterator.DONE, other.first());
+
+        try {
+            new CollatedPattern("", coll);
+            errln("CollatedPattern with an empty pattern should fail");
+        } catch (IllegalArgumentException expectedException) {
+        }
+    }
+
+    @Test
+    public void TestCollatedPatternSet() {
+        RuleBasedCollator coll = (RuleBasedCollator)Collator.getInstance(Locale.ENGLISH);
+        coll.setStrength(SECONDARY);
+        coll.freeze();
+        String[] keywords = {
+            "cafe", "caf\u00E9", "Cafe\u0301", "fe", "the", "he", "e", "\u00E9"
+        };
+        List<CollatedPattern> patterns = new ArrayList<CollatedPattern>();
+        for (String keyword : keywords) {
+            patterns.add(new CollatedPattern(keyword, coll));
+        }
+        CollatedPatternSet set = new CollatedPatternSet(patterns);
+        assertEquals("set size", keywords.length, set.size());
+        assertEquals("pattern 2", "Cafe\u0301", set.getPattern(2).getPattern());
+
+        String[] texts = {
+            "The cafe\u0301 and the caf\u00E9 near the other cafe.",
+            "\u00E9",
+            "e\u0301e",
+            "xyz",
+            "abc\u00E9\u0323"
+        };
+        final List<String> matches = new ArrayList<String>();
+        CollatedPatternSet.MatchHandler collector = new CollatedPatternSet.MatchHandler() {
+            @Override
+            public boolean handleMatch(int patternIndex, int start, int limit) {
+                matches.add(patternIndex + ":" + start + "-" + limit);
+                return true;
+            }
+        };
+        CollatedPatternSet.Matcher matcher = set.matcher();
+        for (String text : texts) {
+            // The set must find each match that StringSearch finds for the individual patterns.
+            List<String> expected = new ArrayList<String>();
+            for (int p = 0; p < keywords.length; ++p) {
+                StringSearch ss = new StringSearch(patterns.get(p), new StringCharacterIterator(text), null);
+                ss.setOverlapping(true);
+                for (int index = ss.first(); index != SearchIterator.DONE; index = ss.next()) {
+                    expected.add(p + ":" + index + "-" + (index + ss.getMatchLength()));
+                }
+            }
+            matches.clear();
+            assertTrue("findAll() completed", matcher.findAll(text, collector));
+            String[] expectedArray = expected.toArray(new String[expected.size()]);
+            String[] actualArray = matches.toArray(new String[matches.size()]);
+            Arrays.sort(expectedArray);
+            Arrays.sort(actualArray);
+            assertEquals("matches in \"" + text + "\"",
+                    Arrays.toString(expectedArray), Arrays.toString(actualArray));
+        }
+
+        // Matches are reported in order of their ends, longer patterns first.
+        matches.clear();
+        set.findAll("the cafe", collector);
+        assertEquals("ordered matches",
+                "[4:0-3, 5:1-3, 6:2-3, 0:4-8, 3:6-8, 6:7-8]", matches.toString());
+
+        // The handler can stop the search.
+        matches.clear();
+        assertFalse("stopped", set.findAll("the cafe", new CollatedPatternSet.MatchHandler() {
+            @Override
+            public boolean handleMatch(int patternIndex, int start, int limit) {
+                matches.add(patternIndex + ":" + start + "-" + limit);
+                return matches.size() < 2;
+            }
+        }));
+        assertEquals("matches until stopped", "[4:0-3, 5:1-3]", matches.toString());
+
+        RuleBasedCollator primary = coll.cloneAsThawed();
+        primary.setStrength(PRIMARY);
+        patterns.add(new CollatedPattern("cafe", primary));
+        try {
+            new CollatedPatternSet(patterns);
+            errln("CollatedPatternSet with patterns for different collators should fail");
+        } catch (IllegalArgumentException expectedException) {
+        }
+    }
 }
@@ -1548,6 +1548,82 @@ public void TestFoldBug20316() {
         assertTrue("儊ẖ...->儊h\u0331...", result.startsWith("儊h\u0331"));
     }
 
+    @Test
+    public void TestCaseMapLatinFastPath() {
+        // Unchanged text is returned as is, also when it is longer than 100 characters.
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() <= 100) {
+            sb.append("lowercase text, 123 ");
+        }
+        String s = sb.toString();
+        assertTrue("toLower(unchanged) returns the same string",
+                s == CaseMap.toLower().apply(Locale.ROOT, s));
+        assertTrue("fold(unchanged) returns the same string", s == CaseMap.fold().apply(s));
+        s = UCharacter.toUpperCase(s);
+        assertTrue("toUpper(unchanged) returns the same string",
+                s == CaseMap.toUpper().apply(Locale.ROOT, s));
+
+        // The String results must match the Appendable results which never take the fast path.
+        sb.setLength(0);
+        for (char c = 0x20; c < 0x180; ++c) {
+            sb.append(c);
+        }
+        String latin = sb.toString();
+        String[] texts = {
+            "Hello World", "Stra\u00DFe", "\u00C0 la CARTE", "ISTANBUL istanbul", latin, latin + "\u03A3"
+        };
+        Locale[] locales = {
+            Locale.ROOT, ENGLISH_LOCALE_, TURKISH_LOCALE_, LITHUANIAN_LOCALE_, GREEK_LOCALE_, DUTCH_LOCALE_
+        };
+        for (String text : texts) {
+            for (Locale locale : locales) {
+                assertEquals("toLower(" + text + ", " + locale + ")",
+                        CaseMap.toLower().apply(locale, text, new StringBuilder(), null).toString(),
+                        CaseMap.toLower().apply(locale, text));
+                assertEquals("toUpper(" + text + ", " + locale + ")",
+                        CaseMap.toUpper().apply(locale, text, new StringBuilder(), null).toString(),
+                        CaseMap.toUpper().apply(locale, text));
+            }
+            assertEquals("fold(" + text + ")",
+                    CaseMap.fold().apply(text, new StringBuilder(), null).toString(),
+                    CaseMap.fold().apply(text));
+            assertEquals("fold(" + text + ", turkic)",
+                    CaseMap.fold().turkic().apply(text, new StringBuilder(), null).toString(),
+                    CaseMap.fold().turkic().apply(text));
+        }
+    }
+
+    @Test
+    public void TestCompareFolded() {
+        String[] strings = {
+            "", "a", "A", "ab", "AB", "abc", "ss", "SS", "Stra\u00DFe", "STRASSE", "strasse",
+            "\u00DF", "\u1E9E", "I", "i", "\u0130", "\u0131", "\uFB03", "ffi", "FFI",
+            "\uD801\uDC00", "\uD801\uDC28", "x\uD801\uDC00", "x\uD801\uDC28", "x\uD801", "x\uDC00",
+            "\u03A3\u0391\u03A3", "\u03C3\u03B1\u03C2", "\u1F88", "\u1F80", "\u1F00\u03B9",
+            "\u0149", "\u02BCn", "\uFFFF", "\uFF21", "\uFF41"
+        };
+        int[] optionsList = { UCharacter.FOLD_CASE_DEFAULT, UCharacter.FOLD_CASE_EXCLUDE_SPECIAL_I };
+        for (int options : optionsList) {
+            for (String s1 : strings) {
+                String folded1 = UCharacter.foldCase(s1, options);
+                assertEquals("foldedHashCode(" + prettify(s1) + ", " + options + ")",
+                        folded1.hashCode(), UCharacter.foldedHashCode(s1, options));
+                for (String s2 : strings) {
+                    String folded2 = UCharacter.foldCase(s2, options);
+                    int expected = Integer.signum(folded1.compareTo(folded2));
+                    int actual = Integer.signum(UCharacter.compareFolded(s1, s2, options));
+                    if (expected != actual) {
+                        errln("FAIL: compareFolded(" + prettify(s1) + ", " + prettify(s2) + ", " +
+                                options + ")=" + actual + " should be " + expected);
+                    }
+                }
+            }
+        }
+        // The arguments can be any CharSequence.
+        assertEquals("compareFolded(StringBuilder)",
+                0, UCharacter.compareFolded(new StringBuilder("Stra\u00DFe"), "STRASSE", 0));
+    }
+
     // private data members - test data --------------------------------------
 
     private static final Locale TURKISH_LOCALE_ = new Locale("tr", "TR");
@@ -3734,4 +3734,67 @@ public void TestIntCharacterProperties() {
                     UCharacter.getIntPropertyValue(end, prop), range.getValue());
         }
     }
+
+    @Test
+    public void TestIntPropertyValuesBulk() {
+        // ASCII, Cyrillic, Han, a supplementary character, unpaired surrogates,
+        // combining marks and digits.
+        String s = "ab \u0416\u0436 \u4e00\u4e8c\ud840\udc00 \ud800x\udc00e\u0301\u0663!";
+        char[] chars = ("##" + s + "##").toCharArray();
+        int[] props = {
+            UProperty.GENERAL_CATEGORY, UProperty.SCRIPT, UProperty.BIDI_CLASS,
+            UProperty.LINE_BREAK, UProperty.CANONICAL_COMBINING_CLASS
+        };
+        for (int prop : props) {
+            int[] values = new int[s.length()];
+            CharacterProperties.getIntPropertyValues(prop, s, values);
+            for (int i = 0; i < s.length(); ++i) {
+                int c = s.codePointAt(i);
+                if (i > 0 && Character.isLowSurrogate(s.charAt(i)) &&
+                        Character.isHighSurrogate(s.charAt(i - 1))) {
+                    c = s.codePointBefore(i + 1);
+                }
+                assertEquals("getIntPropertyValues(" + prop + ")[" + i + "]",
+                        UCharacter.getIntPropertyValue(c, prop), values[i]);
+            }
+            int[] charsValues = new int[chars.length];
+            CharacterProperties.getIntPropertyValues(prop, chars, 2, 2 + s.length(), charsValues);
+            for (int i = 0; i < s.length(); ++i) {
+                assertEquals("getIntPropertyValues(" + prop + ", char[])[" + i + "]",
+                        values[i], charsValues[2 + i]);
+            }
+
+            int[] limits = new int[s.length()];
+            int[] runValues = new int[s.length()];
+            int numRuns = CharacterProperties.getIntPropertyRuns(prop, s, limits, runValues);
+            assertEquals("last run limit", s.length(), limits[numRuns - 1]);
+            int start = 0;
+            for (int r = 0; r < numRuns; ++r) {
+                assertTrue("run is not empty", start < limits[r]);
+                if (r > 0) {
+                    assertNotEquals("adjacent runs differ", runValues[r - 1], runValues[r]);
+                }
+                for (int i = start; i < limits[r]; ++i) {
+                    assertEquals("run value at " + i, values[i], runValues[r]);
+                }
+                start = limits[r];
+            }
+            int[] charsLimits = new int[s.length()];
+            int[] charsRunValues = new int[s.length()];
+            assertEquals("getIntPropertyRuns(char[]) number of runs", numRuns,
+                    CharacterProperties.getIntPropertyRuns(prop, chars, 2, 2 + s.length(),
+                            charsLimits, charsRunValues));
+            for (int r = 0; r < numRuns; ++r) {
+                assertEquals("char[] run limit", limits[r] + 2, charsLimits[r]);
+                assertEquals("char[] run value", runValues[r], charsRunValues[r]);
+            }
+        }
+        assertEquals("empty string runs", 0,
+                CharacterProperties.getIntPropertyRuns(UProperty.SCRIPT, "", new int[0], new int[0]));
+        try {
+            CharacterProperties.getIntPropertyValues(UProperty.ALPHABETIC, s, new int[s.length()]);
+            fail("getIntPropertyValues(binary property) did not throw an exception");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
 }
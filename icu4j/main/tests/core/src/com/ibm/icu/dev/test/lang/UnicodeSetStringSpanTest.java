@@ -8,6 +8,7 @@
  */
 package com.ibm.icu.dev.test.lang;
 
+import java.io.UnsupportedEncodingException;
 import java.util.Collection;
 
 import org.junit.Test;
@@ -1135,4 +1136,92 @@ public void TestSpanAndCount() {
                 ab_cd.spanAndCount(s, 8, SpanCondition.SIMPLE, count));
         assertEquals("1x abc count=1 (frozen)", 1, count.value);
     }
+
+    private static byte[] toUTF8(String s) {
+        try {
+            return s.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void TestSpanUTF8() {
+        String[] patterns = {
+            "[a-zA-Z]",
+            "[:L:]",
+            "[^\\u0000-\\u007f]",
+            "[\\u0000-\\u00ff\\u4e00-\\u9fff]",
+            "[:White_Space:]",
+            "[\\U0001F600-\\U0001F64F\\u0301]",
+            "[a-c{bc}{cd}{\\u00e9\\u0301}]",
+            "[\\uFFFD x]",
+            "[a-d{abcd}{bcde}{cdef}{ef}{defab}]",
+            "[\\u00e9x{\\u00e9\\u00e9x}{x\\u4e00}{\\U0001F600\\u00e9}{\\u0416\\u0436\\u0444\\u0416}]",
+            "[xy{\\ud800x}{xyz}]"
+        };
+        String[] strings = {
+            "",
+            "abc",
+            "Hello, world!  The quick brown fox jumps over the lazy dog. 0123456789",
+            "caf\u00e9 e\u0301 na\u00efve \u0416\u0436\u0444 \u4e00\u4e8c\u4e09 \ud83d\ude00\ud83d\ude4f!",
+            "abcd bcd \u00e9\u0301\u00e9 xx\ufffd \u3000\u2028 tab\tnewline\n",
+            "abcdefab cdefabcd xyzxyx \u00e9\u00e9x\u4e00x \ud83d\ude00\u00e9\u00e9 \u0416\u0436\u0444\u0416\u0436"
+        };
+        for (String pattern : patterns) {
+            UnicodeSet thawed = new UnicodeSet(pattern);
+            UnicodeSet frozen = thawed.cloneAsThawed().freeze();
+            for (String string : strings) {
+                // Pad the UTF-8 text so that start!=0 is exercised.
+                byte[] utf8 = toUTF8("##" + string + "##");
+                int utf8Start = 2;
+                int utf8Length = utf8.length - 4;
+                for (UnicodeSet set : new UnicodeSet[] { thawed, frozen }) {
+                    for (SpanCondition condition : SpanCondition.values()) {
+                        if (condition == SpanCondition.CONDITION_COUNT) {
+                            continue;
+                        }
+                        String message = set + (set.isFrozen() ? " frozen " : " ") + condition +
+                                " \"" + Utility.escape(string) + "\"";
+                        for (int i = 0; i <= string.length(); i = string.offsetByCodePoints(i, 1)) {
+                            int expected = utf8Start + toUTF8(string.substring(0, set.span(string, i, condition))).length;
+                            int utf8Index = utf8Start + toUTF8(string.substring(0, i)).length;
+                            assertEquals(message + " spanUTF8 from " + i, expected,
+                                    set.spanUTF8(utf8, utf8Index, utf8Start + utf8Length - utf8Index, condition));
+                            expected = utf8Start + toUTF8(string.substring(0, set.spanBack(string, i, condition))).length;
+                            assertEquals(message + " spanBackUTF8 from " + i, expected,
+                                    set.spanBackUTF8(utf8, utf8Start, utf8Index - utf8Start, condition));
+                            if (i == string.length()) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Ill-formed sequences behave like U+FFFD, one per maximal subpart.
+        byte[] illFormed = {
+            'a', (byte)0x80, (byte)0xe4, (byte)0xb8, 'b', (byte)0xf0, (byte)0x9f, (byte)0x98, (byte)0xc0, 'c'
+        };
+        UnicodeSet fffd = new UnicodeSet("[\\uFFFD]");
+        UnicodeSet letters = new UnicodeSet("[a-z]").freeze();
+        for (UnicodeSet set : new UnicodeSet[] { fffd, fffd.cloneAsThawed().freeze() }) {
+            assertEquals("ill-formed spanUTF8 U+FFFD", 4,
+                    set.spanUTF8(illFormed, 1, illFormed.length - 1, SpanCondition.SIMPLE));
+            assertEquals("ill-formed spanUTF8 U+FFFD 2", 9,
+                    set.spanUTF8(illFormed, 5, illFormed.length - 5, SpanCondition.SIMPLE));
+            assertEquals("ill-formed spanBackUTF8 U+FFFD", 5,
+                    set.spanBackUTF8(illFormed, 0, 9, SpanCondition.SIMPLE));
+        }
+        assertEquals("ill-formed spanUTF8 letters NOT_CONTAINED", 4,
+                letters.spanUTF8(illFormed, 1, illFormed.length - 1, SpanCondition.NOT_CONTAINED));
+        assertEquals("ill-formed spanBackUTF8 letters NOT_CONTAINED", 5,
+                letters.spanBackUTF8(illFormed, 0, 9, SpanCondition.NOT_CONTAINED));
+        try {
+            letters.spanUTF8(illFormed, 5, illFormed.length, SpanCondition.SIMPLE);
+            fail("spanUTF8(length out of bounds) did not throw an exception");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
 }
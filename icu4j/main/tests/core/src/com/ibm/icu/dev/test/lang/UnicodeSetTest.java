@@ -8,6 +8,8 @@
  */
 package com.ibm.icu.dev.test.lang;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.text.NumberFormat;
 import java.text.ParsePosition;
 import java.util.ArrayList;
@@ -31,6 +33,7 @@
 import com.ibm.icu.dev.test.TestFmwk;
 import com.ibm.icu.dev.util.CollectionUtilities;
 import com.ibm.icu.impl.SortedSetRelation;
+import com.ibm.icu.impl.USerializedSet;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UCharacterEnums.ECharacterCategory;
@@ -2792,4 +2795,77 @@ public void TestDeepPattern() {
         } catch(RuntimeException expected) {
         }
     }
+
+    @Test
+    public void TestSerializedSetWithStrings() {
+        UnicodeSet[] sets = {
+            new UnicodeSet("[a-z\\U0001F600-\\U0001F64F{ab}{abc}{xyz}{\\U0001F600\\U0001F601}]"),
+            new UnicodeSet("[:L:]").add("d e").add(", ").add(". ").add("s l"),
+            new UnicodeSet("[bc{ab}{cd}{de}]"),
+            new UnicodeSet("[\\uFFFF\\U0010FFFF]"),
+            // Set strings that begin or end with a lone surrogate must only match
+            // on code point boundaries.
+            new UnicodeSet("[x\\U0001F600{\\uDC00\\ }]"),
+            new UnicodeSet("[\\u00E9\\uDC00{\\uDC00b}]"),
+            new UnicodeSet("[a{a\\uD800}{\\uDC00a}{\\uD83D\\uDE00a}]"),
+            new UnicodeSet(),
+        };
+        String[] texts = {
+            "abcxyzabq\uD83D\uDE00\uD83D\uDE01 zz",
+            "Le d e chat, s lit. Fin",
+            "abcde bcd abde",
+            "\uFFFF\uDBFF\uDFFFx\uD800",
+            // Span start offsets inside surrogate pairs.
+            "\uD800\uDC00 c\uDC00 x\uD83D\uDE00",
+            "\uD800\uD800\uDC00bb\uDC00b\u00E9",
+            "a\uD800\uDC00a\uD83D\uDE00a\uD800a\uDC00",
+        };
+        // Several sets in one buffer, as in a memory-mapped file.
+        int capacity = 0;
+        for (UnicodeSet set : sets) {
+            capacity += USerializedSet.getSerializedLength(set);
+        }
+        ByteBuffer bytes = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        for (UnicodeSet set : sets) {
+            USerializedSet.serialize(set, bytes);
+        }
+        assertEquals("serialized length", capacity, bytes.position());
+        bytes.flip();
+        USerializedSet sset = new USerializedSet();
+        int[] range = new int[2];
+        for (UnicodeSet set : sets) {
+            sset.getSet(bytes);
+            UnicodeSet copy = new UnicodeSet();
+            for (int i = 0; i < sset.countRanges(); ++i) {
+                sset.getRange(i, range);
+                copy.add(range[0], range[1]);
+            }
+            for (int i = 0; i < sset.countStrings(); ++i) {
+                copy.add(sset.getString(i));
+            }
+            assertEquals("round trip", set, copy);
+            for (String s : set.strings()) {
+                assertTrue("contains(" + s + ")", sset.contains(s));
+            }
+            assertFalse("contains(\"abcd\")", sset.contains("abcd"));
+            for (int c = 0; c <= 0x10ffff; c += (c < 0x20000 ? 1 : 0x101)) {
+                if (sset.contains(c) != set.contains(c)) {
+                    errln("contains(U+" + Utility.hex(c) + ") != " + set.contains(c) + " for " + set);
+                    break;
+                }
+            }
+            for (String text : texts) {
+                for (SpanCondition condition : SpanCondition.values()) {
+                    if (condition == SpanCondition.CONDITION_COUNT) {
+                        continue;
+                    }
+                    for (int start = 0; start <= text.length(); ++start) {
+                        assertEquals("span(" + text + ", " + start + ", " + condition + ") with " + set,
+                                set.span(text, start, condition), sset.span(text, start, condition));
+                    }
+                }
+            }
+        }
+        assertEquals("all sets read", capacity, bytes.position());
+    }
 }
@@ -9,8 +9,17 @@
 
 package com.ibm.icu.dev.test.normalizer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.StringCharacterIterator;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,9 +33,13 @@
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.lang.UCharacterCategory;
 import com.ibm.icu.lang.UProperty;
+import com.ibm.icu.text.Edits;
 import com.ibm.icu.text.FilteredNormalizer2;
+import com.ibm.icu.text.IncrementalNormalizer;
 import com.ibm.icu.text.Normalizer;
 import com.ibm.icu.text.Normalizer2;
+import com.ibm.icu.text.NormalizingReader;
+import com.ibm.icu.text.NormalizingWriter;
 import com.ibm.icu.text.UCharacterIterator;
 import com.ibm.icu.text.UTF16;
 import com.ibm.icu.text.UnicodeSet;
@@ -2867,6 +2880,227 @@ public void TestNormalizeIllFormedText() {
         assertEquals("normalize", expected, result);
     }
 
+    @Test
+    public void TestNormalizeUTF8() {
+        Normalizer2[] normalizers = {
+            Normalizer2.getNFCInstance(),
+            Normalizer2.getNFDInstance(),
+            Normalizer2.getNFKCInstance(),
+            Normalizer2.getNFKDInstance(),
+            Normalizer2.getNFKCCasefoldInstance(),
+            Normalizer2.getInstance(null, "nfc", Normalizer2.Mode.FCD),
+            Normalizer2.getInstance(null, "nfc", Normalizer2.Mode.COMPOSE_CONTIGUOUS),
+            new FilteredNormalizer2(Normalizer2.getNFCInstance(), new UnicodeSet("[^\u0300]"))
+        };
+        String[] chars = {
+            "a", "A", "e", "E", " ", "\u00E4", "\u00C5", "\u0229", "\u05B6", "\u05BC", "\u0F71",
+            "\u0F72", "\u0323", "\u0301", "\u0300", "\u0341", "\u0308", "\u0345", "\u1100",
+            "\u1161", "\u11A8", "\uAC00", "\uAC01", "\u2126", "\u212B", "\uFB2C", "\uFB01",
+            "\u00AD", "\u4E00", "\uFFFD", "\uD835\uDC00"
+        };
+        Random random = new Random(14);
+        for (int t = 0; t < 2000; ++t) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; ++j) {
+                sb.append(chars[random.nextInt(chars.length)]);
+            }
+            String s = sb.toString();
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            for (int n = 0; n < normalizers.length; ++n) {
+                Normalizer2 n2 = normalizers[n];
+                String expected = n2.normalize(s);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                Edits edits = new Edits();
+                n2.normalizeUTF8(utf8, 0, utf8.length, out, edits);
+                String actual = new String(out.toByteArray(), StandardCharsets.UTF_8);
+                String msg = "normalizer " + n + " normalizeUTF8(" + Utility.hex(s) + ")";
+                if (!assertEquals(msg, expected, actual)) {
+                    return;
+                }
+                assertEquals(msg + " edits.lengthDelta()", out.size() - utf8.length, edits.lengthDelta());
+                assertEquals(msg + " edits.hasChanges()", !expected.equals(s), edits.hasChanges());
+                assertEquals("normalizer " + n + " isNormalizedUTF8(" + Utility.hex(s) + ")",
+                        n2.isNormalized(s), n2.isNormalizedUTF8(ByteBuffer.wrap(utf8)));
+            }
+        }
+    }
+
+    @Test
+    public void TestNormalizeUTF8IllFormed() {
+        Normalizer2 nfkc_cf = Normalizer2.getNFKCCasefoldInstance();
+        // Ill-formed sequences are treated like U+FFFD and copied unchanged,
+        // even next to text that changes.
+        byte[] src = {
+            ' ', 'A', (byte)0xe0, (byte)0x80, 'A', (byte)0xcc, (byte)0x88, (byte)0xf0, (byte)0x90, (byte)0x80,
+            (byte)0xcc, (byte)0x80, (byte)0xed, (byte)0xa0, (byte)0x80, 'x', (byte)0xc3
+        };
+        byte[] expected = {
+            ' ', 'a', (byte)0xe0, (byte)0x80, (byte)0xc3, (byte)0xa4, (byte)0xf0, (byte)0x90, (byte)0x80,
+            (byte)0xcc, (byte)0x80, (byte)0xed, (byte)0xa0, (byte)0x80, 'x', (byte)0xc3
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Use a direct buffer to exercise copying it.
+        ByteBuffer buffer = ByteBuffer.allocateDirect(src.length + 2);
+        buffer.put((byte)'_').put(src).flip().position(1);
+        nfkc_cf.normalizeUTF8(buffer, out, null);
+        byte[] actual = out.toByteArray();
+        assertEquals("normalizeUTF8(ill-formed)", Utility.hex(expected, 0, expected.length, " "),
+                Utility.hex(actual, 0, actual.length, " "));
+        assertEquals("buffer position unchanged", 1, buffer.position());
+        assertFalse("isNormalizedUTF8(ill-formed)", nfkc_cf.isNormalizedUTF8(src, 0, src.length));
+        assertTrue("isNormalizedUTF8(ill-formed normalized)",
+                nfkc_cf.isNormalizedUTF8(expected, 0, expected.length));
+        try {
+            nfkc_cf.isNormalizedUTF8(src, 2, 1);
+            errln("isNormalizedUTF8(start>limit) did not fail");
+        } catch (IndexOutOfBoundsException expectedException) {
+        }
+    }
+
+    @Test
+    public void TestIncrementalNormalizer() {
+        Normalizer2[] normalizers = {
+            Normalizer2.getNFCInstance(),
+            Normalizer2.getNFDInstance(),
+            Normalizer2.getNFKCCasefoldInstance(),
+            Normalizer2.getInstance(null, "nfc", Normalizer2.Mode.FCD),
+            new FilteredNormalizer2(Normalizer2.getNFCInstance(), new UnicodeSet("[^\u0300]"))
+        };
+        String[] chars = {
+            "a", "e", " ", "\u00E4", "\u0229", "\u0F72", "\u0323", "\u0301", "\u0300", "\u0308",
+            "\u1100", "\u1161", "\u11A8", "\uAC00", "\uFB2C", "\u05B6", "\uFDFA",
+            "\uD834\uDD5E", "\uD834\uDD65", "\uD804\uDC99", "\uD804\uDCBA"
+        };
+        Random random = new Random(12);
+        for (int t = 0; t < 300; ++t) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; ++j) {
+                sb.append(chars[random.nextInt(chars.length)]);
+            }
+            String s = sb.toString();
+            for (int n = 0; n < normalizers.length; ++n) {
+                Normalizer2 n2 = normalizers[n];
+                // Tiny source chunks and destination buffers split surrogate pairs and segments.
+                IncrementalNormalizer normalizer = new IncrementalNormalizer(n2);
+                CharBuffer src = CharBuffer.allocate(1 + random.nextInt(4));
+                CharBuffer dest = CharBuffer.allocate(1 + random.nextInt(4));
+                StringBuilder result = new StringBuilder();
+                int i = 0;
+                boolean done = false;
+                while (!done) {
+                    while (i < s.length() && src.hasRemaining()) {
+                        src.put(s.charAt(i++));
+                    }
+                    src.flip();
+                    boolean endOfInput = i == s.length();
+                    done = normalizer.normalize(src, dest, endOfInput) && endOfInput;
+                    src.compact();
+                    dest.flip();
+                    result.append(dest);
+                    dest.clear();
+                }
+                if (!assertEquals("normalizer " + n + " incremental(" + Utility.hex(s) + ")",
+                        n2.normalize(s), result.toString())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void TestNormalizingReaderWriter() throws IOException {
+        Normalizer2 nfc = Normalizer2.getNFCInstance();
+        // Long enough for several chunks, with segments across the chunk limits.
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random(5);
+        while (sb.length() < 40000) {
+            switch (random.nextInt(5)) {
+            case 0: sb.append("A\u0308\u0323"); break;
+            case 1: sb.append("\u1100\u1161\u11A8"); break;
+            case 2: sb.append("\uD834\uDD5F\uD834\uDD6E"); break;
+            case 3: sb.append("\u00C5\u0301\u0301\u0301\u0301\u0301\u0301"); break;
+            default: sb.append("text "); break;
+            }
+        }
+        String s = sb.toString();
+        String expected = nfc.normalize(s);
+
+        NormalizingReader reader = new NormalizingReader(new StringReader(s), nfc);
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[1000];
+        int length;
+        while ((length = reader.read(buffer, 0, 1 + random.nextInt(buffer.length))) >= 0) {
+            result.append(buffer, 0, length);
+        }
+        assertEquals("read() at EOF", -1, reader.read());
+        reader.close();
+        assertTrue("NormalizingReader", expected.contentEquals(result));
+
+        StringWriter out = new StringWriter();
+        NormalizingWriter writer = new NormalizingWriter(out, nfc);
+        for (int i = 0; i < s.length();) {
+            int limit = Math.min(i + 1 + random.nextInt(3000), s.length());
+            writer.write(s, i, limit - i);
+            i = limit;
+        }
+        // flush() holds back the unsafe tail.
+        writer.write("A");
+        writer.flush();
+        assertTrue("NormalizingWriter.flush()", expected.startsWith(out.toString()));
+        writer.write('\u0308');
+        writer.close();
+        assertTrue("NormalizingWriter", (expected + "\u00C4").contentEquals(out.getBuffer()));
+    }
+
+    @Test
+    public void TestNormalizeParallel() {
+        Normalizer2[] normalizers = {
+            Normalizer2.getNFCInstance(),
+            Normalizer2.getNFDInstance(),
+            Normalizer2.getNFKCCasefoldInstance(),
+            Normalizer2.getInstance(null, "nfc", Normalizer2.Mode.FCD),
+            Normalizer2.getInstance(null, "nfc", Normalizer2.Mode.COMPOSE_CONTIGUOUS),
+            new FilteredNormalizer2(Normalizer2.getNFCInstance(), new UnicodeSet("[^\u0300]"))
+        };
+        String[] chars = {
+            "a", "e", " ", "\u00E4", "\u0229", "\u0F72", "\u0323", "\u0301", "\u0300", "\u0308",
+            "\u1100", "\u1161", "\u11A8", "\uAC00", "\uFB2C", "\u05B6", "\uFDFA",
+            "\uD834\uDD5E", "\uD834\uDD65", "\uD804\uDC99", "\uD804\uDCBA"
+        };
+        Random random = new Random(13);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 400000) {
+            sb.append(chars[random.nextInt(chars.length)]);
+        }
+        // A long stretch without boundaries, so that some chunk limits are skipped.
+        char[] marks = new char[150000];
+        Arrays.fill(marks, '\u0301');
+        sb.insert(200000, marks);
+        String s = sb.toString();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n = 0; n < normalizers.length; ++n) {
+                Normalizer2 n2 = normalizers[n];
+                String expected = n2.normalize(s);
+                StringBuilder result = n2.normalize(s, new StringBuilder("abc"), pool);
+                assertTrue("normalizer " + n + " parallel normalize()", expected.contentEquals(result));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        // Short text and no pool.
+        Normalizer2 nfc = Normalizer2.getNFCInstance();
+        assertEquals("parallel normalize(short)", "\u00C4",
+                nfc.normalize("A\u0308", new StringBuilder(), null).toString());
+        try {
+            nfc.normalize(sb, sb, null);
+            errln("parallel normalize(src=dest) did not fail");
+        } catch (IllegalArgumentException expectedException) {
+        }
+    }
+
     @Test
     public void TestComposeJamoTBase() {
         // Algorithmic composition of Hangul syllables must not combine with JAMO_T_BASE = U+11A7
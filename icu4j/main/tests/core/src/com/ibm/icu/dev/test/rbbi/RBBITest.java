@@ -16,8 +16,12 @@
 //          Much of the remaining data has been moved into the rbbitst.txt test data file,
 //            which is common between ICU4C and ICU4J.  The remaining test data should also be moved,
 //            or simply retired if it is no longer interesting.
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.CharacterIterator;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -905,4 +909,414 @@ public void TestBug13590() {
         assertEquals("Wrong number of breaks found", 2, breaksFound);
     }
 
+
+    /**
+     * Check that text from a String, from an array-backed CharBuffer (both read directly
+     * from the char array) and from a CharacterIterator or other CharSequence all produce
+     * the same boundaries and rule status values, including around supplementary characters,
+     * unpaired surrogates and look-ahead rules.
+     */
+    @Test
+    public void TestTextAccessPaths() {
+        String rules =
+                "!!quoted_literals_only;\n" +
+                "$L = [a-z \\U0001F600];\n" +
+                "$D = [0-9];\n" +
+                "$L+ {100};\n" +
+                "$D+ {200};\n" +
+                "$L $D / $L {300};\n" +
+                ". {400};\n";
+        RuleBasedBreakIterator bi = new RuleBasedBreakIterator(rules);
+        String[] texts = {
+                "",
+                "a",
+                "abc 123 a1b c2 3d",
+                "\ud83d\ude00\ud83d\ude00x \ud83d\ude01 9\ud83d\ude00",
+                "a\ud800b\udc00 \udc00\ud800",
+                "\ud83d\ude00",
+                "\ud83d",
+        };
+        for (String text : texts) {
+            bi.setText(new java.text.StringCharacterIterator(text));
+            List<Integer> expected = getForwardAndBackwardBoundaries(bi, text.length());
+
+            bi.setText(text);
+            assertEquals("String \"" + text + "\"", expected, getForwardAndBackwardBoundaries(bi, text.length()));
+
+            char[] chars = ("xyz" + text + "xyz").toCharArray();
+            bi.setText(CharBuffer.wrap(chars, 3, text.length()).slice());
+            assertEquals("CharBuffer \"" + text + "\"", expected, getForwardAndBackwardBoundaries(bi, text.length()));
+
+            bi.setText(new StringBuilder(text));
+            assertEquals("StringBuilder \"" + text + "\"", expected, getForwardAndBackwardBoundaries(bi, text.length()));
+        }
+    }
+
+    /**
+     * Check that UTF-8 text gives the same boundaries and rule status values as the
+     * equivalent UTF-16 text, with the boundaries at the corresponding byte indexes.
+     * Ill-formed UTF-8 sequences behave like U+FFFD.
+     */
+    @Test
+    public void TestUTF8Text() {
+        String rules =
+                "!!quoted_literals_only;\n" +
+                "$L = [a-z \\u00e9 \\u4e00 \\U0001F600];\n" +
+                "$D = [0-9];\n" +
+                "$L+ {100};\n" +
+                "$D+ {200};\n" +
+                "$L $D / $L {300};\n" +
+                "[\\ufffd]+ {500};\n" +
+                ". {400};\n";
+        RuleBasedBreakIterator bi = new RuleBasedBreakIterator(rules);
+        RuleBasedBreakIterator bi8 = new RuleBasedBreakIterator(rules);
+        // UTF-8 text, and the same text in UTF-16 with U+FFFD for each ill-formed sequence.
+        Object[][] cases = {
+                { new byte[0], "" },
+                { new byte[] { 'a', 'b', ' ', '1', '2', 'a', '1', 'b' }, "ab 12a1b" },
+                { new byte[] { 'x', (byte)0xc3, (byte)0xa9, 'y', ' ', (byte)0xe4, (byte)0xb8, (byte)0x80, '7' },
+                    "x\u00e9y \u4e00" + "7" },
+                { new byte[] { (byte)0xf0, (byte)0x9f, (byte)0x98, (byte)0x80, '5', (byte)0xf0, (byte)0x9f, (byte)0x98, (byte)0x80 },
+                    "\ud83d\ude00" + "5\ud83d\ude00" },
+                { new byte[] { 'a', (byte)0x80, (byte)0xe4, (byte)0xb8, ' ', (byte)0xed, (byte)0xa0, (byte)0x80, 'b', (byte)0xf0, (byte)0x9f },
+                    "a\ufffd\ufffd \ufffd\ufffd\ufffdb\ufffd" },
+        };
+        for (Object[] c : cases) {
+            byte[] utf8 = (byte[])c[0];
+            String utf16 = (String)c[1];
+            // UTF-16 index -> UTF-8 index, for the code point starts and the end of the text.
+            int[] utf8Indexes = new int[utf16.length() + 1];
+            for (int i16 = 0, i8 = 0; i16 <= utf16.length();) {
+                utf8Indexes[i16] = i8;
+                if (i16 == utf16.length()) {
+                    break;
+                }
+                int cp = utf16.codePointAt(i16);
+                i16 += Character.charCount(cp);
+                if (cp == 0xfffd) {
+                    // Each ill-formed sequence in the test data is a single byte,
+                    // or a truncated sequence that starts with e4 or f0.
+                    int lead = utf8[i8] & 0xff;
+                    i8 += (lead == 0xe4 || lead == 0xf0) ? 2 : 1;
+                } else {
+                    i8 += cp <= 0x7f ? 1 : cp <= 0x7ff ? 2 : cp <= 0xffff ? 3 : 4;
+                }
+            }
+            assertEquals("test data \"" + utf16 + "\"", utf8.length, utf8Indexes[utf16.length()]);
+
+            bi.setText(utf16);
+            List<Integer> expected = new ArrayList<>();
+            for (int pos = bi.first(); pos != BreakIterator.DONE; pos = bi.next()) {
+                expected.add(utf8Indexes[pos] + 3);
+                expected.add(bi.getRuleStatus());
+            }
+            for (int pos = bi.last(); pos != BreakIterator.DONE; pos = bi.previous()) {
+                expected.add(utf8Indexes[pos] + 3);
+                expected.add(bi.getRuleStatus());
+            }
+
+            // Put the text at index 3 of the array, or of the buffer.
+            byte[] padded = new byte[utf8.length + 6];
+            System.arraycopy(utf8, 0, padded, 3, utf8.length);
+            ByteBuffer heap = ByteBuffer.wrap(padded);
+            heap.position(3).limit(3 + utf8.length);
+            ByteBuffer direct = ByteBuffer.allocateDirect(padded.length);
+            direct.put(padded).position(3).limit(3 + utf8.length);
+            for (int n = 0; n < 3; ++n) {
+                String name;
+                if (n == 0) {
+                    name = "byte[]";
+                    bi8.setText(padded, 3, utf8.length);
+                } else if (n == 1) {
+                    name = "heap ByteBuffer";
+                    bi8.setText(heap);
+                } else {
+                    name = "direct ByteBuffer";
+                    bi8.setText(direct);
+                }
+                assertEquals(name + " position", 3, (n == 0 ? 3 : (n == 1 ? heap : direct).position()));
+                List<Integer> actual = new ArrayList<>();
+                for (int pos = bi8.first(); pos != BreakIterator.DONE; pos = bi8.next()) {
+                    actual.add(pos);
+                    actual.add(bi8.getRuleStatus());
+                }
+                for (int pos = bi8.last(); pos != BreakIterator.DONE; pos = bi8.previous()) {
+                    actual.add(pos);
+                    actual.add(bi8.getRuleStatus());
+                }
+                assertEquals(name + " \"" + utf16 + "\"", expected, actual);
+
+                // Random access at every code point start, and at every byte.
+                for (int i16 = 0; i16 <= utf16.length(); ++i16) {
+                    if (i16 > 0 && Character.isHighSurrogate(utf16.charAt(i16 - 1))) {
+                        continue;
+                    }
+                    int i8 = utf8Indexes[i16] + 3;
+                    int following = bi.following(i16);
+                    assertEquals(name + " \"" + utf16 + "\" following(" + i8 + ")",
+                            following == BreakIterator.DONE ? following : utf8Indexes[following] + 3, bi8.following(i8));
+                    int preceding = bi.preceding(i16);
+                    assertEquals(name + " \"" + utf16 + "\" preceding(" + i8 + ")",
+                            preceding == BreakIterator.DONE ? preceding : utf8Indexes[preceding] + 3, bi8.preceding(i8));
+                    assertEquals(name + " isBoundary(" + i8 + ")", bi.isBoundary(i16), bi8.isBoundary(i8));
+                }
+                for (int i8 = 3; i8 <= utf8.length + 3; ++i8) {
+                    int following = bi8.following(i8);
+                    assertTrue(name + " following(" + i8 + ")", following > i8 || following == BreakIterator.DONE);
+                    assertTrue(name + " preceding(" + i8 + ")", bi8.preceding(i8) < i8);
+                }
+            }
+        }
+
+        // getText() iterates over the UTF-8 text with byte indexes.
+        bi8.setText(new byte[] { 'a', (byte)0xc3, (byte)0xa9, (byte)0xf0, (byte)0x9f, (byte)0x98, (byte)0x80, 'b' }, 0, 8);
+        CharacterIterator text = bi8.getText();
+        StringBuilder chars = new StringBuilder();
+        List<Integer> indexes = new ArrayList<>();
+        for (char ch = text.first(); ch != CharacterIterator.DONE; ch = text.next()) {
+            chars.append(ch);
+            indexes.add(text.getIndex());
+        }
+        assertEquals("getText() chars", "a\u00e9\ud83d\ude00b", chars.toString());
+        assertEquals("getText() indexes", Arrays.asList(0, 1, 3, 4, 7), indexes);
+    }
+
+    /**
+     * UTF-8 text with dictionary-based break engines finds the same boundaries as UTF-16 text.
+     */
+    @Test
+    public void TestUTF8Dictionary() {
+        String[] texts = {
+            // Thai, with an emoji.
+            "\u0E20\u0E32\u0E29\u0E32\u0E44\u0E17\u0E22\u0E40\u0E1B\u0E47\u0E19\u0E20\u0E32\u0E29\u0E32" +
+                "\u0E17\u0E35\u0E48\u0E21\u0E35\u0E23\u0E30\u0E14\u0E31\u0E1A\u0E40\u0E2A\u0E35\u0E22\u0E07" +
+                "\u0E02\u0E2D\u0E07\u0E04\u0E33\u0E41\u0E19\u0E48\u0E19\u0E2D\u0E19 \uD83D\uDE00 " +
+                "\u0E2A\u0E27\u0E31\u0E2A\u0E14\u0E35\u0E04\u0E23\u0E31\u0E1A",
+            // Japanese, with a supplementary ideograph and an emoji.
+            "\u65E5\u672C\u8A9E\u306E\u30C6\u30AD\u30B9\u30C8\u3092\u89E3\u6790\u3057\u307E\u3059\u3002" +
+                "\uD842\uDFB7\u91CE\u5BB6\u3067\u725B\u4E3C\u3092\u98DF\u3079\u305F\uD83D\uDE00" +
+                "\u30AB\u30BF\u30AB\u30CA",
+            // Chinese, with a supplementary ideograph.
+            "\u6211\u4EEC\u4ECA\u5929\u53BB\u5317\u4EAC\u5927\u5B66\u53C2\u89C2\u4E86\u56FE\u4E66\u9986" +
+                "\uD840\uDC00\u7136\u540E\u56DE\u5BB6 abc \u4E2D\u6587\u5206\u8BCD",
+            // Several dictionary ranges in one text.
+            "Mixed \u0E44\u0E17\u0E22\u65E5\u672C\u8A9E and \u4E2D\u6587\uD842\uDFB7 text.",
+        };
+        BreakIterator[] iterators = {
+            BreakIterator.getWordInstance(ULocale.ROOT),
+            BreakIterator.getLineInstance(ULocale.ROOT),
+        };
+        for (BreakIterator bi : iterators) {
+            RuleBasedBreakIterator bi8 = (RuleBasedBreakIterator)bi.clone();
+            for (String utf16 : texts) {
+                // UTF-16 index -> UTF-8 index of the text at index 2 of the array.
+                byte[] utf8 = new byte[2 + 4 * utf16.length()];
+                int[] utf8Indexes = new int[utf16.length() + 1];
+                int i8 = 2;
+                for (int i16 = 0; i16 < utf16.length();) {
+                    utf8Indexes[i16] = i8;
+                    int cp = utf16.codePointAt(i16);
+                    byte[] bytes = new String(Character.toChars(cp)).getBytes(StandardCharsets.UTF_8);
+                    System.arraycopy(bytes, 0, utf8, i8, bytes.length);
+                    i8 += bytes.length;
+                    i16 += Character.charCount(cp);
+                }
+                utf8Indexes[utf16.length()] = i8;
+                bi.setText(utf16);
+                bi8.setText(utf8, 2, i8 - 2);
+                String name = (bi == iterators[0] ? "word" : "line") + " \"" + utf16 + "\"";
+
+                List<Integer> expected = new ArrayList<>();
+                List<Integer> actual = new ArrayList<>();
+                for (int pos = bi.first(); pos != BreakIterator.DONE; pos = bi.next()) {
+                    expected.add(utf8Indexes[pos]);
+                    expected.add(bi.getRuleStatus());
+                }
+                for (int pos = bi8.first(); pos != BreakIterator.DONE; pos = bi8.next()) {
+                    actual.add(pos);
+                    actual.add(bi8.getRuleStatus());
+                }
+                assertEquals(name + " next()", expected, actual);
+                expected.clear();
+                actual.clear();
+                for (int pos = bi.last(); pos != BreakIterator.DONE; pos = bi.previous()) {
+                    expected.add(utf8Indexes[pos]);
+                }
+                for (int pos = bi8.last(); pos != BreakIterator.DONE; pos = bi8.previous()) {
+                    actual.add(pos);
+                }
+                assertEquals(name + " previous()", expected, actual);
+
+                // Random access at every code point start, each followed by iteration
+                // that moves through the cached dictionary boundaries.
+                for (int i16 = 0; i16 <= utf16.length(); ++i16) {
+                    if (i16 > 0 && Character.isHighSurrogate(utf16.charAt(i16 - 1))) {
+                        continue;
+                    }
+                    int start8 = utf8Indexes[i16];
+                    int pos = bi.following(i16);
+                    assertEquals(name + " following(" + start8 + ")",
+                            pos == BreakIterator.DONE ? pos : utf8Indexes[pos], bi8.following(start8));
+                    pos = bi.next();
+                    assertEquals(name + " next() after following(" + start8 + ")",
+                            pos == BreakIterator.DONE ? pos : utf8Indexes[pos], bi8.next());
+                    pos = bi.preceding(i16);
+                    assertEquals(name + " preceding(" + start8 + ")",
+                            pos == BreakIterator.DONE ? pos : utf8Indexes[pos], bi8.preceding(start8));
+                    pos = bi.previous();
+                    assertEquals(name + " previous() after preceding(" + start8 + ")",
+                            pos == BreakIterator.DONE ? pos : utf8Indexes[pos], bi8.previous());
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterators created from shared CompiledRules, on several threads at once, are independent
+     * of each other and find the same boundaries as the break iterator that the rules came from.
+     */
+    @Test
+    public void TestCompiledRules() {
+        final String text = "Hello, world! The quick (\"brown\") fox can't jump 32.3 feet, right?";
+        RuleBasedBreakIterator bi = (RuleBasedBreakIterator)BreakIterator.getWordInstance(ULocale.ENGLISH);
+        final RuleBasedBreakIterator.CompiledRules rules = bi.getCompiledRules();
+        assertTrue("getCompiledRules() returns the same object", rules == bi.getCompiledRules());
+        bi.setText(text);
+        final List<Integer> expected = getForwardAndBackwardBoundaries(bi, text.length());
+
+        RuleBasedBreakIterator bi1 = rules.createIterator();
+        RuleBasedBreakIterator bi2 = rules.createIterator();
+        assertEquals("rules", bi.toString(), bi1.toString());
+        assertEquals("valid locale", bi.getLocale(ULocale.VALID_LOCALE), bi1.getLocale(ULocale.VALID_LOCALE));
+        assertEquals("actual locale", bi.getLocale(ULocale.ACTUAL_LOCALE), bi1.getLocale(ULocale.ACTUAL_LOCALE));
+        assertEquals("empty text first()", 0, bi1.first());
+        assertEquals("empty text next()", BreakIterator.DONE, bi1.next());
+        assertTrue("same compiled rules", rules == bi1.getCompiledRules());
+
+        bi1.setText(text);
+        bi2.setText("abc def");
+        assertEquals("other iterator following(0)", 3, bi2.following(0));
+        assertEquals("boundaries", expected, getForwardAndBackwardBoundaries(bi1, text.length()));
+        assertEquals("other iterator next()", 4, bi2.next());
+
+        final AssertionError[] assertErr = new AssertionError[1];  // saves an error found from within a thread
+        List<Thread> threads = new ArrayList<>();
+        for (int n = 0; n < 4; ++n) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int loop = 0; loop < 100; loop++) {
+                            RuleBasedBreakIterator localBI = rules.createIterator();
+                            localBI.setText(text);
+                            assertEquals("", expected, getForwardAndBackwardBoundaries(localBI, text.length()));
+                        }
+                    } catch (AssertionError e) {
+                        assertErr[0] = e;
+                    }
+                }
+            });
+        }
+        for (Thread thread: threads) {
+            thread.start();
+        }
+        for (Thread thread: threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                fail(e.toString());
+            }
+        }
+        if (assertErr[0] != null) {
+            throw assertErr[0];
+        }
+    }
+
+    /**
+     * getBoundaries() and getWords() find the same boundaries and rule status values
+     * as iterating with next() and getRuleStatus(), including in dictionary ranges.
+     */
+    @Test
+    public void TestGetBoundaries() {
+        RuleBasedBreakIterator bi = (RuleBasedBreakIterator)BreakIterator.getWordInstance(ULocale.ENGLISH);
+        String[] texts = {
+                "",
+                "a",
+                "Hello, world! The quick (\"brown\") fox can't jump 32.3 feet, right?",
+                "  中文的句子 コンピューター。 "
+                        + "ภาษาไทย x😀 ",
+        };
+        for (String text : texts) {
+            List<Integer> expectedBoundaries = new ArrayList<>();
+            List<Integer> expectedStatuses = new ArrayList<>();
+            List<Integer> expectedWords = new ArrayList<>();
+            bi.setText(text);
+            int start = bi.first();
+            expectedBoundaries.add(start);
+            expectedStatuses.add(bi.getRuleStatus());
+            for (int limit = bi.next(); limit != BreakIterator.DONE; start = limit, limit = bi.next()) {
+                expectedBoundaries.add(limit);
+                expectedStatuses.add(bi.getRuleStatus());
+                if (bi.getRuleStatus() >= BreakIterator.WORD_NONE_LIMIT) {
+                    expectedWords.add(start);
+                    expectedWords.add(limit);
+                    expectedWords.add(bi.getRuleStatus());
+                }
+            }
+
+            int[] boundaries = new int[text.length() + 1];
+            int[] statuses = new int[text.length() + 1];
+            int count = bi.getBoundaries(text, boundaries, statuses);
+            assertEquals("getBoundaries(\"" + text + "\") count", expectedBoundaries.size(), count);
+            List<Integer> actualBoundaries = new ArrayList<>();
+            List<Integer> actualStatuses = new ArrayList<>();
+            for (int i = 0; i < count; ++i) {
+                actualBoundaries.add(boundaries[i]);
+                actualStatuses.add(statuses[i]);
+            }
+            assertEquals("getBoundaries(\"" + text + "\")", expectedBoundaries, actualBoundaries);
+            assertEquals("getBoundaries(\"" + text + "\") statuses", expectedStatuses, actualStatuses);
+            assertEquals("position after getBoundaries()", 0, bi.current());
+            assertEquals("next() after getBoundaries()",
+                    count > 1 ? boundaries[1] : BreakIterator.DONE, bi.next());
+
+            int[] starts = new int[text.length()];
+            int[] limits = new int[text.length()];
+            count = bi.getWords(text, starts, limits, statuses);
+            assertEquals("getWords(\"" + text + "\") count", expectedWords.size() / 3, count);
+            List<Integer> actualWords = new ArrayList<>();
+            for (int i = 0; i < count; ++i) {
+                actualWords.add(starts[i]);
+                actualWords.add(limits[i]);
+                actualWords.add(statuses[i]);
+            }
+            assertEquals("getWords(\"" + text + "\")", expectedWords, actualWords);
+
+            // Too-small arrays get the first boundaries, and the full count is returned.
+            if (expectedBoundaries.size() > 2) {
+                boundaries = new int[2];
+                assertEquals("getBoundaries(\"" + text + "\") count with small array",
+                        expectedBoundaries.size(), bi.getBoundaries(text, boundaries, null));
+                assertEquals("getBoundaries(\"" + text + "\") with small array",
+                        expectedBoundaries.subList(0, 2), Arrays.asList(boundaries[0], boundaries[1]));
+            }
+        }
+    }
+
+    private static List<Integer> getForwardAndBackwardBoundaries(RuleBasedBreakIterator bi, int length) {
+        List<Integer> result = new ArrayList<>();
+        for (int pos = bi.first(); pos != BreakIterator.DONE; pos = bi.next()) {
+            result.add(pos);
+            result.add(bi.getRuleStatus());
+        }
+        for (int pos = bi.last(); pos != BreakIterator.DONE; pos = bi.previous()) {
+            result.add(pos);
+            result.add(bi.getRuleStatus());
+        }
+        for (int i = 0; i <= length; i++) {
+            result.add(bi.following(i));
+            result.add(bi.preceding(i));
+        }
+        return result;
+    }
 }
@@ -237,6 +237,17 @@ public void TestCaseInsensitiveString() {
         {
             errln("FAIL: str1("+str1+") != str2("+str2+")");
         }
+        if (str1.hashCode() != str2.hashCode()) {
+            errln("FAIL: str1("+str1+").hashCode() != str2("+str2+").hashCode()");
+        }
+        CaseInsensitiveString str3 = new CaseInsensitiveString("Stra\u00DFe");
+        CaseInsensitiveString str4 = new CaseInsensitiveString("STRASSE");
+        if (!str3.equals(str4) || str3.hashCode() != str4.hashCode()) {
+            errln("FAIL: str3("+str3+") != str4("+str4+")");
+        }
+        if (str1.equals(str3)) {
+            errln("FAIL: str1("+str1+") == str3("+str3+")");
+        }
     }
 
     @Test
@@ -0,0 +1,110 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.dev.test.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import com.ibm.icu.text.AlphabeticIndex;
+import com.ibm.icu.text.AlphabeticIndex.Bucket;
+import com.ibm.icu.text.AlphabeticIndex.ImmutableIndex;
+import com.ibm.icu.text.Collator;
+
+/**
+ * Performance of sorting names into AlphabeticIndex buckets.
+ * Each line of the input file is one name.
+ * <code>
+ * java com.ibm.icu.dev.test.perf.AlphabeticIndexPerf -f names.txt -e UTF-8 -L en -l
+ *     [TestGetBucketIndex|TestGetBucketIndexes|TestGetBucketIndexesParallel|TestCompareBoundaries]
+ * </code>
+ */
+public class AlphabeticIndexPerf extends PerfTest {
+    private String[] names;
+    private ImmutableIndex<Object> index;
+    private Collator collatorPrimaryOnly;
+    private List<String> lowerBoundaries;
+    private ForkJoinPool pool;
+
+    public static void main(String[] args) throws Exception {
+        new AlphabeticIndexPerf().run(args);
+    }
+
+    @Override
+    protected void setup(String[] args) {
+        names = readLines(fileName, encoding, bulk_mode);
+        pool = new ForkJoinPool();
+        index = new AlphabeticIndex<Object>(locale != null ? locale : Locale.ENGLISH).buildImmutableIndex();
+        collatorPrimaryOnly = Collator.getInstance(locale != null ? locale : Locale.ENGLISH);
+        collatorPrimaryOnly.setStrength(Collator.PRIMARY);
+        // The underflow bucket at index 0 is never compared with.
+        lowerBoundaries = new ArrayList<String>();
+        lowerBoundaries.add("");
+        for (Bucket<Object> bucket : index) {
+            if (bucket.getLabelType() == Bucket.LabelType.NORMAL) {
+                lowerBoundaries.add(bucket.getLabel());
+            }
+        }
+    }
+
+    PerfTest.Function TestGetBucketIndex() {
+        return new BucketFunction() {
+            @Override
+            public void call() {
+                for (String name : names) {
+                    index.getBucketIndex(name);
+                }
+            }
+        };
+    }
+
+    PerfTest.Function TestGetBucketIndexes() {
+        return new BucketFunction() {
+            @Override
+            public void call() {
+                index.getBucketIndexes(names);
+            }
+        };
+    }
+
+    PerfTest.Function TestGetBucketIndexesParallel() {
+        return new BucketFunction() {
+            @Override
+            public void call() {
+                index.getBucketIndexes(names, pool);
+            }
+        };
+    }
+
+    /**
+     * Binary search over the normal buckets' labels with a full collator comparison per step,
+     * as getBucketIndex() used to work, for comparison.
+     */
+    PerfTest.Function TestCompareBoundaries() {
+        return new BucketFunction() {
+            @Override
+            public void call() {
+                for (String name : names) {
+                    int start = 0;
+                    int limit = lowerBoundaries.size();
+                    while ((start + 1) < limit) {
+                        int i = (start + limit) / 2;
+                        if (collatorPrimaryOnly.compare(name, lowerBoundaries.get(i)) < 0) {
+                            limit = i;
+                        } else {
+                            start = i;
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    private abstract class BucketFunction extends PerfTest.Function {
+        @Override
+        public long getOperationsPerIteration() {
+            return names.length;
+        }
+    }
+}
@@ -11,6 +11,8 @@
 import java.io.FileInputStream;
 import java.util.ArrayList;
 
+import com.ibm.icu.util.ULocale;
+
 public class BreakIteratorPerformanceTest extends PerfTest {
 
     String fileContents;
@@ -32,6 +34,12 @@ public class BreakIteratorPerformanceTest extends PerfTest {
     String[] jLines;
     String[] jCharacters;
 
+    // Word break iterators that use the dictionaries, for the per-line tests.
+    com.ibm.icu.text.BreakIterator iCJKWordIter;
+    com.ibm.icu.text.BreakIterator iThaiWordIter;
+    String[] fileLines;
+    int fileLinesLength;
+
     public static void main(String[] args) throws Exception {
         new BreakIteratorPerformanceTest().run(args);
     }
@@ -83,6 +91,13 @@ protected void setup(String[] args) {
             jLines = init(jLineIter);
             jCharacters = init(jCharacterIter);
 
+            iCJKWordIter = com.ibm.icu.text.BreakIterator.getWordInstance(ULocale.JAPANESE);
+            iThaiWordIter = com.ibm.icu.text.BreakIterator.getWordInstance(new ULocale("th"));
+            fileLines = readLines(fileName, encoding, bulk_mode);
+            for (String line : fileLines) {
+                fileLinesLength += line.length();
+            }
+
         } catch (Exception ex) {
             ex.printStackTrace();
             throw new RuntimeException(ex.getMessage());
@@ -162,6 +177,26 @@ public long getOperationsPerIteration() {
         };
     }
 
+    /**
+     * Breaks each line of the file into words separately, as for short strings like
+     * names or product titles, where each string is a separate dictionary range.
+     */
+    PerfTest.Function createTestICULines(final com.ibm.icu.text.BreakIterator iIter) {
+        return new PerfTest.Function() {
+            public void call() {
+                for (String line : fileLines) {
+                    iIter.setText(line);
+                    for (int end = iIter.first(); end != com.ibm.icu.text.BreakIterator.DONE; end = iIter.next()) {
+                    }
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return fileLinesLength;
+            }
+        };
+    }
+
     PerfTest.Function TestICUSentences() {
         return createTestICU(iSentenceIter, iSentences, "sentence");
     }
@@ -178,6 +213,22 @@ PerfTest.Function TestICUCharacters() {
         return createTestICU(iCharacterIter, iCharacters, "character");
     }
 
+    /**
+     * Chinese and Japanese dictionary-based word breaking, one line at a time.
+     * Use with CJK text, such as data/collation/TestNames_Japanese.txt.
+     */
+    PerfTest.Function TestICUCJKWordsPerLine() {
+        return createTestICULines(iCJKWordIter);
+    }
+
+    /**
+     * Thai dictionary-based word breaking, one line at a time.
+     * Use with Thai text, such as data/collation/TestNames_Thai.txt.
+     */
+    PerfTest.Function TestICUThaiWordsPerLine() {
+        return createTestICULines(iThaiWordIter);
+    }
+
     PerfTest.Function TestJavaSentences() {
         return createTestJava(jSentenceIter, jSentences, "sentence");
     }
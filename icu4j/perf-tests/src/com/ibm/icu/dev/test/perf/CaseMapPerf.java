@@ -0,0 +1,123 @@
+// © 2020 and later: Unicode, Inc. and others.
+// License & terms of use: http://www.unicode.org/copyright.html
+package com.ibm.icu.dev.test.perf;
+
+import java.util.Locale;
+
+import com.ibm.icu.text.BreakIterator;
+import com.ibm.icu.text.CaseMap;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * A class for testing CaseMap performance on the lines of a -f text file.
+ * <code>
+ * java com.ibm.icu.dev.test.perf.CaseMapPerf $MethodName $LoopCount -f $File [$LocaleID]
+ * </code>
+ * The locale defaults to the root locale.
+ */
+public class CaseMapPerf extends PerfTest {
+    Locale locale;
+    String[] lines;
+    int totalChars;
+
+    public static void main(String[] args) throws Exception {
+        new CaseMapPerf().run(args);
+    }
+
+    protected void setup(String[] args) {
+        locale = args.length >= 1 ? ULocale.forLanguageTag(args[0]).toLocale() : Locale.ROOT;
+        lines = readLines(fileName, encoding, bulk_mode);
+        for (String line : lines) {
+            totalChars += line.length();
+        }
+    }
+
+    PerfTest.Function testToLower() {
+        final CaseMap.Lower lower = CaseMap.toLower();
+        return new PerfTest.Function() {
+            public void call() {
+                for (String line : lines) {
+                    lower.apply(locale, line);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalChars;
+            }
+        };
+    }
+
+    PerfTest.Function testJDKToLower() {
+        return new PerfTest.Function() {
+            public void call() {
+                for (String line : lines) {
+                    line.toLowerCase(locale);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalChars;
+            }
+        };
+    }
+
+    PerfTest.Function testToUpper() {
+        final CaseMap.Upper upper = CaseMap.toUpper();
+        return new PerfTest.Function() {
+            public void call() {
+                for (String line : lines) {
+                    upper.apply(locale, line);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalChars;
+            }
+        };
+    }
+
+    PerfTest.Function testJDKToUpper() {
+        return new PerfTest.Function() {
+            public void call() {
+                for (String line : lines) {
+                    line.toUpperCase(locale);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalChars;
+            }
+        };
+    }
+
+    PerfTest.Function testToTitle() {
+        final CaseMap.Title title = CaseMap.toTitle();
+        final BreakIterator titleIter = BreakIterator.getWordInstance(locale);
+        return new PerfTest.Function() {
+            public void call() {
+                for (String line : lines) {
+                    title.apply(locale, titleIter, line);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalChars;
+            }
+        };
+    }
+
+    PerfTest.Function testFold() {
+        final CaseMap.Fold fold = CaseMap.fold();
+        return new PerfTest.Function() {
+            public void call() {
+                for (String line : lines) {
+                    fold.apply(line);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalChars;
+            }
+        };
+    }
+}
@@ -14,9 +14,11 @@
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 
 import com.ibm.icu.impl.LocaleUtility;
+import com.ibm.icu.lang.UScript;
 import com.ibm.icu.text.CollationElementIterator;
 import com.ibm.icu.text.CollationKey;
 import com.ibm.icu.text.Normalizer;
@@ -55,6 +57,10 @@ public class CollationPerformanceTest {
         + "-keygen                    Sort Key Generation timing test\n"
         + "-qsort                     Quicksort timing test\n"
         + "-iter                      Iteration Performance Test\n"
+        + "-mt                        Multi-threaded binary search throughput test on one frozen collator\n"
+        + "-threads n                 Number of threads for -mt.  Default is the number of processors\n"
+        + "-fastpath                  Fast-path hit rate and binary search speedup with the fast-path script\n"
+        + "-fastscript name           Script for the fast-path table, e.g. Cyrl.  Default is set by the locale\n"
         + "-dump                      Display strings, sort keys and CEs.\n"
         + "-java                      Run test using java.text.Collator.\n";
     
@@ -87,6 +93,10 @@ public class CollationPerformanceTest {
     static StringBuffer temp_opt_level      = new StringBuffer("0");
     static StringBuffer temp_opt_keyhist    = new StringBuffer("");
     static StringBuffer temp_opt_itertest   = new StringBuffer("");
+    static StringBuffer temp_opt_mt         = new StringBuffer("");
+    static StringBuffer temp_opt_threads    = new StringBuffer("0");
+    static StringBuffer temp_opt_fastpath   = new StringBuffer("");
+    static StringBuffer temp_opt_fastscript = new StringBuffer("");
     static StringBuffer temp_opt_dump       = new StringBuffer("");
     static StringBuffer temp_opt_java       = new StringBuffer("");
     
@@ -119,6 +129,10 @@ public class CollationPerformanceTest {
     static int      opt_level      = 0;
     static boolean  opt_keyhist    = false;
     static boolean  opt_itertest   = false;
+    static boolean  opt_mt         = false;
+    static int      opt_threads    = 0;
+    static boolean  opt_fastpath   = false;
+    static String   opt_fastscript = "";
     static boolean  opt_dump       = false;
     static boolean  opt_java       = false;
 
@@ -130,6 +144,10 @@ public class CollationPerformanceTest {
         new OptionSpec("-qsort", 0, temp_opt_qsort),
         new OptionSpec("-binsearch", 0, temp_opt_binsearch),
         new OptionSpec("-iter", 0, temp_opt_itertest),
+        new OptionSpec("-mt", 0, temp_opt_mt),
+        new OptionSpec("-threads", 1, temp_opt_threads),
+        new OptionSpec("-fastpath", 0, temp_opt_fastpath),
+        new OptionSpec("-fastscript", 2, temp_opt_fastscript),
         //new OptionSpec("-win", 0, temp_opt_win),
         //new OptionSpec("-unix", 0, temp_opt_unix),
         //new OptionSpec("-uselen", 0, temp_opt_uselen),
@@ -201,6 +219,14 @@ public static void main(String[] args) {
             collPerf.doIterTest();
         }
         
+        if (opt_mt) {
+            collPerf.doMultiThreaded();
+        }
+        
+        if (opt_fastpath) {
+            collPerf.doFastPath();
+        }
+        
     }
     
     //Dump file lines, CEs, Sort Keys if requested
@@ -825,6 +851,209 @@ void doIterTest() {
         doBackwardIterTest();
     }
     
+    /**---------------------------------------------------------------------------------------
+     *
+     *    doMultiThreaded()  Binary search throughput test with several threads
+     *                       sharing one frozen collator.
+     *                       Runs once with a single thread and once with -threads threads
+     *                       so that the scaling can be read off directly.
+     *
+     *---------------------------------------------------------------------------------------
+     */
+    void doMultiThreaded() {
+        int threadCount = opt_threads > 0 ? opt_threads : Runtime.getRuntime().availableProcessors();
+        final com.ibm.icu.text.Collator frozen = icuCol.cloneAsThawed().freeze();
+        final String[] sorted = tests.clone();
+        java.util.Arrays.sort(sorted, frozen);
+
+        double dLoopCount = opt_loopCount * 3000 / (Math.log(tests.length) / Math.log(10)* tests.length);
+        final int adj_loopCount = dLoopCount < 1 ? 1 : (int)dLoopCount;
+
+        double single = runThreads(1, frozen, sorted, adj_loopCount);
+        double multi = runThreads(threadCount, frozen, sorted, adj_loopCount);
+        if (!opt_terse) {
+            System.out.println("multi-threaded:  compares per ms with 1 thread = " + nf.format(single));
+            System.out.println("multi-threaded:  compares per ms with " + threadCount + " threads = " + nf.format(multi));
+            System.out.println("multi-threaded:  speedup = " + nf.format(multi / single));
+        } else {
+            System.out.println(nf.format(single) + ", " + nf.format(multi));
+        }
+    }
+
+    /**
+     * Runs binary searches for all test strings on threadCount threads
+     * and returns the total number of compares per millisecond.
+     */
+    double runThreads(int threadCount, final com.ibm.icu.text.Collator frozen,
+            final String[] sorted, final int loopCount) {
+        callGC();
+        final long[] counts = new long[threadCount];
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; ++t) {
+            final int threadIndex = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    long count = 0;
+                    for (int loops = 0; loops < loopCount; loops++) {
+                        for (int j = 0; j < tests.length; j++) {
+                            int hi = sorted.length - 1;
+                            int lo = 0;
+                            int guess = -1;
+                            for (;;) {
+                                int newGuess = (hi + lo) / 2;
+                                if (newGuess == guess) {
+                                    break;
+                                }
+                                guess = newGuess;
+                                int r = frozen.compare(tests[j], sorted[guess]);
+                                count++;
+                                if (r == 0) {
+                                    break;
+                                }
+                                if (r < 0) {
+                                    hi = guess;
+                                } else {
+                                    lo = guess;
+                                }
+                            }
+                        }
+                    }
+                    counts[threadIndex] = count;
+                }
+            };
+        }
+        long startTime = System.currentTimeMillis();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total / (elapsedTime + 1.0);
+    }
+    
+    /**---------------------------------------------------------------------------------------
+     *
+     *    doFastPath()    Fast-path coverage test.  Counts how many of the binary search
+     *                    compares are handled by the fast-path tables, with only the
+     *                    Latin table and with the additional fast-path script table,
+     *                    and times the binary search both ways.
+     *
+     *---------------------------------------------------------------------------------------
+     */
+    @SuppressWarnings("deprecation")
+    void doFastPath() {
+        if (!(icuCol instanceof RuleBasedCollator)) {
+            System.out.println("fastpath:  not a RuleBasedCollator");
+            return;
+        }
+        RuleBasedCollator withScript = ((RuleBasedCollator)icuCol).cloneAsThawed();
+        if (opt_fastscript.length() != 0) {
+            withScript.setFastPathScript(UScript.getCodeFromName(opt_fastscript));
+        }
+        RuleBasedCollator latinOnly = ((RuleBasedCollator)icuCol).cloneAsThawed();
+        latinOnly.setFastPathScript(UScript.INVALID_CODE);
+        String[] sorted = tests.clone();
+        Arrays.sort(sorted, withScript);
+
+        long compares = 0;
+        long latinHits = 0;
+        long scriptHits = 0;
+        for (int j = 0; j < tests.length; j++) {
+            int hi = sorted.length - 1;
+            int lo = 0;
+            int guess = -1;
+            for (;;) {
+                int newGuess = (hi + lo) / 2;
+                if (newGuess == guess) {
+                    break;
+                }
+                guess = newGuess;
+                ++compares;
+                if (latinOnly.internalCompareFastPath(tests[j], sorted[guess]) != -2) {
+                    ++latinHits;
+                }
+                if (withScript.internalCompareFastPath(tests[j], sorted[guess]) != -2) {
+                    ++scriptHits;
+                }
+                int r = withScript.compare(tests[j], sorted[guess]);
+                if (r == 0) {
+                    break;
+                }
+                if (r < 0) {
+                    hi = guess;
+                } else {
+                    lo = guess;
+                }
+            }
+        }
+
+        double dLoopCount = opt_loopCount * 3000 / (Math.log(tests.length) / Math.log(10)* tests.length);
+        int adj_loopCount = dLoopCount < 1 ? 1 : (int)dLoopCount;
+        double latinTime = binarySearchTime(latinOnly, sorted, adj_loopCount);
+        double scriptTime = binarySearchTime(withScript, sorted, adj_loopCount);
+        String script = withScript.getFastPathScript() == UScript.INVALID_CODE ?
+                "none" : UScript.getShortName(withScript.getFastPathScript());
+        if (!opt_terse) {
+            System.out.println("fastpath:  locale " + opt_locale + ", fast-path script " + script);
+            System.out.println("fastpath:  hit rate with the Latin table only = " +
+                    percent.format((double)latinHits / compares));
+            System.out.println("fastpath:  hit rate with the script table = " +
+                    percent.format((double)scriptHits / compares));
+            System.out.println("fastpath:  ns per compare with the Latin table only = " + nf.format(latinTime));
+            System.out.println("fastpath:  ns per compare with the script table = " + nf.format(scriptTime));
+            System.out.println("fastpath:  speedup = " + nf.format(latinTime / scriptTime));
+        } else {
+            System.out.println(percent.format((double)latinHits / compares) + ", " +
+                    percent.format((double)scriptHits / compares) + ", " +
+                    nf.format(latinTime) + ", " + nf.format(scriptTime));
+        }
+    }
+
+    /**
+     * Runs binary searches for all test strings and returns the nanoseconds per compare.
+     */
+    double binarySearchTime(com.ibm.icu.text.Collator coll, String[] sorted, int loopCount) {
+        callGC();
+        long count = 0;
+        long startTime = System.nanoTime();
+        for (int loops = 0; loops < loopCount; loops++) {
+            for (int j = 0; j < tests.length; j++) {
+                int hi = sorted.length - 1;
+                int lo = 0;
+                int guess = -1;
+                for (;;) {
+                    int newGuess = (hi + lo) / 2;
+                    if (newGuess == guess) {
+                        break;
+                    }
+                    guess = newGuess;
+                    int r = coll.compare(tests[j], sorted[guess]);
+                    count++;
+                    if (r == 0) {
+                        break;
+                    }
+                    if (r < 0) {
+                        hi = guess;
+                    } else {
+                        lo = guess;
+                    }
+                }
+            }
+        }
+        return (System.nanoTime() - startTime) / (count + 0.0);
+    }
+
     void setOptions() {
         
         if (opt_java) {
@@ -1004,6 +1233,14 @@ static boolean processOptions(String[] args) {
         if (temp_opt_itertest.toString().equalsIgnoreCase("true")) {
             opt_itertest = true;
         }
+        if (temp_opt_mt.toString().equalsIgnoreCase("true")) {
+            opt_mt = true;
+        }
+        opt_threads    = Integer.parseInt(temp_opt_threads.toString());
+        if (temp_opt_fastpath.toString().equalsIgnoreCase("true")) {
+            opt_fastpath = true;
+        }
+        opt_fastscript = temp_opt_fastscript.toString();
         if (temp_opt_dump.toString().equalsIgnoreCase("true")) {
             opt_dump = true;
         }
@@ -8,13 +8,29 @@
 */
 package com.ibm.icu.dev.test.perf;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ForkJoinPool;
+
 import com.ibm.icu.text.Normalizer;
+import com.ibm.icu.text.Normalizer2;
+import com.ibm.icu.text.NormalizingReader;
+import com.ibm.icu.text.NormalizingWriter;
+import com.ibm.icu.util.ICUUncheckedIOException;
 
 public class NormalizerPerformanceTest extends PerfTest {
     
     String[] NFDFileLines;
     String[] NFCFileLines;
     String[] fileLines;
+    byte[][] NFDFileUTF8;
+    byte[][] NFCFileUTF8;
+    byte[][] fileUTF8;
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+    ForkJoinPool pool;
     
     
     public static void main(String[] args) throws Exception {
@@ -25,6 +41,10 @@ protected void setup(String[] args) {
         fileLines = readLines(fileName, encoding, bulk_mode);
         NFDFileLines = normalizeInput(fileLines, Normalizer.NFD);
         NFCFileLines = normalizeInput(fileLines, Normalizer.NFC);
+        NFDFileUTF8 = toUTF8(NFDFileLines);
+        NFCFileUTF8 = toUTF8(NFCFileLines);
+        fileUTF8 = toUTF8(fileLines);
+        pool = new ForkJoinPool();
     }
     
     // Test NFC Performance
@@ -614,6 +634,222 @@ public long getOperationsPerIteration() {
             }
         };
     }
+
+    // UTF-8 input: Normalizer2.normalizeUTF8() vs. converting to UTF-16 and back
+    PerfTest.Function TestUTF8_NFC_NFD_Text() {
+        return normalizeUTF8(Normalizer2.getNFCInstance(), NFDFileUTF8, false);
+    }
+
+    PerfTest.Function TestUTF8_NFC_NFC_Text() {
+        return normalizeUTF8(Normalizer2.getNFCInstance(), NFCFileUTF8, false);
+    }
+
+    PerfTest.Function TestUTF8_NFC_Orig_Text() {
+        return normalizeUTF8(Normalizer2.getNFCInstance(), fileUTF8, false);
+    }
+
+    PerfTest.Function TestUTF8_NFD_NFC_Text() {
+        return normalizeUTF8(Normalizer2.getNFDInstance(), NFCFileUTF8, false);
+    }
+
+    PerfTest.Function TestUTF8RoundTrip_NFC_NFD_Text() {
+        return normalizeUTF8(Normalizer2.getNFCInstance(), NFDFileUTF8, true);
+    }
+
+    PerfTest.Function TestUTF8RoundTrip_NFC_NFC_Text() {
+        return normalizeUTF8(Normalizer2.getNFCInstance(), NFCFileUTF8, true);
+    }
+
+    PerfTest.Function TestUTF8RoundTrip_NFC_Orig_Text() {
+        return normalizeUTF8(Normalizer2.getNFCInstance(), fileUTF8, true);
+    }
+
+    PerfTest.Function TestUTF8RoundTrip_NFD_NFC_Text() {
+        return normalizeUTF8(Normalizer2.getNFDInstance(), NFCFileUTF8, true);
+    }
+
+    PerfTest.Function TestIsNormalizedUTF8_NFC_NFC_Text() {
+        return isNormalizedUTF8(Normalizer2.getNFCInstance(), NFCFileUTF8, false);
+    }
+
+    PerfTest.Function TestIsNormalizedUTF8RoundTrip_NFC_NFC_Text() {
+        return isNormalizedUTF8(Normalizer2.getNFCInstance(), NFCFileUTF8, true);
+    }
+
+    private PerfTest.Function normalizeUTF8(final Normalizer2 n2, final byte[][] lines,
+            final boolean roundTrip) {
+        return new PerfTest.Function() {
+            private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            public void call() {
+                for (int i = 0; i < lines.length; i++) {
+                    out.reset();
+                    byte[] line = lines[i];
+                    if (roundTrip) {
+                        byte[] result = n2.normalize(new String(line, UTF_8)).getBytes(UTF_8);
+                        out.write(result, 0, result.length);
+                    } else {
+                        n2.normalizeUTF8(line, 0, line.length, out, null);
+                    }
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalLength(lines);
+            }
+        };
+    }
+
+    private PerfTest.Function isNormalizedUTF8(final Normalizer2 n2, final byte[][] lines,
+            final boolean roundTrip) {
+        return new PerfTest.Function() {
+            public void call() {
+                for (int i = 0; i < lines.length; i++) {
+                    byte[] line = lines[i];
+                    if (roundTrip) {
+                        n2.isNormalized(new String(line, UTF_8));
+                    } else {
+                        n2.isNormalizedUTF8(line, 0, line.length);
+                    }
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return totalLength(lines);
+            }
+        };
+    }
+
+    // Streaming: NormalizingReader/NormalizingWriter vs. normalizing all of the text at once
+    PerfTest.Function TestStreamReader_NFC_NFD_Text() {
+        return normalizeStream(Normalizer2.getNFCInstance(), NFDFileLines, STREAM_READER);
+    }
+
+    PerfTest.Function TestStreamWriter_NFC_NFD_Text() {
+        return normalizeStream(Normalizer2.getNFCInstance(), NFDFileLines, STREAM_WRITER);
+    }
+
+    PerfTest.Function TestStreamBulk_NFC_NFD_Text() {
+        return normalizeStream(Normalizer2.getNFCInstance(), NFDFileLines, STREAM_BULK);
+    }
+
+    PerfTest.Function TestStreamReader_NFD_NFC_Text() {
+        return normalizeStream(Normalizer2.getNFDInstance(), NFCFileLines, STREAM_READER);
+    }
+
+    PerfTest.Function TestStreamBulk_NFD_NFC_Text() {
+        return normalizeStream(Normalizer2.getNFDInstance(), NFCFileLines, STREAM_BULK);
+    }
+
+    private static final int STREAM_READER = 0;
+    private static final int STREAM_WRITER = 1;
+    private static final int STREAM_BULK = 2;
+
+    private PerfTest.Function normalizeStream(final Normalizer2 n2, String[] lines, final int kind) {
+        final String text = joinLines(lines, 0);
+        return new PerfTest.Function() {
+            private final char[] buffer = new char[8192];
+            private final StringBuilder result = new StringBuilder();
+
+            public void call() {
+                try {
+                    switch (kind) {
+                    case STREAM_READER:
+                        NormalizingReader reader = new NormalizingReader(new StringReader(text), n2);
+                        while (reader.read(buffer, 0, buffer.length) >= 0) {}
+                        reader.close();
+                        break;
+                    case STREAM_WRITER:
+                        NormalizingWriter writer = new NormalizingWriter(new NullWriter(), n2);
+                        for (int start = 0; start < text.length(); start += buffer.length) {
+                            writer.write(text, start, Math.min(buffer.length, text.length() - start));
+                        }
+                        writer.close();
+                        break;
+                    default:
+                        n2.normalize(text, result);
+                        break;
+                    }
+                } catch (IOException e) {
+                    throw new ICUUncheckedIOException(e);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    private static final class NullWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {}
+        @Override
+        public void flush() {}
+        @Override
+        public void close() {}
+    }
+
+    // Parallel normalization of a long text vs. sequential normalization of the same text
+    PerfTest.Function TestParallel_NFC_NFD_Text() {
+        return normalizeLongText(Normalizer2.getNFCInstance(), NFDFileLines, pool);
+    }
+
+    PerfTest.Function TestParallel_NFD_NFC_Text() {
+        return normalizeLongText(Normalizer2.getNFDInstance(), NFCFileLines, pool);
+    }
+
+    PerfTest.Function TestSequential_NFC_NFD_Text() {
+        return normalizeLongText(Normalizer2.getNFCInstance(), NFDFileLines, null);
+    }
+
+    PerfTest.Function TestSequential_NFD_NFC_Text() {
+        return normalizeLongText(Normalizer2.getNFDInstance(), NFCFileLines, null);
+    }
+
+    private PerfTest.Function normalizeLongText(final Normalizer2 n2, String[] lines,
+            final ForkJoinPool pool) {
+        // Repeat the input so that it is long enough to be split into many chunks.
+        final String text = joinLines(lines, 1 << 22);
+        return new PerfTest.Function() {
+            private final StringBuilder result = new StringBuilder();
+
+            public void call() {
+                n2.normalize(text, result, pool);
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    /** Joins the lines with newlines, repeated until the result has at least minLength chars. */
+    static String joinLines(String[] lines, int minLength) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            for (int i = 0; i < lines.length; i++) {
+                sb.append(lines[i]).append('\n');
+            }
+        } while (sb.length() < minLength && lines.length > 0);
+        return sb.toString();
+    }
+
+    static long totalLength(byte[][] lines) {
+        long totalBytes = 0;
+        for (int i = 0; i < lines.length; i++) {
+            totalBytes += lines[i].length;
+        }
+        return totalBytes;
+    }
+
+    static byte[][] toUTF8(String[] lines) {
+        byte[][] utf8 = new byte[lines.length][];
+        for (int i = 0; i < lines.length; i++) {
+            utf8[i] = lines[i].getBytes(UTF_8);
+        }
+        return utf8;
+    }
       
     /*
       private void printUsage() {
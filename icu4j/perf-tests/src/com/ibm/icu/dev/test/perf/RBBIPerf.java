@@ -11,7 +11,9 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.text.BreakIterator;
+import java.text.StringCharacterIterator;
 
 import com.ibm.icu.text.RuleBasedBreakIterator;
 import com.ibm.icu.text.UTF16;
@@ -115,6 +117,79 @@ public long getOperationsPerIteration() {
     }
     
     
+    /**
+     * Same as testRBBINext, but with the text supplied through a CharacterIterator,
+     * which does not get the direct char array access that a String gets.
+     */
+    PerfTest.Function testRBBINextCharacterIterator() {
+        final RuleBasedBreakIterator ciBI = (RuleBasedBreakIterator)bi.clone();
+        ciBI.setText(new StringCharacterIterator(testString));
+        return new PerfTest.Function() {
+
+            public void call() {
+                for (int n = ciBI.first(); n != BreakIterator.DONE; n = ciBI.next()) {
+                }
+            }
+
+
+            public long getOperationsPerIteration() {
+                int count = 0;
+                for (int n = ciBI.first(); n != BreakIterator.DONE; n = ciBI.next()) {
+                    count++;
+                }
+                return count;
+            }
+        };
+    }
+
+
+    /**
+     * Same as testRBBINext, but with the text supplied as UTF-8 bytes.
+     */
+    PerfTest.Function testRBBINextUTF8() {
+        final RuleBasedBreakIterator utf8BI = (RuleBasedBreakIterator)bi.clone();
+        byte[] utf8 = testString.getBytes(StandardCharsets.UTF_8);
+        utf8BI.setText(utf8, 0, utf8.length);
+        return new PerfTest.Function() {
+
+            public void call() {
+                for (int n = utf8BI.first(); n != BreakIterator.DONE; n = utf8BI.next()) {
+                }
+            }
+
+
+            public long getOperationsPerIteration() {
+                int count = 0;
+                for (int n = utf8BI.first(); n != BreakIterator.DONE; n = utf8BI.next()) {
+                    count++;
+                }
+                return count;
+            }
+        };
+    }
+
+
+    /**
+     * Finds the same boundaries and rule status values as testRBBINext with getRuleStatus(),
+     * with a single call to getBoundaries().
+     */
+    PerfTest.Function testRBBIGetBoundaries() {
+        final int[] boundaries = new int[testString.length() + 1];
+        final int[] statuses = new int[testString.length() + 1];
+        return new PerfTest.Function() {
+
+            public void call() {
+                bi.getBoundaries(testString, boundaries, statuses);
+            }
+
+
+            public long getOperationsPerIteration() {
+                return bi.getBoundaries(testString, boundaries, statuses);
+            }
+        };
+    }
+
+
     PerfTest.Function testRBBIPrevious() {
         return new PerfTest.Function() {
             
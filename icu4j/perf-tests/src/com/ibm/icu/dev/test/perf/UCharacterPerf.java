@@ -9,7 +9,11 @@
 
 package com.ibm.icu.dev.test.perf;
 
+import com.ibm.icu.impl.Trie2_16;
+import com.ibm.icu.impl.UCharacterProperty;
+import com.ibm.icu.lang.CharacterProperties;
 import com.ibm.icu.lang.UCharacter;
+import com.ibm.icu.lang.UProperty;
 
 /**
  * Base performance test that takes in a method name for testing with JDK.
@@ -40,6 +44,20 @@ protected void setup(String[] args) {
         if (args.length >= 2) {
             MAX_ = Integer.parseInt(args[1], 16);
         }
+        // The *Text tests use the code points of the input file, if there is one.
+        if (fileName != null) {
+            StringBuilder sb = new StringBuilder();
+            for (String line : readLines(fileName, encoding, bulk_mode)) {
+                sb.append(line).append('\n');
+            }
+            text_ = sb.toString();
+            textCodePoints_ = new int[sb.codePointCount(0, sb.length())];
+            for (int i = 0, j = 0; i < sb.length(); ++j) {
+                int c = sb.codePointAt(i);
+                textCodePoints_[j] = c;
+                i += Character.charCount(c);
+            }
+        }
     }
     
     PerfTest.Function testDigit() 
@@ -522,6 +540,185 @@ public long getOperationsPerIteration() {
         };
     }
     
+    PerfTest.Function testToLowerCase()
+    {
+        return new PerfTest.Function() {
+            public void call() {
+                for (int ch = MIN_; ch < MAX_; ch ++) {
+                    UCharacter.toLowerCase(ch);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return MAX_ - MIN_ + 1;
+            }
+        };
+    }
+
+    PerfTest.Function testJDKToLowerCase()
+    {
+        return new PerfTest.Function() {
+            public void call() {
+                for (int ch = MIN_; ch < MAX_; ch ++) {
+                    Character.toLowerCase(ch);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return MAX_ - MIN_ + 1;
+            }
+        };
+    }
+
+    /**
+     * Main properties trie lookups with get().
+     */
+    PerfTest.Function testPropsTrieGet()
+    {
+        final Trie2_16 trie = UCharacterProperty.INSTANCE.m_trie_;
+        return new PerfTest.Function() {
+            public void call() {
+                int sum = 0;
+                for (int ch = MIN_; ch < MAX_; ch ++) {
+                    sum += trie.get(ch);
+                }
+                sink_ = sum;
+            }
+
+            public long getOperationsPerIteration() {
+                return MAX_ - MIN_ + 1;
+            }
+        };
+    }
+
+    // Tests over the code points of real text, see setup().
+
+    PerfTest.Function testGetTypeText()
+    {
+        return new TextFunction() {
+            public void call() {
+                int sum = 0;
+                for (int ch : textCodePoints_) {
+                    sum += UCharacter.getType(ch);
+                }
+                sink_ = sum;
+            }
+        };
+    }
+
+    PerfTest.Function testJDKGetTypeText()
+    {
+        return new TextFunction() {
+            public void call() {
+                int sum = 0;
+                for (int ch : textCodePoints_) {
+                    sum += Character.getType(ch);
+                }
+                sink_ = sum;
+            }
+        };
+    }
+
+    PerfTest.Function testIsLetterText()
+    {
+        return new TextFunction() {
+            public void call() {
+                int count = 0;
+                for (int ch : textCodePoints_) {
+                    if (UCharacter.isLetter(ch)) {
+                        ++count;
+                    }
+                }
+                sink_ = count;
+            }
+        };
+    }
+
+    PerfTest.Function testJDKIsLetterText()
+    {
+        return new TextFunction() {
+            public void call() {
+                int count = 0;
+                for (int ch : textCodePoints_) {
+                    if (Character.isLetter(ch)) {
+                        ++count;
+                    }
+                }
+                sink_ = count;
+            }
+        };
+    }
+
+    PerfTest.Function testToLowerCaseText()
+    {
+        return new TextFunction() {
+            public void call() {
+                int sum = 0;
+                for (int ch : textCodePoints_) {
+                    sum += UCharacter.toLowerCase(ch);
+                }
+                sink_ = sum;
+            }
+        };
+    }
+
+    PerfTest.Function testJDKToLowerCaseText()
+    {
+        return new TextFunction() {
+            public void call() {
+                int sum = 0;
+                for (int ch : textCodePoints_) {
+                    sum += Character.toLowerCase(ch);
+                }
+                sink_ = sum;
+            }
+        };
+    }
+
+    PerfTest.Function testGetScriptText()
+    {
+        return new TextFunction() {
+            public void call() {
+                int sum = 0;
+                for (int ch : textCodePoints_) {
+                    sum += UCharacter.getIntPropertyValue(ch, UProperty.SCRIPT);
+                }
+                sink_ = sum;
+            }
+        };
+    }
+
+    /**
+     * Same as testGetScriptText() but with the bulk API.
+     */
+    PerfTest.Function testGetScriptValuesText()
+    {
+        final int[] values = new int[text_.length()];
+        return new TextFunction() {
+            public void call() {
+                CharacterProperties.getIntPropertyValues(UProperty.SCRIPT, text_, values);
+                sink_ = values.length > 0 ? values[values.length - 1] : 0;
+            }
+        };
+    }
+
+    PerfTest.Function testGetScriptRunsText()
+    {
+        final int[] limits = new int[text_.length()];
+        final int[] values = new int[text_.length()];
+        return new TextFunction() {
+            public void call() {
+                sink_ = CharacterProperties.getIntPropertyRuns(UProperty.SCRIPT, text_, limits, values);
+            }
+        };
+    }
+
+    private abstract static class TextFunction extends PerfTest.Function {
+        public long getOperationsPerIteration() {
+            return textCodePoints_.length;
+        }
+    }
+
     // private data member --------------------------------------------------
     
     /**
@@ -532,4 +729,13 @@ public long getOperationsPerIteration() {
      * Minimum codepoint to do test. Test is ran from MIN_ to MAX_
      */
     private static int MAX_;
+    /**
+     * Code points of the input file, for the *Text tests.
+     */
+    private static int[] textCodePoints_ = new int[0];
+    private static String text_ = "";
+    /**
+     * Receives computed values so that the lookups are not optimized away.
+     */
+    static volatile int sink_;
 }
@@ -7,10 +7,12 @@
 **********************************************************************
 */
 package com.ibm.icu.dev.test.perf;
+import java.io.UnsupportedEncodingException;
 import java.util.HashSet;
 import java.util.Iterator;
 
 import com.ibm.icu.text.UnicodeSet;
+import com.ibm.icu.text.UnicodeSet.SpanCondition;
 import com.ibm.icu.text.UnicodeSetIterator;
 
 /**
@@ -26,6 +28,11 @@ public class UnicodeSetPerf extends PerfTest {
     UnicodeSetIterator it;
     UnicodeSet us;
     HashSet hs;
+    /** Frozen copy of testChars, for the span tests. */
+    UnicodeSet frozen;
+    /** Text from the -f file, repeated to make it long enough for timing. */
+    String text;
+    byte[] utf8;
 
     public static void main(String[] args) throws Exception {
         new UnicodeSetPerf().run(args);
@@ -42,6 +49,22 @@ protected void setup(String[] args) {
         it = new UnicodeSetIterator(testChars);
         us = new UnicodeSet();
         hs = new HashSet();
+        frozen = testChars.cloneAsThawed().freeze();
+        if (fileName != null) {
+            StringBuilder sb = new StringBuilder();
+            String[] lines = readLines(fileName, encoding, bulk_mode);
+            do {
+                for (String line : lines) {
+                    sb.append(line).append('\n');
+                }
+            } while (sb.length() < 100000);
+            text = sb.toString();
+            try {
+                utf8 = text.getBytes("UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 
     PerfTest.Function testUnicodeSetAdd() {
@@ -162,4 +185,102 @@ public long getOperationsPerIteration() {
             }
         };
     }
+
+    // The text tests need a -f input file.
+    // They alternate between spans of CONTAINED and NOT_CONTAINED code points
+    // over the whole text, as when splitting text into tokens.
+
+    PerfTest.Function testUnicodeSetSpanText() {
+        return new PerfTest.Function() {
+            public void call() {
+                int length = text.length();
+                SpanCondition condition = SpanCondition.SIMPLE;
+                for (int i = 0; i < length;) {
+                    i = frozen.span(text, i, condition);
+                    condition = condition == SpanCondition.SIMPLE ?
+                            SpanCondition.NOT_CONTAINED : SpanCondition.SIMPLE;
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    PerfTest.Function testUnicodeSetSpanBackText() {
+        return new PerfTest.Function() {
+            public void call() {
+                SpanCondition condition = SpanCondition.SIMPLE;
+                for (int i = text.length(); i > 0;) {
+                    i = frozen.spanBack(text, i, condition);
+                    condition = condition == SpanCondition.SIMPLE ?
+                            SpanCondition.NOT_CONTAINED : SpanCondition.SIMPLE;
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    PerfTest.Function testUnicodeSetSpanUTF8Text() {
+        return new PerfTest.Function() {
+            public void call() {
+                int length = utf8.length;
+                SpanCondition condition = SpanCondition.SIMPLE;
+                for (int i = 0; i < length;) {
+                    i = frozen.spanUTF8(utf8, i, length - i, condition);
+                    condition = condition == SpanCondition.SIMPLE ?
+                            SpanCondition.NOT_CONTAINED : SpanCondition.SIMPLE;
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return utf8.length;
+            }
+        };
+    }
+
+    PerfTest.Function testUnicodeSetSpanBackUTF8Text() {
+        return new PerfTest.Function() {
+            public void call() {
+                SpanCondition condition = SpanCondition.SIMPLE;
+                for (int i = utf8.length; i > 0;) {
+                    i = frozen.spanBackUTF8(utf8, 0, i, condition);
+                    condition = condition == SpanCondition.SIMPLE ?
+                            SpanCondition.NOT_CONTAINED : SpanCondition.SIMPLE;
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return utf8.length;
+            }
+        };
+    }
+
+    PerfTest.Function testUnicodeSetContainsText() {
+        return new PerfTest.Function() {
+            public void call() {
+                int length = text.length();
+                int count = 0;
+                for (int i = 0; i < length;) {
+                    int c = text.codePointAt(i);
+                    if (frozen.contains(c)) {
+                        ++count;
+                    }
+                    i += Character.charCount(c);
+                }
+                containsCount = count;
+            }
+
+            public long getOperationsPerIteration() {
+                return text.length();
+            }
+        };
+    }
+
+    /** Receives the result of testUnicodeSetContainsText() so that the loop is not optimized away. */
+    static volatile int containsCount;
 }